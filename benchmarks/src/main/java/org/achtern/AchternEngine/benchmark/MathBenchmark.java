@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.benchmark;
+
+import org.achtern.AchternEngine.core.Transform;
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.math.Quaternion;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matrix multiplication and the (cached) world transformation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MathBenchmark {
+
+    private Matrix4f a;
+    private Matrix4f b;
+    private Matrix4f dest;
+
+    private Transform transform;
+
+    private float step;
+
+    @Setup
+    public void setUp() {
+        a = new Matrix4f().initRotation(new Quaternion(new Vector3f(0, 1, 0), 0.5f));
+        b = new Matrix4f().initTranslation(1, 2, 3);
+        dest = new Matrix4f();
+
+        Transform parent = new Transform();
+        parent.setPosition(new Vector3f(0, 0, 5));
+
+        transform = new Transform();
+        transform.setPosition(new Vector3f(1, 2, 3));
+        transform.setRotation(new Quaternion(new Vector3f(0, 1, 0), 0.3f));
+        transform.setScale(new Vector3f(2, 2, 2));
+        transform.setParent(parent);
+        // fill the cache
+        transform.getTransformation();
+    }
+
+    @Benchmark
+    public Matrix4f mul() {
+        return a.mul(b);
+    }
+
+    @Benchmark
+    public Matrix4f mulLocal() {
+        return Matrix4f.mulLocal(a, b, dest);
+    }
+
+    /**
+     * Nothing changed since the last call, should be served from the cache.
+     */
+    @Benchmark
+    public Matrix4f transformationCached() {
+        return transform.getTransformation();
+    }
+
+    /**
+     * The position changes before every call, forcing a rebuild of the matrix.
+     */
+    @Benchmark
+    public Matrix4f transformationChanged() {
+        step += 0.001f;
+        transform.getPosition().setX(step);
+        return transform.getTransformation();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.benchmark;
+
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.resource.ResourceLoader;
+import org.achtern.AchternEngine.core.resource.fileparser.GLSLParser;
+import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.GLSLScript;
+import org.achtern.AchternEngine.core.resource.fileparser.mesh.IndexedModel;
+import org.achtern.AchternEngine.core.resource.fileparser.mesh.OBJParser;
+import org.achtern.AchternEngine.core.resource.fileparser.mesh.OBJReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asset parsing: OBJ models (streaming reader and the line based parser) and GLSL sources.
+ * The files are read into memory once, so only the parsing gets measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+
+    public static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @State(Scope.Thread)
+    public static class Model {
+
+        /**
+         * Either a model shipped with the engine, or grid-N for a generated N*N quad grid.
+         * grid-1000 has 2 million triangles, like large scanned or CAD models.
+         */
+        @Param({"cube", "monkey", "grid-64", "grid-256", "grid-1000"})
+        public String model;
+
+        private byte[] obj;
+
+        private String[] lines;
+
+        @Setup
+        public void setUp() throws IOException {
+            if (model.startsWith("grid-")) {
+                obj = grid(Integer.parseInt(model.substring("grid-".length()))).getBytes(UTF8);
+            } else {
+                InputStream in = ParsingBenchmark.class.getClassLoader().getResourceAsStream("models/" + model + ".obj");
+                if (in == null) {
+                    throw new IllegalArgumentException("Model not found: " + model);
+                }
+                try {
+                    obj = readFully(in);
+                } finally {
+                    in.close();
+                }
+            }
+
+            lines = new String(obj, UTF8).split("\n");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Source {
+
+        @Param({"shaders/forward/phong/vertex.gvs", "shaders/forward/phong/directional.gfs"})
+        public String shader;
+
+        private String glsl;
+
+        private GLSLScript.Type type;
+
+        private final GLSLParser parser = new GLSLParser();
+
+        @Setup
+        public void setUp() throws Exception {
+            glsl = ResourceLoader.getShader(shader);
+            type = shader.endsWith(".gvs") ? GLSLScript.Type.VERTEX_SHADER : GLSLScript.Type.FRAGMENT_SHADER;
+        }
+    }
+
+    @Benchmark
+    public Mesh objReader(Model m) throws IOException {
+        return new OBJReader().read(new ByteArrayInputStream(m.obj)).toMesh();
+    }
+
+    @Benchmark
+    public IndexedModel objParser(Model m) throws Exception {
+        OBJParser parser = new OBJParser();
+        for (String line : m.lines) {
+            parser.parse(line);
+        }
+        return parser.toIndexedModel();
+    }
+
+    @Benchmark
+    public GLSLScript glslParser(Source s) {
+        GLSLScript script = new GLSLScript("benchmark", s.type);
+        script.setSource(s.glsl);
+        return s.parser.process(script);
+    }
+
+    /**
+     * Generates a flat grid of n*n quads with positions, texture coordinates and normals
+     * @param n quads per side
+     * @return OBJ source
+     */
+    protected static String grid(int n) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# generated ").append(n).append('x').append(n).append(" grid\n");
+
+        for (int y = 0; y <= n; y++) {
+            for (int x = 0; x <= n; x++) {
+                sb.append("v ").append(x).append(' ').append(0).append(' ').append(y).append('\n');
+                sb.append("vt ").append((float) x / n).append(' ').append((float) y / n).append('\n');
+            }
+        }
+        sb.append("vn 0 1 0\n");
+
+        int row = n + 1;
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                int i = y * row + x + 1; // OBJ indices start at 1
+                face(sb, i, i + row, i + 1);
+                face(sb, i + 1, i + row, i + row + 1);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static void face(StringBuilder sb, int a, int b, int c) {
+        sb.append("f ")
+                .append(a).append('/').append(a).append("/1 ")
+                .append(b).append('/').append(b).append("/1 ")
+                .append(c).append('/').append(c).append("/1\n");
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
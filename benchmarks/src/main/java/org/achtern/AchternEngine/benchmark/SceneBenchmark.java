@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.benchmark;
+
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.Material;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates a scene tree with breadth^depth leaves, each carrying a figure.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SceneBenchmark {
+
+    @Param({"2", "4", "6"})
+    public int depth;
+
+    @Param({"2", "4"})
+    public int breadth;
+
+    private Node root;
+
+    private float step;
+
+    @Setup
+    public void setUp() {
+        Mesh mesh = new Mesh(new Vertex[] {
+                new Vertex(new Vector3f(0, 0, 0)),
+                new Vertex(new Vector3f(1, 0, 0)),
+                new Vertex(new Vector3f(0, 1, 0))
+        }, new int[] {0, 1, 2});
+
+        root = new Node("root");
+        populate(root, depth, mesh, new Material());
+    }
+
+    private void populate(Node parent, int level, Mesh mesh, Material material) {
+        if (level == 0) {
+            parent.add(new Figure(parent.getName() + "-figure", mesh, material));
+            return;
+        }
+
+        for (int i = 0; i < breadth; i++) {
+            Node child = new Node(parent.getName() + "-" + i);
+            child.getTransform().setPosition(new Vector3f(i, level, 0));
+            parent.add(child);
+            populate(child, level - 1, mesh, material);
+        }
+    }
+
+    private static void transformations(Node node, Blackhole bh) {
+        bh.consume(node.getTransform().getTransformation());
+        for (Node child : node.getChildren().values()) {
+            transformations(child, bh);
+        }
+    }
+
+    @Benchmark
+    public void update() {
+        root.update(0.016f);
+    }
+
+    /**
+     * Nothing moved, all world matrices should come from the cache.
+     */
+    @Benchmark
+    public void transformationsCached(Blackhole bh) {
+        transformations(root, bh);
+    }
+
+    /**
+     * The root moves every frame, so every world matrix in the tree has to be rebuild.
+     */
+    @Benchmark
+    public void transformationsRootMoved(Blackhole bh) {
+        step += 0.001f;
+        root.getTransform().getPosition().setX(step);
+        transformations(root, bh);
+    }
+}
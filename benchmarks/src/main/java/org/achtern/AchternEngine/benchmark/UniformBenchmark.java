@@ -0,0 +1,132 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.benchmark;
+
+import org.achtern.AchternEngine.core.bootstrap.CommonDrawStrategyFactoryPopulator;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.BasicRenderEngine;
+import org.achtern.AchternEngine.core.rendering.Color;
+import org.achtern.AchternEngine.core.rendering.Dimension;
+import org.achtern.AchternEngine.core.rendering.Material;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.shader.Shader;
+import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.entity.Camera;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.achtern.AchternEngine.core.scenegraph.entity.renderpasses.light.AmbientLight;
+import org.achtern.AchternEngine.core.scenegraph.entity.renderpasses.light.DirectionalLight;
+import org.achtern.AchternEngine.headless.bootstrap.HeadlessGraphicsBindingProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uniform setup and full frames, rendered with the headless graphics binding.
+ * No OpenGL context is needed, so the numbers only contain the engine side of a frame.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UniformBenchmark {
+
+    @Param({"16", "256"})
+    public int figures;
+
+    private BasicRenderEngine engine;
+
+    private Node scene;
+
+    private Figure figure;
+
+    private Shader shader;
+
+    @Setup
+    public void setUp() {
+        HeadlessGraphicsBindingProvider provider = new HeadlessGraphicsBindingProvider();
+        provider.getWindow(new Dimension(800, 600));
+        // Keep the counters, but do not grow the command log over millions of frames
+        provider.getLog().setRecording(false);
+
+        CommonDrawStrategyFactoryPopulator.populate();
+        engine = new BasicRenderEngine(provider);
+
+        Camera camera = new Camera();
+        new Node("camera").add(camera);
+        engine.setCamera(camera);
+
+        DirectionalLight light = new DirectionalLight(Color.WHITE, 0.8f);
+        new Node("sun").add(light);
+        engine.addRenderPass(new AmbientLight(new Color(0.2f, 0.2f, 0.2f)));
+        engine.addRenderPass(light);
+
+        Mesh mesh = new Mesh(new Vertex[] {
+                new Vertex(new Vector3f(0, 0, 0)),
+                new Vertex(new Vector3f(1, 0, 0)),
+                new Vertex(new Vector3f(0, 1, 0))
+        }, new int[] {0, 1, 2});
+
+        Material material = new Material();
+        material.setColor(Color.RED);
+
+        scene = new Node("scene");
+        for (int i = 0; i < figures; i++) {
+            Figure f = new Figure("figure" + i, mesh, material);
+            Node node = new Node("figure" + i).add(f);
+            node.getTransform().setPosition(new Vector3f(i % 16 - 8, i / 16 - 8, 20));
+            scene.add(node);
+
+            if (figure == null) {
+                figure = f;
+            }
+        }
+
+        // the first frame uploads all meshes, textures and shaders
+        engine.render(scene);
+
+        engine.setActiveRenderPass(light);
+        shader = light.getShader();
+        engine.getDataBinder().bind(shader);
+    }
+
+    /**
+     * Uniform setup of a single figure for the phong directional light shader.
+     */
+    @Benchmark
+    public void updateUniforms() {
+        shader.updateUniforms(engine, figure);
+    }
+
+    /**
+     * A whole frame: ambient pass, shadow map and directional light pass.
+     */
+    @Benchmark
+    public void render() {
+        engine.render(scene);
+    }
+}
@@ -29,11 +29,21 @@ import lombok.Setter;
 import org.achtern.AchternEngine.core.bootstrap.BindingProvider;
 import org.achtern.AchternEngine.core.bootstrap.BuildInfo;
 import org.achtern.AchternEngine.core.bootstrap.CommonDrawStrategyFactoryPopulator;
+import org.achtern.AchternEngine.core.metrics.Counter;
+import org.achtern.AchternEngine.core.metrics.Gauge;
+import org.achtern.AchternEngine.core.metrics.Histogram;
+import org.achtern.AchternEngine.core.metrics.JmxPublisher;
+import org.achtern.AchternEngine.core.metrics.MetricRegistry;
+import org.achtern.AchternEngine.core.pacing.FramePacer;
+import org.achtern.AchternEngine.core.pacing.HybridPacer;
+import org.achtern.AchternEngine.core.profiling.FrameProfiler;
 import org.achtern.AchternEngine.core.rendering.BasicRenderEngine;
 import org.achtern.AchternEngine.core.rendering.Dimension;
 import org.achtern.AchternEngine.core.rendering.RenderEngine;
 import org.achtern.AchternEngine.core.rendering.texture.Texture;
+import org.achtern.AchternEngine.core.resource.ResourceLoader;
 import org.achtern.AchternEngine.core.util.FPS;
+import org.achtern.AchternEngine.core.util.UBuffer;
 import org.achtern.AchternEngine.core.util.WindowChangeListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,8 +86,41 @@ public class CoreEngine implements Runnable, EngineHolder<RenderEngine> {
 
     private double frameTime;
 
+    /**
+     * Waits between the frames, selected in {@link #start(double, org.achtern.AchternEngine.core.pacing.FramePacer)}
+     *
+     * @return the active frame pacer
+     */
+    @Getter private FramePacer pacer;
+
     private FPS fps;
 
+    /**
+     * Time in seconds spent each frame on uploading asynchronously loaded resources
+     *
+     * @param uploadBudget the new budget in seconds
+     * @return current budget in seconds
+     */
+    @Getter @Setter protected double uploadBudget = 0.002;
+
+    /**
+     * Whether the metrics of the {@link org.achtern.AchternEngine.core.metrics.MetricRegistry}
+     *  should be published as MBeans while the engine is running
+     *
+     * @param publishMetrics publish via JMX
+     * @return publish via JMX
+     */
+    @Getter @Setter protected boolean publishMetrics = true;
+
+    private JmxPublisher jmxPublisher;
+
+    /**
+     * Duration of the update, render and swap of a frame in nanoseconds
+     */
+    private final Histogram frameTimes;
+
+    private final Counter frames;
+
     /**
      * Request a force stop of the engine
      */
@@ -106,6 +149,22 @@ public class CoreEngine implements Runnable, EngineHolder<RenderEngine> {
         this.bindingProvider = binding;
         this.windowChangeListenerList = new ArrayList<WindowChangeListener>();
 
+        MetricRegistry metrics = MetricRegistry.get();
+        this.frameTimes = metrics.histogram("engine.frameTime");
+        this.frames = metrics.counter("engine.frames");
+        metrics.register("engine.fps", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return fps.get();
+            }
+        });
+        metrics.register("engine.fpsAverage", new Gauge<Float>() {
+            @Override
+            public Float getValue() {
+                return fps.getAverage();
+            }
+        });
+
         this.bindingProvider.getGraphicsBindingProvider().populateDrawStrategyFactory();
         CommonDrawStrategyFactoryPopulator.populate();
     }
@@ -123,15 +182,26 @@ public class CoreEngine implements Runnable, EngineHolder<RenderEngine> {
     }
 
     /**
-     * Starts the game, limiting it to a given framerate (fps)
+     * Starts the game, limiting it to a given framerate (fps).
+     * Waits for the next frame with a {@link org.achtern.AchternEngine.core.pacing.HybridPacer}.
      * @param framerate The max. framerate (fps)
      */
     public void start(double framerate) {
+        start(framerate, new HybridPacer());
+    }
+
+    /**
+     * Starts the game, limiting it to a given framerate (fps)
+     * @param framerate The max. framerate (fps)
+     * @param pacer Waits for the next frame
+     */
+    public void start(double framerate, FramePacer pacer) {
         this.frameTime = 1 / framerate;
         if (running) {
             return;
         }
 
+        this.pacer = pacer;
         run();
     }
 
@@ -159,6 +229,11 @@ public class CoreEngine implements Runnable, EngineHolder<RenderEngine> {
 
         createWindow(game.getWindowTitle(), game.getWindowDimensions());
 
+        if (pacer == null) {
+            pacer = new HybridPacer();
+        }
+        pacer.start(window);
+
         try {
             Texture loadingScreen = game.getSplashScreen();
             if (loadingScreen != null) {
@@ -177,14 +252,19 @@ public class CoreEngine implements Runnable, EngineHolder<RenderEngine> {
         double lastTime = Time.getTime();
         double unprocessedTime = 0;
 
+        FrameProfiler profiler = FrameProfiler.get();
 
-
+        if (publishMetrics) {
+            jmxPublisher = new JmxPublisher(MetricRegistry.get());
+            jmxPublisher.start();
+        }
 
         while (running) {
 
             boolean render = false;
 
-            double startTime = Time.getTime();
+            long startNanos = Time.getNanoTime();
+            double startTime = (double) startNanos / (double) Time.SECOND;
             double passedTime = startTime - lastTime;
             lastTime = startTime;
 
@@ -192,6 +272,10 @@ public class CoreEngine implements Runnable, EngineHolder<RenderEngine> {
             unprocessedTime += passedTime;
             fps.passed(passedTime);
 
+            if (unprocessedTime > frameTime) {
+                profiler.beginFrame();
+            }
+
             while (unprocessedTime > frameTime) {
 
                 render = true;
@@ -203,18 +287,37 @@ public class CoreEngine implements Runnable, EngineHolder<RenderEngine> {
                 }
 
 
+                profiler.begin("update");
                 game.updateSceneGraph((float) frameTime);
+                profiler.end();
 
+                profiler.begin("input");
                 game.getInputManager().trigger((float) frameTime);
+                profiler.end();
 
                 fps.display();
 
             }
 
             if (render) {
+                profiler.begin("upload");
+                ResourceLoader.getUploadQueue().process(renderEngine.getDataBinder(), uploadBudget);
+                profiler.end();
+
+                profiler.begin("render");
                 game.renderSceneGraph(renderEngine);
+                profiler.end();
+
+                profiler.begin("swap");
                 window.render();
+                profiler.end();
+
                 fps.rendered();
+                UBuffer.endFrame();
+                profiler.endFrame();
+
+                frameTimes.update(Time.getNanoTime() - startNanos);
+                frames.inc();
             }
 
             if (window.resized()) {
@@ -223,6 +326,10 @@ public class CoreEngine implements Runnable, EngineHolder<RenderEngine> {
                 }
             }
 
+            if (running) {
+                // wait until the next update is due, instead of polling the time
+                pacer.waitUntil(startNanos + (long) ((frameTime - unprocessedTime) * Time.SECOND));
+            }
 
         }
 
@@ -236,6 +343,10 @@ public class CoreEngine implements Runnable, EngineHolder<RenderEngine> {
      * Destroying Mouse and Keyboard.
      */
     public void cleanUp() {
+        if (jmxPublisher != null) {
+            jmxPublisher.stop();
+            jmxPublisher = null;
+        }
         window.dispose();
         LOGGER.info("Shutdown.");
     }
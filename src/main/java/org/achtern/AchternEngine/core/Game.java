@@ -32,6 +32,7 @@ import org.achtern.AchternEngine.core.rendering.Dimension;
 import org.achtern.AchternEngine.core.rendering.RenderEngine;
 import org.achtern.AchternEngine.core.rendering.texture.Texture;
 import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.spatial.SceneIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,6 +51,10 @@ public abstract class Game implements Updatable, Renderable, EngineHolder<CoreEn
      * The user may not modify this! (only add child nodes)
      */
     private Node mainNode;
+    /**
+     * Spatial index of the scenegraph, created on first use.
+     */
+    private SceneIndex sceneIndex;
     /**
      * The CoreEngine instance.
      */
@@ -91,6 +96,7 @@ public abstract class Game implements Updatable, Renderable, EngineHolder<CoreEn
     public void updateSceneGraph(float delta) {
         if (isDebug()) debugger.update(delta);
         getSceneGraph().update(delta);
+        if (sceneIndex != null) sceneIndex.update();
         update(delta);
     }
 
@@ -241,6 +247,20 @@ public abstract class Game implements Updatable, Renderable, EngineHolder<CoreEn
         return getSceneGraph().numberOfEntities();
     }
 
+    /**
+     * Returns the spatial index of the scenegraph.
+     * The index gets created on the first call and is kept up to date after every scenegraph update.
+     * @return The SceneIndex
+     */
+    public SceneIndex getSceneIndex() {
+        if (sceneIndex == null) {
+            sceneIndex = new SceneIndex(getSceneGraph());
+            sceneIndex.update();
+        }
+
+        return sceneIndex;
+    }
+
     /**
      * Creates a new root Node, if it was null before.
      * @return The scenegraph
@@ -29,6 +29,7 @@ import org.achtern.AchternEngine.core.math.Matrix4f;
 import org.achtern.AchternEngine.core.math.Vector3f;
 import org.achtern.AchternEngine.core.rendering.Color;
 import org.achtern.AchternEngine.core.rendering.Material;
+import org.achtern.AchternEngine.core.rendering.binding.UploadQueue;
 import org.achtern.AchternEngine.core.rendering.mesh.Quad;
 import org.achtern.AchternEngine.core.rendering.shader.BasicShader;
 import org.achtern.AchternEngine.core.rendering.shader.Shader;
@@ -40,6 +41,9 @@ import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.concurrent.Future;
+
 public class LoadingScreen implements RenderPass {
 
     public static final String DEFAULT_TEXTURE_NAME = "loading.v0.0.1.png";
@@ -73,6 +77,40 @@ public class LoadingScreen implements RenderPass {
     }
 
     public void show(CoreEngine engine, Texture loadingImage) {
+        render(engine, createScene(engine, loadingImage));
+    }
+
+    /**
+     * Keeps showing the loading screen until all pending resources have been loaded.
+     * Meanwhile the {@link org.achtern.AchternEngine.core.rendering.binding.UploadQueue} is processed
+     * with the upload budget of the engine, so the window stays responsive.
+     * @param engine The engine
+     * @param loadingImage The image to show
+     * @param pending Futures of asynchronously loaded resources
+     */
+    public void waitFor(CoreEngine engine, Texture loadingImage, Collection<? extends Future<?>> pending) {
+        Node holder = createScene(engine, loadingImage);
+        UploadQueue uploads = ResourceLoader.getUploadQueue();
+
+        while (!isDone(pending) && !engine.getWindow().isCloseRequested()) {
+            uploads.process(engine.getRenderEngine().getDataBinder(), engine.getUploadBudget());
+            render(engine, holder);
+        }
+
+        // upload what is left, the game is about to start anyway
+        uploads.process(engine.getRenderEngine().getDataBinder(), Double.MAX_VALUE);
+    }
+
+    protected boolean isDone(Collection<? extends Future<?>> pending) {
+        for (Future<?> future : pending) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected Node createScene(CoreEngine engine, Texture loadingImage) {
 
         // Create the Material
         Material material = new Material(null);
@@ -104,6 +142,10 @@ public class LoadingScreen implements RenderPass {
         // Sync the transforms
         holder.update(0);
 
+        return holder;
+    }
+
+    protected void render(CoreEngine engine, Node holder) {
         engine.getRenderEngine().addRenderPass(this);
 
         // Render the "scene"
@@ -41,20 +41,143 @@ public class Transform {
     private Quaternion rotation;
     private Vector3f scale;
 
+    /**
+     * Cached local matrix (translation * rotation * scale)
+     */
+    private Matrix4f localMat;
+    /**
+     * Cached world matrix (parent * local)
+     */
+    private Matrix4f worldMat;
+    /**
+     * Whether {@link #worldMat} holds a valid value
+     */
+    private boolean worldValid;
+
+    /**
+     * Scratch matrices, reused to build the local matrix
+     */
+    private Matrix4f rotationMat;
+    private Matrix4f scratchMat;
+
+    /**
+     * Set by the setters, forces a rebuild of the local matrix
+     */
+    private boolean dirty;
+
+    /**
+     * Incremented every time the world matrix gets rebuild.
+     * Children compare this against {@link #parentRevision} to
+     * find out, whether their parent has moved.
+     */
+    private int revision;
+    /**
+     * Revision of the parent, the world matrix has been build with
+     */
+    private int parentRevision;
+
+    /**
+     * Snapshot of the local components, used to detect
+     * in-place modifications (e.g. <code>getPosition().addLocal(...)</code>)
+     */
+    private final float[] snapshot;
+
 
     public Transform() {
         position = new Vector3f(0, 0, 0);
         rotation = new Quaternion(0, 0, 0, 1);
         scale = new Vector3f(1, 1, 1);
         parentMat = new Matrix4f().initIdentiy();
+        snapshot = new float[10];
+        dirty = true;
     }
 
+    /**
+     * Returns the world matrix of this Transform.
+     * The matrix is cached and only gets rebuild, if position, rotation, scale or
+     * the parent (or any of its parents) has changed since the last call.
+     * The returned matrix is shared and will be updated in-place, do NOT modify it
+     * and copy it, if you need to keep the current value.
+     * @return world matrix
+     */
     public Matrix4f getTransformation() {
-        Matrix4f positionMat = new Matrix4f().initTranslation(position.getX(), position.getY(), position.getZ());
-        Matrix4f rotationMat = rotation.toRotationMatrix();
-        Matrix4f scaleMat = new Matrix4f().initScale(scale.getX(), scale.getY(), scale.getZ());
+        boolean localChanged = hasChanged();
+
+        if (localChanged) {
+            if (localMat == null) {
+                localMat = new Matrix4f();
+                scratchMat = new Matrix4f();
+            }
+
+            // local = translation * (rotation * scale)
+            localMat.initTranslation(position.getX(), position.getY(), position.getZ());
+            scratchMat.initScale(scale.getX(), scale.getY(), scale.getZ());
+            Matrix4f.mulLocal(localMat, Matrix4f.mulLocal(rotationMat(), scratchMat, scratchMat), localMat);
 
-        return getParentMatrix().mul(positionMat.mul(rotationMat.mul(scaleMat)));
+            updateSnapshot();
+            dirty = false;
+        }
+
+        Matrix4f parentMatrix = getParentMatrix();
+
+        if (localChanged || !worldValid || (parent != null && parent.revision != parentRevision)) {
+            if (worldMat == null) {
+                worldMat = new Matrix4f();
+            }
+            Matrix4f.mulLocal(parentMatrix, localMat, worldMat);
+            worldValid = true;
+            parentRevision = parent != null ? parent.revision : 0;
+            revision++;
+        }
+
+        return worldMat;
+    }
+
+    /**
+     * Returns the revision of the world matrix.
+     * The revision changes every time the world matrix gets rebuild,
+     *  call {@link #getTransformation()} first to get the current one.
+     * @return revision
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Whether the local components have been changed since
+     * the local matrix has been build. This does not take the parent into account.
+     * @return whether the local matrix is outdated
+     */
+    public boolean hasChanged() {
+        if (dirty || localMat == null) {
+            return true;
+        }
+
+        return snapshot[0] != position.getX() || snapshot[1] != position.getY() || snapshot[2] != position.getZ()
+            || snapshot[3] != rotation.getX() || snapshot[4] != rotation.getY()
+            || snapshot[5] != rotation.getZ() || snapshot[6] != rotation.getW()
+            || snapshot[7] != scale.getX() || snapshot[8] != scale.getY() || snapshot[9] != scale.getZ();
+    }
+
+    private Matrix4f rotationMat() {
+        if (rotationMat == null) {
+            rotationMat = new Matrix4f();
+        }
+
+        return rotationMat.initRotation(rotation);
+    }
+
+    private void updateSnapshot() {
+        snapshot[0] = position.getX();
+        snapshot[1] = position.getY();
+        snapshot[2] = position.getZ();
+        snapshot[3] = rotation.getX();
+        snapshot[4] = rotation.getY();
+        snapshot[5] = rotation.getZ();
+        snapshot[6] = rotation.getW();
+        snapshot[7] = scale.getX();
+        snapshot[8] = scale.getY();
+        snapshot[9] = scale.getZ();
     }
 
     /**
@@ -84,6 +207,7 @@ public class Transform {
 
     public void setPosition(Vector3f position) {
         this.position = position;
+        this.dirty = true;
     }
 
     public Quaternion getTransformedRotation() {
@@ -104,6 +228,7 @@ public class Transform {
 
     public void setRotation(Quaternion rotation) {
         this.rotation = rotation;
+        this.dirty = true;
     }
 
     public Vector3f getScale() {
@@ -112,10 +237,21 @@ public class Transform {
 
     public void setScale(Vector3f scale) {
         this.scale = scale;
+        this.dirty = true;
     }
 
     public void setParent(Transform parent) {
-        this.parent = parent;
+        if (this.parent != parent) {
+            this.parent = parent;
+            this.worldValid = false;
+            if (parent == null) {
+                this.parentMat = new Matrix4f().initIdentiy();
+            }
+        }
+    }
+
+    public Transform getParent() {
+        return parent;
     }
 
     private Matrix4f getParentMatrix() {
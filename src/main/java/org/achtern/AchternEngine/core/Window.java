@@ -73,4 +73,15 @@ public abstract class Window extends Dimension implements RenderTarget {
 
     public abstract void setTitle(String title);
 
+    /**
+     * Synchronizes the buffer swap in {@link #render()} with the refresh rate of the display.
+     * Windows without a display do not support this.
+     * @param enable Whether to wait for the vertical sync
+     * @return whether vsync is supported by this window
+     */
+    public boolean enableVSync(boolean enable) {
+        LOGGER.debug("{} does not support vsync", getClass().getSimpleName());
+        return false;
+    }
+
 }
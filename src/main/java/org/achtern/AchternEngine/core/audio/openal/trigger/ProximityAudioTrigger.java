@@ -24,24 +24,47 @@
 
 package org.achtern.AchternEngine.core.audio.openal.trigger;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import org.achtern.AchternEngine.core.audio.openal.AudioSource;
 import org.achtern.AchternEngine.core.audio.openal.AudioSourceState;
 import org.achtern.AchternEngine.core.math.Vector3f;
 import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.achtern.AchternEngine.core.scenegraph.spatial.SceneIndex;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This will play AudioSources if they are in proximity to the given Node.
+ * With a {@link SceneIndex} the distance is measured to the bounds of the target's figures,
+ *  so large targets (e.g. a waterfall) trigger along their whole extent, not only around their origin.
+ * If no figure of the target is near (e.g. the target has no figures), the distance to the origin is checked.
  */
-@AllArgsConstructor
 public class ProximityAudioTrigger implements AudioTrigger {
 
     @Getter @Setter protected Node target;
     @Getter protected float maxDistance;
     @Getter @Setter protected AudioSourceState onExit = AudioSourceState.PAUSED;
 
+    /**
+     * Index to query the figures near the source, if null the target's position is used
+     */
+    @Getter @Setter protected SceneIndex index;
+
+    private final List<Figure> nearby = new ArrayList<Figure>();
+
+    public ProximityAudioTrigger(Node target, float maxDistance, AudioSourceState onExit) {
+        this(target, maxDistance, onExit, null);
+    }
+
+    public ProximityAudioTrigger(Node target, float maxDistance, AudioSourceState onExit, SceneIndex index) {
+        this.target = target;
+        this.maxDistance = maxDistance;
+        this.onExit = onExit;
+        this.index = index;
+    }
 
     /**
      * Creates a new ProximityAudioTrigger with a default maxDistance of 10
@@ -60,21 +83,50 @@ public class ProximityAudioTrigger implements AudioTrigger {
     @Override
     public AudioSourceState next(AudioSource as) {
         Vector3f c = as.getPosition();
+
+        if (index != null && isTargetNear(c)) {
+            return AudioSourceState.PLAYING;
+        }
+
+        return isOriginNear(c) ? AudioSourceState.PLAYING : onExit;
+    }
+
+    /**
+     * Checks the distance to the position of the target
+     * @param position The position of the source
+     * @return whether the target's origin is within maxDistance
+     */
+    protected boolean isOriginNear(Vector3f position) {
         Vector3f t = target.getTransform().getPosition();
 
         // very rough but fast check
-        Vector3f subtracted = c.sub(t);
+        Vector3f subtracted = position.sub(t);
         if (subtracted.getX() + subtracted.getY() + subtracted.getZ() > maxDistance) {
             // cannot be in distance
-            return onExit;
+            return false;
         }
 
         // perform precise check
-        if (Vector3f.distance(c, t) > maxDistance) {
-            return onExit;
+        return Vector3f.distance(position, t) <= maxDistance;
+    }
+
+    /**
+     * Queries the index for figures of the target within maxDistance
+     * @param position The position of the source
+     * @return whether a figure of the target (or its children) is near
+     */
+    protected boolean isTargetNear(Vector3f position) {
+        nearby.clear();
+        index.query(position, maxDistance, nearby);
+
+        for (int i = 0; i < nearby.size(); i++) {
+            for (Node node = nearby.get(i).getParent(); node != null; node = node.getParent()) {
+                if (node == target) {
+                    return true;
+                }
+            }
         }
 
-        // in proximity, play the source!
-        return AudioSourceState.PLAYING;
+        return false;
     }
 }
@@ -24,22 +24,76 @@
 
 package org.achtern.AchternEngine.core.math;
 
+import java.nio.FloatBuffer;
+
 /**
  * Implementation of the mathematical Matrix
- * with 4x4 float values
+ * with 4x4 float values.
+ * The values are stored row by row in a single float array.
+ * Methods ending with ...Local() modify a matrix in-place and do not allocate.
  */
 public class Matrix4f {
 
     /**
-     * Main Data Array
+     * Main Data Array (row-major, <code>m[row * 4 + column]</code>)
      */
-    private float[][] m;
+    private float[] m;
 
     /**
      * Initializes with 0
      */
     public Matrix4f() {
-        m = new float[4][4];
+        m = new float[16];
+    }
+
+    /**
+     * Copy constructor
+     * @param copy will get copied
+     */
+    public Matrix4f(Matrix4f copy) {
+        this();
+        set(copy);
+    }
+
+    /**
+     * Multiplies a with b and stores the result in dest.
+     * dest may be the same instance as a or b.
+     * @param a left hand side
+     * @param b right hand side
+     * @param dest where the result gets stored
+     * @return dest
+     */
+    public static Matrix4f mulLocal(Matrix4f a, Matrix4f b, Matrix4f dest) {
+        final float[] l = a.m;
+        final float[] r = b.m;
+
+        float d00 = l[0]  * r[0] + l[1]  * r[4] + l[2]  * r[8]  + l[3]  * r[12];
+        float d01 = l[0]  * r[1] + l[1]  * r[5] + l[2]  * r[9]  + l[3]  * r[13];
+        float d02 = l[0]  * r[2] + l[1]  * r[6] + l[2]  * r[10] + l[3]  * r[14];
+        float d03 = l[0]  * r[3] + l[1]  * r[7] + l[2]  * r[11] + l[3]  * r[15];
+
+        float d10 = l[4]  * r[0] + l[5]  * r[4] + l[6]  * r[8]  + l[7]  * r[12];
+        float d11 = l[4]  * r[1] + l[5]  * r[5] + l[6]  * r[9]  + l[7]  * r[13];
+        float d12 = l[4]  * r[2] + l[5]  * r[6] + l[6]  * r[10] + l[7]  * r[14];
+        float d13 = l[4]  * r[3] + l[5]  * r[7] + l[6]  * r[11] + l[7]  * r[15];
+
+        float d20 = l[8]  * r[0] + l[9]  * r[4] + l[10] * r[8]  + l[11] * r[12];
+        float d21 = l[8]  * r[1] + l[9]  * r[5] + l[10] * r[9]  + l[11] * r[13];
+        float d22 = l[8]  * r[2] + l[9]  * r[6] + l[10] * r[10] + l[11] * r[14];
+        float d23 = l[8]  * r[3] + l[9]  * r[7] + l[10] * r[11] + l[11] * r[15];
+
+        float d30 = l[12] * r[0] + l[13] * r[4] + l[14] * r[8]  + l[15] * r[12];
+        float d31 = l[12] * r[1] + l[13] * r[5] + l[14] * r[9]  + l[15] * r[13];
+        float d32 = l[12] * r[2] + l[13] * r[6] + l[14] * r[10] + l[15] * r[14];
+        float d33 = l[12] * r[3] + l[13] * r[7] + l[14] * r[11] + l[15] * r[15];
+
+        final float[] d = dest.m;
+        d[0]  = d00; d[1]  = d01; d[2]  = d02; d[3]  = d03;
+        d[4]  = d10; d[5]  = d11; d[6]  = d12; d[7]  = d13;
+        d[8]  = d20; d[9]  = d21; d[10] = d22; d[11] = d23;
+        d[12] = d30; d[13] = d31; d[14] = d32; d[15] = d33;
+
+        return dest;
     }
 
     /**
@@ -48,19 +102,19 @@ public class Matrix4f {
      */
     public Matrix4f initIdentiy() {
 
-        m[0][0] = 1;    m[0][1] = 0;    m[0][2] = 0;    m[0][3] = 0;
-        m[1][0] = 0;    m[1][1] = 1;    m[1][2] = 0;    m[1][3] = 0;
-        m[2][0] = 0;    m[2][1] = 0;    m[2][2] = 1;    m[2][3] = 0;
-        m[3][0] = 0;    m[3][1] = 0;    m[3][2] = 0;    m[3][3] = 1;
+        m[0]  = 1;    m[1]  = 0;    m[2]  = 0;    m[3]  = 0;
+        m[4]  = 0;    m[5]  = 1;    m[6]  = 0;    m[7]  = 0;
+        m[8]  = 0;    m[9]  = 0;    m[10] = 1;    m[11] = 0;
+        m[12] = 0;    m[13] = 0;    m[14] = 0;    m[15] = 1;
 
         return this;
     }
 
     public Matrix4f initTranslation(float x, float y, float z) {
-        m[0][0] = 1;    m[0][1] = 0;    m[0][2] = 0;    m[0][3] = x;
-        m[1][0] = 0;    m[1][1] = 1;    m[1][2] = 0;    m[1][3] = y;
-        m[2][0] = 0;    m[2][1] = 0;    m[2][2] = 1;    m[2][3] = z;
-        m[3][0] = 0;    m[3][1] = 0;    m[3][2] = 0;    m[3][3] = 1;
+        m[0]  = 1;    m[1]  = 0;    m[2]  = 0;    m[3]  = x;
+        m[4]  = 0;    m[5]  = 1;    m[6]  = 0;    m[7]  = y;
+        m[8]  = 0;    m[9]  = 0;    m[10] = 1;    m[11] = z;
+        m[12] = 0;    m[13] = 0;    m[14] = 0;    m[15] = 1;
 
         return this;
     }
@@ -75,31 +129,53 @@ public class Matrix4f {
         y = (float) Math.toRadians(y);
         z = (float) Math.toRadians(z);
 
-        mz.m[0][0] = (float) Math.cos(z);   mz.m[0][1] = (float) - Math.sin(z); mz.m[0][2] = 0;                     mz.m[0][3] = 0;
-        mz.m[1][0] = (float) Math.sin(z);   mz.m[1][1] = (float) + Math.cos(z); mz.m[1][2] = 0;                     mz.m[1][3] = 0;
-        mz.m[2][0] = 0;                     mz.m[2][1] = 0;                     mz.m[2][2] = 1;                     mz.m[2][3] = 0;
-        mz.m[3][0] = 0;                     mz.m[3][1] = 0;                     mz.m[3][2] = 0;                     mz.m[3][3] = 1;
+        mz.m[0]  = (float) Math.cos(z);   mz.m[1]  = (float) - Math.sin(z); mz.m[2]  = 0;                     mz.m[3]  = 0;
+        mz.m[4]  = (float) Math.sin(z);   mz.m[5]  = (float) + Math.cos(z); mz.m[6]  = 0;                     mz.m[7]  = 0;
+        mz.m[8]  = 0;                     mz.m[9]  = 0;                     mz.m[10] = 1;                     mz.m[11] = 0;
+        mz.m[12] = 0;                     mz.m[13] = 0;                     mz.m[14] = 0;                     mz.m[15] = 1;
 
-        mx.m[0][0] = 1;                     mx.m[0][1] = 0;                     mx.m[0][2] = 0;                     mx.m[0][3] = 0;
-        mx.m[1][0] = 0;                     mx.m[1][1] = (float) Math.cos(x);   mx.m[1][2] = (float) - Math.sin(x); mx.m[1][3] = 0;
-        mx.m[2][0] = 0;                     mx.m[2][1] = (float) Math.sin(x);   mx.m[2][2] = (float) + Math.cos(x); mx.m[2][3] = 0;
-        mx.m[3][0] = 0;                     mx.m[3][1] = 0;                     mx.m[3][2] = 0;                     mx.m[3][3] = 1;
+        mx.m[0]  = 1;                     mx.m[1]  = 0;                     mx.m[2]  = 0;                     mx.m[3]  = 0;
+        mx.m[4]  = 0;                     mx.m[5]  = (float) Math.cos(x);   mx.m[6]  = (float) - Math.sin(x); mx.m[7]  = 0;
+        mx.m[8]  = 0;                     mx.m[9]  = (float) Math.sin(x);   mx.m[10] = (float) + Math.cos(x); mx.m[11] = 0;
+        mx.m[12] = 0;                     mx.m[13] = 0;                     mx.m[14] = 0;                     mx.m[15] = 1;
 
-        my.m[0][0] = (float) Math.cos(y);   my.m[0][1] = 0;                     my.m[0][2] = (float) - Math.sin(y); my.m[0][3] = 0;
-        my.m[1][0] = 0;                     my.m[1][1] = 1;                     my.m[1][2] = 0;                     my.m[1][3] = 0;
-        my.m[2][0] = (float) Math.sin(y);   my.m[2][1] = 0;                     my.m[2][2] = (float) + Math.cos(y); my.m[2][3] = 0;
-        my.m[3][0] = 0;                     my.m[3][1] = 0;                     my.m[3][2] = 0;                     my.m[3][3] = 1;
+        my.m[0]  = (float) Math.cos(y);   my.m[1]  = 0;                     my.m[2]  = (float) - Math.sin(y); my.m[3]  = 0;
+        my.m[4]  = 0;                     my.m[5]  = 1;                     my.m[6]  = 0;                     my.m[7]  = 0;
+        my.m[8]  = (float) Math.sin(y);   my.m[9]  = 0;                     my.m[10] = (float) + Math.cos(y); my.m[11] = 0;
+        my.m[12] = 0;                     my.m[13] = 0;                     my.m[14] = 0;                     my.m[15] = 1;
 
-        m = mz.mul(my.mul(mx)).getM();
+        return mulLocal(mz, mulLocal(my, mx, my), this);
+    }
+
+    /**
+     * Initializes this matrix as rotation matrix of the given Quaternion.
+     * Equivalent to <code>q.toRotationMatrix()</code>, without allocating.
+     * @param q rotation
+     * @return this
+     */
+    public Matrix4f initRotation(Quaternion q) {
+        float x = q.getX();
+        float y = q.getY();
+        float z = q.getZ();
+        float w = q.getW();
+
+        // right
+        m[0]  = 1.0f - 2.0f * (y * y + z * z); m[1]  = 2.0f * (x * y - w * z);        m[2]  = 2.0f * (x * z + w * y);        m[3]  = 0;
+        // up
+        m[4]  = 2.0f * (x * y + w * z);        m[5]  = 1.0f - 2.0f * (x * x + z * z); m[6]  = 2.0f * (y * z - w * x);        m[7]  = 0;
+        // forward
+        m[8]  = 2.0f * (x * z - w * y);        m[9]  = 2.0f * (y * z + w * x);        m[10] = 1.0f - 2.0f * (x * x + y * y); m[11] = 0;
+
+        m[12] = 0;                             m[13] = 0;                             m[14] = 0;                             m[15] = 1;
 
         return this;
     }
 
     public Matrix4f initScale(float x, float y, float z) {
-        m[0][0] = x; m[1][0] = 0; m[2][0] = 0; m[3][0] = 0;
-        m[0][1] = 0; m[1][1] = y; m[2][1] = 0; m[3][1] = 0;
-        m[0][2] = 0; m[1][2] = 0; m[2][2] = z; m[3][2] = 0;
-        m[0][3] = 0; m[1][3] = 0; m[2][3] = 0; m[3][3] = 1;
+        m[0]  = x; m[1]  = 0; m[2]  = 0; m[3]  = 0;
+        m[4]  = 0; m[5]  = y; m[6]  = 0; m[7]  = 0;
+        m[8]  = 0; m[9]  = 0; m[10] = z; m[11] = 0;
+        m[12] = 0; m[13] = 0; m[14] = 0; m[15] = 1;
 
         return this;
     }
@@ -109,10 +185,10 @@ public class Matrix4f {
         float fgv = (float) Math.tan(fov / 2);
         float range = zNear - zFar;
 
-        m[0][0] = 1.0f / (fgv * aspect);  m[0][1] = 0;               m[0][2] = 0;                     m[0][3] = 0;
-        m[1][0] = 0;                      m[1][1] = 1.0f / (fgv);    m[1][2] = 0;                     m[1][3] = 0;
-        m[2][0] = 0;                      m[2][1] = 0;               m[2][2] = (-zNear - zFar)/range; m[2][3] = 2 * zFar * zNear / range;
-        m[3][0] = 0;                      m[3][1] = 0;               m[3][2] = 1;                     m[3][3] = 0;
+        m[0]  = 1.0f / (fgv * aspect);  m[1]  = 0;               m[2]  = 0;                     m[3]  = 0;
+        m[4]  = 0;                      m[5]  = 1.0f / (fgv);    m[6]  = 0;                     m[7]  = 0;
+        m[8]  = 0;                      m[9]  = 0;               m[10] = (-zNear - zFar)/range; m[11] = 2 * zFar * zNear / range;
+        m[12] = 0;                      m[13] = 0;               m[14] = 1;                     m[15] = 0;
 
         return this;
     }
@@ -126,10 +202,10 @@ public class Matrix4f {
         float TpB = top + bottom;
         float FpN = far + near;
 
-        m[0][0] = 2 / RmL;   m[0][1] = 0;         m[0][2] = 0;         m[0][3] = - RpL / RmL;
-        m[1][0] = 0;         m[1][1] = 2 / TmB;   m[1][2] = 0;         m[1][3] = - TpB / TmB;
-        m[2][0] = 0;         m[2][1] = 0;         m[2][2] = - 1 / FmN; m[2][3] = - near / FmN;
-        m[3][0] = 0;         m[3][1] = 0;         m[3][2] = 0;         m[3][3] = 1;
+        m[0]  = 2 / RmL;   m[1]  = 0;         m[2]  = 0;         m[3]  = - RpL / RmL;
+        m[4]  = 0;         m[5]  = 2 / TmB;   m[6]  = 0;         m[7]  = - TpB / TmB;
+        m[8]  = 0;         m[9]  = 0;         m[10] = - 1 / FmN; m[11] = - near / FmN;
+        m[12] = 0;         m[13] = 0;         m[14] = 0;         m[15] = 1;
 
         return this;
     }
@@ -147,75 +223,114 @@ public class Matrix4f {
     public Matrix4f initRotation(Vector3f forward, Vector3f up, Vector3f right) {
 
 
-        m[0][0] = right.getX();     m[0][1] = right.getY();     m[0][2] = right.getZ();    m[0][3] = 0;
-        m[1][0] = up.getX();        m[1][1] = up.getY();        m[1][2] = up.getZ();       m[1][3] = 0;
-        m[2][0] = forward.getX();   m[2][1] = forward.getY();   m[2][2] = forward.getZ();  m[2][3] = 0;
-        m[3][0] = 0;                m[3][1] = 0;                m[3][2] = 0;               m[3][3] = 1;
+        m[0]  = right.getX();     m[1]  = right.getY();     m[2]  = right.getZ();    m[3]  = 0;
+        m[4]  = up.getX();        m[5]  = up.getY();        m[6]  = up.getZ();       m[7]  = 0;
+        m[8]  = forward.getX();   m[9]  = forward.getY();   m[10] = forward.getZ();  m[11] = 0;
+        m[12] = 0;                m[13] = 0;                m[14] = 0;               m[15] = 1;
 
         return this;
     }
 
     public Vector3f transform(Vector3f v) {
+        return transform(v, new Vector3f(0, 0, 0));
+    }
 
-        return new Vector3f(
-                m[0][0] * v.getX() + m[0][1] * v.getY() + m[0][2] * v.getZ() + m[0][3],
-                m[1][0] * v.getX() + m[1][1] * v.getY() + m[1][2] * v.getZ() + m[1][3],
-                m[2][0] * v.getX() + m[2][1] * v.getY() + m[2][2] * v.getZ() + m[2][3]
+    /**
+     * Transforms the given point and stores the result in dest.
+     * dest may be the same instance as v.
+     * @param v point to transform
+     * @param dest where the result gets stored
+     * @return dest
+     */
+    public Vector3f transform(Vector3f v, Vector3f dest) {
+        float x = v.getX();
+        float y = v.getY();
+        float z = v.getZ();
+
+        dest.set(
+                m[0] * x + m[1] * y + m[2]  * z + m[3],
+                m[4] * x + m[5] * y + m[6]  * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]
         );
+
+        return dest;
     }
 
+    /**
+     * Multiplies this with the given matrix
+     * @param ma right hand side
+     * @return new instance!!
+     */
     public Matrix4f mul(Matrix4f ma) {
+        return mulLocal(this, ma, new Matrix4f());
+    }
 
-        Matrix4f ret = new Matrix4f();
-
-        for (int i = 0; i < 4; i++) {
-
-            for (int j = 0; j < 4; j++) {
-                ret.set(i, j, m[i][0] * ma.get(0, j) +
-                              m[i][1] * ma.get(1, j) +
-                              m[i][2] * ma.get(2, j) +
-                              m[i][3] * ma.get(3, j));
-            }
-        }
+    /**
+     * Multiplies this with the given matrix and stores the
+     * result in THIS matrix.
+     * @param ma right hand side
+     * @return this
+     */
+    public Matrix4f mulLocal(Matrix4f ma) {
+        return mulLocal(this, ma, this);
+    }
 
+    /**
+     * Copies all values of the given matrix into this one
+     * @param copy source
+     * @return this
+     */
+    public Matrix4f set(Matrix4f copy) {
+        System.arraycopy(copy.m, 0, m, 0, 16);
+        return this;
+    }
 
-        return ret;
+    /**
+     * Writes the 16 values row by row into the buffer, starting at the buffer's
+     * current position. The buffer's position will be advanced by 16.
+     * Upload with <code>transpose = true</code>.
+     * @param buffer destination (at least 16 floats remaining)
+     * @return the buffer
+     */
+    public FloatBuffer store(FloatBuffer buffer) {
+        buffer.put(m, 0, 16);
+        return buffer;
     }
 
     public float get(int x, int y) {
-        return m[x][y];
+        return m[(x << 2) + y];
     }
 
     public void set(int x, int y, float val) {
-        m[x][y] = val;
+        m[(x << 2) + y] = val;
     }
 
     public void set1Line(float x1, float x2, float x3, int x4) {
-        m[0][0] = x1;
-        m[0][1] = x2;
-        m[0][2] = x3;
-        m[0][3] = x4;
+        m[0] = x1;
+        m[1] = x2;
+        m[2] = x3;
+        m[3] = x4;
     }
 
     public void set2Line(float x1, float x2, float x3, float x4) {
-        m[1][0] = x1;
-        m[1][1] = x2;
-        m[1][2] = x3;
-        m[1][3] = x4;
+        m[4] = x1;
+        m[5] = x2;
+        m[6] = x3;
+        m[7] = x4;
     }
 
     public void set3Line(float x1, float x2, float x3, float x4) {
-        m[2][0] = x1;
-        m[2][1] = x2;
-        m[2][2] = x3;
-        m[2][3] = x4;
+        m[8] = x1;
+        m[9] = x2;
+        m[10] = x3;
+        m[11] = x4;
     }
 
     public void set4Line(float x1, float x2, float x3, float x4) {
-        m[3][0] = x1;
-        m[3][1] = x2;
-        m[3][2] = x3;
-        m[3][3] = x4;
+        m[12] = x1;
+        m[13] = x2;
+        m[14] = x3;
+        m[15] = x4;
     }
 
     /**
@@ -225,21 +340,25 @@ public class Matrix4f {
     public float[][] getM() {
         float[][] res = new float[4][4];
 
-        System.arraycopy(m, 0, res, 0, m.length);
+        for (int i = 0; i < 4; i++) {
+            System.arraycopy(m, i << 2, res[i], 0, 4);
+        }
 
         return res;
     }
 
     /**
-     * Returns the array itself
+     * Returns the array itself (row-major)
      * @return data array
      */
-    public float[][] getMReference() {
+    public float[] getMReference() {
         return m;
     }
 
     public void setM(float[][] m) {
-        this.m = m;
+        for (int i = 0; i < 4; i++) {
+            System.arraycopy(m[i], 0, this.m, i << 2, 4);
+        }
     }
 
     @Override
@@ -195,11 +195,7 @@ public class Quaternion {
 
 
     public Matrix4f toRotationMatrix() {
-        Vector3f f = new Vector3f(2.0f * (x * z - w * y), 2.0f * (y * z + w * x), 1.0f - 2.0f * (x * x + y * y));
-        Vector3f u = new Vector3f(2.0f * (x * y + w * z), 1.0f - 2.0f * (x * x + z * z), 2.0f * (y * z - w * x));
-        Vector3f r = new Vector3f(1.0f - 2.0f * (y * y + z * z), 2.0f * (x * y - w * z), 2.0f * (x * z + w * y));
-
-        return new Matrix4f().initRotation(f, u, r);
+        return new Matrix4f().initRotation(this);
     }
 
     public Quaternion nlerp(Quaternion dest, float factor, boolean shortest) {
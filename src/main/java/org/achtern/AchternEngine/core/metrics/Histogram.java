@@ -0,0 +1,167 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the distribution of values, e.g. frame times.
+ * The percentiles are calculated from the last {@link #getReservoirSize()} values,
+ *  count, min, max and mean cover all values since the last {@link #clear()}.
+ */
+public class Histogram implements Metric {
+
+    public static final int DEFAULT_RESERVOIR_SIZE = 1028;
+
+    private final long[] values;
+
+    private long count;
+
+    private long min = Long.MAX_VALUE;
+
+    private long max = Long.MIN_VALUE;
+
+    private double sum;
+
+    public Histogram() {
+        this(DEFAULT_RESERVOIR_SIZE);
+    }
+
+    public Histogram(int reservoirSize) {
+        if (reservoirSize <= 0) {
+            throw new IllegalArgumentException("Reservoir size has to be positive");
+        }
+        this.values = new long[reservoirSize];
+    }
+
+    public synchronized void update(long value) {
+        values[(int) (count % values.length)] = value;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public int getReservoirSize() {
+        return values.length;
+    }
+
+    public synchronized void clear() {
+        count = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+        sum = 0;
+    }
+
+    /**
+     * Returns a copy of the current distribution
+     * @return snapshot
+     */
+    public synchronized Snapshot getSnapshot() {
+        long[] copy = Arrays.copyOf(values, (int) Math.min(count, values.length));
+        Arrays.sort(copy);
+        return new Snapshot(copy, count, count == 0 ? 0 : min, count == 0 ? 0 : max, count == 0 ? 0 : sum / count);
+    }
+
+    @Override
+    public String toString() {
+        return getSnapshot().toString();
+    }
+
+    /**
+     * Immutable state of a {@link Histogram}
+     */
+    public static class Snapshot {
+
+        private final long[] sorted;
+        private final long count;
+        private final long min;
+        private final long max;
+        private final double mean;
+
+        protected Snapshot(long[] sorted, long count, long min, long max, double mean) {
+            this.sorted = sorted;
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+        }
+
+        /**
+         * Returns the value at the given quantile (nearest rank)
+         * @param quantile between 0 and 1
+         * @return value or 0 if empty
+         */
+        public long getValue(double quantile) {
+            if (quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("Quantile has to be in [0, 1]: " + quantile);
+            }
+            if (sorted.length == 0) {
+                return 0;
+            }
+
+            int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, rank)];
+        }
+
+        public long getMedian() {
+            return getValue(0.5);
+        }
+
+        public long get95thPercentile() {
+            return getValue(0.95);
+        }
+
+        public long get99thPercentile() {
+            return getValue(0.99);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + " min=" + min + " p50=" + getMedian() + " p95=" + get95thPercentile()
+                    + " p99=" + get99thPercentile() + " max=" + max + " mean=" + mean;
+        }
+    }
+}
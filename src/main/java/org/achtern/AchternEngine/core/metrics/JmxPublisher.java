@@ -0,0 +1,226 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes all metrics of a {@link MetricRegistry} as MBeans, e.g. for JConsole or VisualVM.
+ * The object names are
+ * <pre>
+ *     org.achtern.AchternEngine:type=Counter|Gauge|Histogram,name=&lt;metric name&gt;
+ * </pre>
+ */
+public class JmxPublisher implements MetricRegistryListener {
+
+    public static final Logger LOGGER = LoggerFactory.getLogger(JmxPublisher.class);
+
+    public static final String DOMAIN = "org.achtern.AchternEngine";
+
+    public interface CounterMXBean {
+        public long getCount();
+    }
+
+    /**
+     * Non numerical values are published as NaN
+     */
+    public interface GaugeMXBean {
+        public double getValue();
+    }
+
+    /**
+     * Percentiles are calculated from the recent values only, see {@link Histogram}
+     */
+    public interface HistogramMXBean {
+        public long getCount();
+
+        public long getMin();
+
+        public long getMax();
+
+        public double getMean();
+
+        public long get50thPercentile();
+
+        public long get95thPercentile();
+
+        public long get99thPercentile();
+    }
+
+    protected final MetricRegistry registry;
+
+    protected final MBeanServer server;
+
+    protected final Map<String, ObjectName> registered = new ConcurrentHashMap<String, ObjectName>();
+
+    public JmxPublisher(MetricRegistry registry) {
+        this(registry, ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxPublisher(MetricRegistry registry, MBeanServer server) {
+        this.registry = registry;
+        this.server = server;
+    }
+
+    /**
+     * Publishes all current and future metrics
+     */
+    public void start() {
+        registry.addListener(this);
+    }
+
+    /**
+     * Unregisters all MBeans
+     */
+    public void stop() {
+        registry.removeListener(this);
+        for (String name : registered.keySet()) {
+            unregister(name);
+        }
+    }
+
+    @Override
+    public void onAdded(String name, Metric metric) {
+        Object bean = wrap(metric);
+        if (bean == null) {
+            LOGGER.debug("Cannot publish metric {} of type {}", name, metric.getClass());
+            return;
+        }
+
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type(metric) + ",name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(bean, objectName);
+            registered.put(name, objectName);
+        } catch (Exception e) {
+            LOGGER.warn("Cannot publish metric {}", name, e);
+        }
+    }
+
+    @Override
+    public void onRemoved(String name, Metric metric) {
+        unregister(name);
+    }
+
+    protected void unregister(String name) {
+        ObjectName objectName = registered.remove(name);
+        if (objectName == null) {
+            return;
+        }
+
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Cannot unregister metric {}", name, e);
+        }
+    }
+
+    protected static String type(Metric metric) {
+        if (metric instanceof Counter) {
+            return "Counter";
+        } else if (metric instanceof Histogram) {
+            return "Histogram";
+        }
+        return "Gauge";
+    }
+
+    protected static Object wrap(final Metric metric) {
+        if (metric instanceof Counter) {
+            return new CounterMXBean() {
+                @Override
+                public long getCount() {
+                    return ((Counter) metric).getCount();
+                }
+            };
+        } else if (metric instanceof Histogram) {
+            return new HistogramBean((Histogram) metric);
+        } else if (metric instanceof Gauge) {
+            return new GaugeMXBean() {
+                @Override
+                public double getValue() {
+                    Object value = ((Gauge) metric).getValue();
+                    return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+                }
+            };
+        }
+
+        return null;
+    }
+
+    protected static class HistogramBean implements HistogramMXBean {
+
+        private final Histogram histogram;
+
+        public HistogramBean(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getSnapshot().getMin();
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getSnapshot().getMax();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getSnapshot().getMean();
+        }
+
+        @Override
+        public long get50thPercentile() {
+            return histogram.getSnapshot().getMedian();
+        }
+
+        @Override
+        public long get95thPercentile() {
+            return histogram.getSnapshot().get95thPercentile();
+        }
+
+        @Override
+        public long get99thPercentile() {
+            return histogram.getSnapshot().get99thPercentile();
+        }
+    }
+}
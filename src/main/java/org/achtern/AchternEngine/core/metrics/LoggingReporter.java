@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Logs every metric with INFO level.
+ * Use the logging configuration to route the metrics logger to a file.
+ */
+public class LoggingReporter implements MetricReporter {
+
+    public static final Logger LOGGER = LoggerFactory.getLogger("org.achtern.AchternEngine.metrics");
+
+    protected final Logger logger;
+
+    public LoggingReporter() {
+        this(LOGGER);
+    }
+
+    public LoggingReporter(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void report(SortedMap<String, Metric> metrics) {
+        for (Map.Entry<String, Metric> e : metrics.entrySet()) {
+            logger.info("{}: {}", e.getKey(), MetricRegistry.format(e.getValue()));
+        }
+    }
+}
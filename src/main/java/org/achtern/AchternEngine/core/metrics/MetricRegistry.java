@@ -0,0 +1,237 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds all metrics of the engine by name.
+ * Names are dot separated, the first part names the component (engine, render, gl, resources).
+ * <br>
+ * The engine populates the shared registry ({@link #get()}), which is published via JMX by the
+ *  {@link JmxPublisher} and can be written out by {@link MetricReporter}s.
+ */
+public class MetricRegistry {
+
+    public static final Logger LOGGER = LoggerFactory.getLogger(MetricRegistry.class);
+
+    private static MetricRegistry instance;
+
+    public static synchronized MetricRegistry get() {
+        if (instance == null) {
+            instance = new MetricRegistry();
+        }
+
+        return instance;
+    }
+
+    private final ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<String, Metric>();
+
+    private final List<MetricRegistryListener> listeners = new CopyOnWriteArrayList<MetricRegistryListener>();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Returns the counter with the given name, creates it if needed
+     * @param name The name
+     * @return the counter
+     * @throws IllegalArgumentException if the name is used by another type of metric
+     */
+    public Counter counter(String name) {
+        return getOrAdd(name, Counter.class);
+    }
+
+    /**
+     * Returns the histogram with the given name, creates it if needed
+     * @param name The name
+     * @return the histogram
+     * @throws IllegalArgumentException if the name is used by another type of metric
+     */
+    public Histogram histogram(String name) {
+        return getOrAdd(name, Histogram.class);
+    }
+
+    private <T extends Metric> T getOrAdd(String name, Class<T> type) {
+        Metric metric = metrics.get(name);
+        if (metric == null) {
+            try {
+                metric = type.newInstance();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            Metric existing = metrics.putIfAbsent(name, metric);
+            if (existing == null) {
+                for (MetricRegistryListener l : listeners) {
+                    l.onAdded(name, metric);
+                }
+            } else {
+                metric = existing;
+            }
+        }
+
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is not a " + type.getSimpleName());
+        }
+
+        return type.cast(metric);
+    }
+
+    /**
+     * Registers a metric (usually a {@link Gauge}), replacing an existing one with the same name.
+     * Gauges hold references to the object they read from, the replacing avoids keeping old instances alive.
+     * @param name The name
+     * @param metric The metric
+     * @param <T> Type of the metric
+     * @return the metric
+     */
+    public <T extends Metric> T register(String name, T metric) {
+        Metric old = metrics.put(name, metric);
+        if (old != null) {
+            LOGGER.debug("Replacing metric {}", name);
+            for (MetricRegistryListener l : listeners) {
+                l.onRemoved(name, old);
+            }
+        }
+        for (MetricRegistryListener l : listeners) {
+            l.onAdded(name, metric);
+        }
+
+        return metric;
+    }
+
+    public boolean remove(String name) {
+        Metric old = metrics.remove(name);
+        if (old == null) {
+            return false;
+        }
+
+        for (MetricRegistryListener l : listeners) {
+            l.onRemoved(name, old);
+        }
+        return true;
+    }
+
+    public Metric getMetric(String name) {
+        return metrics.get(name);
+    }
+
+    /**
+     * @return copy of all metrics, sorted by name
+     */
+    public SortedMap<String, Metric> getMetrics() {
+        return new TreeMap<String, Metric>(metrics);
+    }
+
+    /**
+     * Adds a listener, it gets notified about all existing metrics right away
+     * @param listener The listener
+     */
+    public void addListener(MetricRegistryListener listener) {
+        listeners.add(listener);
+        for (Map.Entry<String, Metric> e : getMetrics().entrySet()) {
+            listener.onAdded(e.getKey(), e.getValue());
+        }
+    }
+
+    public void removeListener(MetricRegistryListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Reports all metrics once
+     * @param reporter The reporter
+     */
+    public void report(MetricReporter reporter) {
+        reporter.report(getMetrics());
+    }
+
+    /**
+     * Reports all metrics periodically from a daemon thread
+     * @param reporter The reporter
+     * @param period Time between two reports
+     * @param unit Unit of period
+     * @return the scheduled task, cancel it to stop reporting
+     */
+    public synchronized ScheduledFuture<?> schedule(final MetricReporter reporter, long period, TimeUnit unit) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "AchternEngine-metrics");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+
+        return scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    report(reporter);
+                } catch (Exception e) {
+                    // an exception would cancel all further reports
+                    LOGGER.warn("Reporter {} failed", reporter.getClass().getSimpleName(), e);
+                }
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops all scheduled reporters
+     */
+    public synchronized void stopReporting() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Formats the value of a metric for reporting
+     * @param metric The metric
+     * @return the value as string
+     */
+    public static String format(Metric metric) {
+        if (metric instanceof Gauge) {
+            return String.valueOf(((Gauge) metric).getValue());
+        }
+
+        return metric.toString();
+    }
+}
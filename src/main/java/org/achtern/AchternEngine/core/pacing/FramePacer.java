@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.pacing;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.Time;
+import org.achtern.AchternEngine.core.Window;
+import org.achtern.AchternEngine.core.metrics.Histogram;
+import org.achtern.AchternEngine.core.metrics.MetricRegistry;
+
+/**
+ * A FramePacer decides how the main loop waits for the next frame.
+ * <br>
+ * The {@link org.achtern.AchternEngine.core.CoreEngine} asks the pacer to wait until the next frame is due.
+ *  The time the pacer wakes up too late is recorded as jitter.
+ *
+ * @see BusyWaitPacer
+ * @see HybridPacer
+ * @see VSyncPacer
+ */
+public abstract class FramePacer {
+
+    /**
+     * Name of the jitter histogram in the {@link org.achtern.AchternEngine.core.metrics.MetricRegistry}
+     */
+    public static final String JITTER_METRIC = "engine.pacing.jitter";
+
+    /**
+     * Nanoseconds woken up after the deadline
+     *
+     * @return the jitter histogram
+     */
+    @Getter protected final Histogram jitter = new Histogram();
+
+    /**
+     * Called once the window has been created, before the first frame
+     * @param window The main window
+     */
+    public void start(Window window) {
+        MetricRegistry.get().register(JITTER_METRIC, jitter);
+    }
+
+    /**
+     * Waits until the given time. Returns right away, if the deadline has passed already.
+     * @param deadline in nanoseconds, see {@link org.achtern.AchternEngine.core.Time#getNanoTime()}
+     */
+    public void waitUntil(long deadline) {
+        if (deadline - Time.getNanoTime() <= 0) {
+            // the frame is late, nothing to wait for
+            return;
+        }
+
+        await(deadline);
+
+        jitter.update(Math.max(0, Time.getNanoTime() - deadline));
+    }
+
+    /**
+     * Blocks until (close to) the deadline
+     * @param deadline in nanoseconds, in the future
+     */
+    protected abstract void await(long deadline);
+
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.pacing;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.Time;
+import org.achtern.AchternEngine.core.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parks the thread for most of the time until the next frame and spins the rest.
+ * <br>
+ * {@link java.util.concurrent.locks.LockSupport#parkNanos(long)} oversleeps depending on the OS scheduler
+ *  (around 50&micro;s on Linux, up to a few milliseconds on Windows). The pacer measures the oversleeping
+ *  and only parks until the expected oversleep before the deadline, the remaining time is spun.
+ *  The estimate follows the mean and deviation of the measured oversleeping (like a TCP round trip time).
+ */
+public class HybridPacer extends FramePacer {
+
+    public static final Logger LOGGER = LoggerFactory.getLogger(HybridPacer.class);
+
+    public static final long MIN_SPIN = 20000L;
+
+    public static final long MAX_SPIN = 4000000L;
+
+    /**
+     * Number of parks measured in {@link #start(org.achtern.AchternEngine.core.Window)}
+     */
+    public static final int CALIBRATION_SAMPLES = 20;
+
+    /**
+     * Estimated oversleep of a park in nanoseconds
+     */
+    private long estimate = 100000L;
+
+    /**
+     * Mean deviation of the oversleep in nanoseconds
+     */
+    private long deviation = 50000L;
+
+    /**
+     * The time spun before the deadline in nanoseconds
+     *
+     * @return current spin threshold
+     */
+    @Getter private long spinThreshold = spinThreshold();
+
+    @Override
+    public void start(Window window) {
+        super.start(window);
+        calibrate();
+    }
+
+    /**
+     * Measures a few short parks to get an initial estimate
+     */
+    public void calibrate() {
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = Time.getNanoTime();
+            LockSupport.parkNanos(1000000L);
+            sample(Time.getNanoTime() - start - 1000000L);
+        }
+
+        LOGGER.debug("Calibrated park oversleep: {}ns (+/- {}ns), spinning {}ns",
+                estimate, deviation, spinThreshold);
+    }
+
+    @Override
+    protected void await(long deadline) {
+        long now = Time.getNanoTime();
+        long park = deadline - now - spinThreshold;
+
+        if (park > 0) {
+            LockSupport.parkNanos(park);
+            long woken = Time.getNanoTime();
+            // a spurious wake up would look like an undersleep, ignore those
+            if (woken - now >= park) {
+                sample(woken - now - park);
+            }
+        }
+
+        while (deadline - Time.getNanoTime() > 0) {
+            // spin the last bit
+        }
+    }
+
+    protected void sample(long oversleep) {
+        oversleep = Math.max(0, oversleep);
+        long error = oversleep - estimate;
+        estimate += error / 8;
+        deviation += (Math.abs(error) - deviation) / 4;
+        spinThreshold = spinThreshold();
+    }
+
+    private long spinThreshold() {
+        return Math.min(MAX_SPIN, Math.max(MIN_SPIN, estimate + 4 * deviation));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.pacing;
+
+import org.achtern.AchternEngine.core.Time;
+import org.achtern.AchternEngine.core.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lets the buffer swap wait for the vertical sync of the display.
+ * The swap blocks until the display refreshes, the pacer only parks (without spinning)
+ *  if the loop is ahead of the frame cap. Use a framerate at or above the refresh rate.
+ * <br>
+ * Falls back to plain parking if the window does not support vsync.
+ */
+public class VSyncPacer extends FramePacer {
+
+    public static final Logger LOGGER = LoggerFactory.getLogger(VSyncPacer.class);
+
+    @Override
+    public void start(Window window) {
+        super.start(window);
+        if (!window.enableVSync(true)) {
+            LOGGER.warn("VSync not supported by {}, frames are paced by parking only",
+                    window.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    protected void await(long deadline) {
+        long remaining;
+        while ((remaining = deadline - Time.getNanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
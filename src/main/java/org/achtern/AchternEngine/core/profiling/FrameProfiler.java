@@ -0,0 +1,542 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.profiling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.achtern.AchternEngine.core.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records a timeline of the last frames.
+ * <br>
+ * Every frame is split into (nested) scopes, the engine records update, input, upload,
+ *  every render pass and pass filter and the buffer swap. User code may add its own scopes:
+ * <pre>
+ *     try (FrameProfiler.Scope s = FrameProfiler.get().scope("ai")) {
+ *         // ...
+ *     }
+ * </pre>
+ * Scopes and frames are stored in ring buffers of fixed size, so the profiler does not
+ *  allocate while recording. The recorded frames can be exported as Chrome trace-event JSON
+ *  (load it in chrome://tracing or https://ui.perfetto.dev).
+ * <br>
+ * The profiler is disabled by default. Only the thread which started the frame gets recorded.
+ */
+public class FrameProfiler {
+
+    public static final Logger LOGGER = LoggerFactory.getLogger(FrameProfiler.class);
+
+    public static final int DEFAULT_FRAME_CAPACITY = 300;
+
+    public static final int DEFAULT_SCOPE_CAPACITY = 1 << 14;
+
+    /**
+     * Scopes nested deeper are not recorded
+     */
+    public static final int MAX_DEPTH = 32;
+
+    private static FrameProfiler instance;
+
+    public static FrameProfiler get() {
+        if (instance == null) {
+            instance = new FrameProfiler();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Whether frames should be recorded. Takes effect on the next {@link #beginFrame()}
+     *
+     * @param enabled record frames
+     * @return recording frames
+     */
+    @Getter @Setter protected boolean enabled;
+
+    /**
+     * Whether the current frame gets recorded
+     */
+    private boolean active;
+
+    private Thread owner;
+
+    /**
+     * Scope names, the index is the id
+     */
+    private final List<String> names = new ArrayList<String>();
+
+    private final Map<Object, Integer> ids = new HashMap<Object, Integer>();
+
+    // Scope ring buffer
+    private final int[] scopeName;
+    private final long[] scopeStart;
+    private final long[] scopeEnd;
+    private final byte[] scopeDepth;
+    /**
+     * Total number of recorded scopes
+     */
+    private long scopes;
+
+    // Frame ring buffer
+    private final long[] frameNumber;
+    private final long[] frameStart;
+    private final long[] frameEnd;
+    private final long[] frameAllocated;
+    private final long[] frameFirstScope;
+    /**
+     * Total number of recorded frames
+     */
+    private long frames;
+
+    /**
+     * Number of frames started, recorded or not
+     */
+    @Getter private long frameCounter;
+
+    /**
+     * Absolute indices of the open scopes
+     */
+    private final long[] stack = new long[MAX_DEPTH];
+    private int depth;
+
+    // The frame in progress, moved into the ring buffer once ended
+    private long currentFirstScope;
+    private long currentStart;
+    private long allocatedAtStart;
+
+    private final ThreadMXBean threads;
+    private final boolean allocationSupported;
+
+    private final Scope scope = new Scope();
+
+    public FrameProfiler() {
+        this(DEFAULT_FRAME_CAPACITY, DEFAULT_SCOPE_CAPACITY);
+    }
+
+    public FrameProfiler(int frameCapacity, int scopeCapacity) {
+        if (frameCapacity <= 0 || scopeCapacity <= 0) {
+            throw new IllegalArgumentException("Capacities have to be positive");
+        }
+
+        this.scopeName = new int[scopeCapacity];
+        this.scopeStart = new long[scopeCapacity];
+        this.scopeEnd = new long[scopeCapacity];
+        this.scopeDepth = new byte[scopeCapacity];
+
+        this.frameNumber = new long[frameCapacity];
+        this.frameStart = new long[frameCapacity];
+        this.frameEnd = new long[frameCapacity];
+        this.frameAllocated = new long[frameCapacity];
+        this.frameFirstScope = new long[frameCapacity];
+
+        this.threads = ManagementFactory.getThreadMXBean();
+        this.allocationSupported = supportsAllocation(threads);
+    }
+
+    private static boolean supportsAllocation(ThreadMXBean threads) {
+        try {
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean t = (com.sun.management.ThreadMXBean) threads;
+                if (t.isThreadAllocatedMemorySupported()) {
+                    t.setThreadAllocatedMemoryEnabled(true);
+                    return true;
+                }
+            }
+        } catch (Throwable e) {
+            LOGGER.debug("Thread allocation counter not available", e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Bytes allocated on the heap by the current thread so far
+     * @return allocated bytes or -1 if not supported by the JVM
+     */
+    protected long allocatedBytes() {
+        if (!allocationSupported) {
+            return -1;
+        }
+
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Starts a new frame. A frame still open will be ended.
+     */
+    public void beginFrame() {
+        if (active) {
+            endFrame();
+        }
+
+        frameCounter++;
+        active = enabled;
+        if (!active) {
+            return;
+        }
+
+        owner = Thread.currentThread();
+        depth = 0;
+
+        currentFirstScope = scopes;
+        allocatedAtStart = allocatedBytes();
+        currentStart = Time.getNanoTime();
+    }
+
+    /**
+     * Ends the current frame, closing all open scopes
+     */
+    public void endFrame() {
+        if (!active || Thread.currentThread() != owner) {
+            return;
+        }
+
+        long now = Time.getNanoTime();
+
+        while (depth > 0) {
+            close(now);
+        }
+
+        int i = (int) (frames % frameNumber.length);
+        frameNumber[i] = frameCounter;
+        frameFirstScope[i] = currentFirstScope;
+        frameStart[i] = currentStart;
+        frameEnd[i] = now;
+        frameAllocated[i] = allocationSupported ? allocatedBytes() - allocatedAtStart : -1;
+        frames++;
+
+        active = false;
+    }
+
+    /**
+     * Opens a scope, has to be closed with {@link #end()}
+     * @param name The name of the scope
+     */
+    public void begin(String name) {
+        if (active) {
+            open(id(name));
+        }
+    }
+
+    /**
+     * Opens a scope named after the simple name of the class, has to be closed with {@link #end()}
+     * @param type The class naming the scope
+     */
+    public void begin(Class<?> type) {
+        if (active) {
+            open(id(type));
+        }
+    }
+
+    /**
+     * Closes the last opened scope
+     */
+    public void end() {
+        if (active && depth > 0 && Thread.currentThread() == owner) {
+            close(Time.getNanoTime());
+        }
+    }
+
+    /**
+     * Opens a scope, which is closed when the returned object is closed.
+     * The returned scope object is shared, it is meant for try-with-resources only.
+     * @param name The name of the scope
+     * @return the scope to close
+     */
+    public Scope scope(String name) {
+        begin(name);
+        return scope;
+    }
+
+    private void open(int id) {
+        if (Thread.currentThread() != owner) {
+            return;
+        }
+
+        if (depth < MAX_DEPTH) {
+            int i = (int) (scopes % scopeName.length);
+            scopeName[i] = id;
+            scopeDepth[i] = (byte) depth;
+            scopeEnd[i] = 0;
+            scopeStart[i] = Time.getNanoTime();
+            stack[depth] = scopes;
+            scopes++;
+        }
+        // deeper scopes are not recorded, but still have to be balanced
+        depth++;
+    }
+
+    private void close(long now) {
+        depth--;
+        if (depth >= MAX_DEPTH) {
+            return;
+        }
+
+        long index = stack[depth];
+        if (scopes - index <= scopeName.length) {
+            scopeEnd[(int) (index % scopeName.length)] = now;
+        }
+    }
+
+    private int id(Object key) {
+        Integer id = ids.get(key);
+        if (id == null) {
+            if (key instanceof Class) {
+                // classes share the id of their display name, so lookups by name find them
+                id = id(((Class) key).getSimpleName());
+            } else {
+                id = names.size();
+                names.add(key.toString());
+            }
+            ids.put(key, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Returns the number of frames available, at most the frame capacity.
+     * Frames are indexed from the oldest (0) to the newest (getFrameCount() - 1).
+     * @return number of recorded frames
+     */
+    public int getFrameCount() {
+        return (int) Math.min(frames, frameNumber.length);
+    }
+
+    private int frameSlot(int frame) {
+        if (frame < 0 || frame >= getFrameCount()) {
+            throw new IndexOutOfBoundsException("Frame " + frame + " of " + getFrameCount());
+        }
+
+        return (int) ((frames - getFrameCount() + frame) % frameNumber.length);
+    }
+
+    /**
+     * The frame number as counted by {@link #getFrameCounter()}
+     * @param frame The frame index
+     * @return frame number
+     */
+    public long getFrameNumber(int frame) {
+        return frameNumber[frameSlot(frame)];
+    }
+
+    /**
+     * @param frame The frame index
+     * @return duration of the frame in nanoseconds
+     */
+    public long getFrameTime(int frame) {
+        int i = frameSlot(frame);
+        return frameEnd[i] - frameStart[i];
+    }
+
+    /**
+     * Heap bytes allocated by the rendering thread during the frame
+     * @param frame The frame index
+     * @return allocated bytes, or -1 if the JVM does not support the measurement
+     */
+    public long getAllocatedBytes(int frame) {
+        return frameAllocated[frameSlot(frame)];
+    }
+
+    /**
+     * Returns the absolute index after the last scope of a frame
+     * @param frame The frame index
+     * @return end of the scopes (exclusive)
+     */
+    private long lastScope(int frame) {
+        if (frame + 1 < getFrameCount()) {
+            return frameFirstScope[frameSlot(frame + 1)];
+        }
+
+        return active ? currentFirstScope : scopes;
+    }
+
+    /**
+     * Sums up the durations of all scopes with the given name during a frame.
+     * @param frame The frame index
+     * @param name The name of the scope
+     * @return nanoseconds or -1 if the scopes of the frame have been overwritten already
+     */
+    public long getScopeTime(int frame, String name) {
+        int slot = frameSlot(frame);
+        long first = frameFirstScope[slot];
+        long last = lastScope(frame);
+
+        if (scopes - first > scopeName.length) {
+            return -1;
+        }
+
+        Integer id = ids.get(name);
+        long time = 0;
+        if (id != null) {
+            for (long s = first; s < last; s++) {
+                int i = (int) (s % scopeName.length);
+                if (scopeName[i] == id && scopeEnd[i] != 0) {
+                    time += scopeEnd[i] - scopeStart[i];
+                }
+            }
+        }
+
+        return time;
+    }
+
+    /**
+     * Sums up the durations of all scopes opened with {@link #begin(Class)} during a frame.
+     * @param frame The frame index
+     * @param type The class naming the scope
+     * @return nanoseconds or -1 if the scopes of the frame have been overwritten already
+     */
+    public long getScopeTime(int frame, Class<?> type) {
+        return getScopeTime(frame, type.getSimpleName());
+    }
+
+    /**
+     * Drops all recorded frames
+     */
+    public void clear() {
+        frames = 0;
+        scopes = 0;
+        depth = 0;
+        active = false;
+    }
+
+    /**
+     * Writes all recorded frames in the Chrome trace-event format.
+     * Frames, whose scopes have already been overwritten are skipped.
+     * @param writer The target, not closed
+     * @throws IOException on write errors
+     */
+    public void writeChromeTrace(Writer writer) throws IOException {
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+
+        boolean first = true;
+        int count = getFrameCount();
+        long origin = count > 0 ? frameStart[frameSlot(0)] : 0;
+
+        for (int frame = 0; frame < count; frame++) {
+            int slot = frameSlot(frame);
+            long firstScope = frameFirstScope[slot];
+            long lastScope = lastScope(frame);
+
+            if (scopes - firstScope > scopeName.length) {
+                continue;
+            }
+
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+
+            writeEvent(writer, "frame", frameStart[slot] - origin, frameEnd[slot] - frameStart[slot],
+                    ",\"args\":{\"frame\":" + frameNumber[slot] + ",\"allocatedBytes\":" + frameAllocated[slot] + "}");
+
+            if (frameAllocated[slot] >= 0) {
+                writer.write(",{\"name\":\"allocated\",\"ph\":\"C\",\"pid\":1,\"tid\":1,\"ts\":");
+                writer.write(micros(frameStart[slot] - origin));
+                writer.write(",\"args\":{\"bytes\":" + frameAllocated[slot] + "}}");
+            }
+
+            for (long s = firstScope; s < lastScope; s++) {
+                int i = (int) (s % scopeName.length);
+                if (scopeEnd[i] == 0) {
+                    continue;
+                }
+                writer.write(',');
+                writeEvent(writer, names.get(scopeName[i]), scopeStart[i] - origin, scopeEnd[i] - scopeStart[i],
+                        "");
+            }
+        }
+
+        writer.write("]}");
+    }
+
+    /**
+     * @see #writeChromeTrace(java.io.Writer)
+     * @return Chrome trace-event JSON
+     */
+    public String toChromeTrace() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeChromeTrace(writer);
+        } catch (IOException e) {
+            // StringWriter does not throw
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    private static void writeEvent(Writer writer, String name, long start, long duration, String extra)
+            throws IOException {
+        writer.write("{\"name\":\"");
+        escape(writer, name);
+        writer.write("\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":");
+        writer.write(micros(start));
+        writer.write(",\"dur\":");
+        writer.write(micros(duration));
+        writer.write(extra);
+        writer.write('}');
+    }
+
+    private static String micros(long nanos) {
+        return (nanos / 1000) + "." + String.format("%03d", nanos % 1000);
+    }
+
+    private static void escape(Writer writer, String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+    }
+
+    /**
+     * Closes the last opened scope, see {@link #scope(String)}
+     */
+    public class Scope implements AutoCloseable {
+
+        @Override
+        public void close() {
+            end();
+        }
+    }
+}
@@ -28,9 +28,15 @@ import lombok.Getter;
 import lombok.Setter;
 import org.achtern.AchternEngine.core.Window;
 import org.achtern.AchternEngine.core.bootstrap.GraphicsBindingProvider;
+import org.achtern.AchternEngine.core.metrics.Gauge;
+import org.achtern.AchternEngine.core.metrics.Histogram;
+import org.achtern.AchternEngine.core.metrics.MetricRegistry;
+import org.achtern.AchternEngine.core.profiling.FrameProfiler;
 import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
+import org.achtern.AchternEngine.core.rendering.culling.FrustumCuller;
 import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategy;
 import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategyFactory;
+import org.achtern.AchternEngine.core.rendering.queue.RenderQueue;
 import org.achtern.AchternEngine.core.rendering.shadow.BasicShadowRenderer;
 import org.achtern.AchternEngine.core.rendering.sorting.NoShadowFirstSorter;
 import org.achtern.AchternEngine.core.rendering.state.*;
@@ -63,10 +69,19 @@ public class BasicRenderEngine extends CommonDataStore implements RenderEngine {
 
     @Getter @Setter protected DrawStrategy drawStrategy;
 
+    @Getter protected RenderQueue renderQueue;
+
+    @Getter protected FrustumCuller culler;
+
     public boolean first;
 
     protected Map<Class, GlobalEntity> globalEntities;
 
+    /**
+     * Draw calls issued by the RenderQueue per rendered frame
+     */
+    protected Histogram drawCalls;
+
     public BasicRenderEngine(GraphicsBindingProvider graphicsBindingProvider) {
         this.state = graphicsBindingProvider.getRenderEngineState();
         this.dataBinder = graphicsBindingProvider.getDataBinder();
@@ -81,6 +96,25 @@ public class BasicRenderEngine extends CommonDataStore implements RenderEngine {
 
         this.globalEntities = new HashMap<Class, GlobalEntity>();
 
+        this.renderQueue = new RenderQueue();
+
+        this.culler = new FrustumCuller();
+
+        MetricRegistry metrics = MetricRegistry.get();
+        this.drawCalls = metrics.histogram("render.drawCalls");
+        metrics.register("render.passes", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return renderPasses.size();
+            }
+        });
+        metrics.register("render.figures", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return renderQueue.getSubmitted();
+            }
+        });
+
         setupStates();
 
         // TODO: Do not hard code this filter
@@ -104,6 +138,8 @@ public class BasicRenderEngine extends CommonDataStore implements RenderEngine {
             state.clear(true, true, false);
         }
 
+        culler.nextFrame();
+
         if (renderPasses.isEmpty()) {
             LOGGER.debug("No render passes. Skip render!");
             return;
@@ -128,13 +164,22 @@ public class BasicRenderEngine extends CommonDataStore implements RenderEngine {
             }
         }
 
+        FrameProfiler profiler = FrameProfiler.get();
+        // filters (e.g. shadow maps) render via the queue as well, count all of them
+        long frameDrawCalls = renderQueue.getTotalDrawCalls();
+
+        profiler.begin(this.activePass.getClass());
         // Bind Shader, just bind the default shader, if there is no specified in Material
         getDataBinder().bind(this.activePass.getShader());
         // Update internal state
         first = true;
         // Render first pass
-        node.render(this);
+        // it fills the depth buffer, so do not skip figures outside of the light
+        culler.setLightCulling(false);
+        renderQueue.render(node, this);
+        culler.setLightCulling(true);
         first = false;
+        profiler.end();
 
         // Now we enter the forward specific part
 
@@ -145,9 +190,12 @@ public class BasicRenderEngine extends CommonDataStore implements RenderEngine {
             }
 
             this.activePass = pass;
+            profiler.begin(pass.getClass());
 
             for (PassFilter filter : passFilters) {
+                profiler.begin(filter.getClass());
                 filter.pre(node, pass, this);
+                profiler.end();
             }
 
             state.enable(Feature.BLEND); // we need to blend in the other passes
@@ -157,7 +205,7 @@ public class BasicRenderEngine extends CommonDataStore implements RenderEngine {
             {
                 LOGGER.trace("Rendering Pass of type: {}", this.activePass.getClass());
                 getDataBinder().bind(pass.getShader()); // bind the shader
-                node.render(this);
+                renderQueue.render(node, this);
             }
             state.setDepthFunction(DepthFunction.LESS);
             state.enableDepthWrite(true);
@@ -165,10 +213,15 @@ public class BasicRenderEngine extends CommonDataStore implements RenderEngine {
 
 
             for (PassFilter filter : passFilters) {
+                profiler.begin(filter.getClass());
                 filter.post(node, pass, this);
+                profiler.end();
             }
+            profiler.end();
         }
 
+        drawCalls.update(renderQueue.getTotalDrawCalls() - frameDrawCalls);
+
     }
 
     @Override
@@ -46,6 +46,11 @@ public class Material extends CommonDataStore {
 
     static {
         try {
+            // these are used all the time, never evict them
+            ResourceLoader.pin("default_normal.jpg");
+            ResourceLoader.pin("default_displacement.png");
+            ResourceLoader.pin("missing.jpg");
+
             DEFAULT_NORMAL = ResourceLoader.getTexture("default_normal.jpg");
             DEFAULT_DISPLACEMENT = ResourceLoader.getTexture("default_displacement.png");
             MISSING_TEXTURE = ResourceLoader.getTexture("missing.jpg");
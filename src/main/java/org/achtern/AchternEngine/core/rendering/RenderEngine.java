@@ -25,7 +25,9 @@
 package org.achtern.AchternEngine.core.rendering;
 
 import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
+import org.achtern.AchternEngine.core.rendering.culling.FrustumCuller;
 import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategy;
+import org.achtern.AchternEngine.core.rendering.queue.RenderQueue;
 import org.achtern.AchternEngine.core.rendering.state.RenderEngineState;
 import org.achtern.AchternEngine.core.scenegraph.Node;
 import org.achtern.AchternEngine.core.scenegraph.entity.Camera;
@@ -70,6 +72,18 @@ public interface RenderEngine extends DataStore {
 
     public DrawStrategy getDrawStrategy();
 
+    /**
+     * Returns the queue used to collect and sort draw calls
+     * @return the RenderQueue
+     */
+    public RenderQueue getRenderQueue();
+
+    /**
+     * Returns the culler used to skip invisible nodes and figures
+     * @return the FrustumCuller
+     */
+    public FrustumCuller getCuller();
+
     public void setDrawStrategy(DrawStrategy drawStrategy);
 
 
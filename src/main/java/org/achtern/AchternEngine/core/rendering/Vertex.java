@@ -35,6 +35,15 @@ public class Vertex {
 
     public static final int SIZE = 11;
 
+    /**
+     * Offsets (in floats) of the attributes in the packed layout
+     * @see org.achtern.AchternEngine.core.rendering.mesh.MeshData#pack(Vertex[])
+     */
+    public static final int POSITION_OFFSET = 0;
+    public static final int TEX_COORD_OFFSET = 3;
+    public static final int NORMAL_OFFSET = 5;
+    public static final int TANGENT_OFFSET = 8;
+
     protected Vector3f pos;
     protected Vector2f texCor;
     protected Vector3f normal;
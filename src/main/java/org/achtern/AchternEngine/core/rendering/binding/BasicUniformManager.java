@@ -24,6 +24,7 @@
 
 package org.achtern.AchternEngine.core.rendering.binding;
 
+import lombok.Getter;
 import org.achtern.AchternEngine.core.math.Matrix4f;
 import org.achtern.AchternEngine.core.math.Vector2f;
 import org.achtern.AchternEngine.core.math.Vector3f;
@@ -32,18 +33,83 @@ import org.achtern.AchternEngine.core.rendering.Color;
 import org.achtern.AchternEngine.core.rendering.fog.Fog;
 import org.achtern.AchternEngine.core.rendering.light.Attenuation;
 import org.achtern.AchternEngine.core.rendering.shader.Shader;
+import org.achtern.AchternEngine.core.resource.fileparser.GLSLProgram;
 import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.GLSLScript;
 import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.Uniform;
 import org.achtern.AchternEngine.core.scenegraph.entity.renderpasses.light.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public abstract class BasicUniformManager implements UniformManager {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(BasicUniformManager.class);
 
+    /*
+     * Member suffixes of the supported structs.
+     * The order defines the layout of the member location table of a uniform,
+     * nested structs are flattened.
+     */
+
+    protected static final String[] AMBIENT_LIGHT_MEMBERS = {
+            ".color"
+    };
+
+    protected static final String[] DIRECTIONAL_LIGHT_MEMBERS = {
+            ".base.color", ".base.intensity",
+            ".direction"
+    };
+
+    protected static final String[] POINT_LIGHT_MEMBERS = {
+            ".base.color", ".base.intensity",
+            ".attenuation.constant", ".attenuation.linear", ".attenuation.exponent",
+            ".position", ".range"
+    };
+
+    protected static final String[] SPOT_LIGHT_MEMBERS = {
+            ".pointLight.base.color", ".pointLight.base.intensity",
+            ".pointLight.attenuation.constant", ".pointLight.attenuation.linear", ".pointLight.attenuation.exponent",
+            ".pointLight.position", ".pointLight.range",
+            ".direction", ".cutoff"
+    };
+
+    protected static final String[] FOG_MEMBERS = {
+            ".mode", ".color", ".start", ".end", ".density"
+    };
+
+    /**
+     * Shadow copies of the last uploaded values per program
+     */
+    protected Map<GLSLProgram, UniformCache> caches = new IdentityHashMap<GLSLProgram, UniformCache>();
+
+    /**
+     * Quick access to the cache of the program used last
+     */
+    private GLSLProgram lastProgram;
+    private UniformCache lastCache;
+
+    /**
+     * Number of values sent to the graphics card
+     */
+    @Getter protected long issuedUploads;
+
+    /**
+     * Number of values skipped, because they were identical to the last upload
+     */
+    @Getter protected long skippedUploads;
+
     @Override
     public void addUniforms(Shader shader) {
+        // (re)uploaded program, the stored values are no longer valid
+        getCache(shader).clear();
+
+        // (re)uploaded program, the member locations of structs are no longer valid
+        for (Uniform u : shader.getProgram().getUniforms()) {
+            u.setMemberLocations(null);
+        }
+
         for (GLSLScript script : shader.getProgram().getScripts()) {
             for (Uniform u : script.getExpandedUniforms()) {
                 LOGGER.trace("{}: uniform {} got added", this.getClass().getSimpleName(), u.getName());
@@ -54,7 +120,7 @@ public abstract class BasicUniformManager implements UniformManager {
 
     @Override
     public void setUniform(Shader shader, Uniform uniform) {
-        if (!uniform.shouldSet()) {
+        if (!uniform.shouldSet() || setStruct(shader, uniform)) {
             return;
         }
 
@@ -107,4 +173,300 @@ public abstract class BasicUniformManager implements UniformManager {
         }
     }
 
+    /**
+     * Sets struct uniforms (lights and fog) via their member location table
+     * @param shader The shader to which the uniform belongs
+     * @param uniform The uniform to set
+     * @return false if the value is not a struct
+     */
+    protected boolean setStruct(Shader shader, Uniform uniform) {
+        Object value = uniform.getValue();
+
+        if (value instanceof SpotLight) {
+            SpotLight spotLight = (SpotLight) value;
+            int[] l = getMemberLocations(shader, uniform, SPOT_LIGHT_MEMBERS);
+            UniformCache c = getCache(shader);
+            setPointLight(c, l, spotLight);
+            Vector3f direction = spotLight.getDirection();
+            uniform3f(c, l[7], direction.getX(), direction.getY(), direction.getZ());
+            uniform1f(c, l[8], spotLight.getCutoff());
+
+        } else if (value instanceof PointLight) {
+            setPointLight(getCache(shader), getMemberLocations(shader, uniform, POINT_LIGHT_MEMBERS), (PointLight) value);
+
+        } else if (value instanceof DirectionalLight) {
+            DirectionalLight directionalLight = (DirectionalLight) value;
+            int[] l = getMemberLocations(shader, uniform, DIRECTIONAL_LIGHT_MEMBERS);
+            UniformCache c = getCache(shader);
+            setBaseLight(c, l, directionalLight);
+            Vector3f direction = directionalLight.getDirection();
+            uniform3f(c, l[2], direction.getX(), direction.getY(), direction.getZ());
+
+        } else if (value instanceof AmbientLight) {
+            Color color = ((AmbientLight) value).getColor();
+            int[] l = getMemberLocations(shader, uniform, AMBIENT_LIGHT_MEMBERS);
+            uniform4f(getCache(shader), l[0], color.getX(), color.getY(), color.getZ(), color.getW());
+
+        } else if (value instanceof Fog) {
+            setFog(getCache(shader), getMemberLocations(shader, uniform, FOG_MEMBERS), (Fog) value);
+
+        } else {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the location table of the struct members.
+     * The table is resolved once per uniform (and program upload), missing
+     *  members (e.g. removed by the GLSL compiler) get the location -1, which is ignored by OpenGL.
+     * @param shader The shader to which the uniform belongs
+     * @param uniform The struct uniform
+     * @param members member suffixes
+     * @return locations, same order as members
+     */
+    protected int[] getMemberLocations(Shader shader, Uniform uniform, String[] members) {
+        int[] locations = uniform.getMemberLocations();
+        if (locations != null && locations.length == members.length) {
+            return locations;
+        }
+
+        locations = new int[members.length];
+        for (int i = 0; i < members.length; i++) {
+            Uniform member = shader.getProgram().getExpandedUniform(uniform.getName() + members[i]);
+            if (member == null) {
+                LOGGER.debug("{}: struct member '{}' not found",
+                        shader.getClass().getSimpleName(), uniform.getName() + members[i]);
+                locations[i] = -1;
+            } else {
+                locations[i] = member.getLocation();
+            }
+        }
+
+        uniform.setMemberLocations(locations);
+        return locations;
+    }
+
+    /**
+     * Sets a BaseLight, starting at index 0 of the table
+     * @param c value cache of the program
+     * @param l location table
+     * @param baseLight light
+     */
+    protected void setBaseLight(UniformCache c, int[] l, BaseLight baseLight) {
+        Vector3f color = baseLight.getColor().getColor();
+        uniform3f(c, l[0], color.getX(), color.getY(), color.getZ());
+        uniform1f(c, l[1], baseLight.getIntensity());
+    }
+
+    /**
+     * Sets a PointLight, starting at index 0 of the table
+     * @param c value cache of the program
+     * @param l location table
+     * @param pointLight light
+     */
+    protected void setPointLight(UniformCache c, int[] l, PointLight pointLight) {
+        setBaseLight(c, l, pointLight);
+        Attenuation attenuation = pointLight.getAttenuation();
+        uniform1f(c, l[2], attenuation.getConstant());
+        uniform1f(c, l[3], attenuation.getLinear());
+        uniform1f(c, l[4], attenuation.getExponent());
+        Vector3f position = pointLight.getTransform().getTransformedPosition();
+        uniform3f(c, l[5], position.getX(), position.getY(), position.getZ());
+        uniform1f(c, l[6], pointLight.getRange());
+    }
+
+    /**
+     * Sets a Fog
+     * @param c value cache of the program
+     * @param l location table
+     * @param fog fog
+     */
+    protected void setFog(UniformCache c, int[] l, Fog fog) {
+        uniform1i(c, l[0], fog.getMode().getID());
+        if (fog.getMode().equals(Fog.Mode.DISABLED)) {
+            return;
+        }
+
+        Color color = fog.getColor();
+        uniform4f(c, l[1], color.getX(), color.getY(), color.getZ(), color.getW());
+        if (fog.getMode().equals(Fog.Mode.LINEAR)) {
+            uniform1f(c, l[2], fog.getRange().getX());
+            uniform1f(c, l[3], fog.getRange().getY());
+        } else {
+            uniform1f(c, l[4], fog.getDensity());
+        }
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, Vector3f vec) {
+        uniform3f(getCache(shader), location(shader, name), vec.getX(), vec.getY(), vec.getZ());
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, Vector4f vec) {
+        uniform4f(getCache(shader), location(shader, name), vec.getX(), vec.getY(), vec.getZ(), vec.getW());
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, Color color) {
+        setUniform(shader, name, (Vector4f) color);
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, Vector2f vec) {
+        uniform2f(getCache(shader), location(shader, name), vec.getX(), vec.getY());
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, Matrix4f matrix) {
+        uniformMatrix4(getCache(shader), location(shader, name), matrix);
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, int value) {
+        uniform1i(getCache(shader), location(shader, name), value);
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, float value) {
+        uniform1f(getCache(shader), location(shader, name), value);
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, double value) {
+        setUniform(shader, name, (float) value);
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, Fog fog) {
+        setUniform(shader, name + ".mode", fog.getMode().getID());
+        if (fog.getMode().equals(Fog.Mode.DISABLED)) {
+            return;
+        }
+
+        setUniform(shader, name + ".color", fog.getColor());
+        if (fog.getMode().equals(Fog.Mode.LINEAR)) {
+            setUniform(shader, name + ".start", fog.getRange().getX());
+            setUniform(shader, name + ".end", fog.getRange().getY());
+        } else {
+            setUniform(shader, name + ".density", fog.getDensity());
+        }
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, DirectionalLight directionalLight) {
+        setUniform(shader, name + ".base", (BaseLight) directionalLight);
+        setUniform(shader, name + ".direction", directionalLight.getDirection());
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, AmbientLight ambientLight) {
+        setUniform(shader, name + ".color", ambientLight.getColor());
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, BaseLight baseLight) {
+        setUniform(shader, name + ".color", baseLight.getColor().getColor());
+        setUniform(shader, name + ".intensity", baseLight.getIntensity());
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, PointLight pointLight) {
+        setUniform(shader, name + ".base", (BaseLight) pointLight);
+        setUniform(shader, name + ".attenuation", pointLight.getAttenuation());
+        setUniform(shader, name + ".position", pointLight.getTransform().getTransformedPosition());
+        setUniform(shader, name + ".range", pointLight.getRange());
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, Attenuation attenuation) {
+        setUniform(shader, name + ".constant", attenuation.getConstant());
+        setUniform(shader, name + ".linear", attenuation.getLinear());
+        setUniform(shader, name + ".exponent", attenuation.getExponent());
+    }
+
+    @Override
+    public void setUniform(Shader shader, String name, SpotLight spotLight) {
+        setUniform(shader, name + ".pointLight", (PointLight) spotLight);
+        setUniform(shader, name + ".direction", spotLight.getDirection());
+        setUniform(shader, name + ".cutoff", spotLight.getCutoff());
+    }
+
+    /**
+     * Returns the location of the uniform, -1 if the program does not declare it
+     * @param shader The shader
+     * @param name Name of the (expanded) uniform
+     * @return location
+     */
+    protected int location(Shader shader, String name) {
+        Uniform uniform = shader.getProgram().getExpandedUniform(name);
+        return uniform == null ? -1 : uniform.getLocation();
+    }
+
+    /*
+     * The following methods upload the value, if it differs
+     * from the last upload to the location.
+     */
+
+    protected abstract void uniform1i(UniformCache c, int location, int value);
+
+    protected abstract void uniform1f(UniformCache c, int location, float x);
+
+    protected abstract void uniform2f(UniformCache c, int location, float x, float y);
+
+    protected abstract void uniform3f(UniformCache c, int location, float x, float y, float z);
+
+    protected abstract void uniform4f(UniformCache c, int location, float x, float y, float z, float w);
+
+    protected abstract void uniformMatrix4(UniformCache c, int location, Matrix4f matrix);
+
+    /**
+     * Returns the shadow copy of the uniform values of the shader's program
+     * @param shader The shader
+     * @return cache
+     */
+    protected UniformCache getCache(Shader shader) {
+        GLSLProgram program = shader.getProgram();
+        if (program != lastProgram) {
+            UniformCache cache = caches.get(program);
+            if (cache == null) {
+                cache = new UniformCache();
+                caches.put(program, cache);
+            }
+            lastProgram = program;
+            lastCache = cache;
+        }
+
+        return lastCache;
+    }
+
+    /**
+     * Counts an upload as issued or skipped.
+     * Invalid locations (&lt; 0, e.g. optimized away) are neither uploaded nor counted.
+     * @param location uniform location
+     * @param changed whether the value changed
+     * @return changed
+     */
+    protected boolean count(int location, boolean changed) {
+        if (location < 0) {
+            return false;
+        }
+
+        if (changed) {
+            issuedUploads++;
+        } else {
+            skippedUploads++;
+        }
+        return changed;
+    }
+
+    /**
+     * Resets the issued and skipped upload counters
+     */
+    public void resetStats() {
+        issuedUploads = 0;
+        skippedUploads = 0;
+    }
 }
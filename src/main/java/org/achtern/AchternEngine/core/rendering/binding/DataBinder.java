@@ -30,6 +30,8 @@ import org.achtern.AchternEngine.core.rendering.shader.Shader;
 import org.achtern.AchternEngine.core.rendering.state.RenderEngineState;
 import org.achtern.AchternEngine.core.rendering.texture.Texture;
 
+import java.nio.FloatBuffer;
+
 /**
  * The DataBinder is responsible for binding resources to the context (graphics engine of the graphics card)
  *  and uploading data to it.
@@ -38,6 +40,13 @@ import org.achtern.AchternEngine.core.rendering.texture.Texture;
  */
 public interface DataBinder {
 
+    /**
+     * First attribute location of the per-instance model matrix (mat4, uses 4 locations).
+     * Shaders supporting instancing declare it as <code>layout (location = 4) in mat4 instanceModel;</code>.
+     * Outside of instanced draws the attribute is the identity matrix.
+     */
+    public static final int INSTANCE_ATTRIBUTE_LOCATION = 4;
+
     /**
      * Binds the given texture to the context.
      * This should default to samplerslot 0.
@@ -64,6 +73,15 @@ public interface DataBinder {
 
     public void draw(Mesh mesh);
 
+    /**
+     * Draws the mesh once per instance with a single draw call.
+     * The per-instance model matrices are bound to {@link #INSTANCE_ATTRIBUTE_LOCATION}.
+     * @param mesh The mesh to draw
+     * @param models Model matrices, 16 floats per instance in column-major order, from position 0 to limit
+     * @param count Number of instances
+     */
+    public void drawInstanced(Mesh mesh, FloatBuffer models, int count);
+
     public void bind(Shader shader);
 
     public void upload(Shader shader);
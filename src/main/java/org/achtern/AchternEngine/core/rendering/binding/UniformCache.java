@@ -0,0 +1,199 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.binding;
+
+import java.util.Arrays;
+
+/**
+ * Shadow copy of the uniform values last uploaded to one program.
+ * Values are stored per location as raw bits, so a value is only considered
+ *  unchanged if it is bitwise identical to the last upload.
+ * <br>
+ * All update methods store the new value and return whether it differs
+ *  from the stored one (and therefore has to be uploaded).
+ */
+public class UniformCache {
+
+    /**
+     * Raw bits per location. <code>null</code> if never uploaded.
+     */
+    private int[][] values = new int[16][];
+
+    public boolean update(int location, int value) {
+        if (location < 0) {
+            return false;
+        }
+
+        int[] v = get(location, 1);
+        if (v != null && v[0] == value) {
+            return false;
+        }
+
+        if (v == null) {
+            v = create(location, 1);
+        }
+        v[0] = value;
+
+        return true;
+    }
+
+    public boolean update(int location, float x) {
+        return update(location, Float.floatToRawIntBits(x));
+    }
+
+    public boolean update(int location, float x, float y) {
+        if (location < 0) {
+            return false;
+        }
+
+        int bx = Float.floatToRawIntBits(x);
+        int by = Float.floatToRawIntBits(y);
+
+        int[] v = get(location, 2);
+        if (v != null && v[0] == bx && v[1] == by) {
+            return false;
+        }
+
+        if (v == null) {
+            v = create(location, 2);
+        }
+        v[0] = bx;
+        v[1] = by;
+
+        return true;
+    }
+
+    public boolean update(int location, float x, float y, float z) {
+        if (location < 0) {
+            return false;
+        }
+
+        int bx = Float.floatToRawIntBits(x);
+        int by = Float.floatToRawIntBits(y);
+        int bz = Float.floatToRawIntBits(z);
+
+        int[] v = get(location, 3);
+        if (v != null && v[0] == bx && v[1] == by && v[2] == bz) {
+            return false;
+        }
+
+        if (v == null) {
+            v = create(location, 3);
+        }
+        v[0] = bx;
+        v[1] = by;
+        v[2] = bz;
+
+        return true;
+    }
+
+    public boolean update(int location, float x, float y, float z, float w) {
+        if (location < 0) {
+            return false;
+        }
+
+        int bx = Float.floatToRawIntBits(x);
+        int by = Float.floatToRawIntBits(y);
+        int bz = Float.floatToRawIntBits(z);
+        int bw = Float.floatToRawIntBits(w);
+
+        int[] v = get(location, 4);
+        if (v != null && v[0] == bx && v[1] == by && v[2] == bz && v[3] == bw) {
+            return false;
+        }
+
+        if (v == null) {
+            v = create(location, 4);
+        }
+        v[0] = bx;
+        v[1] = by;
+        v[2] = bz;
+        v[3] = bw;
+
+        return true;
+    }
+
+    /**
+     * Updates an array of floats (e.g. a matrix)
+     * @param location uniform location
+     * @param floats the values
+     * @return whether the values changed
+     */
+    public boolean update(int location, float[] floats) {
+        if (location < 0) {
+            return false;
+        }
+
+        int[] v = get(location, floats.length);
+        if (v == null) {
+            v = create(location, floats.length);
+        } else {
+            int i = 0;
+            while (i < floats.length && v[i] == Float.floatToRawIntBits(floats[i])) {
+                i++;
+            }
+            if (i == floats.length) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < floats.length; i++) {
+            v[i] = Float.floatToRawIntBits(floats[i]);
+        }
+
+        return true;
+    }
+
+    /**
+     * Forgets all stored values.
+     * The next update of every location will report a change.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+    }
+
+    protected int[] get(int location, int size) {
+        if (location >= values.length) {
+            return null;
+        }
+
+        int[] v = values[location];
+        if (v == null || v.length != size) {
+            return null;
+        }
+
+        return v;
+    }
+
+    protected int[] create(int location, int size) {
+        if (location >= values.length) {
+            values = Arrays.copyOf(values, Math.max(location + 1, values.length << 1));
+        }
+
+        int[] v = new int[size];
+        values[location] = v;
+        return v;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.binding;
+
+import org.achtern.AchternEngine.core.Time;
+import org.achtern.AchternEngine.core.bootstrap.Native;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.texture.Texture;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The UploadQueue collects resources, which have been loaded on worker threads
+ *  and still have to be uploaded to the context.
+ * Any thread may add resources, but the queue must be processed on the thread owning the context.
+ * Resources, which get bound before the queue reached them, are uploaded by the
+ *  {@link org.achtern.AchternEngine.core.rendering.binding.DataBinder} as usual and just skipped here.
+ */
+public class UploadQueue {
+
+    public static final Logger LOGGER = LoggerFactory.getLogger(UploadQueue.class);
+
+    protected Queue<Object> pending = new ConcurrentLinkedQueue<Object>();
+
+    public void add(Texture texture) {
+        pending.add(texture);
+    }
+
+    public void add(Mesh mesh) {
+        pending.add(mesh);
+    }
+
+    /**
+     * Adds the mesh and all textures of the material
+     * @param figure The figure to upload
+     */
+    public void add(Figure figure) {
+        if (figure.getMesh() != null) {
+            add(figure.getMesh());
+        }
+        if (figure.getMaterial() != null) {
+            for (Texture texture : figure.getMaterial().getTextures()) {
+                add(texture);
+            }
+        }
+    }
+
+    /**
+     * Uploads pending resources until the queue is empty or the time budget is used up.
+     * At least one resource is uploaded per call, so the queue always makes progress.
+     * @param binder The binder of the context
+     * @param budget The time budget in seconds
+     * @return number of processed resources
+     */
+    public int process(DataBinder binder, double budget) {
+        double start = Time.getTime();
+        int processed = 0;
+
+        Object resource;
+        while ((resource = pending.poll()) != null) {
+            upload(binder, resource);
+            processed++;
+
+            if (Time.getTime() - start >= budget) {
+                break;
+            }
+        }
+
+        if (processed > 0) {
+            LOGGER.trace("Uploaded {} resources, {} pending", processed, pending.size());
+        }
+
+        return processed;
+    }
+
+    protected void upload(DataBinder binder, Object resource) {
+        if (resource instanceof Texture) {
+            Texture texture = (Texture) resource;
+            if (texture.getID() == Native.INVALID_ID) {
+                // binding triggers the upload
+                binder.bind(texture);
+            }
+        } else if (resource instanceof Mesh) {
+            Mesh mesh = (Mesh) resource;
+            if (mesh.getData().getID() == Native.INVALID_ID) {
+                binder.upload(mesh);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of pending resources
+     * @return pending resources
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public void clear() {
+        pending.clear();
+    }
+}
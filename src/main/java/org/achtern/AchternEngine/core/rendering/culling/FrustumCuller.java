@@ -0,0 +1,196 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.culling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.achtern.AchternEngine.core.rendering.RenderPass;
+import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
+import org.achtern.AchternEngine.core.scenegraph.bounding.Frustum;
+import org.achtern.AchternEngine.core.scenegraph.entity.Camera;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+
+/**
+ * Culls Nodes and Figures outside of the view frustum of the active camera and
+ *  outside of the {@link LightInfluence} of the active light pass.
+ * Nodes get tested with the merged bounds of all their figures, so a whole subtree
+ *  can be rejected at once.
+ * <br>
+ * The frustum and light have to be updated (via {@link #update(Camera, RenderPass)}), whenever the camera
+ *  or pass changes, the {@link org.achtern.AchternEngine.core.rendering.queue.RenderQueue} does this for every pass.
+ */
+public class FrustumCuller {
+
+    /**
+     * If disabled everything is visible
+     */
+    @Getter @Setter protected boolean enabled = true;
+
+    /**
+     * Whether to cull by light influence.
+     * Has to be disabled for passes writing the depth buffer, since all
+     *  following passes depend on it.
+     */
+    @Getter @Setter protected boolean lightCulling = true;
+
+    @Getter protected final Frustum frustum = new Frustum();
+
+    /**
+     * The camera the frustum was extracted from, null if none
+     */
+    @Getter protected Camera camera;
+
+    @Getter protected final LightInfluence light = new LightInfluence();
+
+    /**
+     * The pass the light influence was set from, null if none
+     */
+    @Getter protected RenderPass pass;
+
+    /**
+     * Stamp passed to {@link Node#getWorldBounds(int)}
+     */
+    protected int frame;
+
+    /*
+     * Counters of the running frame (summed over all passes)
+     */
+    protected int visible;
+    protected int culled;
+    protected int culledNodes;
+    protected int lightCulled;
+
+    /**
+     * Figures, which passed the test during the last frame (summed over all passes)
+     */
+    @Getter protected int lastVisible;
+
+    /**
+     * Figures, which have been culled during the last frame (summed over all passes)
+     */
+    @Getter protected int lastCulled;
+
+    /**
+     * Nodes, which have been culled as a whole during the last frame (summed over all passes)
+     */
+    @Getter protected int lastCulledNodes;
+
+    /**
+     * Figures inside the frustum, which have been culled during the last frame, because
+     *  they are outside of the influence of the light pass.
+     */
+    @Getter protected int lastLightCulled;
+
+    public FrustumCuller() {
+        // The RenderEngine enables depth clamping, so objects in front of the near plane
+        // or behind the far plane still show up.
+        frustum.setNearFar(false);
+    }
+
+    /**
+     * Starts a new frame. Stores the counters of the last frame and
+     *  invalidates the bounds of all nodes.
+     */
+    public void nextFrame() {
+        lastVisible = visible;
+        lastCulled = culled;
+        lastCulledNodes = culledNodes;
+        lastLightCulled = lightCulled;
+
+        visible = 0;
+        culled = 0;
+        culledNodes = 0;
+        lightCulled = 0;
+
+        frame++;
+    }
+
+    /**
+     * Extracts the frustum from the camera and the light influence from the pass.
+     * @param camera The active camera, if null everything is visible
+     * @param pass The active pass, if null or not a bounded light, only the frustum is used
+     */
+    public void update(Camera camera, RenderPass pass) {
+        this.camera = camera;
+        if (camera != null) {
+            frustum.set(camera.getViewProjection());
+        }
+
+        this.pass = pass;
+        light.set(lightCulling ? pass : null);
+    }
+
+    /**
+     * Tests the merged bounds of the node.
+     * Nodes without bounds are always visible.
+     * @param node The node to test
+     * @return false if the node and all its children are outside the frustum
+     */
+    public boolean isVisible(Node node) {
+        if (!enabled || camera == null) {
+            return true;
+        }
+
+        BoundingBox bb = node.getWorldBounds(frame);
+        if (bb == null || (frustum.intersects(bb) && light.intersects(bb))) {
+            return true;
+        }
+
+        culledNodes++;
+        return false;
+    }
+
+    /**
+     * Tests the world bounds of the figure.
+     * Figures without bounds are always visible.
+     * @param figure The figure to test
+     * @return false if the figure is outside the frustum
+     */
+    public boolean isVisible(Figure figure) {
+        if (!enabled || camera == null) {
+            return true;
+        }
+
+        BoundingBox bb = figure.getWorldBounds();
+        if (bb == null) {
+            visible++;
+            return true;
+        }
+
+        if (!frustum.intersects(bb)) {
+            culled++;
+            return false;
+        }
+
+        if (!light.intersects(bb)) {
+            lightCulled++;
+            return false;
+        }
+
+        visible++;
+        return true;
+    }
+}
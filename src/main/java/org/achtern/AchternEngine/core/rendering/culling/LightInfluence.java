@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.culling;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.RenderPass;
+import org.achtern.AchternEngine.core.scenegraph.bounding.AABB;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
+import org.achtern.AchternEngine.core.scenegraph.entity.renderpasses.light.PointLight;
+import org.achtern.AchternEngine.core.scenegraph.entity.renderpasses.light.SpotLight;
+
+/**
+ * The volume a light has influence on.
+ * {@link PointLight}s are bounded by a sphere (position, range), {@link SpotLight}s additionally by
+ *  a cone (direction, cutoff). All other passes are unbounded.
+ * These are the same limits the lighting shaders use, so figures outside of the volume
+ *  would not receive any light from the pass.
+ */
+public class LightInfluence {
+
+    /**
+     * Whether the active pass has a limited volume
+     */
+    @Getter protected boolean bounded;
+
+    protected float px;
+    protected float py;
+    protected float pz;
+    protected float range;
+
+    protected boolean cone;
+    protected float dx;
+    protected float dy;
+    protected float dz;
+    protected float cos;
+    protected float sin;
+
+    /**
+     * Sets the volume from the pass
+     * @param pass The active RenderPass
+     * @return whether the pass has a limited volume
+     */
+    public boolean set(RenderPass pass) {
+        bounded = false;
+        cone = false;
+
+        if (pass instanceof PointLight) {
+            PointLight light = (PointLight) pass;
+            Vector3f position = light.getTransform().getTransformedPosition();
+            setSphere(position.getX(), position.getY(), position.getZ(), light.getRange());
+
+            if (pass instanceof SpotLight) {
+                SpotLight spot = (SpotLight) pass;
+                Vector3f direction = spot.getDirection();
+                setCone(direction.getX(), direction.getY(), direction.getZ(), spot.getCutoff());
+            }
+        }
+
+        return bounded;
+    }
+
+    /**
+     * Limits the volume to a sphere
+     * @param x center x
+     * @param y center y
+     * @param z center z
+     * @param range radius
+     */
+    public void setSphere(float x, float y, float z, float range) {
+        this.px = x;
+        this.py = y;
+        this.pz = z;
+        this.range = range;
+        this.bounded = !Float.isNaN(range) && !Float.isInfinite(range);
+    }
+
+    /**
+     * Limits the sphere further to a cone, starting at the sphere's center
+     * @param x direction x (normalized)
+     * @param y direction y (normalized)
+     * @param z direction z (normalized)
+     * @param cutoff cosine of the half angle
+     */
+    public void setCone(float x, float y, float z, float cutoff) {
+        this.dx = x;
+        this.dy = y;
+        this.dz = z;
+        this.cos = cutoff;
+        this.sin = (float) Math.sqrt(Math.max(0, 1 - cutoff * cutoff));
+        // wider than a half-space, the sphere alone is a good enough bound
+        this.cone = cutoff > 0;
+    }
+
+    /**
+     * Tests whether the box intersects the volume.
+     * The cone test uses the bounding sphere of the box and is conservative.
+     * @param bb The box in world space
+     * @return false if the box is outside
+     */
+    public boolean intersects(BoundingBox bb) {
+        if (!bounded) {
+            return true;
+        }
+
+        Vector3f c = bb.getCenter();
+        Vector3f e = bb.getExtents();
+
+        // sphere vs box, distance to the closest point of the box
+        if (!AABB.intersectsSphere(c.getX(), c.getY(), c.getZ(), e.getX(), e.getY(), e.getZ(), px, py, pz, range)) {
+            return false;
+        }
+
+        if (!cone) {
+            return true;
+        }
+
+        // cone vs bounding sphere of the box
+        float radius = (float) Math.sqrt(e.getX() * e.getX() + e.getY() * e.getY() + e.getZ() * e.getZ());
+
+        float vx = c.getX() - px;
+        float vy = c.getY() - py;
+        float vz = c.getZ() - pz;
+
+        float along = vx * dx + vy * dy + vz * dz;
+        if (along < -radius) {
+            // behind the light
+            return false;
+        }
+
+        float across = (float) Math.sqrt(Math.max(vx * vx + vy * vy + vz * vz - along * along, 0));
+
+        return cos * across - along * sin <= radius;
+    }
+}
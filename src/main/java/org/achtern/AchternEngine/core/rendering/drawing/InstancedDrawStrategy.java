@@ -0,0 +1,48 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.drawing;
+
+import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+
+import java.nio.FloatBuffer;
+
+/**
+ * A DrawStrategy, which can draw many instances of a mesh with a single draw call.
+ * The {@link org.achtern.AchternEngine.core.rendering.queue.RenderQueue} uses it for figures sharing
+ *  mesh, material and shader.
+ */
+public interface InstancedDrawStrategy extends DrawStrategy {
+
+    /**
+     * @see DataBinder#drawInstanced(Mesh, FloatBuffer, int)
+     * @param binder The binder
+     * @param mesh The mesh to draw
+     * @param models Model matrices, 16 floats per instance in column-major order
+     * @param count Number of instances
+     */
+    public void drawInstanced(DataBinder binder, Mesh mesh, FloatBuffer models, int count);
+
+}
@@ -27,11 +27,18 @@ package org.achtern.AchternEngine.core.rendering.drawing;
 import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
 import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
 
-public class SolidDraw implements DrawStrategy {
+import java.nio.FloatBuffer;
+
+public class SolidDraw implements InstancedDrawStrategy {
 
     @Override
     public void draw(DataBinder binder, Mesh mesh) {
         binder.draw(mesh);
     }
 
+    @Override
+    public void drawInstanced(DataBinder binder, Mesh mesh, FloatBuffer models, int count) {
+        binder.drawInstanced(mesh, models, count);
+    }
+
 }
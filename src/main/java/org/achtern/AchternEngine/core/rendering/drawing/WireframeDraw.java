@@ -28,6 +28,8 @@ import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
 import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
 import org.achtern.AchternEngine.core.rendering.state.FillMode;
 
+import java.nio.FloatBuffer;
+
 public class WireframeDraw extends SolidDraw {
 
     @Override
@@ -45,4 +47,20 @@ public class WireframeDraw extends SolidDraw {
         }
 
     }
+
+    @Override
+    public void drawInstanced(DataBinder binder, Mesh mesh, FloatBuffer models, int count) {
+
+        FillMode mode = binder.getState().getPolygonMode();
+        if (!mode.equals(FillMode.LINE)) {
+            binder.getState().setPolygonMode(FillMode.LINE);
+        }
+
+        super.drawInstanced(binder, mesh, models, count);
+
+        if (!mode.equals(FillMode.LINE)) {
+            binder.getState().setPolygonMode(mode);
+        }
+
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.mesh;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A Mesh merged from multiple source meshes, with their transforms baked into the vertices.
+ * The index range of every source is preserved, together with its bounds,
+ *  which allows culling or picking of the original parts.
+ * @see org.achtern.AchternEngine.core.scenegraph.batching.StaticBatcher
+ */
+public class BatchedMesh extends Mesh {
+
+    /**
+     * Part of the index buffer belonging to one source mesh
+     */
+    public static class Range {
+
+        /**
+         * Name of the source figure
+         */
+        @Getter protected final String name;
+
+        /**
+         * Offset of the first index
+         */
+        @Getter protected final int offset;
+
+        /**
+         * Number of indices
+         */
+        @Getter protected final int count;
+
+        /**
+         * Bounds in the space of the batch
+         */
+        @Getter protected final BoundingBox bounds;
+
+        public Range(String name, int offset, int count, BoundingBox bounds) {
+            this.name = name;
+            this.offset = offset;
+            this.count = count;
+            this.bounds = bounds;
+        }
+
+        @Override
+        public String toString() {
+            return "Range{" + name + ", offset=" + offset + ", count=" + count + "}";
+        }
+    }
+
+    protected final List<Range> ranges;
+
+    public BatchedMesh(MeshData data, List<Range> ranges) {
+        super(data);
+        this.ranges = new ArrayList<Range>(ranges);
+        updateBounds();
+    }
+
+    /**
+     * Returns the index ranges of the merged meshes, in index buffer order
+     * @return unmodifiable list of ranges
+     */
+    public List<Range> getRanges() {
+        return Collections.unmodifiableList(ranges);
+    }
+}
@@ -71,16 +71,50 @@ public class Mesh {
             TangentGenerator.calculate(vertices, indices);
         }
 
-        this.data.set(vertices, indices);
+        getWritableData().set(vertices, indices);
         updateBounds();
     }
 
     public void setMode(MeshData.Mode mode) {
-        getData().setMode(mode);
+        if (getData().getMode() != mode) {
+            getWritableData().setMode(mode);
+        }
+    }
+
+    /**
+     * Returns the MeshData for modification.
+     * Shared data (e.g. loaded through the ResourceLoader) gets copied first (copy-on-write),
+     * so other Meshes using the same data are not affected. The copy has to be uploaded again.
+     * @return MeshData owned by this Mesh
+     */
+    public MeshData getWritableData() {
+        if (data.isShared()) {
+            data = data.copy();
+        }
+        return data;
+    }
+
+    /**
+     * Creates a new Mesh using the same MeshData (and therefore the same GPU buffers).
+     * The data is marked as shared and cannot be modified anymore, mutating the returned
+     * or this Mesh copies the data.
+     * @return new Mesh sharing the data
+     */
+    public Mesh share() {
+        data.share();
+
+        Mesh mesh = new Mesh(data);
+        mesh.setBoundingBox(bb == null ? null : new BoundingBox(bb));
+        return mesh;
     }
 
+    /**
+     * Recalculates the bounds from the vertices.
+     * A new box is created, so cached world bounds of Figures notice the change.
+     */
     public void updateBounds() {
-        this.bb = new BoundingBox().fromVertices(getData().getVertices());
+        MeshData data = getData();
+        this.bb = new BoundingBox().fromPositions(data.getPacked(), Vertex.POSITION_OFFSET, Vertex.SIZE, data.getVertexCount());
     }
 
     protected void calcNormals(Vertex[] vertices, int[] indices) {
@@ -25,13 +25,21 @@
 package org.achtern.AchternEngine.core.rendering.mesh;
 
 import org.achtern.AchternEngine.core.bootstrap.NativeObject;
+import org.achtern.AchternEngine.core.math.Vector2f;
+import org.achtern.AchternEngine.core.math.Vector3f;
 import org.achtern.AchternEngine.core.rendering.Vertex;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Setter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@EqualsAndHashCode(callSuper = false)
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+@EqualsAndHashCode(callSuper = false, exclude = {"vertexBuffer", "indexBuffer", "shared"})
 @Data
 public class MeshData extends NativeObject {
 
@@ -49,11 +57,28 @@ public class MeshData extends NativeObject {
     protected int ibo;
     protected int size;
 
-    protected Vertex[] vertices;
+    /**
+     * Interleaved vertex data in the layout of {@link Vertex#SIZE} floats per vertex
+     *  (position, texture coordinates, normal, tangent), as uploaded to the GPU.
+     */
+    protected float[] packed;
     protected int[] indices;
 
+    /**
+     * Direct (e.g. memory mapped) buffers in the same layout as {@link #packed} and {@link #indices}.
+     * If set, they get uploaded as they are. The arrays are only created, when requested.
+     */
+    protected FloatBuffer vertexBuffer;
+    protected IntBuffer indexBuffer;
+
     protected Mode mode = Mode.TRIANGLES;
 
+    /**
+     * Shared data is used by multiple Meshes (e.g. loaded from the same resource) and
+     * uploaded only once. It must not be modified, use {@link Mesh#getWritableData()} instead.
+     */
+    @Setter(AccessLevel.NONE) protected boolean shared;
+
 
     public MeshData() {
     }
@@ -68,21 +93,241 @@ public class MeshData extends NativeObject {
     }
 
     public void set(Vertex[] vertices, int[] indices, int size) {
+        set(pack(vertices), indices, size);
+    }
+
+    /**
+     * Sets already packed vertex data
+     * @param packed Interleaved vertex data, {@link Vertex#SIZE} floats per vertex
+     * @param indices The indices
+     * @param size Number of indices to draw
+     */
+    public void set(float[] packed, int[] indices, int size) {
+        checkWritable();
+
+        if (packed.length % Vertex.SIZE != 0) {
+            throw new IllegalArgumentException("Packed vertex data has to be a multiple of " + Vertex.SIZE + " floats");
+        }
+
         if (getID() != -1) {
 
             // If data is the same, ignore!
-            if (getVertices() == vertices && getIndices() == indices && getSize() == size) return;
+            if (this.indices == indices && getSize() == size && Arrays.equals(this.packed, packed)) return;
 
             // Otherwise reset ID
             setID(INVALID_ID);
         }
 
         this.setSize(size);
-        this.setVertices(vertices);
+        this.setPacked(packed);
         this.setIndices(indices);
+        this.vertexBuffer = null;
+        this.indexBuffer = null;
+    }
+
+    /**
+     * Sets vertex data backed by direct buffers (e.g. memory mapped files).
+     * The buffers are uploaded without copying into the heap.
+     * @param vertices Interleaved vertex data, {@link Vertex#SIZE} floats per vertex, from position 0 to limit
+     * @param indices The indices, from position 0 to limit
+     * @param size Number of indices to draw
+     */
+    public void set(FloatBuffer vertices, IntBuffer indices, int size) {
+        checkWritable();
+
+        if (vertices.limit() % Vertex.SIZE != 0) {
+            throw new IllegalArgumentException("Packed vertex data has to be a multiple of " + Vertex.SIZE + " floats");
+        }
+
+        if (getID() != -1) {
+            setID(INVALID_ID);
+        }
+
+        this.setSize(size);
+        this.packed = null;
+        this.indices = null;
+        this.vertexBuffer = vertices;
+        this.indexBuffer = indices;
+    }
+
+    /**
+     * Returns the packed vertex data.
+     * If the data is backed by a buffer, it gets copied into an array on the first call.
+     * @return packed vertex data
+     */
+    public float[] getPacked() {
+        if (packed == null && vertexBuffer != null) {
+            packed = new float[vertexBuffer.limit()];
+            ((FloatBuffer) vertexBuffer.duplicate().clear()).get(packed);
+            vertexBuffer = null;
+        }
+        return packed;
+    }
+
+    /**
+     * Returns the indices.
+     * If the indices are backed by a buffer, they get copied into an array on the first call.
+     * @return indices
+     */
+    public int[] getIndices() {
+        if (indices == null && indexBuffer != null) {
+            indices = new int[indexBuffer.limit()];
+            ((IntBuffer) indexBuffer.duplicate().clear()).get(indices);
+            indexBuffer = null;
+        }
+        return indices;
+    }
+
+    /**
+     * Creates Vertex objects from the packed data.
+     * This allocates a new array and objects on every call, use the index based accessors
+     *  if possible.
+     * @return new vertex array
+     */
+    public Vertex[] getVertices() {
+        Vertex[] vertices = new Vertex[getVertexCount()];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = getVertex(i);
+        }
+        return vertices;
+    }
+
+    /**
+     * Packs and stores the vertices. The vertices are not referenced afterwards.
+     * @param vertices The vertices
+     */
+    public void setVertices(Vertex[] vertices) {
+        setPacked(pack(vertices));
+    }
+
+    public void setPacked(float[] packed) {
+        checkWritable();
+        this.packed = packed;
+    }
+
+    public void setIndices(int[] indices) {
+        checkWritable();
+        this.indices = indices;
+    }
+
+    public void setSize(int size) {
+        checkWritable();
+        this.size = size;
+    }
+
+    public void setMode(Mode mode) {
+        checkWritable();
+        this.mode = mode;
+    }
+
+    /**
+     * Marks this data as shared between multiple Meshes.
+     * From now on all modifications throw an exception.
+     */
+    public void share() {
+        this.shared = true;
+    }
+
+    /**
+     * Creates an unshared, not uploaded copy with its own vertex and index arrays
+     * @return new MeshData
+     */
+    public MeshData copy() {
+        MeshData copy = new MeshData();
+        if (getPacked() != null) {
+            copy.set(getPacked().clone(), getIndices().clone(), getSize());
+        }
+        copy.setMode(getMode());
+        return copy;
+    }
+
+    protected void checkWritable() {
+        if (shared) {
+            throw new IllegalStateException("MeshData is shared and cannot be modified. Use Mesh#getWritableData()");
+        }
+    }
+
+    /**
+     * Creates a Vertex object from the packed data
+     * @param index The vertex index
+     * @return new Vertex
+     */
+    public Vertex getVertex(int index) {
+        float[] packed = getPacked();
+        int o = index * Vertex.SIZE;
+        return new Vertex(
+                new Vector3f(packed[o], packed[o + 1], packed[o + 2]),
+                new Vector2f(packed[o + 3], packed[o + 4]),
+                new Vector3f(packed[o + 5], packed[o + 6], packed[o + 7]),
+                new Vector3f(packed[o + 8], packed[o + 9], packed[o + 10])
+        );
+    }
+
+    public Vector3f getPosition(int index, Vector3f store) {
+        return get(index, Vertex.POSITION_OFFSET, store);
+    }
+
+    public Vector2f getTexCoord(int index, Vector2f store) {
+        float[] packed = getPacked();
+        int o = index * Vertex.SIZE + Vertex.TEX_COORD_OFFSET;
+        store.set(packed[o], packed[o + 1]);
+        return store;
+    }
+
+    public Vector3f getNormal(int index, Vector3f store) {
+        return get(index, Vertex.NORMAL_OFFSET, store);
+    }
+
+    public Vector3f getTangent(int index, Vector3f store) {
+        return get(index, Vertex.TANGENT_OFFSET, store);
     }
 
     public int getVertexCount() {
-        return getVertices().length;
+        if (packed != null) {
+            return packed.length / Vertex.SIZE;
+        } else if (vertexBuffer != null) {
+            return vertexBuffer.limit() / Vertex.SIZE;
+        }
+        return 0;
+    }
+
+    protected Vector3f get(int index, int offset, Vector3f store) {
+        float[] packed = getPacked();
+        int o = index * Vertex.SIZE + offset;
+        store.set(packed[o], packed[o + 1], packed[o + 2]);
+        return store;
+    }
+
+    /**
+     * Packs the vertices into an interleaved float array.
+     * Missing normals or tangents are written as zero.
+     * @param vertices The vertices
+     * @return packed data, {@link Vertex#SIZE} floats per vertex
+     */
+    public static float[] pack(Vertex[] vertices) {
+        float[] packed = new float[vertices.length * Vertex.SIZE];
+
+        int o = 0;
+        for (Vertex vertex : vertices) {
+            o = put(packed, o, vertex.getPos());
+
+            Vector2f texCor = vertex.getTexCor();
+            packed[o++] = texCor == null ? 0 : texCor.getX();
+            packed[o++] = texCor == null ? 0 : texCor.getY();
+
+            o = put(packed, o, vertex.getNormal());
+            o = put(packed, o, vertex.getTangent());
+        }
+
+        return packed;
+    }
+
+    private static int put(float[] packed, int o, Vector3f v) {
+        if (v != null) {
+            packed[o] = v.getX();
+            packed[o + 1] = v.getY();
+            packed[o + 2] = v.getZ();
+        }
+        return o + 3;
     }
 }
@@ -0,0 +1,63 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.queue;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategy;
+import org.achtern.AchternEngine.core.rendering.shader.Shader;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+
+/**
+ * A single draw call collected by the {@link RenderQueue}.
+ * DrawItems are pooled by the queue and reused every frame.
+ */
+public class DrawItem {
+
+    @Getter protected Figure figure;
+
+    @Getter protected Shader shader;
+
+    @Getter protected DrawStrategy drawStrategy;
+
+    /**
+     * The sort key
+     * @see RenderQueue#key(int, int, int, float)
+     */
+    @Getter protected long key;
+
+    protected void set(Figure figure, Shader shader, DrawStrategy drawStrategy, long key) {
+        this.figure = figure;
+        this.shader = shader;
+        this.drawStrategy = drawStrategy;
+        this.key = key;
+    }
+
+    /**
+     * Drops all references, to allow garbage collection of removed figures
+     */
+    protected void clear() {
+        set(null, null, null, 0);
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.queue;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.Material;
+import org.achtern.AchternEngine.core.rendering.RenderEngine;
+import org.achtern.AchternEngine.core.rendering.RenderPass;
+import org.achtern.AchternEngine.core.rendering.culling.FrustumCuller;
+import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategy;
+import org.achtern.AchternEngine.core.rendering.drawing.InstancedDrawStrategy;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.rendering.shader.Shader;
+import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.entity.Camera;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.achtern.AchternEngine.core.util.UBuffer;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The RenderQueue collects the draw calls of a scenegraph, instead of drawing them in scenegraph order.
+ * The collected {@link DrawItem}s get sorted by a 64-bit key (shader, texture, mesh, depth) and submitted
+ *  afterwards. This groups figures sharing the same state and lets the
+ *  {@link org.achtern.AchternEngine.core.rendering.binding.DataBinder} skip redundant binds.
+ * <br>
+ * Key layout (most significant first):
+ * <pre>
+ *  | unused (1 bit) | shader (15 bit) | diffuse texture (16 bit) | mesh (16 bit) | depth (16 bit) |
+ * </pre>
+ * Nested calls to {@link #render(Node, RenderEngine)} (e.g. shadow map rendering) are supported,
+ *  each call only sorts and submits the items it collected.
+ * <br>
+ * After sorting, consecutive items sharing shader, mesh data, material and DrawStrategy
+ *  are drawn with a single instanced draw call, if the shader and strategy support it.
+ * Such items are drawn instanced even if they are alone, so every pass transforms them the same way
+ *  and the additive passes (depth function EQUAL) match the depth written by the first pass exactly.
+ */
+public class RenderQueue {
+
+    /**
+     * Sorts DrawItems by their key
+     */
+    protected static final Comparator<DrawItem> KEY_ORDER = new Comparator<DrawItem>() {
+        @Override
+        public int compare(DrawItem o1, DrawItem o2) {
+            return Long.compare(o1.getKey(), o2.getKey());
+        }
+    };
+
+    /**
+     * Whether to queue at all. If disabled, nodes are rendered in scenegraph order.
+     */
+    @Getter @Setter protected boolean enabled = true;
+
+    /**
+     * Pooled items, only the first {@link #size} are in use
+     */
+    protected DrawItem[] items = new DrawItem[64];
+
+    protected int size;
+
+    /**
+     * Nesting depth of {@link #render(Node, RenderEngine)}
+     */
+    protected int depth;
+
+    /**
+     * Position of the camera used in the current {@link #render(Node, RenderEngine)} call
+     */
+    protected Vector3f eye;
+
+    /**
+     * Number of items submitted in the last (outermost) render call
+     */
+    @Getter protected int submitted;
+
+    /**
+     * Number of draw calls issued in the last (outermost) render call.
+     * Lower than {@link #submitted} if figures have been drawn instanced.
+     */
+    @Getter protected int drawCalls;
+
+    /**
+     * Number of draw calls issued by all (outermost) render calls so far.
+     * Unlike {@link #drawCalls} this includes render calls of pass filters, e.g. shadow maps.
+     */
+    @Getter protected long totalDrawCalls;
+
+    /**
+     * Whether consecutive items sharing shader, mesh data, material and DrawStrategy
+     *  should be drawn with a single instanced draw call.
+     * Do not change it in the middle of a frame, all passes have to draw a figure the same way.
+     * @see InstancedDrawStrategy
+     * @see Shader#supportsInstancing()
+     */
+    @Getter @Setter protected boolean instancing = true;
+
+    /**
+     * Model matrices of the current instance group, column-major
+     */
+    protected FloatBuffer instanceBuffer;
+
+    /**
+     * Passed as world matrix to instanced draws, the actual transforms are per-instance attributes
+     */
+    protected final Matrix4f identity = new Matrix4f().initIdentiy();
+
+    /**
+     * Draw calls issued in the current render call, copied to {@link #drawCalls} when the outermost call finishes
+     */
+    private int pendingDrawCalls;
+
+    /**
+     * Renders the node via the queue.
+     * All figures of the node get collected, sorted and drawn.
+     * @param node The node to render
+     * @param renderEngine The active RenderEngine
+     */
+    public void render(Node node, RenderEngine renderEngine) {
+        FrustumCuller culler = renderEngine.getCuller();
+        Camera previousCamera = null;
+        RenderPass previousPass = null;
+        if (culler != null) {
+            previousCamera = culler.getCamera();
+            previousPass = culler.getPass();
+            culler.update(renderEngine.getCamera(), renderEngine.getActiveRenderPass());
+        }
+
+        try {
+            if (enabled) {
+                collect(node, renderEngine);
+            } else {
+                node.render(renderEngine);
+            }
+        } finally {
+            if (culler != null && depth > 0) {
+                // restore the frustum of the outer render call
+                culler.update(previousCamera, previousPass);
+            }
+        }
+    }
+
+    protected void collect(Node node, RenderEngine renderEngine) {
+        int start = size;
+        Vector3f previousEye = eye;
+        eye = renderEngine.getCamera() == null ? null : renderEngine.getCamera().getTransform().getTransformedPosition();
+        depth++;
+        try {
+            node.render(renderEngine);
+        } finally {
+            depth--;
+            eye = previousEye;
+        }
+
+        sort(start);
+        flush(start, renderEngine);
+    }
+
+    /**
+     * Whether figures should add themselves to this queue instead of drawing right away
+     * @return collecting
+     */
+    public boolean isCollecting() {
+        return enabled && depth > 0;
+    }
+
+    /**
+     * Adds a draw call and computes its key
+     * @param figure The figure to draw
+     * @param shader The shader to draw the figure with
+     * @param drawStrategy The DrawStrategy to use
+     */
+    public void add(Figure figure, Shader shader, DrawStrategy drawStrategy) {
+        Material material = figure.getMaterial();
+        int texture = material.hasTexture("diffuse") ? material.getTexture("diffuse").getID() : 0;
+
+        float distance = 0;
+        if (eye != null) {
+            Matrix4f world = figure.getTransform().getTransformation();
+            float x = world.get(0, 3) - eye.getX();
+            float y = world.get(1, 3) - eye.getY();
+            float z = world.get(2, 3) - eye.getZ();
+            distance = x * x + y * y + z * z;
+        }
+
+        add(figure, shader, drawStrategy,
+                key(shader.getProgram().getID(), texture, figure.getMesh().getData().getID(), distance));
+    }
+
+    /**
+     * Adds a draw call with a given key
+     * @param figure The figure to draw
+     * @param shader The shader to draw the figure with
+     * @param drawStrategy The DrawStrategy to use
+     * @param key The sort key
+     */
+    public void add(Figure figure, Shader shader, DrawStrategy drawStrategy, long key) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size << 1);
+        }
+        if (items[size] == null) {
+            items[size] = new DrawItem();
+        }
+
+        items[size++].set(figure, shader, drawStrategy, key);
+    }
+
+    /**
+     * Builds the sort key.
+     * The ids are truncated to 15 (shader) and 16 bits, which only affects sorting quality.
+     * The sign bit is never set, so keys compare like unsigned values.
+     * The depth (any non-negative, monotonic measure like the squared distance) is stored
+     *  as the upper 16 bits of its float representation, sorting front to back.
+     * @param shader The shader's program id
+     * @param texture The texture id
+     * @param mesh The mesh id
+     * @param depth Non-negative depth
+     * @return key
+     */
+    public static long key(int shader, int texture, int mesh, float depth) {
+        long d = (Float.floatToIntBits(Math.max(depth, 0)) >>> 16) & 0xFFFF;
+
+        return ((long) (shader & 0x7FFF) << 48)
+                | ((long) (texture & 0xFFFF) << 32)
+                | ((long) (mesh & 0xFFFF) << 16)
+                | d;
+    }
+
+    /**
+     * Returns the number of collected, not yet submitted items
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the collected item at the index
+     * @param index index
+     * @return item
+     */
+    public DrawItem get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return items[index];
+    }
+
+    protected void sort(int from) {
+        Arrays.sort(items, from, size, KEY_ORDER);
+    }
+
+    protected void flush(int from, RenderEngine renderEngine) {
+        try {
+            int i = from;
+            while (i < size) {
+                DrawItem item = items[i];
+
+                // never decide by the group size, light culling changes it from pass to pass
+                if (instancing && canInstance(item)) {
+                    int end = groupEnd(i);
+                    drawInstanced(i, end, renderEngine);
+                    i = end;
+                } else {
+                    item.getFigure().draw(renderEngine, item.getShader(), item.getDrawStrategy());
+                    pendingDrawCalls++;
+                    i++;
+                }
+            }
+        } finally {
+            if (depth == 0) {
+                submitted = size;
+                drawCalls = pendingDrawCalls;
+                totalDrawCalls += pendingDrawCalls;
+                pendingDrawCalls = 0;
+            }
+            for (int i = from; i < size; i++) {
+                items[i].clear();
+            }
+            size = from;
+        }
+    }
+
+    /**
+     * Whether the item can be drawn instanced
+     * @param item The item
+     * @return whether shader and DrawStrategy support instancing
+     */
+    protected boolean canInstance(DrawItem item) {
+        return item.getDrawStrategy() instanceof InstancedDrawStrategy && item.getShader().supportsInstancing();
+    }
+
+    /**
+     * Finds the end of the instance group starting at the index.
+     * Items are grouped, if they share the shader, DrawStrategy, mesh data and material.
+     * @param start first item of the group, has to support instancing
+     * @return index after the last item of the group
+     */
+    protected int groupEnd(int start) {
+        DrawItem first = items[start];
+        Figure figure = first.getFigure();
+        MeshData data = figure.getMesh().getData();
+        Material material = figure.getMaterial();
+
+        int end = start + 1;
+        while (end < size) {
+            DrawItem item = items[end];
+            if (item.getShader() != first.getShader()
+                    || item.getDrawStrategy() != first.getDrawStrategy()
+                    || item.getFigure().getMaterial() != material
+                    || item.getFigure().getMesh().getData() != data) {
+                break;
+            }
+            end++;
+        }
+
+        return end;
+    }
+
+    protected void drawInstanced(int from, int to, RenderEngine renderEngine) {
+        int count = to - from;
+        if (instanceBuffer == null || instanceBuffer.capacity() < count * 16) {
+            int capacity = instanceBuffer == null ? 64 * 16 : instanceBuffer.capacity();
+            while (capacity < count * 16) {
+                capacity <<= 1;
+            }
+            instanceBuffer = UBuffer.createFloatBuffer(capacity);
+        }
+
+        instanceBuffer.clear();
+        for (int i = from; i < to; i++) {
+            float[] m = items[i].getFigure().getTransform().getTransformation().getMReference();
+            // row-major to column-major
+            for (int column = 0; column < 4; column++) {
+                instanceBuffer.put(m[column]);
+                instanceBuffer.put(m[4 + column]);
+                instanceBuffer.put(m[8 + column]);
+                instanceBuffer.put(m[12 + column]);
+            }
+        }
+        instanceBuffer.flip();
+
+        DrawItem first = items[from];
+        Shader shader = first.getShader();
+        Figure figure = first.getFigure();
+
+        renderEngine.getDataBinder().bind(shader);
+        shader.updateUniforms(renderEngine, figure, identity);
+
+        ((InstancedDrawStrategy) first.getDrawStrategy())
+                .drawInstanced(renderEngine.getDataBinder(), figure.getMesh(), instanceBuffer, count);
+        pendingDrawCalls++;
+    }
+}
@@ -32,7 +32,9 @@ import org.achtern.AchternEngine.core.rendering.fog.Fog;
 import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
 import org.achtern.AchternEngine.core.resource.fileparser.GLSLParser;
 import org.achtern.AchternEngine.core.resource.fileparser.GLSLProgram;
+import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.GLSLScript;
 import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.Uniform;
+import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.Variable;
 import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
 import org.achtern.AchternEngine.core.scenegraph.entity.GlobalEntity;
 import lombok.Getter;
@@ -54,10 +56,50 @@ public abstract class Shader {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(Shader.class);
 
+    /**
+     * Name of the per-instance model matrix attribute.
+     * Vertex shaders declaring it at
+     *  {@link org.achtern.AchternEngine.core.rendering.binding.DataBinder#INSTANCE_ATTRIBUTE_LOCATION}
+     *  can be used for instanced drawing.
+     */
+    public static final String INSTANCE_ATTRIBUTE = "instanceModel";
+
     @Getter @Setter private GLSLParser parser = new GLSLParser();
 
     @Getter protected GLSLProgram program;
 
+    /**
+     * The binding plan, resolved from {@link #bindingsProgram}
+     */
+    private UniformBinding[] bindings;
+
+    /**
+     * The program the current binding plan was built for
+     */
+    private GLSLProgram bindingsProgram;
+
+    /**
+     * Model-View-Projection matrix, reused for every draw.
+     * The values are uploaded right away, so a single instance is enough.
+     */
+    private final Matrix4f mvp = new Matrix4f();
+
+    /**
+     * Reused for modelView and shadowMatrix.
+     * Each uniform is uploaded before the next one gets updated.
+     */
+    private final Matrix4f scratch = new Matrix4f();
+
+    /**
+     * Whether {@link #instancingProgram} declares the instance attribute
+     */
+    private boolean instancing;
+
+    /**
+     * The program {@link #instancing} was determined for
+     */
+    private GLSLProgram instancingProgram;
+
     /**
      * For subclasses.
      */
@@ -68,103 +110,183 @@ public abstract class Shader {
         this.program = program;
     }
 
+    /**
+     * Returns the binding plan of this shader.
+     * The plan is built once per {@link org.achtern.AchternEngine.core.resource.fileparser.GLSLProgram},
+     *  and rebuilt if the program has been replaced.
+     * @return the bindings of all uniforms
+     */
+    public UniformBinding[] getBindings() {
+        if (bindings == null || bindingsProgram != program) {
+            bindings = UniformBinding.of(program.getUniforms());
+            bindingsProgram = program;
+            LOGGER.debug("{}: built uniform binding plan with {} entries",
+                    this.getClass().getSimpleName(), bindings.length);
+        }
+
+        return bindings;
+    }
+
+    /**
+     * Forces a rebuild of the binding plan on the next {@link #updateUniforms(RenderEngine, Figure)} call.
+     * Only needed if the uniforms of the current program changed.
+     */
+    public void invalidateBindings() {
+        bindings = null;
+    }
+
+    /**
+     * Whether the vertex shader of the program declares the {@link #INSTANCE_ATTRIBUTE}.
+     * Only those shaders can draw multiple figures with a single instanced draw call.
+     * @return supports instancing
+     */
+    public boolean supportsInstancing() {
+        if (instancingProgram != program) {
+            instancing = false;
+            if (program != null && program.getScripts() != null) {
+                for (GLSLScript script : program.getScripts()) {
+                    if (script.getType() == GLSLScript.Type.VERTEX_SHADER && script.getInputs() != null) {
+                        for (Variable input : script.getInputs()) {
+                            if (INSTANCE_ATTRIBUTE.equals(input.getName()) && "mat4".equals(input.getType())) {
+                                instancing = true;
+                            }
+                        }
+                    }
+                }
+            }
+            instancingProgram = program;
+        }
+
+        return instancing;
+    }
+
     public void updateUniforms(RenderEngine renderEngine, Figure figure) {
+        updateUniforms(renderEngine, figure, figure.getTransform().getTransformation());
+    }
+
+    /**
+     * Updates the uniforms with a given world matrix instead of the figure's transformation.
+     * Instanced draws pass the identity here, the per-instance model matrices are supplied as vertex attribute.
+     * @param renderEngine The active RenderEngine
+     * @param figure The figure supplying the material and mesh
+     * @param worldMat The world matrix
+     */
+    public void updateUniforms(RenderEngine renderEngine, Figure figure, Matrix4f worldMat) {
 
         Material material = figure.getMaterial();
         Transform transform = figure.getTransform();
 
-        Matrix4f worldMat = transform.getTransformation();
-        Matrix4f projection = renderEngine.getCamera().getViewProjection().mul(worldMat);
+        Matrix4f projection = Matrix4f.mulLocal(renderEngine.getCamera().getViewProjection(), worldMat, mvp);
 
         // Keeps track of the current SamplerSlot in use.
         int samplerSlot = 0;
 
-        for (Uniform u : this.program.getUniforms()) {
+        UniformBinding[] plan = getBindings();
+
+        for (UniformBinding binding : plan) {
+            Uniform u = binding.getUniform();
             String n = u.getName(); // Just a quick access to the name!
 
-            // textures aka sampler2Ds
-            if (u.getType().equalsIgnoreCase("sampler2D")) {
-
-                // material takes precedence over the renderengine
-                if (material.hasTexture(n)) {
-                    // Bind it to the sampler slot. this sampler slot comes from the RenderEngine
-                    renderEngine.getDataBinder().bind(material.getTexture(n), samplerSlot);
-
-                } else if (renderEngine.hasTexture(n)) {
-                    renderEngine.getDataBinder().bind(renderEngine.getTexture(n), samplerSlot);
-                } else if (!figure.getMesh().getData().getMode().equals(MeshData.Mode.TRIANGLES)) {
-                    // we do not need a texture anyway.
-                    u.setShouldSet(false);
-                } else {
-                    LOGGER.warn("{}: texture '{}' not found in material nor RenderEngine.",
-                            this.getClass().getSimpleName(), n);
-                    // If the texture has not been found, set the missing texture from
-                    // Material
-                    renderEngine.getDataBinder().bind(material.getTexture(n), samplerSlot);
-                    n = "diffuse"; // Default to diffuse!
-                }
+            switch (binding.getSemantic()) {
+                // textures aka sampler2Ds
+                case SAMPLER:
+                    // material takes precedence over the renderengine
+                    if (material.hasTexture(n)) {
+                        // Bind it to the sampler slot. this sampler slot comes from the RenderEngine
+                        renderEngine.getDataBinder().bind(material.getTexture(n), samplerSlot);
+
+                    } else if (renderEngine.hasTexture(n)) {
+                        renderEngine.getDataBinder().bind(renderEngine.getTexture(n), samplerSlot);
+                    } else if (!figure.getMesh().getData().getMode().equals(MeshData.Mode.TRIANGLES)) {
+                        // we do not need a texture anyway.
+                        u.setShouldSet(false);
+                    } else {
+                        LOGGER.warn("{}: texture '{}' not found in material nor RenderEngine.",
+                                this.getClass().getSimpleName(), n);
+                        // If the texture has not been found, set the missing texture from
+                        // Material
+                        renderEngine.getDataBinder().bind(material.getTexture(n), samplerSlot);
+                    }
 
-                // and set the value of the uniform to the sampler slot
-                u.setValue(samplerSlot);
-                samplerSlot++;
+                    // and set the value of the uniform to the sampler slot
+                    u.setValue(samplerSlot);
+                    samplerSlot++;
+                    break;
 
                 // Now common structs like DirectionalLight, PointLight, SpotLight, AmbientLight
-            } else if (u.getType().equalsIgnoreCase("DirectionalLight") ||
-                    u.getType().equalsIgnoreCase("SpotLight") ||
-                    u.getType().equalsIgnoreCase("PointLight") ||
-                    u.getType().equalsIgnoreCase("AmbientLight"))
-            {
-                u.setValue(renderEngine.getActiveRenderPass());
-
-            } else if (u.getType().equalsIgnoreCase("Fog")) {
-
-                GlobalEntity<Fog> gE = renderEngine.getGlobal(Fog.class);
-                if (gE != null) {
-                    u.setValue(gE.getObject());
-                } else {
-                    // use disabled fog
-                    u.setValue(Fog.DISABLED);
-                }
+                case LIGHT:
+                    u.setValue(renderEngine.getActiveRenderPass());
+                    break;
 
-                // other stuff below
-                // currently supporting
-                // color, MVP, (shadowMatrix=TEMP)
-            } else if (n.equalsIgnoreCase("color")) {
-                u.setValue(material.getColor());
+                case FOG:
+                    GlobalEntity<Fog> gE = renderEngine.getGlobal(Fog.class);
+                    if (gE != null) {
+                        u.setValue(gE.getObject());
+                    } else {
+                        // use disabled fog
+                        u.setValue(Fog.DISABLED);
+                    }
+                    break;
 
-            } else if (n.equalsIgnoreCase("MVP")) {
-                u.setValue(projection);
+                case COLOR:
+                    u.setValue(material.getColor());
+                    break;
 
-            } else if (n.equalsIgnoreCase("model")) {
-                u.setValue(transform.getTransformation());
+                case MVP:
+                    u.setValue(projection);
+                    break;
 
-            } else if (n.equalsIgnoreCase("modelView")) {
-                u.setValue(renderEngine.getCamera().getView().mul(transform.getTransformation()));
+                case MODEL:
+                    u.setValue(worldMat);
+                    break;
 
-            } else if (n.equalsIgnoreCase("eyePos")) {
-                u.setValue(renderEngine.getCamera().getTransform().getTransformedPosition());
+                case MODEL_VIEW:
+                    u.setValue(Matrix4f.mulLocal(renderEngine.getCamera().getView(), worldMat, scratch));
+                    break;
 
-            } else if (n.equalsIgnoreCase("shadowMatrix")) {
-                Matrix4f m = new Matrix4f().initIdentiy();
-                if (renderEngine.getMatrix("shadowMatrix") != null) {
-                    m = renderEngine.getMatrix("shadowMatrix").mul(transform.getTransformation());
-                }
-                u.setValue(m);
+                case EYE_POS:
+                    u.setValue(renderEngine.getCamera().getTransform().getTransformedPosition());
+                    break;
+
+                case SHADOW_MATRIX:
+                    Matrix4f shadowMatrix = renderEngine.getMatrix("shadowMatrix");
+                    if (shadowMatrix != null) {
+                        u.setValue(Matrix4f.mulLocal(shadowMatrix, worldMat, scratch));
+                    } else {
+                        u.setValue(scratch.initIdentiy());
+                    }
+                    break;
 
-            } else {
                 // In the last step we try to find the value in the material,
                 // otherwise leave it to the user!
-                if (u.getType().equalsIgnoreCase("float")) {
+                case MATERIAL_FLOAT:
                     u.setValue(material.getFloat(n));
-                } else if ((u.getType().equalsIgnoreCase("vec3") && material.hasVector(n))) {
-                    u.setValue(material.getVector(n));
-                } else if ((u.getType().equalsIgnoreCase("mat4") && material.hasMatrix(n))) {
-                    u.setValue(material.getMatrix(n));
-                } else if ((u.getType().equalsIgnoreCase("vec4") && material.hasColor(n))) {
-                    u.setValue(material.getColor(n));
-                } else if (u.getType().equalsIgnoreCase("int")) {
+                    break;
+
+                case MATERIAL_VEC3:
+                    if (material.hasVector(n)) {
+                        u.setValue(material.getVector(n));
+                    }
+                    break;
+
+                case MATERIAL_MAT4:
+                    if (material.hasMatrix(n)) {
+                        u.setValue(material.getMatrix(n));
+                    }
+                    break;
+
+                case MATERIAL_VEC4:
+                    if (material.hasColor(n)) {
+                        u.setValue(material.getColor(n));
+                    }
+                    break;
+
+                case MATERIAL_INT:
                     u.setValue(material.getInteger(n));
-                }
+                    break;
+
+                default:
+                    break;
             }
 
             // If the value is null, the developer has to fill it,
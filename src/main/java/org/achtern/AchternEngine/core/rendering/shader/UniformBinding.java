@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.shader;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.Uniform;
+
+import java.util.List;
+
+/**
+ * A UniformBinding links a {@link org.achtern.AchternEngine.core.resource.fileparser.caseclasses.Uniform}
+ *  to its {@link org.achtern.AchternEngine.core.rendering.shader.UniformBinding.Semantic}.
+ * The semantic is resolved only once (by type and name), so the {@link Shader} does not have
+ *  to compare strings on every draw.
+ */
+public class UniformBinding {
+
+    /**
+     * Where the value of the uniform comes from
+     */
+    public static enum Semantic {
+        /**
+         * sampler2D, from the Material or RenderEngine
+         */
+        SAMPLER,
+        /**
+         * DirectionalLight, SpotLight, PointLight or AmbientLight struct, the active RenderPass
+         */
+        LIGHT,
+        /**
+         * Fog struct, the global Fog
+         */
+        FOG,
+        COLOR,
+        MVP,
+        MODEL,
+        MODEL_VIEW,
+        EYE_POS,
+        SHADOW_MATRIX,
+        MATERIAL_FLOAT,
+        MATERIAL_VEC3,
+        MATERIAL_MAT4,
+        MATERIAL_VEC4,
+        MATERIAL_INT,
+        /**
+         * Unknown uniform, left to {@link Shader#handle} or a {@link Uniform.SetStrategy}
+         */
+        CUSTOM
+    }
+
+    @Getter protected final Uniform uniform;
+
+    @Getter protected final Semantic semantic;
+
+    public UniformBinding(Uniform uniform, Semantic semantic) {
+        this.uniform = uniform;
+        this.semantic = semantic;
+    }
+
+    /**
+     * Resolves the semantic of the uniform
+     * @param u The uniform
+     * @return new binding
+     */
+    public static UniformBinding of(Uniform u) {
+        return new UniformBinding(u, resolve(u.getType(), u.getName()));
+    }
+
+    /**
+     * Creates the bindings for all uniforms
+     * @param uniforms The uniforms
+     * @return bindings, in the same order as the uniforms
+     */
+    public static UniformBinding[] of(List<Uniform> uniforms) {
+        UniformBinding[] bindings = new UniformBinding[uniforms.size()];
+        for (int i = 0; i < bindings.length; i++) {
+            bindings[i] = of(uniforms.get(i));
+        }
+        return bindings;
+    }
+
+    /**
+     * Resolves the semantic of a uniform by its type and name.
+     * Types take precedence over names.
+     * @param type GLSL type
+     * @param name Uniform name
+     * @return semantic
+     */
+    public static Semantic resolve(String type, String name) {
+        if (type.equalsIgnoreCase("sampler2D")) {
+            return Semantic.SAMPLER;
+        } else if (type.equalsIgnoreCase("DirectionalLight") ||
+                type.equalsIgnoreCase("SpotLight") ||
+                type.equalsIgnoreCase("PointLight") ||
+                type.equalsIgnoreCase("AmbientLight"))
+        {
+            return Semantic.LIGHT;
+        } else if (type.equalsIgnoreCase("Fog")) {
+            return Semantic.FOG;
+        } else if (name.equalsIgnoreCase("color")) {
+            return Semantic.COLOR;
+        } else if (name.equalsIgnoreCase("MVP")) {
+            return Semantic.MVP;
+        } else if (name.equalsIgnoreCase("model")) {
+            return Semantic.MODEL;
+        } else if (name.equalsIgnoreCase("modelView")) {
+            return Semantic.MODEL_VIEW;
+        } else if (name.equalsIgnoreCase("eyePos")) {
+            return Semantic.EYE_POS;
+        } else if (name.equalsIgnoreCase("shadowMatrix")) {
+            return Semantic.SHADOW_MATRIX;
+        } else if (type.equalsIgnoreCase("float")) {
+            return Semantic.MATERIAL_FLOAT;
+        } else if (type.equalsIgnoreCase("vec3")) {
+            return Semantic.MATERIAL_VEC3;
+        } else if (type.equalsIgnoreCase("mat4")) {
+            return Semantic.MATERIAL_MAT4;
+        } else if (type.equalsIgnoreCase("vec4")) {
+            return Semantic.MATERIAL_VEC4;
+        } else if (type.equalsIgnoreCase("int")) {
+            return Semantic.MATERIAL_INT;
+        }
+
+        return Semantic.CUSTOM;
+    }
+
+    @Override
+    public String toString() {
+        return uniform + " -> " + semantic;
+    }
+}
@@ -110,7 +110,7 @@ public class BasicShadowRenderer extends Shadow {
                 renderEngine.setCamera(camera);
                 renderEngine.setActiveRenderPass(this);
                 renderEngine.getDataBinder().bind(ShadowGenerator.getInstance());
-                node.render(renderEngine);
+                renderEngine.getRenderQueue().render(node, renderEngine);
 
                 // Reset it
                 if (cullFace != null) {
@@ -25,11 +25,17 @@
 package org.achtern.AchternEngine.core.resource;
 
 import org.achtern.AchternEngine.core.audio.openal.AudioSource;
+import org.achtern.AchternEngine.core.metrics.Gauge;
+import org.achtern.AchternEngine.core.metrics.MetricRegistry;
 import org.achtern.AchternEngine.core.rendering.Dimension;
+import org.achtern.AchternEngine.core.rendering.binding.UploadQueue;
 import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.texture.TexturableData;
 import org.achtern.AchternEngine.core.rendering.texture.Texture;
 import org.achtern.AchternEngine.core.resource.fileparser.GLSLProgram;
 import org.achtern.AchternEngine.core.resource.fileparser.LineBasedParser;
+import org.achtern.AchternEngine.core.resource.fileparser.mesh.CookedMesh;
+import org.achtern.AchternEngine.core.resource.fileparser.texture.CookedTexture;
 import org.achtern.AchternEngine.core.resource.loader.*;
 import org.achtern.AchternEngine.core.resource.loader.json.FigureLoader;
 import org.achtern.AchternEngine.core.resource.locations.*;
@@ -38,9 +44,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.ArrayList;
+import java.net.URLConnection;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The {@link org.achtern.AchternEngine.core.resource.ResourceLoader} is the main entry point
@@ -60,8 +69,9 @@ import java.util.List;
  * are added as ResourceLocation by default. You can add your own by using {@link #addResourceLocation(ResourceLocation)}
  * or remove all {@link #clearResourceLocations()}.
  *
- * The ResourceLoader uses a very basic {@link org.achtern.AchternEngine.core.resource.ResourceCache}s in order
+ * The ResourceLoader uses {@link org.achtern.AchternEngine.core.resource.ResourceCache}s in order
  * to avoid re-reading data from disk. These caches - however - are not caching object, only the data.
+ * The caches are bounded, resources used all the time can be pinned with {@link #pin(String)}.
  */
 public class BasicResourceLoader implements ResourceLoaderProvider {
 
@@ -79,13 +89,46 @@ public class BasicResourceLoader implements ResourceLoaderProvider {
      */
     public static final String FIGURE_DECLARATION_EXT = ".json";
 
-    protected ResourceCache binaryCache = new ResourceCache();
-    protected ResourceCache<String> fileCache = new ResourceCache<String>();
+    /**
+     * Default limit of the binary cache in bytes
+     */
+    public static final long DEFAULT_BINARY_CACHE_SIZE = 256L * 1024 * 1024;
+    /**
+     * Default limit of the file cache in bytes
+     */
+    public static final long DEFAULT_FILE_CACHE_SIZE = 16L * 1024 * 1024;
+
+    protected ResourceCache<Object> binaryCache = new ResourceCache<Object>(
+            DEFAULT_BINARY_CACHE_SIZE, ResourceCache.EvictionPolicy.LRU, new ResourceWeigher()
+    );
+    protected ResourceCache<String> fileCache = new ResourceCache<String>(
+            DEFAULT_FILE_CACHE_SIZE, ResourceCache.EvictionPolicy.LRU, new ResourceWeigher()
+    );
 
     /**
      * This list contains locations to look for resources
      */
-    protected List<ResourceLocation> locations = new ArrayList<ResourceLocation>();
+    protected List<ResourceLocation> locations = new CopyOnWriteArrayList<ResourceLocation>();
+
+    /**
+     * Worker threads for asynchronous loading, created on first use
+     */
+    protected ExecutorService executor;
+
+    /**
+     * Resources loaded asynchronously, waiting to be uploaded on the main thread
+     */
+    protected UploadQueue uploadQueue = new UploadQueue();
+
+    /**
+     * Directory to store cooked meshes in, null disables cooking
+     */
+    protected File cookedMeshDirectory;
+
+    /**
+     * Directory to store cooked textures in, null disables cooking
+     */
+    protected File cookedTextureDirectory;
 
     /**
      * Add default locations:
@@ -110,6 +153,61 @@ public class BasicResourceLoader implements ResourceLoaderProvider {
         locations.add(new BundledShaderProgramLocation());
 
         locations.add(new FileSystemLocation("."));
+
+        MetricRegistry metrics = MetricRegistry.get();
+        registerMetrics(metrics, "resources.binaryCache", binaryCache);
+        registerMetrics(metrics, "resources.fileCache", fileCache);
+        metrics.register("resources.pendingUploads", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return uploadQueue.size();
+            }
+        });
+    }
+
+    /**
+     * Publishes the statistics of a cache
+     * @param metrics The registry
+     * @param prefix Prefix of the metric names
+     * @param cache The cache
+     */
+    protected void registerMetrics(MetricRegistry metrics, String prefix, final ResourceCache<?> cache) {
+        metrics.register(prefix + ".hits", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.getHits();
+            }
+        });
+        metrics.register(prefix + ".misses", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.getMisses();
+            }
+        });
+        metrics.register(prefix + ".hitRate", new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return cache.getHitRate();
+            }
+        });
+        metrics.register(prefix + ".evictions", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.getEvictions();
+            }
+        });
+        metrics.register(prefix + ".size", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return cache.size();
+            }
+        });
+        metrics.register(prefix + ".weight", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.getWeight();
+            }
+        });
     }
 
     /**
@@ -228,8 +326,9 @@ public class BasicResourceLoader implements ResourceLoaderProvider {
 
     /**
      * Loads a .obj file, parses it, optimises it and converts it into renderable {@link org.achtern.AchternEngine.core.rendering.mesh.Mesh}
-     * When loading from cache only the data will get reused, not the object itself and it
-     * will have to use new buffers (handled automatically).
+     * When loading from cache a new Mesh is created, which shares the (immutable) MeshData and
+     * therefore the GPU buffers with all other Meshes of this resource.
+     * Use {@link org.achtern.AchternEngine.core.rendering.mesh.Mesh#getWritableData()} to modify the geometry.
      * An IOException is thrown on read errors and other Exceptions might be
      * thrown from the GLSLProgramLoader itself.
      * @param name The relative path (to various ResourceLocations) of the filename
@@ -243,8 +342,9 @@ public class BasicResourceLoader implements ResourceLoaderProvider {
 
     /**
      * Loads a .obj file, parses it, optimises it and converts it into renderable {@link org.achtern.AchternEngine.core.rendering.mesh.Mesh}
-     * When loading from cache only the data will get reused, not the object itself and it
-     * will have to use new buffers (handled automatically).
+     * When loading from cache a new Mesh is created, which shares the (immutable) MeshData and
+     * therefore the GPU buffers with all other Meshes of this resource.
+     * Use {@link org.achtern.AchternEngine.core.rendering.mesh.Mesh#getWritableData()} to modify the geometry.
      * An IOException is thrown on read errors and other Exceptions might be
      * thrown from the GLSLProgramLoader itself.
      * @param name The relative path (to various ResourceLocations) of the filename
@@ -255,7 +355,128 @@ public class BasicResourceLoader implements ResourceLoaderProvider {
     @Override
     public Mesh getMesh(String name, boolean forceLoading) throws Exception {
         LOGGER.info("Loading Mesh {}", name);
-        return load(name, new MeshLoader(), forceLoading);
+
+        if (name.endsWith(CookedMesh.EXTENSION)) {
+            return load(name, new CookedMeshLoader(getFile(name)), forceLoading);
+        }
+
+        File cooked = getCookedMeshFile(name);
+        if (cooked == null) {
+            return load(name, new OBJLoader(), forceLoading);
+        }
+
+        Object cache = forceLoading ? null : binaryCache.get(name);
+        if (cache instanceof Mesh) {
+            return ((Mesh) cache).share();
+        }
+
+        // the stamp needs a connection to the source, only ask for it on a miss
+        long stamp = getStamp(name);
+        Mesh mesh = loadCookedMesh(name, cooked, stamp);
+        if (mesh != null) {
+            return mesh;
+        }
+
+        // the cache has been checked already
+        mesh = load(name, new OBJLoader(), true);
+
+        if (stamp == 0) {
+            LOGGER.debug("Unknown stamp of {}, not cooking it", name);
+            return mesh;
+        }
+
+        try {
+            CookedMesh.write(mesh, stamp, cooked);
+            LOGGER.debug("Cooked mesh {} into {}", name, cooked);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write cooked mesh <" + cooked + ">", e);
+        }
+
+        return mesh;
+    }
+
+    /**
+     * Loads a cooked mesh from the local file system, without going through the ResourceLocations.
+     * The mesh is cached under the name of the source, so it shares the MeshData with meshes
+     *  parsed from the source.
+     * An unknown stamp (0) is treated as outdated, a modified source could not be detected.
+     * @param name The name of the source
+     * @param cooked The cooked file
+     * @param stamp The stamp of the source
+     * @return Mesh (new instance) | null if the cooked file is missing, invalid or outdated
+     */
+    protected Mesh loadCookedMesh(String name, File cooked, long stamp) {
+        if (stamp == 0 || !cooked.isFile()) {
+            return null;
+        }
+
+        try {
+            CookedMesh mesh = CookedMesh.map(cooked);
+            if (mesh.getStamp() != stamp) {
+                LOGGER.debug("Cooked mesh {} is outdated", cooked);
+                return null;
+            }
+
+            LOGGER.debug("Using cooked mesh {}", cooked);
+            Mesh result = mesh.toMesh();
+            binaryCache.add(name, result);
+            return result.share();
+        } catch (IOException e) {
+            LOGGER.warn("Could not read cooked mesh <" + cooked + ">, parsing source", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the directory cooked meshes are stored in
+     * @return directory | null if cooking is disabled
+     */
+    public File getCookedMeshDirectory() {
+        return cookedMeshDirectory;
+    }
+
+    /**
+     * Enables cooking of meshes.
+     * Once a mesh has been parsed, a {@link org.achtern.AchternEngine.core.resource.fileparser.mesh.CookedMesh}
+     * is written into this directory. Following loads memory map the cooked mesh instead of parsing the
+     * source again, as long as the stamp of the source has not changed.
+     * @param cookedMeshDirectory The directory | null to disable cooking
+     */
+    public void setCookedMeshDirectory(File cookedMeshDirectory) {
+        this.cookedMeshDirectory = cookedMeshDirectory;
+    }
+
+    /**
+     * Returns the cooked file for the mesh
+     * @param name The name of the mesh
+     * @return file (may not exist) | null if cooking is disabled
+     */
+    protected File getCookedMeshFile(String name) {
+        if (cookedMeshDirectory == null) {
+            return null;
+        }
+
+        return new File(cookedMeshDirectory, name.replace(':', '_') + CookedMesh.EXTENSION);
+    }
+
+    /**
+     * Returns the resource as local file
+     * @param name The relative path (to various ResourceLocations) of the filename
+     * @return file | null if not found or not on the local file system
+     */
+    protected File getFile(String name) {
+        try {
+            URL url = getURL(name);
+            if ("file".equals(url.getProtocol())) {
+                return new File(url.toURI());
+            }
+        } catch (IOException e) {
+            // not found
+        } catch (URISyntaxException e) {
+            // not a local file
+        }
+
+        return null;
     }
 
     /**
@@ -305,7 +526,144 @@ public class BasicResourceLoader implements ResourceLoaderProvider {
     @Override
     public Texture getTexture(String name, Dimension dimension, boolean forceLoading) throws Exception {
         LOGGER.info("Loading Texture {}", name);
-        return load(name, new TextureLoader(dimension), forceLoading);
+
+        String key = getTextureKey(name, dimension);
+
+        File cooked = getCookedTextureFile(name, dimension);
+        if (cooked == null) {
+            return load(name, key, new TextureLoader(dimension), forceLoading);
+        }
+
+        Object cache = forceLoading ? null : binaryCache.get(key);
+        if (cache instanceof TexturableData) {
+            return new Texture((TexturableData) cache);
+        }
+
+        // the stamp needs a connection to the source, only ask for it on a miss
+        long stamp = getStamp(name);
+        Texture texture = loadCookedTexture(key, cooked, stamp);
+        if (texture != null) {
+            LOGGER.debug("Using cooked texture {}", cooked);
+            return texture;
+        }
+
+        // the cache has been checked already
+        texture = load(name, key, new TextureLoader(dimension), true);
+
+        if (stamp == 0) {
+            LOGGER.debug("Unknown stamp of {}, not cooking it", name);
+            return texture;
+        }
+
+        try {
+            CookedTexture.write(texture, stamp, cooked);
+            LOGGER.debug("Cooked texture {} into {}", name, cooked);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write cooked texture <" + cooked + ">", e);
+        }
+
+        return texture;
+    }
+
+    /**
+     * Returns the key textures are cached under.
+     * This is the name of the source, so it can be pinned, suffixed with the dimension of resized textures.
+     * @param name The name of the texture
+     * @param dimension The requested dimension | null
+     * @return key
+     */
+    protected String getTextureKey(String name, Dimension dimension) {
+        if (dimension == null) {
+            return name;
+        }
+
+        return name + "." + dimension.getWidth() + "x" + dimension.getHeight();
+    }
+
+    /**
+     * Loads a cooked texture from the local file system, without going through the ResourceLocations.
+     * The pixel data is memory mapped and shared by all Textures of this file.
+     * An unknown stamp (0) is treated as outdated, a modified source could not be detected.
+     * @param key The key to cache the texture under, see {@link #getTextureKey(String, Dimension)}
+     * @param cooked The cooked file
+     * @param stamp The stamp of the source
+     * @return Texture | null if the cooked file is missing, invalid or outdated
+     */
+    protected Texture loadCookedTexture(String key, File cooked, long stamp) {
+        if (stamp == 0 || !cooked.isFile()) {
+            return null;
+        }
+
+        try {
+            CookedTexture texture = CookedTexture.map(cooked);
+            if (texture.getStamp() != stamp) {
+                LOGGER.debug("Cooked texture {} is outdated", cooked);
+                return null;
+            }
+
+            Texture result = texture.toTexture();
+            binaryCache.add(key, result);
+            return result;
+        } catch (IOException e) {
+            LOGGER.warn("Could not read cooked texture <" + cooked + ">, decoding source", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the directory cooked textures are stored in
+     * @return directory | null if cooking is disabled
+     */
+    public File getCookedTextureDirectory() {
+        return cookedTextureDirectory;
+    }
+
+    /**
+     * Enables cooking of textures.
+     * Once an image has been decoded, a {@link org.achtern.AchternEngine.core.resource.fileparser.texture.CookedTexture}
+     * is written into this directory. Following loads memory map the decoded pixels instead of decoding the
+     * image again, as long as the source has not been modified.
+     * @param cookedTextureDirectory The directory | null to disable cooking
+     */
+    public void setCookedTextureDirectory(File cookedTextureDirectory) {
+        this.cookedTextureDirectory = cookedTextureDirectory;
+    }
+
+    /**
+     * Returns the cooked file for the texture
+     * @param name The name of the texture
+     * @param dimension The requested dimension | null
+     * @return file (may not exist) | null if cooking is disabled
+     */
+    protected File getCookedTextureFile(String name, Dimension dimension) {
+        if (cookedTextureDirectory == null) {
+            return null;
+        }
+
+        String file = name.replace(':', '_');
+        if (dimension != null) {
+            file += "." + dimension.getWidth() + "x" + dimension.getHeight();
+        }
+
+        return new File(cookedTextureDirectory, file + CookedTexture.EXTENSION);
+    }
+
+    /**
+     * Returns a stamp, which changes when the resource is modified.
+     * This is the last modification time, which is also available for resources inside of jars.
+     * @param name The relative path (to various ResourceLocations) of the filename
+     * @return stamp | 0 if unknown
+     */
+    protected long getStamp(String name) {
+        try {
+            URLConnection connection = getURL(name).openConnection();
+            long stamp = connection.getLastModified();
+            // opening a connection to a jar entry opens the stream
+            connection.getInputStream().close();
+            return stamp;
+        } catch (IOException e) {
+            return 0;
+        }
     }
 
     /**
@@ -395,6 +753,183 @@ public class BasicResourceLoader implements ResourceLoaderProvider {
         return load(name, new AudioSourceLoader(), forceLoading);
     }
 
+    /**
+     * Loads a Figure on a worker thread.
+     * The mesh and textures are queued for upload in the {@link #getUploadQueue()}.
+     * @see #getFigure(String)
+     * @param name The name of the file to load
+     * @return Future of the Figure (new instance)
+     */
+    @Override
+    public Future<Figure> getFigureAsync(final String name) {
+        return loadAsync(new Callable<Figure>() {
+            @Override
+            public Figure call() throws Exception {
+                Figure figure = getFigure(name);
+                uploadQueue.add(figure);
+                return figure;
+            }
+        });
+    }
+
+    /**
+     * Loads a Mesh on a worker thread.
+     * The mesh is queued for upload in the {@link #getUploadQueue()}.
+     * @see #getMesh(String)
+     * @param name The relative path (to various ResourceLocations) of the filename
+     * @return Future of the Mesh (new instance)
+     */
+    @Override
+    public Future<Mesh> getMeshAsync(final String name) {
+        return loadAsync(new Callable<Mesh>() {
+            @Override
+            public Mesh call() throws Exception {
+                Mesh mesh = getMesh(name);
+                uploadQueue.add(mesh);
+                return mesh;
+            }
+        });
+    }
+
+    /**
+     * Decodes a Texture on a worker thread.
+     * The texture is queued for upload in the {@link #getUploadQueue()}.
+     * @see #getTexture(String)
+     * @param name The relative path (to various ResourceLocations) of the filename
+     * @return Future of the Texture (new instance)
+     */
+    @Override
+    public Future<Texture> getTextureAsync(String name) {
+        return getTextureAsync(name, null);
+    }
+
+    /**
+     * Decodes a Texture on a worker thread.
+     * The texture is queued for upload in the {@link #getUploadQueue()}.
+     * @see #getTexture(String, org.achtern.AchternEngine.core.rendering.Dimension)
+     * @param name The relative path (to various ResourceLocations) of the filename
+     * @param dimension The dimension of the new texture
+     * @return Future of the Texture (new instance)
+     */
+    @Override
+    public Future<Texture> getTextureAsync(final String name, final Dimension dimension) {
+        return loadAsync(new Callable<Texture>() {
+            @Override
+            public Texture call() throws Exception {
+                Texture texture = getTexture(name, dimension);
+                uploadQueue.add(texture);
+                return texture;
+            }
+        });
+    }
+
+    /**
+     * Reads and parses a shader program on a worker thread.
+     * @see #getShaderProgram(String)
+     * @param name Name of the program declaration
+     * @return Future of the GLSLProgram
+     */
+    @Override
+    public Future<GLSLProgram> getShaderProgramAsync(final String name) {
+        return loadAsync(new Callable<GLSLProgram>() {
+            @Override
+            public GLSLProgram call() throws Exception {
+                return getShaderProgram(name);
+            }
+        });
+    }
+
+    /**
+     * Runs any loading task on the worker threads.
+     * The task must not access the context, queue uploads in the {@link #getUploadQueue()} instead.
+     * @param task The loading task
+     * @param <T> The type of the loaded object
+     * @return Future of the result
+     */
+    @Override
+    public <T> Future<T> loadAsync(Callable<T> task) {
+        return getExecutor().submit(task);
+    }
+
+    /**
+     * Returns the queue of resources, which have been loaded asynchronously and wait for their upload.
+     * The {@link org.achtern.AchternEngine.core.CoreEngine} processes this queue every frame.
+     * @return The UploadQueue
+     */
+    @Override
+    public UploadQueue getUploadQueue() {
+        return uploadQueue;
+    }
+
+    /**
+     * Returns the executor used for asynchronous loading.
+     * By default a pool with one thread less than available processors (at least one) is created.
+     * @return executor
+     */
+    public synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ResourceLoader-" + count.incrementAndGet());
+                    // do not keep the application alive
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Replaces the executor used for asynchronous loading.
+     * The previous executor is not shut down.
+     * @param executor The new executor
+     */
+    public synchronized void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Pins the resource in the caches, it will never be evicted.
+     * Use the full name, including extensions (e.g. of figures or shader programs).
+     * @param name The name of the resource
+     */
+    @Override
+    public void pin(String name) {
+        binaryCache.pin(name);
+        fileCache.pin(name);
+    }
+
+    /**
+     * Allows the resource to be evicted again
+     * @param name The name of the resource
+     */
+    @Override
+    public void unpin(String name) {
+        binaryCache.unpin(name);
+        fileCache.unpin(name);
+    }
+
+    /**
+     * Returns the cache of loaded binary data (e.g. decoded textures and meshes)
+     * @return binary cache
+     */
+    public ResourceCache<Object> getBinaryCache() {
+        return binaryCache;
+    }
+
+    /**
+     * Returns the cache of read text files
+     * @return file cache
+     */
+    public ResourceCache<String> getFileCache() {
+        return fileCache;
+    }
+
     /**
      * Loads a Object from a text-file using a {@link org.achtern.AchternEngine.core.resource.loader.AsciiFileLoader}.
      * Calls {@link #readFile(String)} internally.
@@ -431,11 +966,27 @@ public class BasicResourceLoader implements ResourceLoaderProvider {
      * @throws Exception if loading/parsing/processing fails
      */
     @Override
-    @SuppressWarnings("unchecked")
     public <T, C> T load(String name, BinaryLoader<T, C> loader, boolean forceLoading) throws Exception {
+        return load(name, name, loader, forceLoading);
+    }
+
+    /**
+     * Loads a Object like {@link #load(String, org.achtern.AchternEngine.core.resource.loader.BinaryLoader, boolean)},
+     * but caches it under a different key, e.g. for variants of the same file.
+     * @param name The name of the file to load
+     * @param key The key to cache the data under
+     * @param loader The loader used to convert the file into the Object
+     * @param forceLoading if set to true the file will get read again and not read from cache
+     * @param <T> The type of Object to load
+     * @param <C> The type to cache the data
+     * @return The loaded object
+     * @throws Exception if loading/parsing/processing fails
+     */
+    @SuppressWarnings("unchecked")
+    protected <T, C> T load(String name, String key, BinaryLoader<T, C> loader, boolean forceLoading) throws Exception {
         // Check for cache
-        if (binaryCache.has(name) && !forceLoading) {
-            Object cache = binaryCache.get(name);
+        Object cache = forceLoading ? null : binaryCache.get(key);
+        if (cache != null) {
 
             if (loader.getCacheType() == null) {
                 throw new IllegalStateException("Missing Cache Type. BinaryLoader invalid.");
@@ -455,7 +1006,7 @@ public class BasicResourceLoader implements ResourceLoaderProvider {
         // get it
         T value = loader.get();
         // cache it
-        binaryCache.add(name, loader.getCache());
+        binaryCache.add(key, loader.getCache());
 
         // close the stream
         stream.close();
@@ -502,8 +1053,9 @@ public class BasicResourceLoader implements ResourceLoaderProvider {
      */
     @Override
     public String readFile(String name, boolean forceLoading, LineBasedParser parser) throws IOException {
-        if (fileCache.has(name) && !forceLoading) {
-            return fileCache.get(name);
+        String cached = forceLoading ? null : fileCache.get(name);
+        if (cached != null) {
+            return cached;
         }
 
         StringBuilder file = new StringBuilder();
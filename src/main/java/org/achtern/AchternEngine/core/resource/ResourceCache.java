@@ -24,42 +24,317 @@
 
 package org.achtern.AchternEngine.core.resource;
 
-import java.util.HashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
 
 /**
- * Just a wrapper for a HashMap.
- * API optimised for basic caching operations.
+ * A thread safe cache, optimised for basic caching operations.
+ * The cache can be bounded by a weight (usually bytes, see {@link org.achtern.AchternEngine.core.resource.ResourceWeigher}).
+ * When the weight exceeds the limit, entries are evicted according to the {@link EvictionPolicy}.
+ * Pinned entries are never evicted, e.g. bundled defaults, which are used all the time.
+ * Entries still in use (see {@link Weigher#isInUse(String, Object)}) are skipped as well,
+ * evicting them would not free their memory.
  * @param <T> the type of data in the cached
  */
 public class ResourceCache<T> {
 
+    public static final Logger LOGGER = LoggerFactory.getLogger(ResourceCache.class);
+
+    /**
+     * Limit used for unbounded caches
+     */
+    public static final long UNBOUNDED = Long.MAX_VALUE;
+
+    public enum EvictionPolicy {
+
+        /**
+         * Evicts the least recently used entry
+         */
+        LRU,
+        /**
+         * Evicts the least frequently used entry, ties are evicted in LRU order
+         */
+        LFU
+
+    }
+
+    /**
+     * Calculates the weight of cached values
+     * @param <T> the type of data in the cache
+     */
+    public interface Weigher<T> {
+
+        /**
+         * Returns the weight of the value
+         * @param name The name of the resource
+         * @param value The value
+         * @return weight, must not be negative
+         */
+        public long weigh(String name, T value);
+
+        /**
+         * Checks whether the value is still used outside of the cache,
+         * e.g. shared with live objects or uploaded to the graphics card.
+         * @param name The name of the resource
+         * @param value The value
+         * @return true if the value must not be evicted
+         */
+        public boolean isInUse(String name, T value);
+
+    }
+
+    protected static final class Entry<T> {
+        final T value;
+        final long weight;
+        long hits;
+
+        Entry(T value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * The main cache, in access order
+     */
+    protected LinkedHashMap<String, Entry<T>> cache = new LinkedHashMap<String, Entry<T>>(16, 0.75f, true);
+
+    protected Set<String> pinned = new HashSet<String>();
+
+    protected Weigher<? super T> weigher;
+
+    protected EvictionPolicy policy;
+
+    protected long maxWeight;
+
+    protected long weight;
+
+    protected long hits;
+    protected long misses;
+    protected long evictions;
+
     /**
-     * The main cache
+     * Creates an unbounded cache
      */
-    protected HashMap<String,T> cache = new HashMap<String, T>();
+    public ResourceCache() {
+        this(UNBOUNDED, EvictionPolicy.LRU, new ResourceWeigher());
+    }
 
-    public void add(String name, T resource) {
-        cache.put(name, resource);
+    /**
+     * Creates a bounded cache
+     * @param maxWeight The maximum weight of all entries
+     * @param policy The policy used to evict entries, when the cache is full
+     * @param weigher The weigher of entries
+     */
+    public ResourceCache(long maxWeight, EvictionPolicy policy, Weigher<? super T> weigher) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight must not be negative");
+        }
+        this.maxWeight = maxWeight;
+        this.policy = policy;
+        this.weigher = weigher;
     }
 
-    public T get(String name) {
-        return cache.get(name);
+    public synchronized void add(String name, T resource) {
+        Entry<T> entry = new Entry<T>(resource, weigher.weigh(name, resource));
+        Entry<T> previous = cache.put(name, entry);
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entry.weight;
+
+        evict(name);
     }
 
-    public void remove(String name) {
-        cache.remove(name);
+    /**
+     * Returns the cached value and counts a hit or miss
+     * @param name The name of the resource
+     * @return value | null if not cached
+     */
+    public synchronized T get(String name) {
+        Entry<T> entry = cache.get(name);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        entry.hits++;
+        return entry.value;
     }
 
-    public boolean has(String name) {
+    public synchronized void remove(String name) {
+        Entry<T> entry = cache.remove(name);
+        if (entry != null) {
+            weight -= entry.weight;
+        }
+    }
+
+    /**
+     * Checks whether the resource is cached.
+     * The entry might get evicted before the next call, prefer {@link #get(String)} and check for null.
+     * @param name The name of the resource
+     * @return true if cached
+     */
+    public synchronized boolean has(String name) {
         return cache.containsKey(name);
     }
 
-    public void clear() {
+    /**
+     * Removes all entries, pins are kept
+     */
+    public synchronized void clear() {
         cache.clear();
+        weight = 0;
+    }
+
+    /**
+     * Returns a snapshot of all cached values
+     * @return copy of the cache
+     */
+    public synchronized HashMap<String,T> getAll() {
+        HashMap<String, T> all = new HashMap<String, T>(cache.size());
+        for (Map.Entry<String, Entry<T>> entry : cache.entrySet()) {
+            all.put(entry.getKey(), entry.getValue().value);
+        }
+        return all;
+    }
+
+    /**
+     * Pins the resource, it will never be evicted.
+     * The resource does not need to be cached yet.
+     * @param name The name of the resource
+     */
+    public synchronized void pin(String name) {
+        pinned.add(name);
+    }
+
+    public synchronized void unpin(String name) {
+        pinned.remove(name);
+        evict(null);
+    }
+
+    public synchronized boolean isPinned(String name) {
+        return pinned.contains(name);
+    }
+
+    /**
+     * Sets the maximum weight, entries get evicted if necessary
+     * @param maxWeight The new maximum weight
+     */
+    public synchronized void setMaxWeight(long maxWeight) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight must not be negative");
+        }
+        this.maxWeight = maxWeight;
+        evict(null);
+    }
+
+    public synchronized long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public synchronized void setPolicy(EvictionPolicy policy) {
+        this.policy = policy;
+    }
+
+    public synchronized EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the current weight of all entries
+     * @return weight
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the ratio of hits to all lookups
+     * @return hit rate between 0 and 1
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Evicts entries until the weight is within the limit
+     * @param keep Entry which should not be evicted (the one just added) | null
+     */
+    protected void evict(String keep) {
+        while (weight > maxWeight) {
+            String victim = findVictim(keep);
+            if (victim == null) {
+                LOGGER.debug("Cache exceeds its limit ({} > {}), but all entries are pinned or in use", weight, maxWeight);
+                return;
+            }
+
+            weight -= cache.remove(victim).weight;
+            evictions++;
+            LOGGER.trace("Evicted {} from cache", victim);
+        }
+    }
+
+    protected String findVictim(String keep) {
+        String victim = null;
+        long victimHits = Long.MAX_VALUE;
+
+        // iteration is in access order, least recently used first
+        for (Map.Entry<String, Entry<T>> entry : cache.entrySet()) {
+            String name = entry.getKey();
+            if (name.equals(keep) || pinned.contains(name) || weigher.isInUse(name, entry.getValue().value)) {
+                continue;
+            }
+
+            if (policy == EvictionPolicy.LRU) {
+                return name;
+            }
+
+            if (entry.getValue().hits < victimHits) {
+                victim = name;
+                victimHits = entry.getValue().hits;
+            }
+        }
+
+        return victim;
     }
 
-    public HashMap<String,T> getAll() {
-        return cache;
+    @Override
+    public synchronized String toString() {
+        return "ResourceCache{" +
+                "size=" + cache.size() +
+                ", weight=" + weight +
+                ", maxWeight=" + maxWeight +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
     }
 
 }
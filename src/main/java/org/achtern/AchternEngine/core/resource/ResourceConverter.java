@@ -51,21 +51,26 @@ public class ResourceConverter {
 
         final ByteBuffer buffer = UBuffer.createByteBuffer(dimension.getHeight() * dimension.getWidth() * bpp);
 
+        // swizzle in place (ABGR/BGR to RGBA/RGB) and copy it with a single bulk put
+        final int length = Math.min(pixels.length, buffer.capacity());
+        final byte[] swizzled = new byte[length];
+
         if (hasAlphaChannel) {
-            for (int i = 0; i < pixels.length; i += bpp) {
-                buffer.put(pixels[i + 3]); // red
-                buffer.put(pixels[i + 2]); // green
-                buffer.put(pixels[i + 1]); // blue
-                buffer.put(pixels[i]); // alpha
+            for (int i = 0; i + 3 < length; i += 4) {
+                swizzled[i] = pixels[i + 3]; // red
+                swizzled[i + 1] = pixels[i + 2]; // green
+                swizzled[i + 2] = pixels[i + 1]; // blue
+                swizzled[i + 3] = pixels[i]; // alpha
             }
         } else {
-            for (int i = 0; i < pixels.length; i += bpp) {
-                buffer.put(pixels[i + 2]); // red
-                buffer.put(pixels[i + 1]); // green
-                buffer.put(pixels[i]); // blue
+            for (int i = 0; i + 2 < length; i += 3) {
+                swizzled[i] = pixels[i + 2]; // red
+                swizzled[i + 1] = pixels[i + 1]; // green
+                swizzled[i + 2] = pixels[i]; // blue
             }
         }
 
+        buffer.put(swizzled);
         buffer.flip();
 
 
@@ -28,6 +28,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.achtern.AchternEngine.core.audio.openal.AudioSource;
 import org.achtern.AchternEngine.core.rendering.Dimension;
+import org.achtern.AchternEngine.core.rendering.binding.UploadQueue;
 import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
 import org.achtern.AchternEngine.core.rendering.texture.Texture;
 import org.achtern.AchternEngine.core.resource.fileparser.GLSLProgram;
@@ -40,6 +41,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 /**
  * The {@link org.achtern.AchternEngine.core.resource.ResourceLoader} is the main entry point
@@ -59,8 +62,9 @@ import java.util.List;
  * are added as ResourceLocation by default. You can add your own by using {@link #addResourceLocation(ResourceLocation)}
  * or remove all {@link #clearResourceLocations()}.
  *
- * The ResourceLoader uses a very basic {@link org.achtern.AchternEngine.core.resource.ResourceCache}s in order
+ * The ResourceLoader uses {@link org.achtern.AchternEngine.core.resource.ResourceCache}s in order
  * to avoid re-reading data from disk. These caches - however - are not caching object, only the data.
+ * The caches are bounded, resources used all the time can be pinned with {@link #pin(String)}.
  */
 public class ResourceLoader {
 
@@ -172,8 +176,9 @@ public class ResourceLoader {
 
     /**
      * Loads a .obj file, parses it, optimises it and converts it into renderable {@link org.achtern.AchternEngine.core.rendering.mesh.Mesh}
-     * When loading from cache only the data will get reused, not the object itself and it
-     * will have to use new buffers (handled automatically).
+     * When loading from cache a new Mesh is created, which shares the (immutable) MeshData and
+     * therefore the GPU buffers with all other Meshes of this resource.
+     * Use {@link org.achtern.AchternEngine.core.rendering.mesh.Mesh#getWritableData()} to modify the geometry.
      * An IOException is thrown on read errors and other Exceptions might be
      * thrown from the GLSLProgramLoader itself.
      * @param name The relative path (to various ResourceLocations) of the filename
@@ -186,8 +191,9 @@ public class ResourceLoader {
 
     /**
      * Loads a .obj file, parses it, optimises it and converts it into renderable {@link org.achtern.AchternEngine.core.rendering.mesh.Mesh}
-     * When loading from cache only the data will get reused, not the object itself and it
-     * will have to use new buffers (handled automatically).
+     * When loading from cache a new Mesh is created, which shares the (immutable) MeshData and
+     * therefore the GPU buffers with all other Meshes of this resource.
+     * Use {@link org.achtern.AchternEngine.core.rendering.mesh.Mesh#getWritableData()} to modify the geometry.
      * An IOException is thrown on read errors and other Exceptions might be
      * thrown from the GLSLProgramLoader itself.
      * @param name The relative path (to various ResourceLocations) of the filename
@@ -343,6 +349,98 @@ public class ResourceLoader {
         return provider.getAudioSource(name, forceLoading);
     }
 
+    /**
+     * Loads a Figure on a worker thread.
+     * The mesh and textures are queued for upload in the {@link #getUploadQueue()}.
+     * @see #getFigure(String)
+     * @param name The name of the file to load
+     * @return Future of the Figure (new instance)
+     */
+    public static Future<Figure> getFigureAsync(String name) {
+        return provider.getFigureAsync(name);
+    }
+
+    /**
+     * Loads a Mesh on a worker thread.
+     * The mesh is queued for upload in the {@link #getUploadQueue()}.
+     * @see #getMesh(String)
+     * @param name The relative path (to various ResourceLocations) of the filename
+     * @return Future of the Mesh (new instance)
+     */
+    public static Future<Mesh> getMeshAsync(String name) {
+        return provider.getMeshAsync(name);
+    }
+
+    /**
+     * Decodes a Texture on a worker thread.
+     * The texture is queued for upload in the {@link #getUploadQueue()}.
+     * @see #getTexture(String)
+     * @param name The relative path (to various ResourceLocations) of the filename
+     * @return Future of the Texture (new instance)
+     */
+    public static Future<Texture> getTextureAsync(String name) {
+        return provider.getTextureAsync(name);
+    }
+
+    /**
+     * Decodes a Texture on a worker thread.
+     * The texture is queued for upload in the {@link #getUploadQueue()}.
+     * @see #getTexture(String, org.achtern.AchternEngine.core.rendering.Dimension)
+     * @param name The relative path (to various ResourceLocations) of the filename
+     * @param dimension The dimension of the new texture
+     * @return Future of the Texture (new instance)
+     */
+    public static Future<Texture> getTextureAsync(String name, Dimension dimension) {
+        return provider.getTextureAsync(name, dimension);
+    }
+
+    /**
+     * Reads and parses a shader program on a worker thread.
+     * @see #getShaderProgram(String)
+     * @param name Name of the program declaration
+     * @return Future of the GLSLProgram
+     */
+    public static Future<GLSLProgram> getShaderProgramAsync(String name) {
+        return provider.getShaderProgramAsync(name);
+    }
+
+    /**
+     * Runs any loading task on the worker threads.
+     * The task must not access the context, queue uploads in the {@link #getUploadQueue()} instead.
+     * @param task The loading task
+     * @param <T> The type of the loaded object
+     * @return Future of the result
+     */
+    public static <T> Future<T> loadAsync(Callable<T> task) {
+        return provider.loadAsync(task);
+    }
+
+    /**
+     * Returns the queue of resources, which have been loaded asynchronously and wait for their upload.
+     * The {@link org.achtern.AchternEngine.core.CoreEngine} processes this queue every frame.
+     * @return The UploadQueue
+     */
+    public static UploadQueue getUploadQueue() {
+        return provider.getUploadQueue();
+    }
+
+    /**
+     * Pins the resource in the caches, it will never be evicted.
+     * Use the full name, including extensions (e.g. of figures or shader programs).
+     * @param name The name of the resource
+     */
+    public static void pin(String name) {
+        provider.pin(name);
+    }
+
+    /**
+     * Allows the resource to be evicted again
+     * @param name The name of the resource
+     */
+    public static void unpin(String name) {
+        provider.unpin(name);
+    }
+
     /**
      * Loads a Object from a text-file using a {@link org.achtern.AchternEngine.core.resource.loader.AsciiFileLoader}.
      * Calls {@link #readFile(String)} internally.
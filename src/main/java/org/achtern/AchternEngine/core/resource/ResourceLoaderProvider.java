@@ -26,6 +26,7 @@ package org.achtern.AchternEngine.core.resource;
 
 import org.achtern.AchternEngine.core.audio.openal.AudioSource;
 import org.achtern.AchternEngine.core.rendering.Dimension;
+import org.achtern.AchternEngine.core.rendering.binding.UploadQueue;
 import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
 import org.achtern.AchternEngine.core.rendering.texture.Texture;
 import org.achtern.AchternEngine.core.resource.fileparser.GLSLProgram;
@@ -38,6 +39,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 /**
  * For javadoc see {@link org.achtern.AchternEngine.core.resource.ResourceLoader}
@@ -92,6 +95,24 @@ public interface ResourceLoaderProvider {
 
     AudioSource getAudioSource(String name, boolean forceLoading) throws Exception;
 
+    Future<Figure> getFigureAsync(String name);
+
+    Future<Mesh> getMeshAsync(String name);
+
+    Future<Texture> getTextureAsync(String name);
+
+    Future<Texture> getTextureAsync(String name, Dimension dimension);
+
+    Future<GLSLProgram> getShaderProgramAsync(String name);
+
+    <T> Future<T> loadAsync(Callable<T> task);
+
+    UploadQueue getUploadQueue();
+
+    void pin(String name);
+
+    void unpin(String name);
+
     <T> T load(String name, AsciiFileLoader<T> loader, boolean forceLoading) throws Exception;
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.resource;
+
+import org.achtern.AchternEngine.core.bootstrap.Native;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.rendering.texture.TexturableData;
+
+import java.nio.*;
+
+/**
+ * Estimates the size of cached resources in bytes.
+ * Strings, Textures ({@link org.achtern.AchternEngine.core.rendering.texture.TexturableData}),
+ * Meshes and buffers are weighed by their data, other objects are not counted.
+ * Meshes are in use, once their data has been shared with other meshes or uploaded.
+ */
+public class ResourceWeigher implements ResourceCache.Weigher<Object> {
+
+    @Override
+    public long weigh(String name, Object value) {
+        if (value instanceof String) {
+            return 2L * ((String) value).length();
+        } else if (value instanceof TexturableData) {
+            return weigh(((TexturableData) value).getData());
+        } else if (value instanceof Mesh) {
+            MeshData data = ((Mesh) value).getData();
+            // do not use the arrays, they would get created for buffer backed data
+            return 4L * (data.getVertexCount() * Vertex.SIZE + data.getSize());
+        } else if (value instanceof Buffer) {
+            return weigh((Buffer) value);
+        }
+
+        return 0;
+    }
+
+    @Override
+    public boolean isInUse(String name, Object value) {
+        if (value instanceof Mesh) {
+            MeshData data = ((Mesh) value).getData();
+            return data.isShared() || data.getID() != Native.INVALID_ID;
+        }
+
+        return false;
+    }
+
+    protected long weigh(Buffer buffer) {
+        if (buffer == null) {
+            return 0;
+        }
+
+        int bytes = 1;
+        if (buffer instanceof FloatBuffer || buffer instanceof IntBuffer) {
+            bytes = 4;
+        } else if (buffer instanceof ShortBuffer || buffer instanceof CharBuffer) {
+            bytes = 2;
+        } else if (buffer instanceof LongBuffer || buffer instanceof DoubleBuffer) {
+            bytes = 8;
+        }
+
+        return (long) bytes * buffer.capacity();
+    }
+}
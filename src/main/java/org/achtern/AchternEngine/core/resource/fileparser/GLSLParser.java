@@ -34,6 +34,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * A custom GLSL pre-parser.
@@ -117,6 +119,13 @@ public class GLSLParser extends VariableBasedLanguageParser implements LineBased
 
     public static final String TOKEN_SINGLE_LINE_COMMENT = "//";
 
+    /**
+     * Matches an input declaration with an optional layout qualifier
+     * (layout (location = 0) in type name;)
+     */
+    protected static final Pattern INPUT = Pattern.compile(
+            "^\\s*(?:layout\\s*\\([^)]*\\)\\s*)?in\\s+(\\w+)\\s+(\\w+)\\s*;", Pattern.MULTILINE);
+
     /**
      * The parser will look into this directory, in order to include
      * files.
@@ -264,6 +273,7 @@ public class GLSLParser extends VariableBasedLanguageParser implements LineBased
 
         // inject all attributes
         script.setAttributes(getAttributes(script.getSource()));
+        script.setInputs(getInputs(script.getSource()));
 
         // now expand the uniforms for adding later on.
         script.setExpandedUniforms(getExpandedUniforms(script.getSource(), uniforms, script.getStructs()));
@@ -372,6 +382,23 @@ public class GLSLParser extends VariableBasedLanguageParser implements LineBased
         return getVariables(text, TOKEN_ATTRIBUTE);
     }
 
+    /**
+     * Extracts all variables declared with the <code>in</code> qualifier.
+     * Declarations have to start the line, commented out declarations are skipped.
+     * @param text Shader source
+     * @return List of input variables
+     */
+    public List<Variable> getInputs(String text) {
+        List<Variable> vars = new ArrayList<Variable>();
+
+        Matcher m = INPUT.matcher(text);
+        while (m.find()) {
+            vars.add(new Variable(m.group(1), m.group(2)));
+        }
+
+        return vars;
+    }
+
     /**
      * Scans through the shader source and extracts variables which
      * are "flagged" with a specific token.
@@ -49,6 +49,11 @@ public class GLSLScript extends NativeObject {
 
     protected List<Variable> attributes;
 
+    /**
+     * Variables declared with the <code>in</code> qualifier (GLSL 1.30+), the vertex attributes of vertex shaders
+     */
+    protected List<Variable> inputs;
+
     protected List<Uniform> uniforms;
 
     protected List<Uniform> expandedUniforms;
@@ -64,6 +69,7 @@ public class GLSLScript extends NativeObject {
         this.structs = new ArrayList<GLSLStruct>();
         this.uniforms = new ArrayList<Uniform>();
         this.attributes = new ArrayList<Variable>();
+        this.inputs = new ArrayList<Variable>();
     }
 
     public void setUniformsFromVariable(List<Variable> uniforms) {
@@ -40,6 +40,13 @@ public class Uniform extends Variable {
 
     protected SetStrategy setStrategy;
 
+    /**
+     * Locations of the struct members (e.g. of a PointLight), in the order
+     *  defined by the {@link UniformManager} implementation.
+     * <code>null</code> until resolved by the UniformManager
+     */
+    protected int[] memberLocations;
+
 
     public Uniform(Variable from) {
         this(from.getType(), from.getName());
@@ -0,0 +1,291 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.resource.fileparser.mesh;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.resource.loader.LoadingException;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
+import org.achtern.AchternEngine.core.util.UBuffer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A cooked mesh is a binary, ready-to-upload representation of a {@link Mesh}.
+ * The file contains a header, the packed vertex data (layout of {@link Vertex#SIZE}),
+ *  the indices and the bounds. All values are stored little endian.
+ * <pre>
+ * int   magic ("AEM2")
+ * int   floats per vertex
+ * int   vertex count
+ * int   index count
+ * int   number of indices to draw
+ * int   mode (ordinal of {@link MeshData.Mode})
+ * long  stamp of the source (e.g. last modification time)
+ * float bounds center x, y, z and extents x, y, z
+ * float vertex data [vertex count * floats per vertex]
+ * int   indices [index count]
+ * </pre>
+ * When read from a memory mapped file, the vertex and index data are views on the mapping
+ *  and get uploaded without any copying.
+ */
+public class CookedMesh {
+
+    /**
+     * File extension of cooked meshes
+     */
+    public static final String EXTENSION = ".aem";
+
+    public static final int MAGIC = 0x324D4541; // "AEM2"
+
+    /**
+     * Size of the header in bytes
+     */
+    public static final int HEADER_SIZE = 6 * 4 + 8 + 6 * 4;
+
+    @Getter protected final FloatBuffer vertices;
+    @Getter protected final IntBuffer indices;
+    @Getter protected final int size;
+    @Getter protected final MeshData.Mode mode;
+    @Getter protected final BoundingBox bounds;
+    @Getter protected final long stamp;
+
+    protected CookedMesh(FloatBuffer vertices, IntBuffer indices, int size, MeshData.Mode mode, BoundingBox bounds,
+                         long stamp) {
+        this.vertices = vertices;
+        this.indices = indices;
+        this.size = size;
+        this.mode = mode;
+        this.bounds = bounds;
+        this.stamp = stamp;
+    }
+
+    /**
+     * Creates a new Mesh. The mesh gets its own MeshData, but shares the (read-only) buffers.
+     * @return new Mesh
+     */
+    public Mesh toMesh() {
+        MeshData data = new MeshData();
+        data.set(vertices.duplicate(), indices.duplicate(), size);
+        data.setMode(mode);
+
+        Mesh mesh = new Mesh(data);
+        mesh.setBoundingBox(new BoundingBox(bounds));
+        return mesh;
+    }
+
+    /**
+     * Memory maps the file and reads the cooked mesh
+     * @param file The cooked mesh file
+     * @return The cooked mesh, backed by the mapping
+     * @throws IOException if the file cannot be read or is invalid
+     */
+    public static CookedMesh map(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            // the mapping stays valid after closing the channel
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads the cooked mesh from a stream
+     * @param input The stream
+     * @return The cooked mesh, backed by direct memory
+     * @throws IOException if the stream cannot be read or is invalid
+     */
+    public static CookedMesh read(InputStream input) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(input.available(), HEADER_SIZE));
+        byte[] chunk = new byte[8192];
+
+        int read;
+        while ((read = input.read(chunk)) != -1) {
+            if (buffer.remaining() < read) {
+                ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + read));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+            buffer.put(chunk, 0, read);
+        }
+
+        buffer.flip();
+        return read(buffer);
+    }
+
+    /**
+     * Reads the cooked mesh from the buffer (from position 0).
+     * If the buffer is direct and the platform is little endian, the returned data are views on this buffer.
+     * @param buffer The data
+     * @return The cooked mesh
+     * @throws LoadingException if the data is invalid
+     */
+    public static CookedMesh read(ByteBuffer buffer) throws LoadingException {
+        buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new LoadingException("Not a cooked mesh");
+        }
+
+        buffer.position(4);
+        int floatsPerVertex = buffer.getInt();
+        int vertexCount = buffer.getInt();
+        int indexCount = buffer.getInt();
+        int size = buffer.getInt();
+        int mode = buffer.getInt();
+        long stamp = buffer.getLong();
+
+        if (floatsPerVertex != Vertex.SIZE) {
+            throw new LoadingException("Unsupported vertex layout with " + floatsPerVertex + " floats per vertex");
+        }
+        if (mode < 0 || mode >= MeshData.Mode.values().length) {
+            throw new LoadingException("Invalid mode " + mode);
+        }
+
+        BoundingBox bounds = new BoundingBox(
+                new Vector3f(buffer.getFloat(), buffer.getFloat(), buffer.getFloat()),
+                new Vector3f(buffer.getFloat(), buffer.getFloat(), buffer.getFloat())
+        );
+
+        int vertexBytes = vertexCount * floatsPerVertex * 4;
+        int indexBytes = indexCount * 4;
+        if (buffer.limit() < HEADER_SIZE + vertexBytes + indexBytes) {
+            throw new LoadingException("Cooked mesh is truncated");
+        }
+
+        FloatBuffer vertices;
+        IntBuffer indices;
+
+        if (buffer.isDirect() && ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+            vertices = slice(buffer, HEADER_SIZE, vertexBytes).asFloatBuffer();
+            indices = slice(buffer, HEADER_SIZE + vertexBytes, indexBytes).asIntBuffer();
+        } else {
+            // OpenGL needs direct buffers in native order
+            vertices = UBuffer.createFloatBuffer(vertexCount * floatsPerVertex);
+            vertices.put(slice(buffer, HEADER_SIZE, vertexBytes).asFloatBuffer()).flip();
+            indices = UBuffer.createIntBuffer(indexCount);
+            indices.put(slice(buffer, HEADER_SIZE + vertexBytes, indexBytes).asIntBuffer()).flip();
+        }
+
+        return new CookedMesh(vertices, indices, size, MeshData.Mode.values()[mode], bounds, stamp);
+    }
+
+    /**
+     * Writes the mesh into the file.
+     * The data is written into a temporary file first and renamed afterwards, so readers never
+     *  see a half written file.
+     * @param mesh The mesh to cook
+     * @param stamp The stamp of the source, used to detect outdated files
+     * @param file The target file
+     * @throws IOException on write errors
+     */
+    public static void write(Mesh mesh, long stamp, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(tmp);
+        try {
+            write(mesh, stamp, out.getChannel());
+        } finally {
+            out.close();
+        }
+
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Could not replace " + file);
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Could not rename " + tmp + " to " + file);
+        }
+    }
+
+    /**
+     * Writes the mesh into the channel
+     * @param mesh The mesh to cook
+     * @param stamp The stamp of the source, used to detect outdated files
+     * @param channel The target
+     * @throws IOException on write errors
+     */
+    public static void write(Mesh mesh, long stamp, WritableByteChannel channel) throws IOException {
+        MeshData data = mesh.getData();
+        float[] packed = data.getPacked();
+        int[] indices = data.getIndices();
+
+        BoundingBox bounds = mesh.getBoundingBox();
+        if (bounds == null) {
+            bounds = new BoundingBox().fromPositions(packed, Vertex.POSITION_OFFSET, Vertex.SIZE, data.getVertexCount());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + packed.length * 4 + indices.length * 4)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(Vertex.SIZE);
+        buffer.putInt(data.getVertexCount());
+        buffer.putInt(indices.length);
+        buffer.putInt(data.getSize());
+        buffer.putInt(data.getMode().ordinal());
+        buffer.putLong(stamp);
+
+        Vector3f c = bounds.getCenter();
+        Vector3f e = bounds.getExtents();
+        buffer.putFloat(c.getX()).putFloat(c.getY()).putFloat(c.getZ());
+        buffer.putFloat(e.getX()).putFloat(e.getY()).putFloat(e.getZ());
+
+        buffer.asFloatBuffer().put(packed);
+        buffer.position(buffer.position() + packed.length * 4);
+        buffer.asIntBuffer().put(indices);
+        buffer.position(buffer.position() + indices.length * 4);
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer b = buffer.duplicate();
+        b.position(offset);
+        b.limit(offset + length);
+        return b.slice().order(buffer.order());
+    }
+}
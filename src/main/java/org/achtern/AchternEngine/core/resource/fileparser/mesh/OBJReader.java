@@ -0,0 +1,538 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.resource.fileparser.mesh;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.resource.loader.LoadingException;
+import org.achtern.AchternEngine.core.util.TangentGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Streaming OBJ reader.
+ * Scans the bytes of the stream directly, parses numbers by hand and stores everything in
+ *  primitive arrays. There are no intermediate Strings, per line arrays or boxed values.
+ * The result is the same as with the {@link OBJParser}: vertices are unique combinations of
+ *  position, texture coordinate and normal, missing normals are smoothed per position and
+ *  tangents are calculated.
+ * Supported are v, vt, vn and f (with triangle fans for polygons and negative indices),
+ *  all other statements are skipped.
+ */
+public class OBJReader {
+
+    public static final Logger LOGGER = LoggerFactory.getLogger(OBJReader.class);
+
+    /**
+     * Exact powers of ten for the float parser
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    protected final byte[] buffer = new byte[64 * 1024];
+    protected int pos;
+    protected int limit;
+    protected InputStream in;
+
+    /**
+     * Current line number, for error messages
+     */
+    protected int line;
+
+    protected float[] positions = new float[3 * 1024];
+    @Getter protected int positionCount;
+
+    protected float[] texCoords = new float[2 * 1024];
+    @Getter protected int texCoordCount;
+
+    protected float[] normals = new float[3 * 1024];
+    @Getter protected int normalCount;
+
+    /**
+     * Face corners as (position, texCoord, normal) triplets, -1 if not given.
+     * Polygons are already split into triangles.
+     */
+    protected int[] corners = new int[3 * 3 * 1024];
+    protected int cornerCount;
+
+    protected boolean hasNormals;
+
+    /**
+     * Reads the OBJ data from the stream. The stream is not closed.
+     * @param in The stream
+     * @return this
+     * @throws IOException on read or parsing errors
+     */
+    public OBJReader read(InputStream in) throws IOException {
+        this.in = in;
+        this.pos = 0;
+        this.limit = 0;
+        this.line = 1;
+
+        int c;
+        while ((c = skipBlanks()) != -1) {
+            switch (c | 0x20) { // lower case
+                case 'v':
+                    pos++;
+                    c = peek();
+                    if (isBlank(c)) {
+                        readPosition();
+                    } else if ((c | 0x20) == 't') {
+                        pos++;
+                        readTexCoord();
+                    } else if ((c | 0x20) == 'n') {
+                        pos++;
+                        readNormal();
+                    }
+                    break;
+                case 'f':
+                    pos++;
+                    if (isBlank(peek())) {
+                        readFace();
+                    }
+                    break;
+                default:
+                    // comments, groups, materials, ...
+            }
+            skipLine();
+        }
+
+        this.in = null;
+        LOGGER.debug("Read {} positions and {} triangles", positionCount, getTriangleCount());
+        return this;
+    }
+
+    /**
+     * Returns the number of read triangles
+     * @return triangle count
+     */
+    public int getTriangleCount() {
+        return cornerCount / 9;
+    }
+
+    /**
+     * Creates a new Mesh from the read data
+     * @return Mesh with bounds
+     */
+    public Mesh toMesh() {
+        Mesh mesh = new Mesh(toMeshData());
+        mesh.updateBounds();
+        return mesh;
+    }
+
+    /**
+     * Converts the read data into packed vertices and indices
+     * @return MeshData
+     */
+    public MeshData toMeshData() {
+        int triangleCorners = cornerCount / 3;
+        int[] indices = new int[triangleCorners];
+
+        // unique vertices, as (position, texCoord, normal) triplets
+        int[] unique = new int[Math.max(positionCount, 16) * 3];
+        int uniqueCount = 0;
+
+        int[] table = new int[tableSize(Math.max(positionCount, 16))];
+        Arrays.fill(table, -1);
+
+        for (int i = 0; i < triangleCorners; i++) {
+            int v = corners[i * 3];
+            int t = corners[i * 3 + 1];
+            int n = corners[i * 3 + 2];
+
+            int mask = table.length - 1;
+            int slot = hash(v, t, n) & mask;
+            int index;
+            while ((index = table[slot]) != -1) {
+                if (unique[index * 3] == v && unique[index * 3 + 1] == t && unique[index * 3 + 2] == n) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            if (index == -1) {
+                index = uniqueCount++;
+                if (index * 3 + 3 > unique.length) {
+                    unique = Arrays.copyOf(unique, unique.length * 2);
+                }
+                unique[index * 3] = v;
+                unique[index * 3 + 1] = t;
+                unique[index * 3 + 2] = n;
+                table[slot] = index;
+
+                if (uniqueCount * 2 > table.length) {
+                    table = rehash(unique, uniqueCount, tableSize(uniqueCount * 2));
+                }
+            }
+
+            indices[i] = index;
+        }
+
+        float[] smooth = hasNormals ? null : smoothNormals();
+
+        float[] packed = new float[uniqueCount * Vertex.SIZE];
+        for (int i = 0; i < uniqueCount; i++) {
+            int v = unique[i * 3];
+            int t = unique[i * 3 + 1];
+            int n = unique[i * 3 + 2];
+            int o = i * Vertex.SIZE;
+
+            System.arraycopy(positions, v * 3, packed, o + Vertex.POSITION_OFFSET, 3);
+
+            if (t >= 0) {
+                System.arraycopy(texCoords, t * 2, packed, o + Vertex.TEX_COORD_OFFSET, 2);
+            }
+
+            if (smooth != null) {
+                System.arraycopy(smooth, v * 3, packed, o + Vertex.NORMAL_OFFSET, 3);
+            } else if (n >= 0) {
+                System.arraycopy(normals, n * 3, packed, o + Vertex.NORMAL_OFFSET, 3);
+            }
+        }
+
+        TangentGenerator.calculate(packed, indices);
+
+        MeshData data = new MeshData();
+        data.set(packed, indices, indices.length);
+        return data;
+    }
+
+    /**
+     * Normals per position, averaged from the adjacent triangles
+     */
+    protected float[] smoothNormals() {
+        float[] result = new float[positionCount * 3];
+
+        for (int i = 0; i < cornerCount; i += 9) {
+            int p0 = corners[i] * 3;
+            int p1 = corners[i + 3] * 3;
+            int p2 = corners[i + 6] * 3;
+
+            float ax = positions[p1] - positions[p0];
+            float ay = positions[p1 + 1] - positions[p0 + 1];
+            float az = positions[p1 + 2] - positions[p0 + 2];
+            float bx = positions[p2] - positions[p0];
+            float by = positions[p2 + 1] - positions[p0 + 1];
+            float bz = positions[p2 + 2] - positions[p0 + 2];
+
+            float nx = ay * bz - az * by;
+            float ny = az * bx - ax * bz;
+            float nz = ax * by - ay * bx;
+            float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (length == 0) {
+                continue;
+            }
+            nx /= length;
+            ny /= length;
+            nz /= length;
+
+            for (int k = 0; k < 9; k += 3) {
+                int p = corners[i + k] * 3;
+                result[p] += nx;
+                result[p + 1] += ny;
+                result[p + 2] += nz;
+            }
+        }
+
+        for (int p = 0; p < result.length; p += 3) {
+            float length = (float) Math.sqrt(result[p] * result[p] + result[p + 1] * result[p + 1] + result[p + 2] * result[p + 2]);
+            if (length > 0) {
+                result[p] /= length;
+                result[p + 1] /= length;
+                result[p + 2] /= length;
+            }
+        }
+
+        return result;
+    }
+
+    protected void readPosition() throws IOException {
+        positions = ensure(positions, positionCount * 3 + 3);
+        int o = positionCount * 3;
+        positions[o] = readFloat();
+        positions[o + 1] = readFloat();
+        positions[o + 2] = readFloat();
+        positionCount++;
+    }
+
+    protected void readTexCoord() throws IOException {
+        texCoords = ensure(texCoords, texCoordCount * 2 + 2);
+        int o = texCoordCount * 2;
+        texCoords[o] = readFloat();
+        texCoords[o + 1] = 1 - readFloat();
+        texCoordCount++;
+    }
+
+    protected void readNormal() throws IOException {
+        normals = ensure(normals, normalCount * 3 + 3);
+        int o = normalCount * 3;
+        normals[o] = readFloat();
+        normals[o + 1] = readFloat();
+        normals[o + 2] = readFloat();
+        normalCount++;
+    }
+
+    /**
+     * Reads a polygon and splits it into a triangle fan
+     */
+    protected void readFace() throws IOException {
+        int v0 = 0, t0 = 0, n0 = 0;
+        int v1 = 0, t1 = 0, n1 = 0;
+        int count = 0;
+
+        int c;
+        while ((c = skipBlanks()) != -1 && c != '\n' && c != '#') {
+            int v = resolve(readInt(), positionCount);
+            int t = -1;
+            int n = -1;
+
+            if (peek() == '/') {
+                pos++;
+                if (peek() != '/') {
+                    t = resolve(readInt(), texCoordCount);
+                }
+                if (peek() == '/') {
+                    pos++;
+                    n = resolve(readInt(), normalCount);
+                    hasNormals = true;
+                }
+            }
+
+            if (count == 0) {
+                v0 = v; t0 = t; n0 = n;
+            } else if (count >= 2) {
+                corners = ensure(corners, cornerCount + 9);
+                int[] dst = corners;
+                int o = cornerCount;
+                dst[o] = v0; dst[o + 1] = t0; dst[o + 2] = n0;
+                dst[o + 3] = v1; dst[o + 4] = t1; dst[o + 5] = n1;
+                dst[o + 6] = v; dst[o + 7] = t; dst[o + 8] = n;
+                cornerCount += 9;
+            }
+
+            v1 = v; t1 = t; n1 = n;
+            count++;
+        }
+    }
+
+    /**
+     * Converts a 1-based (or negative, relative) OBJ index into a 0-based index
+     */
+    protected int resolve(int index, int count) throws LoadingException {
+        int resolved = index < 0 ? count + index : index - 1;
+        if (resolved < 0 || resolved >= count) {
+            throw new LoadingException("Invalid OBJ index " + index + " in line " + line);
+        }
+        return resolved;
+    }
+
+    protected int readInt() throws IOException {
+        skipBlanks();
+
+        boolean negative = false;
+        int c = peek();
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            pos++;
+            c = peek();
+        }
+
+        if (c < '0' || c > '9') {
+            throw new LoadingException("Expected integer in line " + line);
+        }
+
+        int value = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            pos++;
+            c = peek();
+        }
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a decimal float (with optional exponent).
+     * Up to 18 significant digits are used, which is more than enough for a float.
+     */
+    protected float readFloat() throws IOException {
+        skipBlanks();
+
+        boolean negative = false;
+        int c = peek();
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            pos++;
+            c = peek();
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+
+        while (c >= '0' && c <= '9') {
+            any = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                exponent++;
+            }
+            pos++;
+            c = peek();
+        }
+
+        if (c == '.') {
+            pos++;
+            c = peek();
+            while (c >= '0' && c <= '9') {
+                any = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) digits++;
+                    exponent--;
+                }
+                pos++;
+                c = peek();
+            }
+        }
+
+        if (!any) {
+            throw new LoadingException("Expected number in line " + line);
+        }
+
+        if (c == 'e' || c == 'E') {
+            pos++;
+            exponent += readInt();
+        }
+
+        double value = mantissa;
+        if (exponent != 0 && mantissa != 0) {
+            if (exponent > 0 && exponent < POWERS_OF_TEN.length) {
+                value *= POWERS_OF_TEN[exponent];
+            } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+                value /= POWERS_OF_TEN[-exponent];
+            } else {
+                value *= Math.pow(10, exponent);
+            }
+        }
+
+        return (float) (negative ? -value : value);
+    }
+
+    /**
+     * Skips spaces, tabs and carriage returns
+     * @return the next char (not consumed) or -1 at the end of the stream
+     */
+    protected int skipBlanks() throws IOException {
+        int c;
+        while (isBlank(c = peek())) {
+            pos++;
+        }
+        return c;
+    }
+
+    /**
+     * Skips everything up to and including the next line break
+     */
+    protected void skipLine() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return;
+            }
+            while (pos < limit) {
+                if (buffer[pos++] == '\n') {
+                    line++;
+                    return;
+                }
+            }
+        }
+    }
+
+    protected int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        // unsigned, a 0xFF byte must not look like the end of the stream
+        return buffer[pos] & 0xFF;
+    }
+
+    protected boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        pos = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    protected static boolean isBlank(int c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+
+    protected static float[] ensure(float[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    protected static int[] ensure(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    protected static int hash(int v, int t, int n) {
+        int h = v * 0x9E3779B1 + t * 0x85EBCA6B + n * 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    protected static int tableSize(int entries) {
+        int size = 16;
+        while (size < entries * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    protected static int[] rehash(int[] unique, int count, int size) {
+        int[] table = new int[size];
+        Arrays.fill(table, -1);
+        int mask = size - 1;
+
+        for (int i = 0; i < count; i++) {
+            int slot = hash(unique[i * 3], unique[i * 3 + 1], unique[i * 3 + 2]) & mask;
+            while (table[slot] != -1) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i;
+        }
+
+        return table;
+    }
+}
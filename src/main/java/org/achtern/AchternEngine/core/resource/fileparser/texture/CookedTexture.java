@@ -0,0 +1,245 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.resource.fileparser.texture;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.rendering.Dimension;
+import org.achtern.AchternEngine.core.rendering.texture.*;
+import org.achtern.AchternEngine.core.resource.loader.LoadingException;
+import org.achtern.AchternEngine.core.util.UBuffer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A cooked texture is the decoded, ready-to-upload pixel data of a {@link Texture}.
+ * It skips image decoding (e.g. JPEG or PNG) completely. All values are stored little endian.
+ * <pre>
+ * int   magic ("AET1")
+ * int   width
+ * int   height
+ * int   alpha (0 or 1)
+ * int   format (ordinal of {@link Format})
+ * int   internal format (ordinal of {@link InternalFormat})
+ * int   min filter (ordinal of {@link Filter})
+ * int   mag filter (ordinal of {@link Filter})
+ * long  stamp of the source (e.g. last modification time)
+ * int   length of the pixel data in bytes
+ * int   reserved
+ * byte  pixel data [length]
+ * </pre>
+ * When read from a memory mapped file, the pixel data is a view on the mapping
+ *  and gets uploaded without any copying.
+ */
+public class CookedTexture {
+
+    /**
+     * File extension of cooked textures
+     */
+    public static final String EXTENSION = ".aet";
+
+    public static final int MAGIC = 0x31544541; // "AET1"
+
+    /**
+     * Size of the header in bytes
+     */
+    public static final int HEADER_SIZE = 8 * 4 + 8 + 2 * 4;
+
+    @Getter protected final Dimension dimension;
+    @Getter protected final boolean alpha;
+    @Getter protected final Format format;
+    @Getter protected final InternalFormat internalFormat;
+    @Getter protected final Filter minFilter;
+    @Getter protected final Filter magFilter;
+    @Getter protected final long stamp;
+    @Getter protected final ByteBuffer data;
+
+    protected CookedTexture(Dimension dimension, boolean alpha, Format format, InternalFormat internalFormat,
+                            Filter minFilter, Filter magFilter, long stamp, ByteBuffer data) {
+        this.dimension = dimension;
+        this.alpha = alpha;
+        this.format = format;
+        this.internalFormat = internalFormat;
+        this.minFilter = minFilter;
+        this.magFilter = magFilter;
+        this.stamp = stamp;
+        this.data = data;
+    }
+
+    /**
+     * Creates a new Texture, sharing the (read-only) pixel data
+     * @return new Texture
+     */
+    public Texture toTexture() {
+        return new Texture(
+                new Dimension(dimension),
+                Type.TWO_DIMENSIONAL,
+                minFilter,
+                magFilter,
+                internalFormat,
+                format,
+                alpha,
+                data.duplicate()
+        );
+    }
+
+    /**
+     * Memory maps the file and reads the cooked texture
+     * @param file The cooked texture file
+     * @return The cooked texture, backed by the mapping
+     * @throws IOException if the file cannot be read or is invalid
+     */
+    public static CookedTexture map(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            // the mapping stays valid after closing the channel
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads the cooked texture from the buffer (from position 0).
+     * If the buffer is direct, the returned data is a view on this buffer.
+     * @param buffer The data
+     * @return The cooked texture
+     * @throws LoadingException if the data is invalid
+     */
+    public static CookedTexture read(ByteBuffer buffer) throws LoadingException {
+        buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new LoadingException("Not a cooked texture");
+        }
+
+        buffer.position(4);
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        boolean alpha = buffer.getInt() != 0;
+        Format format = get(Format.values(), buffer.getInt(), "format");
+        InternalFormat internalFormat = get(InternalFormat.values(), buffer.getInt(), "internal format");
+        Filter minFilter = get(Filter.values(), buffer.getInt(), "min filter");
+        Filter magFilter = get(Filter.values(), buffer.getInt(), "mag filter");
+        long stamp = buffer.getLong();
+        int length = buffer.getInt();
+
+        if (length < 0 || buffer.limit() < HEADER_SIZE + length) {
+            throw new LoadingException("Cooked texture is truncated");
+        }
+
+        ByteBuffer data = buffer.duplicate();
+        data.position(HEADER_SIZE);
+        data.limit(HEADER_SIZE + length);
+        data = data.slice();
+
+        if (!data.isDirect()) {
+            // OpenGL needs direct buffers
+            data = (ByteBuffer) UBuffer.createByteBuffer(length).put(data).flip();
+        }
+
+        return new CookedTexture(
+                new Dimension(width, height), alpha, format, internalFormat, minFilter, magFilter, stamp, data
+        );
+    }
+
+    /**
+     * Writes the texture into the file.
+     * The data is written into a temporary file first and renamed afterwards, so readers never
+     *  see a half written file.
+     * @param texture The texture to cook
+     * @param stamp The stamp of the source, used to detect outdated files
+     * @param file The target file
+     * @throws IOException on write errors
+     */
+    public static void write(TexturableData texture, long stamp, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(tmp);
+        try {
+            write(texture, stamp, out.getChannel());
+        } finally {
+            out.close();
+        }
+
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Could not replace " + file);
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Could not rename " + tmp + " to " + file);
+        }
+    }
+
+    /**
+     * Writes the texture into the channel
+     * @param texture The texture to cook
+     * @param stamp The stamp of the source, used to detect outdated files
+     * @param channel The target
+     * @throws IOException on write errors
+     */
+    public static void write(TexturableData texture, long stamp, WritableByteChannel channel) throws IOException {
+        // the data is flipped, from 0 to limit
+        ByteBuffer data = texture.getData().duplicate();
+        data.position(0);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putInt(texture.getDimension().getWidth());
+        header.putInt(texture.getDimension().getHeight());
+        header.putInt(texture.hasAlpha() ? 1 : 0);
+        header.putInt(texture.getFormat().ordinal());
+        header.putInt(texture.getInternalFormat().ordinal());
+        header.putInt(texture.getMinFilter().ordinal());
+        header.putInt(texture.getMagFilter().ordinal());
+        header.putLong(stamp);
+        header.putInt(data.remaining());
+        header.putInt(0);
+        header.flip();
+
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    private static <E> E get(E[] values, int ordinal, String name) throws LoadingException {
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new LoadingException("Invalid " + name + " " + ordinal);
+        }
+        return values[ordinal];
+    }
+}
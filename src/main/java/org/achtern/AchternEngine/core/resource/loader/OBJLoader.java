@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.resource.loader;
+
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.resource.fileparser.mesh.OBJReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Loads a {@link org.achtern.AchternEngine.core.rendering.mesh.Mesh} from
+ * OBJ Files, streaming the file with the {@link org.achtern.AchternEngine.core.resource.fileparser.mesh.OBJReader}.
+ * Unlike the {@link org.achtern.AchternEngine.core.resource.loader.MeshLoader} the file is never held as String.
+ * The parsed Mesh is cached and all Meshes loaded from it share the same (immutable)
+ * {@link org.achtern.AchternEngine.core.rendering.mesh.MeshData}, which gets uploaded only once.
+ */
+public class OBJLoader extends BinaryLoader<Mesh, Mesh> {
+
+    protected OBJReader reader;
+
+    /**
+     * This performs any type of loading and parsing.
+     * This should load the resource, but should not constructed it,
+     * just loading/parsing and preparations to create the object
+     *
+     * @param name  The name of the original file
+     * @param input The input file
+     * @throws LoadingException when the loading fails
+     */
+    @Override
+    public void load(String name, InputStream input) throws LoadingException {
+        try {
+            reader = new OBJReader().read(input);
+        } catch (LoadingException e) {
+            throw new LoadingException("Could not load OBJ File <" + name + ">", e);
+        } catch (IOException e) {
+            throw new LoadingException("Could not read OBJ File <" + name + ">", e);
+        }
+    }
+
+    /**
+     * This should used the information, generated during
+     * loading and construct an Object.
+     *
+     * @return The new object
+     * @throws Exception cannot throw with this loader
+     */
+    @Override
+    public Mesh get() throws Exception {
+        Mesh mesh = reader.toMesh();
+        reader = null;
+
+        cache(mesh);
+
+        return fromCache(mesh);
+    }
+
+    /**
+     * Creates a new Mesh sharing the MeshData of the cached Mesh
+     * @param value Cache
+     * @return Object
+     * @throws Exception cannot throw with this loader
+     */
+    @Override
+    public Mesh fromCache(Mesh value) throws Exception {
+        return value.share();
+    }
+
+    /**
+     * Returns the Type of the Cache data.
+     *
+     * @return data type
+     */
+    @Override
+    public Class<Mesh> getCacheType() {
+        return Mesh.class;
+    }
+}
@@ -27,9 +27,14 @@ package org.achtern.AchternEngine.core.scenegraph;
 import org.achtern.AchternEngine.core.CoreEngine;
 import org.achtern.AchternEngine.core.EngineHolder;
 import org.achtern.AchternEngine.core.Transform;
+import org.achtern.AchternEngine.core.math.Vector3f;
 import org.achtern.AchternEngine.core.rendering.RenderEngine;
 import org.achtern.AchternEngine.core.rendering.Renderable;
+import org.achtern.AchternEngine.core.rendering.culling.FrustumCuller;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
 import org.achtern.AchternEngine.core.scenegraph.entity.Entity;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.achtern.AchternEngine.core.scenegraph.entity.QuickEntity;
 import org.achtern.AchternEngine.core.scenegraph.scanning.SingleEntityRetriever;
 
 import java.util.ArrayList;
@@ -77,6 +82,28 @@ public class Node implements EngineHolder<CoreEngine>, Updatable, Renderable {
      */
     protected SingleEntityRetriever singleEntityRetriever;
 
+    /**
+     * Merged world bounds of all figures in this Node and its children
+     */
+    protected BoundingBox worldBounds;
+
+    /**
+     * Stamp of the last {@link #getWorldBounds(int)} calculation
+     */
+    private int worldBoundsStamp = -1;
+
+    private boolean hasWorldBounds;
+
+    /**
+     * Whether this Node or one of its children renders something without bounds
+     */
+    private boolean unbounded;
+
+    /**
+     * Per entity class, whether it overrides the empty {@link QuickEntity#render(RenderEngine)}
+     */
+    private static final Map<Class<?>, Boolean> renderingEntities = new ConcurrentHashMap<Class<?>, Boolean>();
+
     /**
      * Create a new Node.
      * @param name The name of the node
@@ -124,6 +151,11 @@ public class Node implements EngineHolder<CoreEngine>, Updatable, Renderable {
      */
     @Override
     public void render(RenderEngine renderEngine) {
+        FrustumCuller culler = renderEngine.getCuller();
+        if (culler != null && !culler.isVisible(this)) {
+            return;
+        }
+
         for (Entity entity : getEntities()) {
             entity.render(renderEngine);
         }
@@ -133,6 +165,86 @@ public class Node implements EngineHolder<CoreEngine>, Updatable, Renderable {
         }
     }
 
+    /**
+     * Returns the merged world bounds of all {@link Figure}s in this Node and all its children.
+     * The bounds are calculated once per stamp, calls with the same stamp return the cached bounds.
+     * Use a new stamp whenever transforms might have changed (e.g. once per frame).
+     * <br>
+     * If this Node or any child contains a figure without bounds or another entity, which renders
+     *  something, there are no bounds at all, the node cannot be culled as a whole then.
+     * @param stamp The calculation stamp
+     * @return world bounds or null if there are no bounds
+     */
+    public BoundingBox getWorldBounds(int stamp) {
+        if (stamp == worldBoundsStamp) {
+            return hasWorldBounds && !unbounded ? worldBounds : null;
+        }
+
+        worldBoundsStamp = stamp;
+        hasWorldBounds = false;
+        unbounded = false;
+
+        for (Entity entity : getEntities()) {
+            if (entity instanceof Figure) {
+                BoundingBox bb = ((Figure) entity).getWorldBounds();
+                if (bb == null) {
+                    unbounded = true;
+                } else {
+                    includeWorldBounds(bb);
+                }
+            } else if (rendersItself(entity)) {
+                unbounded = true;
+            }
+        }
+
+        for (Node node : getChildren().values()) {
+            includeWorldBounds(node.getWorldBounds(stamp));
+            unbounded |= node.unbounded;
+        }
+
+        return hasWorldBounds && !unbounded ? worldBounds : null;
+    }
+
+    /**
+     * Whether the entity draws something itself.
+     * {@link QuickEntity}s (cameras, lights, ...) not overriding render do not.
+     * @param entity The entity
+     * @return whether render is implemented
+     */
+    private static boolean rendersItself(Entity entity) {
+        Class<?> type = entity.getClass();
+        Boolean renders = renderingEntities.get(type);
+        if (renders == null) {
+            try {
+                renders = type.getMethod("render", RenderEngine.class).getDeclaringClass() != QuickEntity.class;
+            } catch (NoSuchMethodException e) {
+                renders = true;
+            }
+            renderingEntities.put(type, renders);
+        }
+
+        return renders;
+    }
+
+    private void includeWorldBounds(BoundingBox bb) {
+        if (bb == null) {
+            return;
+        }
+
+        if (worldBounds == null) {
+            worldBounds = new BoundingBox();
+        }
+
+        if (hasWorldBounds) {
+            worldBounds.include(bb);
+        } else {
+            Vector3f c = bb.getCenter();
+            Vector3f e = bb.getExtents();
+            worldBounds.set(c.getX(), c.getY(), c.getZ(), e.getX(), e.getY(), e.getZ());
+            hasWorldBounds = true;
+        }
+    }
+
     /**
      * Adds Node as a children.
      * If a node with the same node exists,
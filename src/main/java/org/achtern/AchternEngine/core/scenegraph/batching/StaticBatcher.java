@@ -0,0 +1,333 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.scenegraph.batching;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.rendering.Material;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategy;
+import org.achtern.AchternEngine.core.rendering.mesh.BatchedMesh;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.achtern.AchternEngine.core.scenegraph.scanning.FigureRetriever;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The StaticBatcher merges figures, which never move, into few large figures.
+ * The world transform of every figure gets baked into its vertices, figures sharing
+ *  the same {@link Material}, {@link DrawStrategy} and {@link MeshData.Mode} end up in the same {@link BatchedMesh}.
+ * This replaces a draw call and a transform update per figure with a draw call per batch.
+ * <br>
+ * Since the vertices are in world space, the batched figures have to be attached to a node
+ *  with an identity world transform (e.g. the root node of the scene).
+ * <br>
+ * Materials are compared by identity. Figures have to share the same Material instance to be merged.
+ * <br>
+ * Figures drawn as {@link MeshData.Mode#LINE_LOOP} are left unbatched,
+ *  merged into a single loop they would be connected to each other.
+ */
+public class StaticBatcher {
+
+    public static final Logger LOGGER = LoggerFactory.getLogger(StaticBatcher.class);
+
+    /**
+     * Maximum number of vertices per batch.
+     * Smaller batches can be culled more precisely.
+     */
+    @Getter @Setter protected int maxVertices = 1 << 16;
+
+    /**
+     * Merges all figures in the node and its children.
+     * The scenegraph is not modified.
+     * @param node The node to batch
+     * @return A new node containing the batched figures
+     */
+    public Node batch(Node node) {
+        return batch(node, false);
+    }
+
+    /**
+     * Merges all figures in the node and its children.
+     * @param node The node to batch
+     * @param remove Whether to remove the merged figures from the scenegraph
+     * @return A new node containing the batched figures
+     */
+    public Node batch(Node node, boolean remove) {
+        FigureRetriever retriever = new FigureRetriever();
+        retriever.scan(node);
+
+        List<Figure> figures = retriever.get();
+        List<Batch> batches = group(figures);
+
+        Node result = new Node(node.getName() + "-static");
+        int merged = 0;
+        for (Batch batch : batches) {
+            result.add(batch.build());
+            merged += batch.figures.size();
+        }
+
+        if (remove) {
+            for (Batch batch : batches) {
+                for (Figure figure : batch.figures) {
+                    figure.getParent().remove(figure);
+                }
+            }
+        }
+
+        LOGGER.debug("Merged {} of {} figures in {} into {} batches",
+                merged, figures.size(), node.getName(), batches.size());
+
+        return result;
+    }
+
+    /**
+     * Groups the figures into batches.
+     * Figures without vertex data and line loops are skipped.
+     * @param figures The figures to group
+     * @return batches
+     */
+    protected List<Batch> group(List<Figure> figures) {
+        List<Batch> batches = new ArrayList<Batch>();
+
+        for (Figure figure : figures) {
+            Mesh mesh = figure.getMesh();
+            if (mesh == null || mesh.getData().getPacked() == null || mesh.getData().getIndices() == null) {
+                continue;
+            }
+
+            if (mesh.getData().getMode() == MeshData.Mode.LINE_LOOP) {
+                continue;
+            }
+
+            int vertices = mesh.getData().getVertexCount();
+
+            Batch target = null;
+            for (Batch batch : batches) {
+                if (batch.accepts(figure) && (batch.vertices + vertices <= maxVertices || batch.vertices == 0)) {
+                    target = batch;
+                    break;
+                }
+            }
+
+            if (target == null) {
+                target = new Batch(figure.getMaterial(), figure.getDrawStrategy(), mesh.getData().getMode());
+                batches.add(target);
+            }
+
+            target.add(figure);
+        }
+
+        return batches;
+    }
+
+    /**
+     * Writes the vertices of the source into the destination array, transformed by the world matrix.
+     * Positions are transformed as points, tangents as directions and normals by the
+     *  inverse transpose, to stay perpendicular with non-uniform scale.
+     * @param src Packed source vertices
+     * @param count Number of vertices
+     * @param world The world matrix
+     * @param dest Packed destination array
+     * @param offset Offset of the first destination vertex (in vertices)
+     */
+    public static void transform(float[] src, int count, Matrix4f world, float[] dest, int offset) {
+        float[] m = world.getMReference();
+
+        // cofactor matrix of the upper 3x3, equals the inverse transpose scaled by the determinant
+        float c00 = m[5] * m[10] - m[6] * m[9];
+        float c01 = m[6] * m[8] - m[4] * m[10];
+        float c02 = m[4] * m[9] - m[5] * m[8];
+        float c10 = m[2] * m[9] - m[1] * m[10];
+        float c11 = m[0] * m[10] - m[2] * m[8];
+        float c12 = m[1] * m[8] - m[0] * m[9];
+        float c20 = m[1] * m[6] - m[2] * m[5];
+        float c21 = m[2] * m[4] - m[0] * m[6];
+        float c22 = m[0] * m[5] - m[1] * m[4];
+
+        // the determinant's sign keeps normals of mirrored figures pointing outwards
+        float sign = Math.signum(m[0] * c00 + m[1] * c01 + m[2] * c02);
+        c00 *= sign;
+        c01 *= sign;
+        c02 *= sign;
+        c10 *= sign;
+        c11 *= sign;
+        c12 *= sign;
+        c20 *= sign;
+        c21 *= sign;
+        c22 *= sign;
+
+        for (int i = 0; i < count; i++) {
+            int s = i * Vertex.SIZE;
+            int d = (offset + i) * Vertex.SIZE;
+
+            float x = src[s + Vertex.POSITION_OFFSET];
+            float y = src[s + Vertex.POSITION_OFFSET + 1];
+            float z = src[s + Vertex.POSITION_OFFSET + 2];
+            dest[d + Vertex.POSITION_OFFSET] = m[0] * x + m[1] * y + m[2] * z + m[3];
+            dest[d + Vertex.POSITION_OFFSET + 1] = m[4] * x + m[5] * y + m[6] * z + m[7];
+            dest[d + Vertex.POSITION_OFFSET + 2] = m[8] * x + m[9] * y + m[10] * z + m[11];
+
+            dest[d + Vertex.TEX_COORD_OFFSET] = src[s + Vertex.TEX_COORD_OFFSET];
+            dest[d + Vertex.TEX_COORD_OFFSET + 1] = src[s + Vertex.TEX_COORD_OFFSET + 1];
+
+            x = src[s + Vertex.NORMAL_OFFSET];
+            y = src[s + Vertex.NORMAL_OFFSET + 1];
+            z = src[s + Vertex.NORMAL_OFFSET + 2];
+            normalize(dest, d + Vertex.NORMAL_OFFSET,
+                    c00 * x + c01 * y + c02 * z,
+                    c10 * x + c11 * y + c12 * z,
+                    c20 * x + c21 * y + c22 * z);
+
+            x = src[s + Vertex.TANGENT_OFFSET];
+            y = src[s + Vertex.TANGENT_OFFSET + 1];
+            z = src[s + Vertex.TANGENT_OFFSET + 2];
+            normalize(dest, d + Vertex.TANGENT_OFFSET,
+                    m[0] * x + m[1] * y + m[2] * z,
+                    m[4] * x + m[5] * y + m[6] * z,
+                    m[8] * x + m[9] * y + m[10] * z);
+        }
+    }
+
+    private static void normalize(float[] dest, int o, float x, float y, float z) {
+        float length = (float) Math.sqrt(x * x + y * y + z * z);
+        if (length > 0) {
+            x /= length;
+            y /= length;
+            z /= length;
+        }
+        dest[o] = x;
+        dest[o + 1] = y;
+        dest[o + 2] = z;
+    }
+
+    /**
+     * Determinant of the upper 3x3 of the matrix.
+     * Negative for mirroring transforms, which flip the triangle winding.
+     * @param world The matrix
+     * @return determinant
+     */
+    protected static float determinant(Matrix4f world) {
+        float[] m = world.getMReference();
+        return m[0] * (m[5] * m[10] - m[6] * m[9])
+                - m[1] * (m[4] * m[10] - m[6] * m[8])
+                + m[2] * (m[4] * m[9] - m[5] * m[8]);
+    }
+
+    /**
+     * Figures merged into a single mesh
+     */
+    protected static class Batch {
+
+        protected final Material material;
+
+        protected final DrawStrategy drawStrategy;
+
+        protected final MeshData.Mode mode;
+
+        protected final List<Figure> figures = new ArrayList<Figure>();
+
+        protected int vertices;
+
+        protected int indices;
+
+        protected Batch(Material material, DrawStrategy drawStrategy, MeshData.Mode mode) {
+            this.material = material;
+            this.drawStrategy = drawStrategy;
+            this.mode = mode;
+        }
+
+        protected boolean accepts(Figure figure) {
+            return figure.getMaterial() == material
+                    && figure.getDrawStrategy() == drawStrategy
+                    && figure.getMesh().getData().getMode() == mode;
+        }
+
+        protected void add(Figure figure) {
+            MeshData data = figure.getMesh().getData();
+            figures.add(figure);
+            vertices += data.getVertexCount();
+            indices += indexCount(data);
+        }
+
+        protected Figure build() {
+            float[] packed = new float[vertices * Vertex.SIZE];
+            int[] merged = new int[indices];
+            List<BatchedMesh.Range> ranges = new ArrayList<BatchedMesh.Range>(figures.size());
+
+            int vertex = 0;
+            int index = 0;
+            for (Figure figure : figures) {
+                MeshData data = figure.getMesh().getData();
+                Matrix4f world = figure.getTransform().getTransformation();
+                int count = data.getVertexCount();
+                int size = indexCount(data);
+
+                transform(data.getPacked(), count, world, packed, vertex);
+
+                int[] src = data.getIndices();
+                for (int i = 0; i < size; i++) {
+                    merged[index + i] = src[i] + vertex;
+                }
+
+                if (mode == MeshData.Mode.TRIANGLES && determinant(world) < 0) {
+                    // mirrored, restore the winding order
+                    for (int i = index; i + 2 < index + size; i += 3) {
+                        int t = merged[i + 1];
+                        merged[i + 1] = merged[i + 2];
+                        merged[i + 2] = t;
+                    }
+                }
+
+                BoundingBox bounds = new BoundingBox()
+                        .fromPositions(packed, vertex * Vertex.SIZE + Vertex.POSITION_OFFSET, Vertex.SIZE, count);
+                ranges.add(new BatchedMesh.Range(figure.getName(), index, size, bounds));
+
+                vertex += count;
+                index += size;
+            }
+
+            MeshData data = new MeshData();
+            data.set(packed, merged, merged.length);
+            data.setMode(mode);
+
+            Figure figure = new Figure("Static Batch", new BatchedMesh(data, ranges), material);
+            figure.setDrawStrategy(drawStrategy);
+            return figure;
+        }
+
+        protected static int indexCount(MeshData data) {
+            return Math.min(data.getSize(), data.getIndices().length);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.scenegraph.bounding;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+
+/**
+ * Axis aligned box stored as primitive min/max arrays.
+ * All operations work in-place and do not allocate, which makes this class suitable
+ *  for hot paths like bounds calculation of big meshes or culling.
+ * The static methods work on boxes given by center and extents (like {@link BoundingBox}).
+ */
+public class AABB {
+
+    @Getter protected final float[] min = new float[3];
+    @Getter protected final float[] max = new float[3];
+
+    /**
+     * Creates an empty box
+     * @see #isEmpty()
+     */
+    public AABB() {
+        reset();
+    }
+
+    /**
+     * Creates a box with the given bounds
+     * @param bb The bounds
+     */
+    public AABB(BoundingBox bb) {
+        set(bb);
+    }
+
+    /**
+     * Empties this box. Including any point afterwards makes the box contain exactly this point.
+     * @return this
+     */
+    public AABB reset() {
+        for (int i = 0; i < 3; i++) {
+            min[i] = Float.POSITIVE_INFINITY;
+            max[i] = Float.NEGATIVE_INFINITY;
+        }
+        return this;
+    }
+
+    /**
+     * Whether nothing was included since the last {@link #reset()}
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return min[0] > max[0] || min[1] > max[1] || min[2] > max[2];
+    }
+
+    /**
+     * Sets this box to the given bounds
+     * @param bb The bounds
+     * @return this
+     */
+    public AABB set(BoundingBox bb) {
+        Vector3f c = bb.getCenter();
+        Vector3f e = bb.getExtents();
+        return set(c.getX(), c.getY(), c.getZ(), e.getX(), e.getY(), e.getZ());
+    }
+
+    /**
+     * Sets this box from center and extents
+     * @return this
+     */
+    public AABB set(float cx, float cy, float cz, float ex, float ey, float ez) {
+        min[0] = cx - ex;
+        min[1] = cy - ey;
+        min[2] = cz - ez;
+        max[0] = cx + ex;
+        max[1] = cy + ey;
+        max[2] = cz + ez;
+        return this;
+    }
+
+    /**
+     * Grows this box to contain the point
+     * @return this
+     */
+    public AABB include(float x, float y, float z) {
+        if (x < min[0]) min[0] = x;
+        if (x > max[0]) max[0] = x;
+        if (y < min[1]) min[1] = y;
+        if (y > max[1]) max[1] = y;
+        if (z < min[2]) min[2] = z;
+        if (z > max[2]) max[2] = z;
+        return this;
+    }
+
+    /**
+     * Grows this box to contain all points of a (possibly interleaved) float array
+     * @param data The data
+     * @param offset Index of the first x coordinate
+     * @param stride Number of floats between two points (3 for tightly packed positions)
+     * @param count Number of points
+     * @return this
+     */
+    public AABB include(float[] data, int offset, int stride, int count) {
+        float minX = min[0], minY = min[1], minZ = min[2];
+        float maxX = max[0], maxY = max[1], maxZ = max[2];
+
+        for (int i = 0, o = offset; i < count; i++, o += stride) {
+            float x = data[o];
+            float y = data[o + 1];
+            float z = data[o + 2];
+
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (y < minY) minY = y;
+            if (y > maxY) maxY = y;
+            if (z < minZ) minZ = z;
+            if (z > maxZ) maxZ = z;
+        }
+
+        min[0] = minX;
+        min[1] = minY;
+        min[2] = minZ;
+        max[0] = maxX;
+        max[1] = maxY;
+        max[2] = maxZ;
+        return this;
+    }
+
+    /**
+     * Grows this box to contain the other box
+     * @param other The box to include
+     * @return this
+     */
+    public AABB include(AABB other) {
+        for (int i = 0; i < 3; i++) {
+            if (other.min[i] < min[i]) min[i] = other.min[i];
+            if (other.max[i] > max[i]) max[i] = other.max[i];
+        }
+        return this;
+    }
+
+    /**
+     * Grows this box to contain the other box
+     * @param bb The box to include
+     * @return this
+     */
+    public AABB include(BoundingBox bb) {
+        Vector3f c = bb.getCenter();
+        Vector3f e = bb.getExtents();
+        include(c.getX() - e.getX(), c.getY() - e.getY(), c.getZ() - e.getZ());
+        return include(c.getX() + e.getX(), c.getY() + e.getY(), c.getZ() + e.getZ());
+    }
+
+    /**
+     * Sets this box to the axis aligned box enclosing the given box after transformation.
+     * The result is conservative (rotated boxes grow).
+     * @param local The box in local space (may be this)
+     * @param m The transformation (e.g. world matrix)
+     * @return this
+     */
+    public AABB transform(AABB local, Matrix4f m) {
+        float[] lmin = local.min;
+        float[] lmax = local.max;
+        float l0 = lmin[0], l1 = lmin[1], l2 = lmin[2];
+        float h0 = lmax[0], h1 = lmax[1], h2 = lmax[2];
+
+        for (int row = 0; row < 3; row++) {
+            float lo = m.get(row, 3);
+            float hi = lo;
+
+            float a = m.get(row, 0) * l0;
+            float b = m.get(row, 0) * h0;
+            lo += Math.min(a, b);
+            hi += Math.max(a, b);
+
+            a = m.get(row, 1) * l1;
+            b = m.get(row, 1) * h1;
+            lo += Math.min(a, b);
+            hi += Math.max(a, b);
+
+            a = m.get(row, 2) * l2;
+            b = m.get(row, 2) * h2;
+            lo += Math.min(a, b);
+            hi += Math.max(a, b);
+
+            min[row] = lo;
+            max[row] = hi;
+        }
+
+        return this;
+    }
+
+    /**
+     * Whether both boxes overlap (touching counts)
+     * @param other The other box
+     * @return true if overlapping
+     */
+    public boolean intersects(AABB other) {
+        return min[0] <= other.max[0] && max[0] >= other.min[0]
+                && min[1] <= other.max[1] && max[1] >= other.min[1]
+                && min[2] <= other.max[2] && max[2] >= other.min[2];
+    }
+
+    /**
+     * Whether the sphere overlaps this box
+     * @return true if overlapping
+     */
+    public boolean intersectsSphere(float x, float y, float z, float radius) {
+        float dx = Math.max(Math.max(min[0] - x, x - max[0]), 0);
+        float dy = Math.max(Math.max(min[1] - y, y - max[1]), 0);
+        float dz = Math.max(Math.max(min[2] - z, z - max[2]), 0);
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
+    }
+
+    /**
+     * Slab test of a ray against this box
+     * @return see {@link #intersectRay(float, float, float, float, float, float, float, float, float, float, float, float, float)}
+     */
+    public float intersectRay(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance) {
+        return intersectRay(
+                (min[0] + max[0]) / 2, (min[1] + max[1]) / 2, (min[2] + max[2]) / 2,
+                (max[0] - min[0]) / 2, (max[1] - min[1]) / 2, (max[2] - min[2]) / 2,
+                ox, oy, oz, dx, dy, dz, maxDistance);
+    }
+
+    /**
+     * Classifies this box against the plane a*x + b*y + c*z + d = 0
+     * @return see {@link #classify(float, float, float, float, float, float, float, float, float, float)}
+     */
+    public int classify(float a, float b, float c, float d) {
+        return classify(
+                (min[0] + max[0]) / 2, (min[1] + max[1]) / 2, (min[2] + max[2]) / 2,
+                (max[0] - min[0]) / 2, (max[1] - min[1]) / 2, (max[2] - min[2]) / 2,
+                a, b, c, d);
+    }
+
+    /**
+     * Writes this box into the given BoundingBox (in-place)
+     * @param store The target
+     * @param padding Will get added to all sides
+     * @return store
+     */
+    public BoundingBox toBoundingBox(BoundingBox store, float padding) {
+        return store.set(
+                (min[0] + max[0]) / 2, (min[1] + max[1]) / 2, (min[2] + max[2]) / 2,
+                (max[0] - min[0]) / 2 + padding, (max[1] - min[1]) / 2 + padding, (max[2] - min[2]) / 2 + padding);
+    }
+
+    /**
+     * Whether the sphere overlaps the box, given by center and extents
+     * @return true if overlapping
+     */
+    public static boolean intersectsSphere(float cx, float cy, float cz, float ex, float ey, float ez,
+                                           float x, float y, float z, float radius) {
+        float dx = Math.max(Math.abs(x - cx) - ex, 0);
+        float dy = Math.max(Math.abs(y - cy) - ey, 0);
+        float dz = Math.max(Math.abs(z - cz) - ez, 0);
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
+    }
+
+    /**
+     * Slab test of a ray against the box, given by center and extents
+     * @param maxDistance Maximum distance along the ray, measured in lengths of the direction
+     * @return distance (in direction lengths) of the entry point, 0 if the origin is inside, -1 if missed
+     */
+    public static float intersectRay(float cx, float cy, float cz, float ex, float ey, float ez,
+                                     float ox, float oy, float oz, float dx, float dy, float dz,
+                                     float maxDistance) {
+        float near = 0;
+        float far = maxDistance;
+
+        for (int axis = 0; axis < 3; axis++) {
+            float c = axis == 0 ? cx : (axis == 1 ? cy : cz);
+            float e = axis == 0 ? ex : (axis == 1 ? ey : ez);
+            float o = axis == 0 ? ox : (axis == 1 ? oy : oz);
+            float d = axis == 0 ? dx : (axis == 1 ? dy : dz);
+
+            if (d == 0) {
+                if (Math.abs(o - c) > e) {
+                    return -1;
+                }
+                continue;
+            }
+
+            float t1 = (c - e - o) / d;
+            float t2 = (c + e - o) / d;
+            if (t1 > t2) {
+                float t = t1;
+                t1 = t2;
+                t2 = t;
+            }
+
+            near = Math.max(near, t1);
+            far = Math.min(far, t2);
+            if (near > far) {
+                return -1;
+            }
+        }
+
+        return near;
+    }
+
+    /**
+     * Classifies the box, given by center and extents, against the plane a*x + b*y + c*z + d = 0
+     * @return 1 if completely in front (positive side), -1 if completely behind, 0 if intersecting
+     */
+    public static int classify(float cx, float cy, float cz, float ex, float ey, float ez,
+                               float a, float b, float c, float d) {
+        float distance = a * cx + b * cy + c * cz + d;
+        float radius = ex * Math.abs(a) + ey * Math.abs(b) + ez * Math.abs(c);
+
+        if (distance > radius) {
+            return 1;
+        } else if (distance < -radius) {
+            return -1;
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "min=(" + min[0] + "/" + min[1] + "/" + min[2] + ");max=(" + max[0] + "/" + max[1] + "/" + max[2] + ")";
+    }
+}
@@ -24,6 +24,7 @@
 
 package org.achtern.AchternEngine.core.scenegraph.bounding;
 
+import org.achtern.AchternEngine.core.math.Matrix4f;
 import org.achtern.AchternEngine.core.math.Vector3f;
 import org.achtern.AchternEngine.core.rendering.Vertex;
 import org.achtern.AchternEngine.core.rendering.mesh.WireBox;
@@ -34,7 +35,6 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 @NoArgsConstructor
@@ -65,12 +65,13 @@ public class BoundingBox extends BoundingObject {
     }
 
     public BoundingBox(BoundingBox copy) {
-        this(copy.getCenter(), copy.getExtents());
+        this(copy.getCenter().get(), copy.getExtents().get());
     }
 
     public BoundingBox copy(BoundingBox copy) {
-        setExtents(copy.getExtents());
-        setCenter(copy.getCenter());
+        Vector3f c = copy.getCenter();
+        Vector3f e = copy.getExtents();
+        set(c.getX(), c.getY(), c.getZ(), e.getX(), e.getY(), e.getZ());
         setCheckPlane(copy.getCheckPlane());
         return this;
     }
@@ -94,11 +95,34 @@ public class BoundingBox extends BoundingObject {
      * @return this
      */
     public BoundingBox fromVertices(Vertex[] vertices, float padding) {
-        List<Vector3f> points = new ArrayList<Vector3f>(vertices.length);
+        if (vertices.length == 0) {
+            throw new IllegalArgumentException("At least 1 vertex is needed to calculate a BoundingBox");
+        }
+
+        AABB aabb = new AABB();
         for (Vertex v : vertices) {
-            points.add(v.getPos());
+            Vector3f pos = v.getPos();
+            aabb.include(pos.getX(), pos.getY(), pos.getZ());
+        }
+
+        return aabb.toBoundingBox(this, padding);
+    }
+
+    /**
+     * Calculates a BoundingBox from a (possibly interleaved) float array of positions.
+     * The outter most points will be directly on the edge of the bounding box.
+     * @param data The data
+     * @param offset Index of the first x coordinate
+     * @param stride Number of floats between two positions (3 for tightly packed positions)
+     * @param count Number of positions
+     * @return this
+     */
+    public BoundingBox fromPositions(float[] data, int offset, int stride, int count) {
+        if (count == 0) {
+            throw new IllegalArgumentException("At least 1 vertex is needed to calculate a BoundingBox");
         }
-        return fromPoints(points);
+
+        return new AABB().include(data, offset, stride, count).toBoundingBox(this, 0);
     }
 
     /**
@@ -124,43 +148,13 @@ public class BoundingBox extends BoundingObject {
             throw new IllegalArgumentException("At least 1 vertex is needed to calculate a BoundingBox");
         }
 
-        List<Float> xs = new ArrayList<Float>(vectors.size());
-        List<Float> ys = new ArrayList<Float>(vectors.size());
-        List<Float> zs = new ArrayList<Float>(vectors.size());
-
-        for (Vector3f point : vectors) {
-            xs.add(point.getX());
-            ys.add(point.getY());
-            zs.add(point.getZ());
+        AABB aabb = new AABB();
+        for (int i = 0; i < vectors.size(); i++) {
+            Vector3f point = vectors.get(i);
+            aabb.include(point.getX(), point.getY(), point.getZ());
         }
 
-        float maxX = Collections.max(xs);
-        float minX = Collections.min(xs);
-
-        float maxY = Collections.max(ys);
-        float minY = Collections.min(ys);
-
-        float maxZ = Collections.max(zs);
-        float minZ = Collections.min(zs);
-
-        setCenter(new Vector3f(
-                (maxX + minX) / 2,
-                (maxY + minY) / 2,
-                (maxZ + minZ) / 2
-        ));
-
-        /* Calculate extents
-        Since the distance from both positive max and negative max (p.. & n..)
-        is the same, just calculate distance from center to pX, pY and pZ
-        */
-        setExtents(new Vector3f(
-                maxX - getCenter().getX() + padding,
-                maxY - getCenter().getY() + padding,
-                maxZ - getCenter().getZ() + padding
-        ));
-
-
-        return this;
+        return aabb.toBoundingBox(this, padding);
     }
 
     @Override
@@ -174,26 +168,76 @@ public class BoundingBox extends BoundingObject {
         }
     }
 
+    /**
+     * Grows this box (in-place) to enclose the other box as well
+     * @param bb The box to merge with
+     * @return this
+     * @see #include(BoundingBox)
+     */
     public BoundingBox merge(BoundingBox bb) {
+        return include(bb);
+    }
 
+    /**
+     * Sets this box to the axis aligned box enclosing the given box after transformation.
+     * The result is conservative (rotated boxes grow).
+     * @param local The box in local space
+     * @param m The transformation (e.g. world matrix)
+     * @return this
+     */
+    public BoundingBox transform(BoundingBox local, Matrix4f m) {
+        Vector3f c = local.getCenter();
+        Vector3f e = local.getExtents();
 
-        // To points
-        List<Vector3f> bb1 = toPoints();
-        List<Vector3f> bb2 = bb.toPoints();
+        float cx = m.get(0, 0) * c.getX() + m.get(0, 1) * c.getY() + m.get(0, 2) * c.getZ() + m.get(0, 3);
+        float cy = m.get(1, 0) * c.getX() + m.get(1, 1) * c.getY() + m.get(1, 2) * c.getZ() + m.get(1, 3);
+        float cz = m.get(2, 0) * c.getX() + m.get(2, 1) * c.getY() + m.get(2, 2) * c.getZ() + m.get(2, 3);
 
-        // Convert from local to "absolute" coordinates
-        for (Vector3f v : bb1) {
-            v.set(v.add(getCenter()));
-        }
+        float ex = Math.abs(m.get(0, 0)) * e.getX() + Math.abs(m.get(0, 1)) * e.getY() + Math.abs(m.get(0, 2)) * e.getZ();
+        float ey = Math.abs(m.get(1, 0)) * e.getX() + Math.abs(m.get(1, 1)) * e.getY() + Math.abs(m.get(1, 2)) * e.getZ();
+        float ez = Math.abs(m.get(2, 0)) * e.getX() + Math.abs(m.get(2, 1)) * e.getY() + Math.abs(m.get(2, 2)) * e.getZ();
 
-        for (Vector3f v : bb2) {
-            v.set(v.add(bb.getCenter()));
-        }
+        return set(cx, cy, cz, ex, ey, ez);
+    }
 
-        bb1.addAll(bb2);
+    /**
+     * Grows this box (in-place) to enclose the other box as well
+     * @param bb The box to include
+     * @return this
+     */
+    public BoundingBox include(BoundingBox bb) {
+        Vector3f c = getCenter();
+        Vector3f e = getExtents();
+        Vector3f oc = bb.getCenter();
+        Vector3f oe = bb.getExtents();
+
+        float minX = Math.min(c.getX() - e.getX(), oc.getX() - oe.getX());
+        float minY = Math.min(c.getY() - e.getY(), oc.getY() - oe.getY());
+        float minZ = Math.min(c.getZ() - e.getZ(), oc.getZ() - oe.getZ());
+        float maxX = Math.max(c.getX() + e.getX(), oc.getX() + oe.getX());
+        float maxY = Math.max(c.getY() + e.getY(), oc.getY() + oe.getY());
+        float maxZ = Math.max(c.getZ() + e.getZ(), oc.getZ() + oe.getZ());
+
+        return set((maxX + minX) / 2, (maxY + minY) / 2, (maxZ + minZ) / 2,
+                (maxX - minX) / 2, (maxY - minY) / 2, (maxZ - minZ) / 2);
+    }
 
-        // Apply to current Object
-        fromPoints(bb1);
+    /**
+     * Sets center and extents in-place
+     * @return this
+     */
+    public BoundingBox set(float cx, float cy, float cz, float ex, float ey, float ez) {
+        if (getCenter() == null) {
+            setCenter(new Vector3f(cx, cy, cz));
+        } else {
+            getCenter().set(cx, cy, cz);
+        }
+
+        if (getExtents() == null) {
+            setExtents(new Vector3f(ex, ey, ez));
+        } else {
+            getExtents().set(ex, ey, ez);
+        }
 
         return this;
     }
@@ -239,6 +283,44 @@ public class BoundingBox extends BoundingObject {
         return true;
     }
 
+    /**
+     * Whether the sphere overlaps this box
+     * @param center The center of the sphere
+     * @param radius The radius of the sphere
+     * @return true if overlapping
+     */
+    public boolean intersects(Vector3f center, float radius) {
+        Vector3f c = getCenter();
+        Vector3f e = getExtents();
+        return AABB.intersectsSphere(c.getX(), c.getY(), c.getZ(), e.getX(), e.getY(), e.getZ(),
+                center.getX(), center.getY(), center.getZ(), radius);
+    }
+
+    /**
+     * Slab test of a ray against this box
+     * @param origin Origin of the ray
+     * @param direction Direction of the ray
+     * @param maxDistance Maximum distance along the ray, measured in lengths of the direction
+     * @return distance of the entry point, 0 if the origin is inside, -1 if missed
+     */
+    public float intersectRay(Vector3f origin, Vector3f direction, float maxDistance) {
+        Vector3f c = getCenter();
+        Vector3f e = getExtents();
+        return AABB.intersectRay(c.getX(), c.getY(), c.getZ(), e.getX(), e.getY(), e.getZ(),
+                origin.getX(), origin.getY(), origin.getZ(),
+                direction.getX(), direction.getY(), direction.getZ(), maxDistance);
+    }
+
+    /**
+     * Classifies this box against the plane a*x + b*y + c*z + d = 0
+     * @return 1 if completely in front (positive side), -1 if completely behind, 0 if intersecting
+     */
+    public int classify(float a, float b, float c, float d) {
+        Vector3f center = getCenter();
+        Vector3f e = getExtents();
+        return AABB.classify(center.getX(), center.getY(), center.getZ(), e.getX(), e.getY(), e.getZ(), a, b, c, d);
+    }
+
     @Override
     public boolean contains(Vector3f point) {
         return
@@ -0,0 +1,146 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.scenegraph.bounding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+
+/**
+ * A view frustum, described by 6 planes (left, right, bottom, top, near, far).
+ * The planes are extracted from a (view-)projection matrix, their normals point inwards.
+ */
+public class Frustum {
+
+    public static final int LEFT = 0;
+    public static final int RIGHT = 1;
+    public static final int BOTTOM = 2;
+    public static final int TOP = 3;
+    public static final int NEAR = 4;
+    public static final int FAR = 5;
+
+    /**
+     * 6 planes, each stored as (a, b, c, d) with ax + by + cz + d = 0
+     */
+    protected final float[] planes = new float[24];
+
+    /**
+     * Whether to test against the near and far plane.
+     * When depth clamping is enabled, objects in front of the near or behind the
+     *  far plane still get rasterized, so they should not be culled.
+     */
+    @Getter @Setter protected boolean nearFar = true;
+
+    /**
+     * Extracts the planes from the matrix (Gribb &amp; Hartmann)
+     * @param m view-projection matrix
+     * @return this
+     */
+    public Frustum set(Matrix4f m) {
+        for (int i = 0; i < 3; i++) {
+            // row 3 + row i and row 3 - row i
+            setPlane(i * 2,
+                    m.get(3, 0) + m.get(i, 0), m.get(3, 1) + m.get(i, 1),
+                    m.get(3, 2) + m.get(i, 2), m.get(3, 3) + m.get(i, 3));
+            setPlane(i * 2 + 1,
+                    m.get(3, 0) - m.get(i, 0), m.get(3, 1) - m.get(i, 1),
+                    m.get(3, 2) - m.get(i, 2), m.get(3, 3) - m.get(i, 3));
+        }
+
+        return this;
+    }
+
+    protected void setPlane(int plane, float a, float b, float c, float d) {
+        float length = (float) Math.sqrt(a * a + b * b + c * c);
+        if (length == 0) {
+            length = 1;
+        }
+
+        int o = plane << 2;
+        planes[o] = a / length;
+        planes[o + 1] = b / length;
+        planes[o + 2] = c / length;
+        planes[o + 3] = d / length;
+    }
+
+    /**
+     * Returns the signed distance of the point to the plane
+     * @param plane Plane index
+     * @param x x
+     * @param y y
+     * @param z z
+     * @return positive if inside
+     */
+    public float distance(int plane, float x, float y, float z) {
+        int o = plane << 2;
+        return planes[o] * x + planes[o + 1] * y + planes[o + 2] * z + planes[o + 3];
+    }
+
+    /**
+     * Tests whether the box is (at least partially) inside the frustum.
+     * @param bb The box in world space
+     * @return false if the box is completely outside
+     */
+    public boolean intersects(BoundingBox bb) {
+        Vector3f c = bb.getCenter();
+        Vector3f e = bb.getExtents();
+        return intersects(c.getX(), c.getY(), c.getZ(), e.getX(), e.getY(), e.getZ());
+    }
+
+    /**
+     * Tests whether the box, given by center and extents, is (at least partially) inside the frustum.
+     * This test is conservative, boxes near the corners of the frustum may pass.
+     * @return false if the box is completely outside
+     */
+    public boolean intersects(float cx, float cy, float cz, float ex, float ey, float ez) {
+        int count = nearFar ? 6 : 4;
+        for (int i = 0; i < count; i++) {
+            int o = i << 2;
+            if (AABB.classify(cx, cy, cz, ex, ey, ez, planes[o], planes[o + 1], planes[o + 2], planes[o + 3]) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Tests whether the sphere is (at least partially) inside the frustum.
+     * @param center sphere center
+     * @param radius sphere radius
+     * @return false if the sphere is completely outside
+     */
+    public boolean intersects(Vector3f center, float radius) {
+        int count = nearFar ? 6 : 4;
+        for (int i = 0; i < count; i++) {
+            if (distance(i, center.getX(), center.getY(), center.getZ()) < -radius) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
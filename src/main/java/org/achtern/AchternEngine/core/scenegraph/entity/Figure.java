@@ -26,14 +26,18 @@ package org.achtern.AchternEngine.core.scenegraph.entity;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.achtern.AchternEngine.core.math.Matrix4f;
 import org.achtern.AchternEngine.core.rendering.Material;
 import org.achtern.AchternEngine.core.rendering.PassFilter;
 import org.achtern.AchternEngine.core.rendering.RenderEngine;
+import org.achtern.AchternEngine.core.rendering.culling.FrustumCuller;
 import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategy;
 import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategyFactory;
 import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.queue.RenderQueue;
 import org.achtern.AchternEngine.core.rendering.shader.Shader;
 import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
 
 /**
  * A Figure represents a renderable {@link Mesh}.
@@ -54,6 +58,17 @@ public class Figure extends QuickEntity {
      */
     @Getter @Setter protected DrawStrategy drawStrategy;
 
+    /**
+     * Cached bounds in world space
+     */
+    protected BoundingBox worldBounds;
+
+    /**
+     * The mesh bounds and transform revision, the world bounds have been calculated from
+     */
+    private BoundingBox worldBoundsSource;
+    private int worldBoundsRevision;
+
     /**
      * Create an empty Figure
      * @param name The name of the empty figure
@@ -103,11 +118,17 @@ public class Figure extends QuickEntity {
     }
 
     /**
+     * Adds this figure to the {@link org.achtern.AchternEngine.core.rendering.queue.RenderQueue}
+     *  if it is collecting, otherwise draws it right away.
      * @see QuickEntity#render(RenderEngine)
      */
     @Override
     public void render(RenderEngine renderEngine) {
 
+        FrustumCuller culler = renderEngine.getCuller();
+        if (culler != null && !culler.isVisible(this)) {
+            return;
+        }
 
         Shader shader = renderEngine.getActiveRenderPass().getShader();
 
@@ -117,9 +138,6 @@ public class Figure extends QuickEntity {
             shader = getMaterial().getShader().getFor(renderEngine.getActiveRenderPass().getClass());
         }
 
-        shader.updateUniforms(renderEngine, this);
-        renderEngine.getDataBinder().bind(shader);
-
         DrawStrategy ds = getDrawStrategy();
         if (ds == null) {
             ds = renderEngine.getDrawStrategy();
@@ -129,9 +147,55 @@ public class Figure extends QuickEntity {
             ds = DrawStrategyFactory.get("wireframe");
         }
 
+        RenderQueue queue = renderEngine.getRenderQueue();
+        if (queue != null && queue.isCollecting()) {
+            queue.add(this, shader, ds);
+        } else {
+            draw(renderEngine, shader, ds);
+        }
+    }
+
+    /**
+     * Draws this figure.
+     * The shader gets bound before updating the uniforms, since uniforms are always
+     *  set on the bound program.
+     * @param renderEngine The active RenderEngine
+     * @param shader The shader to draw with
+     * @param ds The DrawStrategy to use
+     */
+    public void draw(RenderEngine renderEngine, Shader shader, DrawStrategy ds) {
+        renderEngine.getDataBinder().bind(shader);
+        shader.updateUniforms(renderEngine, this);
+
         ds.draw(renderEngine.getDataBinder(), this.mesh);
     }
 
+    /**
+     * Returns the bounding box of the mesh in world space.
+     * The box is cached and only recalculated if the transform or the mesh bounds changed.
+     * @return world bounds or null if the mesh has no bounds
+     */
+    public BoundingBox getWorldBounds() {
+        BoundingBox local = getMesh() == null ? null : getMesh().getBoundingBox();
+        if (local == null) {
+            return null;
+        }
+
+        Matrix4f world = getTransform().getTransformation();
+        int revision = getTransform().getRevision();
+
+        if (worldBounds == null || local != worldBoundsSource || revision != worldBoundsRevision) {
+            if (worldBounds == null) {
+                worldBounds = new BoundingBox();
+            }
+            worldBounds.transform(local, world);
+            worldBoundsSource = local;
+            worldBoundsRevision = revision;
+        }
+
+        return worldBounds;
+    }
+
     /**
      * Returns a Node with 1 {@link org.achtern.AchternEngine.core.scenegraph.entity.Entity} (this Figure)
      * @return Node with this Figure
@@ -27,6 +27,7 @@ package org.achtern.AchternEngine.core.scenegraph.scanning;
 import org.achtern.AchternEngine.core.rendering.Material;
 import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
 import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.bounding.AABB;
 import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
 import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
 
@@ -142,18 +143,18 @@ public class FigureRetriever extends EntityRetriever {
     public BoundingBox getCompleteBoundingBox() {
         if (bb != null) return bb;
 
+        AABB aabb = new AABB();
         for (Mesh m : getMeshes()) {
-            if (bb == null) {
-                bb = new BoundingBox(m.getBoundingBox());
-                continue;
+            if (m.getBoundingBox() != null) {
+                aabb.include(m.getBoundingBox());
             }
+        }
 
-            bb.merge(m.getBoundingBox());
+        if (!aabb.isEmpty()) {
+            bb = aabb.toBoundingBox(new BoundingBox(), 0);
         }
 
         return bb;
-
-
     }
 
 }
@@ -0,0 +1,457 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.scenegraph.spatial;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.scenegraph.bounding.AABB;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
+import org.achtern.AchternEngine.core.scenegraph.bounding.Frustum;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A loose octree, indexing items by their axis aligned bounds.
+ * Every cell has loose bounds twice the size of its tight bounds, so an item is stored in the deepest
+ *  cell, which contains the item's center and is at least as big as the item.
+ * This way items never have to be split and moving items can be updated cheaply.
+ * <br>
+ * Items outside of the root cell are kept in a separate list and are tested on every query.
+ * @param <T> Type of the stored items
+ */
+public class LooseOctree<T> {
+
+    /**
+     * Handle to a stored item. Keep it to update or remove the item.
+     * @param <T> Type of the stored item
+     */
+    public static class Entry<T> {
+
+        @Getter protected final T item;
+
+        protected float cx;
+        protected float cy;
+        protected float cz;
+        protected float ex;
+        protected float ey;
+        protected float ez;
+
+        /**
+         * The cell storing this entry, null if outside of the root
+         *  (or removed, see {@link #stored})
+         */
+        protected Cell<T> cell;
+
+        /**
+         * Index in the entry list of the cell
+         */
+        protected int slot;
+
+        protected boolean stored;
+
+        protected Entry(T item) {
+            this.item = item;
+        }
+
+        protected boolean equals(float cx, float cy, float cz, float ex, float ey, float ez) {
+            return this.cx == cx && this.cy == cy && this.cz == cz && this.ex == ex && this.ey == ey && this.ez == ez;
+        }
+
+        protected void set(float cx, float cy, float cz, float ex, float ey, float ez) {
+            this.cx = cx;
+            this.cy = cy;
+            this.cz = cz;
+            this.ex = ex;
+            this.ey = ey;
+            this.ez = ez;
+        }
+    }
+
+    protected static class Cell<T> {
+
+        protected final Cell<T> parent;
+        protected final float cx;
+        protected final float cy;
+        protected final float cz;
+        /**
+         * Half size of the tight bounds
+         */
+        protected final float half;
+        protected final int depth;
+
+        protected Cell<T>[] children;
+
+        protected final List<Entry<T>> entries = new ArrayList<Entry<T>>();
+
+        /**
+         * Number of entries in this cell and all children
+         */
+        protected int total;
+
+        protected Cell(Cell<T> parent, float cx, float cy, float cz, float half, int depth) {
+            this.parent = parent;
+            this.cx = cx;
+            this.cy = cy;
+            this.cz = cz;
+            this.half = half;
+            this.depth = depth;
+        }
+
+        protected boolean containsCenter(float x, float y, float z) {
+            return Math.abs(x - cx) <= half && Math.abs(y - cy) <= half && Math.abs(z - cz) <= half;
+        }
+
+        @SuppressWarnings("unchecked")
+        protected Cell<T> child(float x, float y, float z) {
+            int index = (x >= cx ? 1 : 0) | (y >= cy ? 2 : 0) | (z >= cz ? 4 : 0);
+
+            if (children == null) {
+                children = new Cell[8];
+            }
+
+            if (children[index] == null) {
+                float h = half / 2;
+                children[index] = new Cell<T>(this,
+                        cx + ((index & 1) != 0 ? h : -h),
+                        cy + ((index & 2) != 0 ? h : -h),
+                        cz + ((index & 4) != 0 ? h : -h),
+                        h, depth + 1);
+            }
+
+            return children[index];
+        }
+    }
+
+    /**
+     * Visits matching entries of a query
+     */
+    protected static interface Test {
+
+        /**
+         * Tests a box, given by center and extents
+         */
+        public boolean test(float cx, float cy, float cz, float ex, float ey, float ez);
+    }
+
+    protected final Cell<T> root;
+
+    protected final int maxDepth;
+
+    /**
+     * Items not fitting into the root cell
+     */
+    protected final Cell<T> outside;
+
+    /**
+     * Number of stored items
+     */
+    @Getter protected int size;
+
+    /**
+     * Creates a new LooseOctree
+     * @param center Center of the root cell
+     * @param halfSize Half the size of the root cell (tight bounds)
+     * @param maxDepth maximum depth of the tree
+     */
+    public LooseOctree(Vector3f center, float halfSize, int maxDepth) {
+        if (halfSize <= 0) {
+            throw new IllegalArgumentException("halfSize must be positive");
+        }
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative");
+        }
+
+        this.root = new Cell<T>(null, center.getX(), center.getY(), center.getZ(), halfSize, 0);
+        this.outside = new Cell<T>(null, 0, 0, 0, 0, -1);
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Inserts an item
+     * @param item The item to store
+     * @param bb The bounds of the item
+     * @return handle of the item
+     */
+    public Entry<T> insert(T item, BoundingBox bb) {
+        Vector3f c = bb.getCenter();
+        Vector3f e = bb.getExtents();
+        return insert(item, c.getX(), c.getY(), c.getZ(), e.getX(), e.getY(), e.getZ());
+    }
+
+    /**
+     * Inserts an item
+     * @param item The item to store
+     * @return handle of the item
+     */
+    public Entry<T> insert(T item, float cx, float cy, float cz, float ex, float ey, float ez) {
+        Entry<T> entry = new Entry<T>(item);
+        entry.set(cx, cy, cz, ex, ey, ez);
+        place(entry);
+        size++;
+        return entry;
+    }
+
+    /**
+     * Updates the bounds of the item.
+     * The item only moves to another cell if it does not fit anymore.
+     * @param entry The handle
+     * @param bb The new bounds
+     */
+    public void update(Entry<T> entry, BoundingBox bb) {
+        Vector3f c = bb.getCenter();
+        Vector3f e = bb.getExtents();
+        update(entry, c.getX(), c.getY(), c.getZ(), e.getX(), e.getY(), e.getZ());
+    }
+
+    /**
+     * Updates the bounds of the item.
+     * The item only moves to another cell if it does not fit anymore.
+     * @param entry The handle
+     */
+    public void update(Entry<T> entry, float cx, float cy, float cz, float ex, float ey, float ez) {
+        if (!entry.stored) {
+            throw new IllegalArgumentException("Entry is not stored in this tree");
+        }
+
+        if (entry.equals(cx, cy, cz, ex, ey, ez)) {
+            return;
+        }
+
+        entry.set(cx, cy, cz, ex, ey, ez);
+
+        Cell<T> cell = entry.cell;
+        if (cell != outside && fits(cell, entry)) {
+            return;
+        }
+
+        unlink(entry);
+        place(entry);
+    }
+
+    /**
+     * Removes the item
+     * @param entry The handle
+     * @return false if the entry was not stored
+     */
+    public boolean remove(Entry<T> entry) {
+        if (!entry.stored) {
+            return false;
+        }
+
+        unlink(entry);
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all items
+     */
+    public void clear() {
+        clear(root);
+        clear(outside);
+        root.children = null;
+        size = 0;
+    }
+
+    /**
+     * Collects all items, which bounds intersect the frustum
+     * @param frustum The frustum
+     * @param result Matching items get added to this list
+     * @return result
+     */
+    public List<T> query(final Frustum frustum, List<T> result) {
+        return query(new Test() {
+            @Override
+            public boolean test(float cx, float cy, float cz, float ex, float ey, float ez) {
+                return frustum.intersects(cx, cy, cz, ex, ey, ez);
+            }
+        }, result);
+    }
+
+    /**
+     * Collects all items, which bounds intersect the box
+     * @param bb The box
+     * @param result Matching items get added to this list
+     * @return result
+     */
+    public List<T> query(BoundingBox bb, List<T> result) {
+        final Vector3f c = bb.getCenter();
+        final Vector3f e = bb.getExtents();
+        return query(new Test() {
+            @Override
+            public boolean test(float cx, float cy, float cz, float ex, float ey, float ez) {
+                return Math.abs(cx - c.getX()) <= ex + e.getX()
+                        && Math.abs(cy - c.getY()) <= ey + e.getY()
+                        && Math.abs(cz - c.getZ()) <= ez + e.getZ();
+            }
+        }, result);
+    }
+
+    /**
+     * Collects all items, which bounds intersect the sphere
+     * @param center The center of the sphere
+     * @param radius The radius of the sphere
+     * @param result Matching items get added to this list
+     * @return result
+     */
+    public List<T> query(final Vector3f center, final float radius, List<T> result) {
+        return query(new Test() {
+            @Override
+            public boolean test(float cx, float cy, float cz, float ex, float ey, float ez) {
+                return AABB.intersectsSphere(cx, cy, cz, ex, ey, ez,
+                        center.getX(), center.getY(), center.getZ(), radius);
+            }
+        }, result);
+    }
+
+    /**
+     * Collects all items, which bounds are hit by the ray.
+     * The items are not sorted by distance.
+     * @param origin Origin of the ray
+     * @param direction Direction of the ray (does not need to be normalized, maxDistance is measured in its length)
+     * @param maxDistance Maximum distance along the ray
+     * @param result Matching items get added to this list
+     * @return result
+     */
+    public List<T> raycast(final Vector3f origin, final Vector3f direction, final float maxDistance, List<T> result) {
+        return query(new Test() {
+            @Override
+            public boolean test(float cx, float cy, float cz, float ex, float ey, float ez) {
+                return AABB.intersectRay(cx, cy, cz, ex, ey, ez,
+                        origin.getX(), origin.getY(), origin.getZ(),
+                        direction.getX(), direction.getY(), direction.getZ(),
+                        maxDistance) >= 0;
+            }
+        }, result);
+    }
+
+    protected List<T> query(Test test, List<T> result) {
+        collect(outside, test, result);
+        query(root, test, result);
+        return result;
+    }
+
+    protected void query(Cell<T> cell, Test test, List<T> result) {
+        if (cell.total == 0) {
+            return;
+        }
+
+        // loose bounds are twice the size
+        float loose = cell.half * 2;
+        if (!test.test(cell.cx, cell.cy, cell.cz, loose, loose, loose)) {
+            return;
+        }
+
+        collect(cell, test, result);
+
+        if (cell.children != null) {
+            for (Cell<T> child : cell.children) {
+                if (child != null) {
+                    query(child, test, result);
+                }
+            }
+        }
+    }
+
+    protected void collect(Cell<T> cell, Test test, List<T> result) {
+        for (int i = 0; i < cell.entries.size(); i++) {
+            Entry<T> e = cell.entries.get(i);
+            if (test.test(e.cx, e.cy, e.cz, e.ex, e.ey, e.ez)) {
+                result.add(e.item);
+            }
+        }
+    }
+
+    /**
+     * Whether the entry belongs into this cell (and not into a child)
+     */
+    protected boolean fits(Cell<T> cell, Entry<T> entry) {
+        float extent = Math.max(entry.ex, Math.max(entry.ey, entry.ez));
+
+        return cell.containsCenter(entry.cx, entry.cy, entry.cz)
+                && extent <= cell.half
+                && (cell.depth == maxDepth || extent > cell.half / 2);
+    }
+
+    protected void place(Entry<T> entry) {
+        float extent = Math.max(entry.ex, Math.max(entry.ey, entry.ez));
+
+        Cell<T> cell;
+        if (!root.containsCenter(entry.cx, entry.cy, entry.cz) || extent > root.half) {
+            cell = outside;
+        } else {
+            cell = root;
+            while (cell.depth < maxDepth && extent <= cell.half / 2) {
+                cell = cell.child(entry.cx, entry.cy, entry.cz);
+            }
+        }
+
+        entry.cell = cell;
+        entry.slot = cell.entries.size();
+        entry.stored = true;
+        cell.entries.add(entry);
+
+        for (Cell<T> c = cell; c != null; c = c.parent) {
+            c.total++;
+        }
+    }
+
+    protected void unlink(Entry<T> entry) {
+        Cell<T> cell = entry.cell;
+        List<Entry<T>> entries = cell.entries;
+
+        // swap with the last one
+        Entry<T> last = entries.remove(entries.size() - 1);
+        if (last != entry) {
+            entries.set(entry.slot, last);
+            last.slot = entry.slot;
+        }
+
+        for (Cell<T> c = cell; c != null; c = c.parent) {
+            c.total--;
+        }
+
+        entry.cell = null;
+        entry.stored = false;
+    }
+
+    protected void clear(Cell<T> cell) {
+        for (Entry<T> e : cell.entries) {
+            e.cell = null;
+            e.stored = false;
+        }
+        cell.entries.clear();
+        cell.total = 0;
+
+        if (cell.children != null) {
+            for (Cell<T> child : cell.children) {
+                if (child != null) {
+                    clear(child);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.scenegraph.spatial;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.Transform;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
+import org.achtern.AchternEngine.core.scenegraph.bounding.Frustum;
+import org.achtern.AchternEngine.core.scenegraph.entity.Entity;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index of all {@link Figure}s below a root {@link Node}.
+ * Call {@link #update()} once per frame (after the scenegraph update), only moved, added or removed
+ *  figures touch the underlying {@link LooseOctree}.
+ * Moves are detected by the {@link org.achtern.AchternEngine.core.Transform#getRevision() revision} of the
+ *  world transform, the scenegraph is still walked to find added and removed figures.
+ * Useful for gameplay or audio queries like "what is near this point" without walking the scenegraph.
+ */
+public class SceneIndex {
+
+    protected static class Tracked {
+
+        protected final LooseOctree.Entry<Figure> entry;
+
+        protected int stamp;
+
+        /**
+         * Transform, its revision and mesh bounds the entry has been placed with
+         */
+        protected Transform transform;
+        protected int revision;
+        protected BoundingBox local;
+
+        protected Tracked(LooseOctree.Entry<Figure> entry) {
+            this.entry = entry;
+        }
+    }
+
+    @Getter protected final Node root;
+
+    protected final LooseOctree<Figure> octree;
+
+    protected final Map<Figure, Tracked> tracked;
+
+    protected int stamp;
+
+    /**
+     * Number of figures inserted or moved by the last {@link #update()}
+     */
+    @Getter protected int lastChanged;
+
+    /**
+     * Creates a SceneIndex with a root cell of 2048 units around the origin
+     * @param root The root of the indexed scenegraph
+     */
+    public SceneIndex(Node root) {
+        this(root, new Vector3f(0, 0, 0), 1024, 8);
+    }
+
+    /**
+     * Creates a SceneIndex. Figures outside of the root cell are still indexed, but not accelerated.
+     * @param root The root of the indexed scenegraph
+     * @param center Center of the indexed area
+     * @param halfSize Half size of the indexed area
+     * @param maxDepth Maximum depth of the octree
+     */
+    public SceneIndex(Node root, Vector3f center, float halfSize, int maxDepth) {
+        this.root = root;
+        this.octree = new LooseOctree<Figure>(center, halfSize, maxDepth);
+        this.tracked = new IdentityHashMap<Figure, Tracked>();
+    }
+
+    /**
+     * Synchronizes the index with the scenegraph.
+     */
+    public void update() {
+        stamp++;
+        lastChanged = 0;
+
+        update(root);
+
+        // drop figures which are not part of the scenegraph anymore
+        Iterator<Tracked> it = tracked.values().iterator();
+        while (it.hasNext()) {
+            Tracked t = it.next();
+            if (t.stamp != stamp) {
+                octree.remove(t.entry);
+                it.remove();
+            }
+        }
+    }
+
+    protected void update(Node node) {
+        List<Entity> entities = node.getEntities();
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!(entity instanceof Figure)) {
+                continue;
+            }
+
+            Figure figure = (Figure) entity;
+            BoundingBox bb = figure.getWorldBounds();
+            if (bb == null) {
+                continue;
+            }
+
+            // getWorldBounds brought the revision up to date
+            Transform transform = figure.getTransform();
+            int revision = transform.getRevision();
+            BoundingBox local = figure.getMesh().getBoundingBox();
+
+            Tracked t = tracked.get(figure);
+            if (t == null) {
+                t = new Tracked(octree.insert(figure, bb));
+                tracked.put(figure, t);
+                lastChanged++;
+            } else if (t.transform != transform || t.revision != revision || t.local != local) {
+                octree.update(t.entry, bb);
+                lastChanged++;
+            }
+            t.transform = transform;
+            t.revision = revision;
+            t.local = local;
+            t.stamp = stamp;
+        }
+
+        for (Node child : node.getChildren().values()) {
+            update(child);
+        }
+    }
+
+    /**
+     * Returns the number of indexed figures
+     * @return number of figures
+     */
+    public int size() {
+        return octree.getSize();
+    }
+
+    /**
+     * @see LooseOctree#query(Frustum, List)
+     */
+    public List<Figure> query(Frustum frustum, List<Figure> result) {
+        return octree.query(frustum, result);
+    }
+
+    /**
+     * @see LooseOctree#query(BoundingBox, List)
+     */
+    public List<Figure> query(BoundingBox bb, List<Figure> result) {
+        return octree.query(bb, result);
+    }
+
+    /**
+     * @see LooseOctree#query(Vector3f, float, List)
+     */
+    public List<Figure> query(Vector3f center, float radius, List<Figure> result) {
+        return octree.query(center, radius, result);
+    }
+
+    /**
+     * @see LooseOctree#raycast(Vector3f, Vector3f, float, List)
+     */
+    public List<Figure> raycast(Vector3f origin, Vector3f direction, float maxDistance, List<Figure> result) {
+        return octree.raycast(origin, direction, maxDistance, result);
+    }
+}
@@ -29,6 +29,8 @@ import org.achtern.AchternEngine.core.math.Vector3f;
 import org.achtern.AchternEngine.core.rendering.Color;
 import org.achtern.AchternEngine.core.rendering.texture.Texture;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -61,6 +63,14 @@ public class CommonDataStore implements DataStore {
         return textures.get(name);
     }
 
+    /**
+     * Returns all textures of this store
+     * @return unmodifiable view of the textures
+     */
+    public Collection<Texture> getTextures() {
+        return Collections.unmodifiableCollection(textures.values());
+    }
+
     /**
      * @see DataStore#hasTexture(String)
      */
@@ -119,6 +119,61 @@ public class TangentGenerator {
         return tangents;
     }
 
+    /**
+     * Calculates normalized tangents on packed vertex data (layout of {@link Vertex#SIZE}) in-place.
+     * Triangles with degenerated texture coordinates are skipped.
+     * @param packed The packed vertex data
+     * @param indices Triangle indices
+     */
+    public static void calculate(float[] packed, int[] indices) {
+        int count = packed.length / Vertex.SIZE;
+        float[] tangents = new float[count * 3];
+
+        for (int i = 0; i + 2 < indices.length; i += 3) {
+            int o0 = indices[i] * Vertex.SIZE;
+            int o1 = indices[i + 1] * Vertex.SIZE;
+            int o2 = indices[i + 2] * Vertex.SIZE;
+
+            float u1 = packed[o1 + Vertex.TEX_COORD_OFFSET] - packed[o0 + Vertex.TEX_COORD_OFFSET];
+            float v1 = packed[o1 + Vertex.TEX_COORD_OFFSET + 1] - packed[o0 + Vertex.TEX_COORD_OFFSET + 1];
+            float u2 = packed[o2 + Vertex.TEX_COORD_OFFSET] - packed[o0 + Vertex.TEX_COORD_OFFSET];
+            float v2 = packed[o2 + Vertex.TEX_COORD_OFFSET + 1] - packed[o0 + Vertex.TEX_COORD_OFFSET + 1];
+
+            float det = u1 * v2 - u2 * v1;
+            if (det == 0) {
+                continue;
+            }
+            float f = 1.0f / det;
+
+            for (int axis = 0; axis < 3; axis++) {
+                float e1 = packed[o1 + axis] - packed[o0 + axis];
+                float e2 = packed[o2 + axis] - packed[o0 + axis];
+                float t = f * (v2 * e1 - v1 * e2);
+
+                tangents[indices[i] * 3 + axis] += t;
+                tangents[indices[i + 1] * 3 + axis] += t;
+                tangents[indices[i + 2] * 3 + axis] += t;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            float x = tangents[i * 3];
+            float y = tangents[i * 3 + 1];
+            float z = tangents[i * 3 + 2];
+            float length = (float) Math.sqrt(x * x + y * y + z * z);
+            if (length > 0) {
+                x /= length;
+                y /= length;
+                z /= length;
+            }
+
+            int o = i * Vertex.SIZE + Vertex.TANGENT_OFFSET;
+            packed[o] = x;
+            packed[o + 1] = y;
+            packed[o + 2] = z;
+        }
+    }
+
     protected static Vector3f getTangent(TriangleDelta delta, Vector3f e1, Vector3f e2) {
         float f = getFactor(delta);
 
@@ -31,12 +31,109 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility for Buffers
  */
 public class UBuffer {
 
+    /**
+     * Total amount of bytes allocated via {@link #createByteBuffer(int)}
+     */
+    private static final AtomicLong allocated = new AtomicLong();
+
+    /**
+     * Value of {@link #allocated} at the last {@link #endFrame()} call.
+     */
+    private static volatile long frameMark;
+
+    /**
+     * Bytes allocated during the last frame
+     */
+    private static volatile long lastFrame;
+
+    /**
+     * One scratch arena per thread (the rendering thread in most cases)
+     */
+    private static final ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    /**
+     * Returns a direct FloatBuffer with room for (at least) size floats.
+     * The buffer is cleared and its limit is set to size.
+     * This buffer is shared per thread and only valid until the next scratch
+     * call on the same thread. Use it to hand data to the native binding, which copies it
+     * right away (uniforms, buffer uploads), NEVER keep a reference!
+     * Requests larger than 1 MiB get a new buffer, which is not kept by the arena.
+     * @param size amount of floats
+     * @return the scratch buffer
+     */
+    public static FloatBuffer scratchFloatBuffer(int size) {
+        if (size > Scratch.MAX_SIZE >> 2) {
+            return createFloatBuffer(size);
+        }
+
+        Scratch s = scratch.get();
+        s.ensure(size << 2);
+        s.floats.clear();
+        s.floats.limit(size);
+        return s.floats;
+    }
+
+    /**
+     * Returns a direct IntBuffer with room for (at least) size integers.
+     * Shares the memory with {@link #scratchFloatBuffer(int)}!
+     * @see #scratchFloatBuffer(int)
+     * @param size amount of integers
+     * @return the scratch buffer
+     */
+    public static IntBuffer scratchIntBuffer(int size) {
+        if (size > Scratch.MAX_SIZE >> 2) {
+            return createIntBuffer(size);
+        }
+
+        Scratch s = scratch.get();
+        s.ensure(size << 2);
+        s.ints.clear();
+        s.ints.limit(size);
+        return s.ints;
+    }
+
+    /**
+     * Returns the total amount of direct memory (in bytes), which has been
+     * allocated via this utility.
+     * @return allocated bytes
+     */
+    public static long getAllocatedBytes() {
+        return allocated.get();
+    }
+
+    /**
+     * Returns the amount of direct memory (in bytes), which has been
+     * allocated during the last frame.
+     * @see #endFrame()
+     * @return allocated bytes during the last frame
+     */
+    public static long getAllocatedBytesLastFrame() {
+        return lastFrame;
+    }
+
+    /**
+     * Marks the end of a frame. Should be called once per frame by the engine.
+     * @return bytes allocated since the last call
+     */
+    public static long endFrame() {
+        long total = allocated.get();
+        lastFrame = total - frameMark;
+        frameMark = total;
+        return lastFrame;
+    }
+
 
     /**
      * Creates a float buffer from {@link org.achtern.AchternEngine.core.rendering.Vertex} array;
@@ -46,7 +143,18 @@ public class UBuffer {
      */
     public static FloatBuffer create(Vertex[] vertices) {
 
-        FloatBuffer buffer = createFloatBuffer(vertices.length * Vertex.SIZE);
+        return put(createFloatBuffer(vertices.length * Vertex.SIZE), vertices);
+
+    }
+
+    /**
+     * Writes the {@link org.achtern.AchternEngine.core.rendering.Vertex} array into the given buffer,
+     * starting at the buffer's position.
+     * @param buffer destination (at least <code>vertices.length * Vertex.SIZE</code> floats remaining)
+     * @param vertices The vertices to buffer
+     * @return the buffer
+     */
+    public static FloatBuffer put(FloatBuffer buffer, Vertex[] vertices) {
 
         for (Vertex vertex : vertices) {
             // Positions
@@ -92,15 +200,7 @@ public class UBuffer {
      * @return the buffer
      */
     public static FloatBuffer create(Matrix4f matrix) {
-        FloatBuffer buffer = createFloatBuffer(16); // 4 * 4
-
-        for (int x = 0; x < 4; x++) {
-            for (int y = 0; y < 4; y++) {
-                buffer.put(matrix.get(x, y));
-            }
-        }
-
-        return buffer;
+        return matrix.store(createFloatBuffer(16)); // 4 * 4
     }
 
     /**
@@ -129,7 +229,45 @@ public class UBuffer {
      * @return the buffer
      */
     public static ByteBuffer createByteBuffer(int size) {
+        allocated.addAndGet(size);
         return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
     }
 
+    /**
+     * Growable direct memory, with cached float and int views.
+     */
+    private static class Scratch {
+
+        /**
+         * Initial size in bytes (enough for a couple of matrices)
+         */
+        private static final int INITIAL_SIZE = 256;
+
+        /**
+         * The arena does not grow beyond this size in bytes, so a single huge upload
+         *  does not pin its memory for the lifetime of the thread
+         */
+        private static final int MAX_SIZE = 1 << 20;
+
+        ByteBuffer bytes;
+        FloatBuffer floats;
+        IntBuffer ints;
+
+        Scratch() {
+            allocate(INITIAL_SIZE);
+        }
+
+        void ensure(int size) {
+            if (bytes.capacity() < size) {
+                allocate(Integer.highestOneBit(size - 1) << 1);
+            }
+        }
+
+        private void allocate(int size) {
+            bytes = createByteBuffer(size);
+            floats = bytes.asFloatBuffer();
+            ints = bytes.asIntBuffer();
+        }
+    }
+
 }
@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.headless;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.achtern.AchternEngine.core.Window;
+import org.achtern.AchternEngine.core.rendering.Dimension;
+import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
+import org.achtern.AchternEngine.headless.recording.Command;
+import org.achtern.AchternEngine.headless.recording.CommandLog;
+
+/**
+ * A Window without a display.
+ * Every {@link #render()} counts as a frame, a close can be requested programmatically
+ *  or after a fixed number of frames.
+ */
+public class HeadlessWindow extends Window {
+
+    @Getter protected final CommandLog log;
+
+    @Getter @Setter protected String title;
+
+    @Setter protected boolean closeRequested;
+
+    /**
+     * Requests a close after this many frames, if positive
+     */
+    @Getter @Setter protected int maxFrames;
+
+    @Getter protected int frames;
+
+    public HeadlessWindow(Dimension copy, CommandLog log) {
+        super(copy);
+        this.log = log;
+        Window.instance = this;
+    }
+
+    public HeadlessWindow(int width, int height, CommandLog log) {
+        super(width, height);
+        this.log = log;
+        Window.instance = this;
+    }
+
+    @Override
+    public void create(String title) {
+        setTitle(title);
+    }
+
+    @Override
+    public void enableResize(boolean enable) {
+    }
+
+    @Override
+    public void render() {
+        log.record(Command.SWAP_BUFFERS, frames++);
+    }
+
+    @Override
+    public boolean isCloseRequested() {
+        return closeRequested || (maxFrames > 0 && frames >= maxFrames);
+    }
+
+    @Override
+    public boolean resized() {
+        return false;
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    @Override
+    public void bindAsRenderTarget(DataBinder binder) {
+        if (binder.getState().getBoundFbo() == null) {
+            // Window is already bound.
+            return;
+        }
+        binder.bindAsRenderTarget(null);
+    }
+}
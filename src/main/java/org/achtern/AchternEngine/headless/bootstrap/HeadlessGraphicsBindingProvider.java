@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.headless.bootstrap;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.Window;
+import org.achtern.AchternEngine.core.bootstrap.GraphicsBindingProvider;
+import org.achtern.AchternEngine.core.input.adapter.InputAdapter;
+import org.achtern.AchternEngine.core.rendering.Dimension;
+import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
+import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategy;
+import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategyFactory;
+import org.achtern.AchternEngine.core.rendering.state.RenderEngineState;
+import org.achtern.AchternEngine.headless.HeadlessWindow;
+import org.achtern.AchternEngine.headless.input.HeadlessInput;
+import org.achtern.AchternEngine.headless.recording.CommandLog;
+import org.achtern.AchternEngine.headless.rendering.binding.HeadlessDataBinder;
+import org.achtern.AchternEngine.headless.rendering.state.HeadlessRenderEngineState;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A GraphicsBindingProvider, which does not need a graphics context.
+ * All calls are recorded into a shared {@link CommandLog}, which makes the CPU side of the
+ *  render path measurable (e.g. on build servers without a GPU).
+ */
+public class HeadlessGraphicsBindingProvider implements GraphicsBindingProvider {
+
+    @Getter protected CommandLog log;
+
+    protected HeadlessRenderEngineState state;
+    protected HeadlessDataBinder dataBinder;
+    protected HeadlessInput inputAdapter;
+
+    public HeadlessGraphicsBindingProvider(boolean throwUnchanged) {
+        this.log = new CommandLog();
+        this.state = new HeadlessRenderEngineState(log, throwUnchanged);
+        this.dataBinder = new HeadlessDataBinder(state, log);
+        this.inputAdapter = new HeadlessInput();
+    }
+
+    public HeadlessGraphicsBindingProvider() {
+        this(false);
+    }
+
+    @Override
+    public Window getWindow(Dimension dimension) {
+        return new HeadlessWindow(dimension, log);
+    }
+
+    @Override
+    public RenderEngineState getRenderEngineState() {
+        return state;
+    }
+
+    @Override
+    public DataBinder getDataBinder() {
+        return dataBinder;
+    }
+
+    @Override
+    public InputAdapter getInputAdapter() {
+        return inputAdapter;
+    }
+
+    @Override
+    public Map<DrawStrategyFactory.Common, DrawStrategy> getDrawStrategies() {
+        return new HashMap<DrawStrategyFactory.Common, DrawStrategy>(0);
+    }
+
+    @Override
+    public void populateDrawStrategyFactory() {
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.headless.input;
+
+import org.achtern.AchternEngine.core.input.Key;
+import org.achtern.AchternEngine.core.input.MouseButton;
+import org.achtern.AchternEngine.core.input.adapter.InputAdapter;
+import org.achtern.AchternEngine.core.math.Vector2f;
+
+/**
+ * Input without any devices. No key or button is ever pressed and the mouse does not move.
+ */
+public class HeadlessInput implements InputAdapter {
+
+    protected Vector2f mousePosition = new Vector2f(0, 0);
+
+    @Override
+    public int keysTotal() {
+        return Key.values().length;
+    }
+
+    @Override
+    public void update() {
+    }
+
+    @Override
+    public boolean getKey(Key key) {
+        return false;
+    }
+
+    @Override
+    public boolean getKeyDown(Key key) {
+        return false;
+    }
+
+    @Override
+    public boolean getKeyUp(Key key) {
+        return false;
+    }
+
+    @Override
+    public boolean getMouse(MouseButton mouseButton) {
+        return false;
+    }
+
+    @Override
+    public boolean getMouseDown(MouseButton mouseButton) {
+        return false;
+    }
+
+    @Override
+    public boolean getMouseUp(MouseButton mouseButton) {
+        return false;
+    }
+
+    @Override
+    public Vector2f getMousePosition() {
+        return mousePosition;
+    }
+
+    @Override
+    public void setMousePosition(Vector2f position) {
+        this.mousePosition = position;
+    }
+
+    @Override
+    public Vector2f getMouseDelta() {
+        return new Vector2f(0, 0);
+    }
+
+    @Override
+    public void setCursor(boolean enabled) {
+    }
+}
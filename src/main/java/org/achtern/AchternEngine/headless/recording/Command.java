@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.headless.recording;
+
+import lombok.Getter;
+
+/**
+ * All calls recorded by the headless binding.
+ * The argument stored with each command is noted in the comment.
+ */
+public enum Command {
+
+    // argument: id
+    BIND_TEXTURE(Category.BIND),
+    // argument: id
+    BIND_MESH(Category.BIND),
+    // argument: id
+    BIND_SHADER(Category.BIND),
+    // argument: id
+    BIND_FRAMEBUFFER(Category.BIND),
+    // argument: id, 0 for the window
+    BIND_RENDER_TARGET(Category.BIND),
+
+    // argument: id
+    UPLOAD_TEXTURE(Category.UPLOAD),
+    // argument: id
+    UPLOAD_MESH(Category.UPLOAD),
+    // argument: id
+    UPLOAD_SHADER(Category.UPLOAD),
+    // argument: id
+    UPLOAD_FRAMEBUFFER(Category.UPLOAD),
+    // argument: number of instances
+    UPLOAD_INSTANCES(Category.UPLOAD),
+
+    // argument: generated id
+    GENERATE_ID(Category.GENERATE),
+
+    // argument: number of indices
+    DRAW(Category.DRAW),
+    // argument: number of instances
+    DRAW_INSTANCED(Category.DRAW),
+
+    // argument: bit mask, 1 color, 2 depth, 4 stencil
+    CLEAR(Category.STATE),
+    // argument: Feature ordinal
+    ENABLE(Category.STATE),
+    // argument: Feature ordinal
+    DISABLE(Category.STATE),
+    // argument: Face ordinal
+    CULL_FACE(Category.STATE),
+    // argument: FrontFaceMethod ordinal
+    FRONT_FACE(Category.STATE),
+    // argument: none
+    CLEAR_COLOR(Category.STATE),
+    // argument: DepthFunction ordinal
+    DEPTH_FUNCTION(Category.STATE),
+    // argument: source BlendFunction ordinal
+    BLEND_FUNCTION(Category.STATE),
+    // argument: 1 enabled, 0 disabled
+    DEPTH_MASK(Category.STATE),
+    // argument: FillMode ordinal
+    POLYGON_MODE(Category.STATE),
+    // argument: RGBA bit mask
+    COLOR_MASK(Category.STATE),
+
+    // argument: ordinal of the command, which would have been issued
+    REDUNDANT_STATE(Category.REDUNDANT_STATE),
+
+    // argument: location
+    UNIFORM(Category.UNIFORM),
+
+    // argument: frame number
+    SWAP_BUFFERS(Category.FRAME);
+
+    /**
+     * Groups commands for the counters of the {@link CommandLog}
+     */
+    public enum Category {
+        BIND,
+        UPLOAD,
+        GENERATE,
+        DRAW,
+        STATE,
+        /**
+         * State changes skipped, because the state was already set
+         */
+        REDUNDANT_STATE,
+        UNIFORM,
+        FRAME
+    }
+
+    @Getter private final Category category;
+
+    Command(Category category) {
+        this.category = category;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.headless.recording;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Arrays;
+
+/**
+ * Records the calls of the headless binding.
+ * Each entry is packed into a single long (command and an int argument), which keeps
+ *  recording cheap enough to measure the engine without distorting it.
+ * <br>
+ * The counters are always updated, the entries only while {@link #isRecording()}
+ *  and up to {@link #getCapacity()} entries, later entries are counted as dropped.
+ */
+public class CommandLog {
+
+    /**
+     * Whether entries should be stored. Counters are always updated
+     */
+    @Getter @Setter protected boolean recording = true;
+
+    /**
+     * Maximum number of stored entries
+     */
+    @Getter @Setter protected int capacity = 1 << 20;
+
+    /**
+     * Packed entries: command ordinal in the upper, argument in the lower 32 bits
+     */
+    protected long[] entries = new long[256];
+
+    protected int size;
+
+    /**
+     * Number of entries not stored, because the capacity has been reached
+     */
+    @Getter protected long dropped;
+
+    protected final long[] counts = new long[Command.values().length];
+
+    protected final long[] categoryCounts = new long[Command.Category.values().length];
+
+    /**
+     * Number of bytes sent to the (virtual) graphics card
+     */
+    @Getter protected long uploadedBytes;
+
+    /**
+     * Records a command
+     * @param command The command
+     * @param argument The argument, see {@link Command}
+     */
+    public void record(Command command, int argument) {
+        counts[command.ordinal()]++;
+        categoryCounts[command.getCategory().ordinal()]++;
+
+        if (!recording) {
+            return;
+        }
+
+        if (size == capacity) {
+            dropped++;
+            return;
+        }
+
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, Math.min(size << 1, capacity));
+        }
+
+        entries[size++] = ((long) command.ordinal() << 32) | (argument & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Records a command, which transfers data
+     * @param command The command
+     * @param argument The argument, see {@link Command}
+     * @param bytes Number of bytes transferred
+     */
+    public void record(Command command, int argument, long bytes) {
+        record(command, argument);
+        uploadedBytes += bytes;
+    }
+
+    /**
+     * Returns the number of stored entries
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    public Command getCommand(int index) {
+        checkIndex(index);
+        return Command.values()[(int) (entries[index] >>> 32)];
+    }
+
+    public int getArgument(int index) {
+        checkIndex(index);
+        return (int) entries[index];
+    }
+
+    /**
+     * Returns how often the command has been recorded
+     * @param command The command
+     * @return count
+     */
+    public long count(Command command) {
+        return counts[command.ordinal()];
+    }
+
+    /**
+     * Returns how often commands of the category have been recorded
+     * @param category The category
+     * @return count
+     */
+    public long count(Command.Category category) {
+        return categoryCounts[category.ordinal()];
+    }
+
+    public long getBinds() {
+        return count(Command.Category.BIND);
+    }
+
+    public long getUploads() {
+        return count(Command.Category.UPLOAD);
+    }
+
+    public long getStateChanges() {
+        return count(Command.Category.STATE);
+    }
+
+    public long getRedundantStateChanges() {
+        return count(Command.Category.REDUNDANT_STATE);
+    }
+
+    public long getUniformUploads() {
+        return count(Command.Category.UNIFORM);
+    }
+
+    public long getDrawCalls() {
+        return count(Command.Category.DRAW);
+    }
+
+    public long getFrames() {
+        return count(Command.Category.FRAME);
+    }
+
+    /**
+     * Removes all entries, but keeps the counters
+     */
+    public void clear() {
+        size = 0;
+        dropped = 0;
+    }
+
+    /**
+     * Removes all entries and resets the counters
+     */
+    public void reset() {
+        clear();
+        Arrays.fill(counts, 0);
+        Arrays.fill(categoryCounts, 0);
+        uploadedBytes = 0;
+    }
+
+    protected void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CommandLog{" +
+                "draws=" + getDrawCalls() +
+                ", binds=" + getBinds() +
+                ", uploads=" + getUploads() +
+                ", uploadedBytes=" + getUploadedBytes() +
+                ", stateChanges=" + getStateChanges() +
+                ", redundantStateChanges=" + getRedundantStateChanges() +
+                ", uniforms=" + getUniformUploads() +
+                ", frames=" + getFrames() +
+                ", entries=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.headless.rendering.binding;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
+import org.achtern.AchternEngine.core.rendering.binding.IDGenerator;
+import org.achtern.AchternEngine.core.rendering.binding.UniformManager;
+import org.achtern.AchternEngine.core.rendering.framebuffer.FrameBuffer;
+import org.achtern.AchternEngine.core.rendering.framebuffer.RenderBuffer;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.rendering.shader.Shader;
+import org.achtern.AchternEngine.core.rendering.state.RenderEngineState;
+import org.achtern.AchternEngine.core.rendering.texture.Texture;
+import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.GLSLScript;
+import org.achtern.AchternEngine.headless.recording.Command;
+import org.achtern.AchternEngine.headless.recording.CommandLog;
+
+import java.nio.FloatBuffer;
+
+import static org.achtern.AchternEngine.core.bootstrap.Native.INVALID_ID;
+
+/**
+ * A DataBinder without a graphics context.
+ * Follows the same binding and lazy upload rules as
+ *  {@link org.achtern.AchternEngine.lwjgl.rendering.binding.LWJGLDataBinder},
+ *  but records every call into a {@link CommandLog} instead of issuing it.
+ */
+public class HeadlessDataBinder implements DataBinder {
+
+    @Getter protected final CommandLog log;
+
+    protected HeadlessIDGenerator idGen;
+    protected HeadlessUniformManager uniformManager;
+    protected RenderEngineState state;
+
+    public HeadlessDataBinder(RenderEngineState state, CommandLog log) {
+        this.state = state;
+        this.log = log;
+        this.idGen = new HeadlessIDGenerator(log);
+        this.uniformManager = new HeadlessUniformManager(log);
+    }
+
+    @Override
+    public void bind(Texture texture) {
+        bind(texture, 0);
+    }
+
+    @Override
+    public void bind(Texture texture, int samplerslot) {
+        if (samplerslot < 0) {
+            throw new IllegalArgumentException("SamplerSlot MUST be a positive integer!");
+        }
+
+        if (texture.getID() == INVALID_ID) {
+            getIDGenerator().generate(texture);
+            upload(texture);
+        }
+
+        if (state.getBoundTexture() != null && state.getBoundTexture().getID() == texture.getID()) {
+            return;
+        }
+
+        log.record(Command.BIND_TEXTURE, texture.getID());
+        state.setBound(texture);
+    }
+
+    @Override
+    public void upload(Texture texture) {
+        bind(texture);
+
+        long bytes = texture.getData() == null ? 0 : texture.getData().capacity();
+        log.record(Command.UPLOAD_TEXTURE, texture.getID(), bytes);
+    }
+
+    @Override
+    public void bind(Mesh mesh) {
+        if (mesh == null) {
+            log.record(Command.BIND_MESH, 0);
+        } else {
+            int id = mesh.getData().getID();
+            if (state.getBoundMesh() != null && state.getBoundMesh().getData().getID() == id) {
+                return;
+            }
+            log.record(Command.BIND_MESH, id);
+        }
+        state.setBound(mesh);
+    }
+
+    @Override
+    public void upload(Mesh mesh) {
+        MeshData data = mesh.getData();
+
+        getIDGenerator().generate(mesh);
+
+        bind(mesh);
+
+        long vertices = data.getVertexBuffer() != null ? data.getVertexBuffer().capacity() : data.getPacked().length;
+        long indices = data.getIndexBuffer() != null ? data.getIndexBuffer().capacity() : data.getIndices().length;
+        log.record(Command.UPLOAD_MESH, data.getID(), (vertices + indices) * 4);
+
+        // Unbind
+        bind((Mesh) null);
+    }
+
+    @Override
+    public void draw(Mesh mesh) {
+        if (mesh.getData().getID() == INVALID_ID) {
+            upload(mesh);
+        }
+        bind(mesh);
+
+        log.record(Command.DRAW, mesh.getData().getSize());
+    }
+
+    @Override
+    public void drawInstanced(Mesh mesh, FloatBuffer models, int count) {
+        if (mesh.getData().getID() == INVALID_ID) {
+            upload(mesh);
+        }
+        bind(mesh);
+
+        log.record(Command.UPLOAD_INSTANCES, count, models.remaining() * 4);
+        log.record(Command.DRAW_INSTANCED, count);
+    }
+
+    @Override
+    public void bind(Shader shader) {
+        if (shader.getProgram().getID() == INVALID_ID) {
+            upload(shader);
+        }
+        if (state.getBoundShader() != null && state.getBoundShader().getProgram().getID() == shader.getProgram().getID()) {
+            return;
+        }
+        log.record(Command.BIND_SHADER, shader.getProgram().getID());
+        state.setBound(shader);
+    }
+
+    @Override
+    public void upload(Shader shader) {
+        if (shader.getProgram().getID() == INVALID_ID) {
+            getIDGenerator().generate(shader);
+        }
+
+        long bytes = 0;
+        for (GLSLScript script : shader.getProgram().getScripts()) {
+            bytes += script.getSource() == null ? 0 : script.getSource().length();
+        }
+        log.record(Command.UPLOAD_SHADER, shader.getProgram().getID(), bytes);
+
+        getUniformManager().addUniforms(shader);
+    }
+
+    @Override
+    public void bindAsRenderTarget(FrameBuffer fbo) {
+        if (fbo == null) {
+            state.setBound((FrameBuffer) null);
+            log.record(Command.BIND_RENDER_TARGET, 0);
+            return;
+        }
+        if (state.getBoundFbo() != null && state.getBoundFbo().getID() == fbo.getID()) {
+            return;
+        }
+
+        if (fbo.getID() == INVALID_ID) {
+            upload(fbo);
+        }
+
+        bind(fbo);
+        log.record(Command.BIND_RENDER_TARGET, fbo.getID());
+    }
+
+    @Override
+    public void bind(FrameBuffer fbo) {
+        if (state.getBoundFbo() != null && state.getBoundFbo().getID() == fbo.getID()) {
+            return;
+        }
+        log.record(Command.BIND_FRAMEBUFFER, fbo.getID());
+        state.setBound(fbo);
+    }
+
+    @Override
+    public void upload(FrameBuffer fbo) {
+        if (fbo.getID() == INVALID_ID) {
+            getIDGenerator().generate(fbo);
+        }
+
+        bind(fbo);
+
+        RenderBuffer depthTarget = fbo.getDepthTarget();
+        if (depthTarget != null) {
+            uploadRenderBuffer(depthTarget);
+        }
+
+        for (int i = 0; i < fbo.sizeColorTargets(); i++) {
+            RenderBuffer colorTarget = fbo.getColorTarget(i);
+            if (colorTarget.getTexture() == null) {
+                uploadRenderBuffer(colorTarget);
+            }
+        }
+
+        log.record(Command.UPLOAD_FRAMEBUFFER, fbo.getID());
+    }
+
+    @Override
+    public IDGenerator getIDGenerator() {
+        return idGen;
+    }
+
+    @Override
+    public UniformManager getUniformManager() {
+        return uniformManager;
+    }
+
+    @Override
+    public RenderEngineState getState() {
+        return state;
+    }
+
+    protected void uploadRenderBuffer(RenderBuffer rbo) {
+        if (rbo.getTexture() == null) {
+            if (rbo.getID() == INVALID_ID) {
+                getIDGenerator().generate(rbo);
+            }
+        } else if (rbo.getTexture().getID() == INVALID_ID) {
+            upload(rbo.getTexture());
+        }
+    }
+}
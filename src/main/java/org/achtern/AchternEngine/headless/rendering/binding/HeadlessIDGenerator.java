@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.headless.rendering.binding;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.rendering.binding.IDGenerator;
+import org.achtern.AchternEngine.core.rendering.framebuffer.FrameBuffer;
+import org.achtern.AchternEngine.core.rendering.framebuffer.RenderBuffer;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.rendering.shader.Shader;
+import org.achtern.AchternEngine.core.rendering.texture.Texture;
+import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.GLSLScript;
+import org.achtern.AchternEngine.headless.recording.Command;
+import org.achtern.AchternEngine.headless.recording.CommandLog;
+
+/**
+ * Generates sequential data IDs without a graphics context.
+ * IDs start at 1, since 0 is reserved for "nothing bound".
+ */
+public class HeadlessIDGenerator implements IDGenerator {
+
+    @Getter protected final CommandLog log;
+
+    protected int next = 1;
+
+    public HeadlessIDGenerator(CommandLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public void generate(Texture texture) {
+        texture.setID(next());
+    }
+
+    /**
+     * Generate an ID for the Mesh
+     * the ID for a Mesh includes
+     * VBO, VAO and IBO
+     *
+     * @param mesh The mesh
+     */
+    @Override
+    public void generate(Mesh mesh) {
+        MeshData data = mesh.getData();
+        int vbo = next();
+        int ibo = next();
+        int vao = next();
+        data.setBufferIDs(vbo, ibo);
+        data.setID(vao);
+    }
+
+    @Override
+    public void generate(Shader shader) {
+        shader.getProgram().setID(next());
+
+        for (GLSLScript script : shader.getProgram().getScripts()) {
+            script.setID(next());
+        }
+    }
+
+    @Override
+    public void generate(FrameBuffer fbo) {
+        fbo.setID(next());
+    }
+
+    @Override
+    public void generate(RenderBuffer rbo) {
+        rbo.setID(next());
+    }
+
+    protected int next() {
+        int id = next++;
+        log.record(Command.GENERATE_ID, id);
+        return id;
+    }
+}
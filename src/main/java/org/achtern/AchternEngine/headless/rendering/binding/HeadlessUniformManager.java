@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.headless.rendering.binding;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.rendering.binding.BasicUniformManager;
+import org.achtern.AchternEngine.core.rendering.binding.UniformCache;
+import org.achtern.AchternEngine.core.rendering.shader.Shader;
+import org.achtern.AchternEngine.core.resource.fileparser.GLSLProgram;
+import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.Uniform;
+import org.achtern.AchternEngine.headless.recording.Command;
+import org.achtern.AchternEngine.headless.recording.CommandLog;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Records uniform uploads instead of sending them to a graphics card.
+ * Like {@link org.achtern.AchternEngine.lwjgl.rendering.binding.LWJGLUniformManager}, values identical
+ *  to the last upload are skipped, so the recorded uploads match a real context.
+ * Uniforms are resolved by {@link BasicUniformManager}, like on a real context, only the uploads are recorded here.
+ */
+public class HeadlessUniformManager extends BasicUniformManager {
+
+    @Getter protected final CommandLog log;
+
+    /**
+     * Next free location per program
+     */
+    protected Map<GLSLProgram, Integer> locations = new IdentityHashMap<GLSLProgram, Integer>();
+
+    public HeadlessUniformManager(CommandLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public void registerUniform(Shader shader, Uniform uniform) {
+        Integer location = locations.get(shader.getProgram());
+        if (location == null) {
+            location = 0;
+        }
+
+        uniform.setLocation(location);
+        locations.put(shader.getProgram(), location + 1);
+    }
+
+    @Override
+    public void addUniforms(Shader shader) {
+        locations.remove(shader.getProgram());
+        super.addUniforms(shader);
+    }
+
+    @Override
+    protected void uniform1i(UniformCache c, int location, int value) {
+        if (count(location, c.update(location, value))) {
+            log.record(Command.UNIFORM, location, 4);
+        }
+    }
+
+    @Override
+    protected void uniform1f(UniformCache c, int location, float x) {
+        if (count(location, c.update(location, x))) {
+            log.record(Command.UNIFORM, location, 4);
+        }
+    }
+
+    @Override
+    protected void uniform2f(UniformCache c, int location, float x, float y) {
+        if (count(location, c.update(location, x, y))) {
+            log.record(Command.UNIFORM, location, 2 * 4);
+        }
+    }
+
+    @Override
+    protected void uniform3f(UniformCache c, int location, float x, float y, float z) {
+        if (count(location, c.update(location, x, y, z))) {
+            log.record(Command.UNIFORM, location, 3 * 4);
+        }
+    }
+
+    @Override
+    protected void uniform4f(UniformCache c, int location, float x, float y, float z, float w) {
+        if (count(location, c.update(location, x, y, z, w))) {
+            log.record(Command.UNIFORM, location, 4 * 4);
+        }
+    }
+
+    @Override
+    protected void uniformMatrix4(UniformCache c, int location, Matrix4f matrix) {
+        if (count(location, c.update(location, matrix.getMReference()))) {
+            log.record(Command.UNIFORM, location, 16 * 4);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.headless.rendering.state;
+
+import lombok.Getter;
+import org.achtern.AchternEngine.core.bootstrap.Native;
+import org.achtern.AchternEngine.core.rendering.Color;
+import org.achtern.AchternEngine.core.rendering.framebuffer.FrameBuffer;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.shader.Shader;
+import org.achtern.AchternEngine.core.rendering.state.*;
+import org.achtern.AchternEngine.core.rendering.texture.Texture;
+import org.achtern.AchternEngine.headless.recording.Command;
+import org.achtern.AchternEngine.headless.recording.CommandLog;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Tracks the render state without a graphics context and records every change
+ *  into a {@link CommandLog}.
+ * Behaves like {@link org.achtern.AchternEngine.lwjgl.rendering.state.LWJGLRenderEngineState},
+ *  unchanged state calls are recorded as {@link Command#REDUNDANT_STATE}.
+ *
+ * @see org.achtern.AchternEngine.core.rendering.state.RenderEngineState
+ */
+public class HeadlessRenderEngineState implements RenderEngineState {
+
+    public static final String VERSION = "Headless";
+
+    @Getter protected final CommandLog log;
+
+    /**
+     * Whether to throw exceptions on unchanged state calls.
+     * @see org.achtern.AchternEngine.lwjgl.rendering.state.LWJGLRenderEngineState
+     */
+    protected final boolean throwUnchanged;
+
+    /**
+     * Enabled features, everything is disabled initially
+     */
+    protected Set<Feature> enabled = EnumSet.noneOf(Feature.class);
+
+    protected DepthFunction depthFunction = DepthFunction.LESS;
+
+    protected Face cullFace = Face.BACK;
+
+    protected Color clearColor = Color.BLACK;
+
+    protected FrontFaceMethod frontFace = FrontFaceMethod.COUNTER_CLOCKWISE;
+
+    protected boolean depthWrite = true;
+
+    protected BlendFunction[] blendFunction = new BlendFunction[] {
+        BlendFunction.ONE,
+        BlendFunction.ZERO
+    };
+
+    protected FillMode polygonMode = FillMode.FILL;
+
+    protected boolean[] colorMask = new boolean[] {true, true, true, true};
+
+    protected FrameBuffer boundFbo;
+
+    protected Texture boundTexture;
+
+    protected Mesh boundMesh;
+
+    protected Shader boundShader;
+
+    public HeadlessRenderEngineState(CommandLog log) {
+        this(log, false);
+    }
+
+    public HeadlessRenderEngineState(CommandLog log, boolean throwUnchanged) {
+        this.log = log;
+        this.throwUnchanged = throwUnchanged;
+    }
+
+    @Override
+    public String getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void clear(boolean color, boolean depth, boolean stencil) {
+        if (!color && !depth && !stencil) {
+            throw new IllegalArgumentException("At least one target has to be cleared" +
+                    ", otherwise do not call clear()");
+        }
+
+        log.record(Command.CLEAR, (color ? 1 : 0) | (depth ? 2 : 0) | (stencil ? 4 : 0));
+    }
+
+    @Override
+    public void enable(Feature feature) {
+        if (isEnabled(feature)) {
+            unchanged(Command.ENABLE, feature + " is already enabled");
+            return;
+        }
+        log.record(Command.ENABLE, feature.ordinal());
+        enabled.add(feature);
+    }
+
+    @Override
+    public void disable(Feature feature) {
+        if (!isEnabled(feature)) {
+            unchanged(Command.DISABLE, feature + " is not enabled");
+            return;
+        }
+        log.record(Command.DISABLE, feature.ordinal());
+        enabled.remove(feature);
+    }
+
+    @Override
+    public boolean isEnabled(Feature feature) {
+        return enabled.contains(feature);
+    }
+
+    @Override
+    public void cullFace(Face face) {
+        if (!isEnabled(Feature.CULL_FACE)) {
+            throw new IllegalStateException("CullFace is not enabled!");
+        }
+
+        if (face.equals(cullFace)) {
+            unchanged(Command.CULL_FACE, "CullFace already " + face);
+            return;
+        }
+
+        log.record(Command.CULL_FACE, face.ordinal());
+        cullFace = face;
+    }
+
+    @Override
+    public Face getCullFace() {
+        if (!isEnabled(Feature.CULL_FACE)) {
+            throw new IllegalStateException("Cull Face is not enabled!");
+        }
+        return cullFace;
+    }
+
+    @Override
+    public void setFrontFace(FrontFaceMethod face) {
+        if (face.equals(frontFace)) {
+            unchanged(Command.FRONT_FACE, "FrontFace already " + face);
+            return;
+        }
+
+        log.record(Command.FRONT_FACE, face.ordinal());
+        frontFace = face;
+    }
+
+    @Override
+    public FrontFaceMethod getFrontFace() {
+        return frontFace;
+    }
+
+    @Override
+    public void setClearColor(Color color) {
+        if (this.clearColor.equals(color)) {
+            unchanged(Command.CLEAR_COLOR, "Clear Color already " + color);
+            return;
+        }
+        log.record(Command.CLEAR_COLOR, 0);
+        this.clearColor = color;
+    }
+
+    @Override
+    public Color getClearColor() {
+        return clearColor;
+    }
+
+    @Override
+    public void setDepthFunction(DepthFunction function) {
+        if (this.depthFunction.equals(function)) {
+            unchanged(Command.DEPTH_FUNCTION, "DepthFunction is already " + function);
+            return;
+        }
+        log.record(Command.DEPTH_FUNCTION, function.ordinal());
+        this.depthFunction = function;
+    }
+
+    @Override
+    public DepthFunction getDepthFunction() {
+        return depthFunction;
+    }
+
+    @Override
+    public void setBlendFunction(BlendFunction sfactor, BlendFunction dfactor) {
+        if (sfactor.equals(blendFunction[0]) && dfactor.equals(blendFunction[1])) {
+            unchanged(Command.BLEND_FUNCTION, "BlendFunction is already " + sfactor + "-" + dfactor);
+            return;
+        }
+
+        log.record(Command.BLEND_FUNCTION, sfactor.ordinal());
+        blendFunction[0] = sfactor;
+        blendFunction[1] = dfactor;
+    }
+
+    @Override
+    public BlendFunction[] getBlendFunction() {
+        return blendFunction;
+    }
+
+    @Override
+    public void enableDepthWrite(boolean enable) {
+        if (this.depthWrite == enable) {
+            unchanged(Command.DEPTH_MASK, "DepthWriting is already " + (enable ? "enabled" : "disabled"));
+            return;
+        }
+
+        log.record(Command.DEPTH_MASK, enable ? 1 : 0);
+        depthWrite = enable;
+    }
+
+    @Override
+    public boolean isDepthWrite() {
+        return depthWrite;
+    }
+
+    @Override
+    public void setPolygonMode(FillMode mode) {
+        if (polygonMode.equals(mode)) {
+            unchanged(Command.POLYGON_MODE, "PolygonMode is already " + mode);
+            return;
+        }
+        log.record(Command.POLYGON_MODE, mode.ordinal());
+        polygonMode = mode;
+    }
+
+    @Override
+    public FillMode getPolygonMode() {
+        return polygonMode;
+    }
+
+    @Override
+    public void setColorWrite(boolean r, boolean g, boolean b, boolean a) {
+        boolean[] updated = new boolean[] {r,g,b,a};
+        if (Arrays.equals(updated, colorMask)) {
+            unchanged(Command.COLOR_MASK, "ColorWrite (Mask) already <" + r + g + b + a + ">!");
+            return;
+        }
+        log.record(Command.COLOR_MASK, (r ? 1 : 0) | (g ? 2 : 0) | (b ? 4 : 0) | (a ? 8 : 0));
+        this.colorMask = updated;
+    }
+
+    @Override
+    public boolean[] isColorWrite() {
+        return colorMask;
+    }
+
+    @Override
+    public void setBound(FrameBuffer fbo) {
+        if (fbo != null && fbo.getID() == Native.INVALID_ID) {
+            throw new IllegalStateException("Given fbo cannot be bound (INVALID_ID)");
+        }
+        boundFbo = fbo;
+    }
+
+    @Override
+    public FrameBuffer getBoundFbo() {
+        return boundFbo;
+    }
+
+    @Override
+    public void setBound(Texture texture) {
+        if (texture != null && texture.getID() == Native.INVALID_ID) {
+            throw new IllegalStateException("Given Texture cannot be bound (INVALID_ID)");
+        }
+        boundTexture = texture;
+    }
+
+    @Override
+    public Texture getBoundTexture() {
+        return boundTexture;
+    }
+
+    @Override
+    public void setBound(Mesh mesh) {
+        if (mesh != null && mesh.getData().getID() == Native.INVALID_ID) {
+            throw new IllegalStateException("Given Mesh cannot be bound (INVALID_ID)");
+        }
+        boundMesh = mesh;
+    }
+
+    @Override
+    public Mesh getBoundMesh() {
+        return boundMesh;
+    }
+
+    @Override
+    public void setBound(Shader shader) {
+        if (shader != null && shader.getProgram().getID() == Native.INVALID_ID) {
+            throw new IllegalStateException("Given Shader cannot be bound (INVALID_ID)");
+        }
+
+        boundShader = shader;
+    }
+
+    @Override
+    public Shader getBoundShader() {
+        return boundShader;
+    }
+
+    /**
+     * Handles a state call, which would not change anything
+     * @param command The skipped command
+     * @param message Exception message
+     */
+    protected void unchanged(Command command, String message) {
+        if (throwUnchanged) {
+            throw new IllegalStateException(message);
+        }
+        log.record(Command.REDUNDANT_STATE, command.ordinal());
+    }
+}
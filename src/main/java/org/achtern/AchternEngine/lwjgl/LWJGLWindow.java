@@ -131,6 +131,12 @@ public class LWJGLWindow extends Window {
 
     }
 
+    @Override
+    public boolean enableVSync(boolean enable) {
+        Display.setVSyncEnabled(enable);
+        return true;
+    }
+
     @Override
     public String getTitle() {
         return Display.getTitle();
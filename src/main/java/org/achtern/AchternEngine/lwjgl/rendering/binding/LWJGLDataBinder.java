@@ -26,6 +26,8 @@ package org.achtern.AchternEngine.lwjgl.rendering.binding;
 
 import org.achtern.AchternEngine.core.rendering.Vertex;
 import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
+import org.achtern.AchternEngine.core.metrics.Counter;
+import org.achtern.AchternEngine.core.metrics.MetricRegistry;
 import org.achtern.AchternEngine.core.rendering.binding.IDGenerator;
 import org.achtern.AchternEngine.core.rendering.binding.UniformManager;
 import org.achtern.AchternEngine.core.rendering.exception.FrameBufferException;
@@ -55,6 +57,8 @@ import static org.lwjgl.opengl.GL13.glActiveTexture;
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.glDrawElementsInstanced;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
 
 public class LWJGLDataBinder implements DataBinder {
 
@@ -65,17 +69,34 @@ public class LWJGLDataBinder implements DataBinder {
     protected RenderEngineState state;
 
     /**
-     * An IntBuffer with a size of 16.
-     * This buffer is used to set draw buffers,
-     *  since glDrawBuffers only accepts an IntBuffer when dealing
-     *  with multiple color attachments.
+     * Buffer for per-instance model matrices, reused by all instanced draws
      */
-    private IntBuffer intBuffer = UBuffer.createIntBuffer(16);
+    protected int instanceBuffer = INVALID_ID;
+
+    /**
+     * Whether the constant (non-instanced) value of the instance attribute has been set
+     */
+    protected boolean instanceAttributeReset;
+
+    protected final Counter drawCalls;
+    protected final Counter instancedDrawCalls;
+    protected final Counter textureUploads;
+    protected final Counter meshUploads;
+    protected final Counter shaderUploads;
+    protected final Counter frameBufferUploads;
 
     public LWJGLDataBinder(RenderEngineState state) {
         this.state = state;
         this.idGen = new LWJGLIDGenerator();
         this.uniformManager = new LWJGLUniformManager();
+
+        MetricRegistry metrics = MetricRegistry.get();
+        this.drawCalls = metrics.counter("gl.drawCalls");
+        this.instancedDrawCalls = metrics.counter("gl.instancedDrawCalls");
+        this.textureUploads = metrics.counter("gl.uploads.textures");
+        this.meshUploads = metrics.counter("gl.uploads.meshes");
+        this.shaderUploads = metrics.counter("gl.uploads.shaders");
+        this.frameBufferUploads = metrics.counter("gl.uploads.framebuffers");
     }
 
     @Override
@@ -109,6 +130,7 @@ public class LWJGLDataBinder implements DataBinder {
 
     @Override
     public void upload(Texture texture) {
+        textureUploads.inc();
         bind(texture);
 
         int type = getGLEnum(texture.getType());
@@ -179,6 +201,7 @@ public class LWJGLDataBinder implements DataBinder {
         if (data.getID() != INVALID_ID) {
             LOGGER.warn("MeshData already uploaded to context. Re-uploading...");
         }
+        meshUploads.inc();
 
         getIDGenerator().generate(mesh);
 
@@ -188,25 +211,39 @@ public class LWJGLDataBinder implements DataBinder {
         glBindBuffer(GL_ARRAY_BUFFER, data.getVbo());
 
         LOGGER.trace("Calling glBufferData(GL_ARRAY_BUFFER, <data=vertices>, GL_STATIC_DRAW)");
-        glBufferData(GL_ARRAY_BUFFER, (FloatBuffer) UBuffer.create(data.getVertices()).flip(), GL_STATIC_DRAW);
+        FloatBuffer vertices = data.getVertexBuffer();
+        if (vertices != null) {
+            // direct (e.g. memory mapped) data, upload as it is
+            vertices = (FloatBuffer) vertices.duplicate().clear();
+        } else {
+            // already packed in the vertex layout, a single bulk copy
+            vertices = (FloatBuffer) UBuffer.scratchFloatBuffer(data.getPacked().length).put(data.getPacked()).flip();
+        }
+        glBufferData(GL_ARRAY_BUFFER, vertices, GL_STATIC_DRAW);
 
         LOGGER.trace("Calling glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, {})", data.getIbo());
         glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, data.getIbo());
         LOGGER.trace("Calling glBufferData(GL_ELEMENT_ARRAY_BUFFER, <data=indices>, GL_STATIC_DRAW)");
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, (IntBuffer) UBuffer.create(data.getIndices()).flip(), GL_STATIC_DRAW);
+        IntBuffer indices = data.getIndexBuffer();
+        if (indices != null) {
+            indices = (IntBuffer) indices.duplicate().clear();
+        } else {
+            indices = (IntBuffer) UBuffer.scratchIntBuffer(data.getIndices().length).put(data.getIndices()).flip();
+        }
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices, GL_STATIC_DRAW);
 
         LOGGER.trace("Calling glVertexAttribPointer(0, 3, GL_FLOAT, false, Vertex.SIZE * 4 = {}, 0)", Vertex.SIZE * 4);
         // Position
-        glVertexAttribPointer(0, 3, GL_FLOAT, false, Vertex.SIZE * 4, 0);
+        glVertexAttribPointer(0, 3, GL_FLOAT, false, Vertex.SIZE * 4, Vertex.POSITION_OFFSET * 4);
         LOGGER.trace("Calling glVertexAttribPointer(1, 2, GL_FLOAT, false, Vertex.SIZE * 4 = {}, 12)", Vertex.SIZE * 4);
         // Texture Coordinates
-        glVertexAttribPointer(1, 2, GL_FLOAT, false, Vertex.SIZE * 4, 12);
+        glVertexAttribPointer(1, 2, GL_FLOAT, false, Vertex.SIZE * 4, Vertex.TEX_COORD_OFFSET * 4);
         LOGGER.trace("Calling glVertexAttribPointer(2, 3, GL_FLOAT, false, Vertex.SIZE * 4 = {}, 20)", Vertex.SIZE * 4);
         // Normals
-        glVertexAttribPointer(2, 3, GL_FLOAT, false, Vertex.SIZE * 4, 20);
+        glVertexAttribPointer(2, 3, GL_FLOAT, false, Vertex.SIZE * 4, Vertex.NORMAL_OFFSET * 4);
         LOGGER.trace("Calling glVertexAttribPointer(3, 3, GL_FLOAT, false, Vertex.SIZE * 4 = {}, 32)", Vertex.SIZE * 4);
         // Tangents
-        glVertexAttribPointer(3, 3, GL_FLOAT, false, Vertex.SIZE * 4, 32);
+        glVertexAttribPointer(3, 3, GL_FLOAT, false, Vertex.SIZE * 4, Vertex.TANGENT_OFFSET * 4);
 
         LOGGER.trace("Calling glEnableVertexAttribArray(0)");
         // Position
@@ -231,6 +268,9 @@ public class LWJGLDataBinder implements DataBinder {
         if (mesh.getData().getID() == INVALID_ID) {
             upload(mesh);
         }
+        if (!instanceAttributeReset) {
+            resetInstanceAttribute();
+        }
         bind(mesh);
 
         if (LOGGER.isTraceEnabled()) {
@@ -241,6 +281,62 @@ public class LWJGLDataBinder implements DataBinder {
         }
 
         glDrawElements(getGLEnum(mesh.getData().getMode()), mesh.getData().getSize(), GL_UNSIGNED_INT, 0);
+        drawCalls.inc();
+    }
+
+    @Override
+    public void drawInstanced(Mesh mesh, FloatBuffer models, int count) {
+        if (mesh.getData().getID() == INVALID_ID) {
+            upload(mesh);
+        }
+        bind(mesh);
+
+        if (instanceBuffer == INVALID_ID) {
+            instanceBuffer = idGen.generateBuffer();
+        }
+
+        LOGGER.trace("Calling glBindBuffer(GL_ARRAY_BUFFER, {})", instanceBuffer);
+        glBindBuffer(GL_ARRAY_BUFFER, instanceBuffer);
+        LOGGER.trace("Calling glBufferData(GL_ARRAY_BUFFER, <data=models>, GL_STREAM_DRAW)");
+        glBufferData(GL_ARRAY_BUFFER, models, GL_STREAM_DRAW);
+
+        // a mat4 attribute takes 4 locations, one per column
+        for (int i = 0; i < 4; i++) {
+            int location = INSTANCE_ATTRIBUTE_LOCATION + i;
+            glVertexAttribPointer(location, 4, GL_FLOAT, false, 16 * 4, i * 4 * 4);
+            glVertexAttribDivisor(location, 1);
+            glEnableVertexAttribArray(location);
+        }
+
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Calling glDrawElementsInstanced({}, {}, GL_UNSIGNED_INT, 0, {})",
+                    getGLEnum(mesh.getData().getMode()),
+                    mesh.getData().getSize(),
+                    count
+            );
+        }
+
+        glDrawElementsInstanced(getGLEnum(mesh.getData().getMode()), mesh.getData().getSize(), GL_UNSIGNED_INT, 0, count);
+        drawCalls.inc();
+        instancedDrawCalls.inc();
+
+        // the vertex array is used for regular draws as well
+        for (int i = 0; i < 4; i++) {
+            glDisableVertexAttribArray(INSTANCE_ATTRIBUTE_LOCATION + i);
+        }
+        resetInstanceAttribute();
+    }
+
+    /**
+     * Sets the constant value of the instance attribute, used while its array is disabled, to the identity matrix
+     */
+    protected void resetInstanceAttribute() {
+        LOGGER.trace("Calling glVertexAttrib4f() 4 times, identity instance matrix");
+        glVertexAttrib4f(INSTANCE_ATTRIBUTE_LOCATION, 1, 0, 0, 0);
+        glVertexAttrib4f(INSTANCE_ATTRIBUTE_LOCATION + 1, 0, 1, 0, 0);
+        glVertexAttrib4f(INSTANCE_ATTRIBUTE_LOCATION + 2, 0, 0, 1, 0);
+        glVertexAttrib4f(INSTANCE_ATTRIBUTE_LOCATION + 3, 0, 0, 0, 1);
+        instanceAttributeReset = true;
     }
 
     @Override
@@ -258,6 +354,7 @@ public class LWJGLDataBinder implements DataBinder {
 
     @Override
     public void upload(Shader shader) {
+        shaderUploads.inc();
         GLSLProgram program = shader.getProgram();
 
         if (program.getID() == INVALID_ID) {
@@ -365,7 +462,9 @@ public class LWJGLDataBinder implements DataBinder {
              */
 
             if (fbo.sizeColorTargets() > 1) {
-                intBuffer.clear();
+                // glDrawBuffers only accepts an IntBuffer when dealing
+                // with multiple color attachments.
+                IntBuffer intBuffer = UBuffer.scratchIntBuffer(fbo.sizeColorTargets());
                 for (int i = 0; i < fbo.sizeColorTargets(); i++) {
                     intBuffer.put(GL_COLOR_ATTACHMENT0 + i);
                 }
@@ -402,6 +501,7 @@ public class LWJGLDataBinder implements DataBinder {
 
     @Override
     public void upload(FrameBuffer fbo) {
+        frameBufferUploads.inc();
 
         if (fbo.getID() == INVALID_ID) {
             getIDGenerator().generate(fbo);
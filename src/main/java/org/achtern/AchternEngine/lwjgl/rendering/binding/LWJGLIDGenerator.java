@@ -24,6 +24,8 @@
 
 package org.achtern.AchternEngine.lwjgl.rendering.binding;
 
+import org.achtern.AchternEngine.core.metrics.Counter;
+import org.achtern.AchternEngine.core.metrics.MetricRegistry;
 import org.achtern.AchternEngine.core.rendering.binding.IDGenerator;
 import org.achtern.AchternEngine.core.rendering.framebuffer.FrameBuffer;
 import org.achtern.AchternEngine.core.rendering.framebuffer.RenderBuffer;
@@ -47,6 +49,27 @@ import static org.lwjgl.opengl.GL30.glGenVertexArrays;
  */
 public class LWJGLIDGenerator implements IDGenerator {
 
+    /**
+     * Native objects created, the engine does not delete them yet,
+     *  so these are the objects alive in the context.
+     */
+    protected final Counter textures;
+    protected final Counter meshes;
+    protected final Counter shaders;
+    protected final Counter frameBuffers;
+    protected final Counter renderBuffers;
+    protected final Counter buffers;
+
+    public LWJGLIDGenerator() {
+        MetricRegistry metrics = MetricRegistry.get();
+        this.textures = metrics.counter("gl.objects.textures");
+        this.meshes = metrics.counter("gl.objects.meshes");
+        this.shaders = metrics.counter("gl.objects.shaders");
+        this.frameBuffers = metrics.counter("gl.objects.framebuffers");
+        this.renderBuffers = metrics.counter("gl.objects.renderbuffers");
+        this.buffers = metrics.counter("gl.objects.buffers");
+    }
+
     /**
      * Generate an ID for the Texture.
      *
@@ -56,6 +79,7 @@ public class LWJGLIDGenerator implements IDGenerator {
     public void generate(Texture texture) {
         int id = glGenTextures();
         texture.setID(id);
+        textures.inc();
     }
 
     /**
@@ -73,6 +97,7 @@ public class LWJGLIDGenerator implements IDGenerator {
         int vao = glGenVertexArrays();
         data.setBufferIDs(vbo, ibo);
         data.setID(vao);
+        meshes.inc();
     }
 
     /**
@@ -89,6 +114,7 @@ public class LWJGLIDGenerator implements IDGenerator {
             int sId = glCreateShader(getGLEnum(script.getType()));
             script.setID(sId);
         }
+        shaders.inc();
 
     }
 
@@ -102,6 +128,7 @@ public class LWJGLIDGenerator implements IDGenerator {
     public void generate(FrameBuffer fbo) {
         int id = glGenFramebuffers();
         fbo.setID(id);
+        frameBuffers.inc();
     }
 
     /**
@@ -113,5 +140,17 @@ public class LWJGLIDGenerator implements IDGenerator {
     public void generate(RenderBuffer rbo) {
         int id = glGenRenderbuffers();
         rbo.setID(id);
+        renderBuffers.inc();
+    }
+
+    /**
+     * Generate a plain buffer object, not owned by any engine object (e.g. streamed instance data)
+     *
+     * @return The buffer ID
+     */
+    public int generateBuffer() {
+        int id = glGenBuffers();
+        buffers.inc();
+        return id;
     }
 }
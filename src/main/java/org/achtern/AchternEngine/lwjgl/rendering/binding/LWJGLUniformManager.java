@@ -25,16 +25,10 @@
 package org.achtern.AchternEngine.lwjgl.rendering.binding;
 
 import org.achtern.AchternEngine.core.math.Matrix4f;
-import org.achtern.AchternEngine.core.math.Vector2f;
-import org.achtern.AchternEngine.core.math.Vector3f;
-import org.achtern.AchternEngine.core.math.Vector4f;
-import org.achtern.AchternEngine.core.rendering.Color;
 import org.achtern.AchternEngine.core.rendering.binding.BasicUniformManager;
-import org.achtern.AchternEngine.core.rendering.fog.Fog;
-import org.achtern.AchternEngine.core.rendering.light.Attenuation;
+import org.achtern.AchternEngine.core.rendering.binding.UniformCache;
 import org.achtern.AchternEngine.core.rendering.shader.Shader;
 import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.Uniform;
-import org.achtern.AchternEngine.core.scenegraph.entity.renderpasses.light.*;
 import org.achtern.AchternEngine.core.util.UBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,98 +54,50 @@ public class LWJGLUniformManager extends BasicUniformManager {
         uniform.setLocation(uniformLoc);
     }
 
-    @Override
-    public void setUniform(Shader shader, String name, Vector3f vec) {
-        glUniform3f(shader.getProgram().getExpandedUniform(name).getLocation(), vec.getX(), vec.getY(), vec.getZ());
-    }
-
-    @Override
-    public void setUniform(Shader shader, String name, Vector4f vec) {
-        glUniform4f(shader.getProgram().getExpandedUniform(name).getLocation(), vec.getX(), vec.getY(), vec.getZ(), vec.getW());
-    }
-
-    @Override
-    public void setUniform(Shader shader, String name, Color color) {
-        setUniform(shader, name, (Vector4f) color);
-    }
-
-    @Override
-    public void setUniform(Shader shader, String name, Vector2f vec) {
-        glUniform2f(shader.getProgram().getExpandedUniform(name).getLocation(), vec.getX(), vec.getY());
-    }
-
-    @Override
-    public void setUniform(Shader shader, String name, Matrix4f matrix) {
-        glUniformMatrix4(shader.getProgram().getExpandedUniform(name).getLocation(), true, (FloatBuffer) UBuffer.create(matrix).flip());
-    }
-
-    @Override
-    public void setUniform(Shader shader, String name, int value) {
-        glUniform1i(shader.getProgram().getExpandedUniform(name).getLocation(), value);
-    }
+    /*
+     * The following methods only call glUniform* if the value differs
+     * from the last upload to the location.
+     */
 
     @Override
-    public void setUniform(Shader shader, String name, float value) {
-        glUniform1f(shader.getProgram().getExpandedUniform(name).getLocation(), value);
-    }
-
-    @Override
-    public void setUniform(Shader shader, String name, double value) {
-        setUniform(shader, name, (float) value);
-    }
-
-    @Override
-    public void setUniform(Shader shader, String name, Fog fog) {
-        setUniform(shader, name + ".mode", fog.getMode().getID());
-        if (fog.getMode().equals(Fog.Mode.DISABLED)) {
-            return;
-        }
-
-        setUniform(shader, name + ".color", fog.getColor());
-        if (fog.getMode().equals(Fog.Mode.LINEAR)) {
-            setUniform(shader, name + ".start", fog.getRange().getX());
-            setUniform(shader, name + ".end", fog.getRange().getY());
-        } else {
-            setUniform(shader, name + ".density", fog.getDensity());
+    protected void uniform1i(UniformCache c, int location, int value) {
+        if (count(location, c.update(location, value))) {
+            glUniform1i(location, value);
         }
     }
 
     @Override
-    public void setUniform(Shader shader, String name, DirectionalLight directionalLight) {
-        setUniform(shader, name + ".base", (BaseLight) directionalLight);
-        setUniform(shader, name + ".direction", directionalLight.getDirection());
-    }
-
-    @Override
-    public void setUniform(Shader shader, String name, AmbientLight ambientLight) {
-        setUniform(shader, name + ".color", ambientLight.getColor());
+    protected void uniform1f(UniformCache c, int location, float x) {
+        if (count(location, c.update(location, x))) {
+            glUniform1f(location, x);
+        }
     }
 
     @Override
-    public void setUniform(Shader shader, String name, BaseLight baseLight) {
-        setUniform(shader, name + ".color", baseLight.getColor().getColor());
-        setUniform(shader, name + ".intensity", baseLight.getIntensity());
+    protected void uniform2f(UniformCache c, int location, float x, float y) {
+        if (count(location, c.update(location, x, y))) {
+            glUniform2f(location, x, y);
+        }
     }
 
     @Override
-    public void setUniform(Shader shader, String name, PointLight pointLight) {
-        setUniform(shader, name + ".base", (BaseLight) pointLight);
-        setUniform(shader, name + ".attenuation", pointLight.getAttenuation());
-        setUniform(shader, name + ".position", pointLight.getTransform().getTransformedPosition());
-        setUniform(shader, name + ".range", pointLight.getRange());
+    protected void uniform3f(UniformCache c, int location, float x, float y, float z) {
+        if (count(location, c.update(location, x, y, z))) {
+            glUniform3f(location, x, y, z);
+        }
     }
 
     @Override
-    public void setUniform(Shader shader, String name, Attenuation attenuation) {
-        setUniform(shader, name + ".constant", attenuation.getConstant());
-        setUniform(shader, name + ".linear", attenuation.getLinear());
-        setUniform(shader, name + ".exponent", attenuation.getExponent());
+    protected void uniform4f(UniformCache c, int location, float x, float y, float z, float w) {
+        if (count(location, c.update(location, x, y, z, w))) {
+            glUniform4f(location, x, y, z, w);
+        }
     }
 
     @Override
-    public void setUniform(Shader shader, String name, SpotLight spotLight) {
-        setUniform(shader, name + ".pointLight", (PointLight) spotLight);
-        setUniform(shader, name + ".direction", spotLight.getDirection());
-        setUniform(shader, name + ".cutoff", spotLight.getCutoff());
+    protected void uniformMatrix4(UniformCache c, int location, Matrix4f matrix) {
+        if (count(location, c.update(location, matrix.getMReference()))) {
+            glUniformMatrix4(location, true, (FloatBuffer) matrix.store(UBuffer.scratchFloatBuffer(16)).flip());
+        }
     }
 }
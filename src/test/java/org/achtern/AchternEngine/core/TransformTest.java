@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core;
+
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TransformTest {
+
+    Transform parent;
+    Transform child;
+
+    @Before
+    public void before() {
+        parent = new Transform();
+        child = new Transform();
+        child.setParent(parent);
+    }
+
+    @Test
+    public void testCachesTransformation() {
+        Matrix4f first = child.getTransformation();
+
+        assertSame("Should return the cached matrix, if nothing has changed", first, child.getTransformation());
+    }
+
+    @Test
+    public void testSetterInvalidatesCache() {
+        assertEquals("Should start without translation", 0, child.getTransformation().get(0, 3), 0);
+
+        child.setPosition(new Vector3f(1, 2, 3));
+
+        assertEquals("Should rebuild the matrix after a setter call", 1, child.getTransformation().get(0, 3), 0);
+    }
+
+    @Test
+    public void testInPlaceModificationInvalidatesCache() {
+        child.getTransformation();
+
+        child.getPosition().addLocal(new Vector3f(0, 5, 0));
+
+        assertEquals("Should detect in-place modification of the position",
+                5, child.getTransformation().get(1, 3), 0);
+    }
+
+    @Test
+    public void testParentChangePropagates() {
+        child.setPosition(new Vector3f(1, 0, 0));
+        child.getTransformation();
+
+        parent.setPosition(new Vector3f(0, 0, 4));
+
+        Matrix4f world = child.getTransformation();
+        assertEquals("Should include the parent's new translation [x]", 1, world.get(0, 3), 0);
+        assertEquals("Should include the parent's new translation [z]", 4, world.get(2, 3), 0);
+
+        Node root = new Node();
+        Node a = new Node();
+        Node b = new Node();
+        root.add(a);
+        a.add(b);
+        b.getTransform().getTransformation();
+
+        root.getTransform().getScale().multLocal(2);
+        a.getTransform().setPosition(new Vector3f(1, 1, 1));
+
+        assertEquals("Should propagate changes through multiple levels",
+                2, b.getTransform().getTransformation().get(0, 3), 0);
+    }
+
+    @Test
+    public void testReparent() {
+        Transform other = new Transform();
+        other.setPosition(new Vector3f(7, 0, 0));
+
+        child.getTransformation();
+        child.setParent(other);
+
+        assertEquals("Should use the new parent's matrix", 7, child.getTransformation().get(0, 3), 0);
+
+        child.setParent(null);
+
+        assertEquals("Should fallback to identity without a parent", 0, child.getTransformation().get(0, 3), 0);
+    }
+}
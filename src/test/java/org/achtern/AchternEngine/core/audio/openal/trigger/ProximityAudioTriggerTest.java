@@ -27,7 +27,11 @@ package org.achtern.AchternEngine.core.audio.openal.trigger;
 import org.achtern.AchternEngine.core.audio.openal.AudioSource;
 import org.achtern.AchternEngine.core.audio.openal.AudioSourceState;
 import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
 import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.achtern.AchternEngine.core.scenegraph.spatial.SceneIndex;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -99,4 +103,67 @@ public class ProximityAudioTriggerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testIndex() {
+        Node root = new Node();
+        Node target = new Node();
+        Node wall = new Node().add(new Figure(new Mesh(new Vertex[] {
+                new Vertex(new Vector3f(0, 0, 0)),
+                new Vertex(new Vector3f(100, 0, 0)),
+                new Vertex(new Vector3f(0, 1, 1))
+        }, new int[] {0, 1, 2})));
+        target.add(wall);
+        root.add(target);
+
+        SceneIndex index = new SceneIndex(root);
+        index.update();
+
+        ProximityAudioTrigger t = new ProximityAudioTrigger(target, 10, AudioSourceState.STOPPED, index);
+        AudioSource source = new AudioSource(null);
+
+        source.setPosition(new Vector3f(95, 5, 0));
+        assertEquals("Should measure the distance to the bounds of the target's figures",
+                AudioSourceState.PLAYING,
+                t.next(source)
+        );
+
+        source.setPosition(new Vector3f(95, 20, 0));
+        assertEquals("Should return the onExit operation, if no figure of the target is near",
+                AudioSourceState.STOPPED,
+                t.next(source)
+        );
+
+        t.setTarget(new Node());
+        source.setPosition(new Vector3f(95, 5, 0));
+        assertEquals("Should ignore figures of other nodes",
+                AudioSourceState.STOPPED,
+                t.next(source)
+        );
+    }
+
+    @Test
+    public void testIndexWithoutFigures() {
+        Node root = new Node();
+        Node target = new Node();
+        target.getTransform().setPosition(new Vector3f(5, 0, 0));
+        root.add(target);
+
+        SceneIndex index = new SceneIndex(root);
+        index.update();
+
+        ProximityAudioTrigger t = new ProximityAudioTrigger(target, 10, AudioSourceState.STOPPED, index);
+        AudioSource source = new AudioSource(null);
+
+        source.setPosition(new Vector3f(0, 0, 0));
+        assertEquals("Should fall back to the origin, if the target has no figures",
+                AudioSourceState.PLAYING,
+                t.next(source)
+        );
+
+        source.setPosition(new Vector3f(20, 0, 0));
+        assertEquals("Should return the onExit operation, if the origin is too far",
+                AudioSourceState.STOPPED,
+                t.next(source)
+        );
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.math;
+
+import org.junit.Test;
+
+import java.nio.FloatBuffer;
+
+import static org.junit.Assert.*;
+
+public class Matrix4fTest {
+
+    private static Matrix4f sequence(float offset) {
+        Matrix4f m = new Matrix4f();
+        for (int x = 0; x < 4; x++) {
+            for (int y = 0; y < 4; y++) {
+                m.set(x, y, offset + x * 4 + y);
+            }
+        }
+        return m;
+    }
+
+    @Test
+    public void testMul() {
+        Matrix4f a = sequence(0);
+        Matrix4f b = sequence(1);
+
+        Matrix4f result = a.mul(b);
+
+        for (int x = 0; x < 4; x++) {
+            for (int y = 0; y < 4; y++) {
+                float expected = 0;
+                for (int k = 0; k < 4; k++) {
+                    expected += a.get(x, k) * b.get(k, y);
+                }
+                assertEquals("Should multiply row " + x + " with column " + y, expected, result.get(x, y), 0);
+            }
+        }
+
+        assertEquals("Should not modify the left hand side", 1, a.get(0, 1), 0);
+    }
+
+    @Test
+    public void testMulLocalAliasing() {
+        Matrix4f expected = sequence(0).mul(sequence(1));
+
+        Matrix4f a = sequence(0);
+        Matrix4f.mulLocal(a, sequence(1), a);
+        assertEquals("Should allow dest to be the left hand side", expected.toString(), a.toString());
+
+        Matrix4f b = sequence(1);
+        Matrix4f.mulLocal(sequence(0), b, b);
+        assertEquals("Should allow dest to be the right hand side", expected.toString(), b.toString());
+    }
+
+    @Test
+    public void testInitRotationFromQuaternion() {
+        Quaternion q = new Quaternion(new Vector3f(0, 1, 0), (float) Math.toRadians(90));
+
+        Matrix4f m = new Matrix4f().initRotation(q);
+
+        Vector3f rotated = m.transform(new Vector3f(0, 0, 1));
+        Vector3f expected = new Vector3f(0, 0, 1).rotate(q);
+
+        assertEquals("Should rotate like the quaternion [x]", expected.getX(), rotated.getX(), 0.0001f);
+        assertEquals("Should rotate like the quaternion [y]", expected.getY(), rotated.getY(), 0.0001f);
+        assertEquals("Should rotate like the quaternion [z]", expected.getZ(), rotated.getZ(), 0.0001f);
+    }
+
+    @Test
+    public void testStore() {
+        Matrix4f m = sequence(0);
+        FloatBuffer buffer = FloatBuffer.allocate(16);
+
+        m.store(buffer);
+
+        assertEquals("Should advance the buffer by 16", 16, buffer.position());
+        for (int i = 0; i < 16; i++) {
+            assertEquals("Should store row by row", i, buffer.get(i), 0);
+        }
+    }
+
+    @Test
+    public void testGetM() {
+        Matrix4f m = sequence(0);
+        float[][] copy = m.getM();
+
+        copy[1][2] = 100;
+
+        assertEquals("Should return a deep copy", 6, m.get(1, 2), 0);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        Histogram.Snapshot s = new Histogram().getSnapshot();
+
+        assertEquals(0, s.getCount());
+        assertEquals(0, s.getMin());
+        assertEquals(0, s.getMedian());
+        assertEquals(0, s.getMean(), 0);
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram h = new Histogram();
+        for (int i = 100; i > 0; i--) {
+            h.update(i);
+        }
+
+        Histogram.Snapshot s = h.getSnapshot();
+        assertEquals(100, s.getCount());
+        assertEquals(1, s.getMin());
+        assertEquals(100, s.getMax());
+        assertEquals(50, s.getMedian());
+        assertEquals(95, s.get95thPercentile());
+        assertEquals(99, s.get99thPercentile());
+        assertEquals(50.5, s.getMean(), 0.0001);
+    }
+
+    @Test
+    public void testReservoir() {
+        Histogram h = new Histogram(10);
+        for (int i = 0; i < 100; i++) {
+            h.update(i);
+        }
+
+        Histogram.Snapshot s = h.getSnapshot();
+        assertEquals("All values are counted", 100, s.getCount());
+        assertEquals("All values are counted", 0, s.getMin());
+        assertEquals("Percentiles of the recent values", 90, s.getValue(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantile() {
+        new Histogram().getSnapshot().getValue(1.5);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.metrics;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class MetricRegistryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MetricRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new MetricRegistry();
+    }
+
+    private static Gauge<Integer> constant(final int value) {
+        return new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return value;
+            }
+        };
+    }
+
+    @Test
+    public void testCounter() {
+        Counter counter = registry.counter("test.counter");
+        counter.inc();
+        counter.inc(2);
+
+        assertSame("Existing counter should be returned", counter, registry.counter("test.counter"));
+        assertEquals(3, registry.counter("test.counter").getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeConflict() {
+        registry.counter("test.metric");
+        registry.histogram("test.metric");
+    }
+
+    @Test
+    public void testRegisterReplaces() {
+        MetricRegistryListener listener = mock(MetricRegistryListener.class);
+        registry.addListener(listener);
+
+        Gauge<Integer> first = registry.register("test.gauge", constant(1));
+        Gauge<Integer> second = registry.register("test.gauge", constant(2));
+
+        verify(listener).onAdded("test.gauge", first);
+        verify(listener).onRemoved("test.gauge", first);
+        verify(listener).onAdded("test.gauge", second);
+        assertEquals("2", MetricRegistry.format(registry.getMetric("test.gauge")));
+
+        assertTrue(registry.remove("test.gauge"));
+        verify(listener).onRemoved("test.gauge", second);
+        assertFalse(registry.remove("test.gauge"));
+    }
+
+    @Test
+    public void testListenerGetsExistingMetrics() {
+        Counter counter = registry.counter("test.counter");
+
+        MetricRegistryListener listener = mock(MetricRegistryListener.class);
+        registry.addListener(listener);
+
+        verify(listener).onAdded("test.counter", counter);
+    }
+
+    @Test
+    public void testFileReporter() throws Exception {
+        registry.counter("b.counter").inc();
+        registry.register("a.gauge", constant(42));
+
+        File file = folder.newFile("metrics.log");
+        FileReporter reporter = new FileReporter(file);
+        registry.report(reporter);
+        registry.report(reporter);
+
+        List<String> lines = Files.readAllLines(file.toPath(), Charset.forName("UTF-8"));
+        assertEquals("Reports should be appended", 4, lines.size());
+        assertTrue("Sorted by name", lines.get(0).endsWith(" a.gauge 42"));
+        assertTrue(lines.get(1).endsWith(" b.counter 1"));
+    }
+
+    @Test
+    public void testJmx() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        JmxPublisher publisher = new JmxPublisher(registry, server);
+
+        registry.counter("test.counter").inc(5);
+        publisher.start();
+        registry.histogram("test.histogram").update(7);
+        registry.register("test.gauge", constant(3));
+
+        ObjectName counter = new ObjectName(JmxPublisher.DOMAIN + ":type=Counter,name=\"test.counter\"");
+        ObjectName histogram = new ObjectName(JmxPublisher.DOMAIN + ":type=Histogram,name=\"test.histogram\"");
+        ObjectName gauge = new ObjectName(JmxPublisher.DOMAIN + ":type=Gauge,name=\"test.gauge\"");
+
+        try {
+            assertEquals(5L, server.getAttribute(counter, "Count"));
+            assertEquals(7L, server.getAttribute(histogram, "99thPercentile"));
+            assertEquals(3.0, server.getAttribute(gauge, "Value"));
+
+            registry.remove("test.gauge");
+            assertFalse(server.isRegistered(gauge));
+        } finally {
+            publisher.stop();
+        }
+
+        assertFalse(server.isRegistered(counter));
+        assertFalse(server.isRegistered(histogram));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.pacing;
+
+import org.achtern.AchternEngine.core.Time;
+import org.achtern.AchternEngine.core.metrics.MetricRegistry;
+import org.achtern.AchternEngine.headless.HeadlessWindow;
+import org.achtern.AchternEngine.headless.recording.CommandLog;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FramePacerTest {
+
+    private static final long MILLI = 1000000L;
+
+    private static void assertWaits(FramePacer pacer) {
+        pacer.start(new HeadlessWindow(800, 600, new CommandLog()));
+
+        for (int i = 0; i < 5; i++) {
+            long deadline = Time.getNanoTime() + 2 * MILLI;
+            pacer.waitUntil(deadline);
+            assertTrue("Woken up before the deadline", Time.getNanoTime() >= deadline);
+        }
+
+        assertEquals("Every wait is measured", 5, pacer.getJitter().getCount());
+        assertSame("Jitter is published", pacer.getJitter(),
+                MetricRegistry.get().getMetric(FramePacer.JITTER_METRIC));
+    }
+
+    @Test
+    public void testBusyWait() {
+        assertWaits(new BusyWaitPacer());
+    }
+
+    @Test
+    public void testHybrid() {
+        assertWaits(new HybridPacer());
+    }
+
+    @Test
+    public void testVSyncFallback() {
+        assertWaits(new VSyncPacer());
+    }
+
+    @Test
+    public void testPassedDeadline() {
+        FramePacer pacer = new BusyWaitPacer();
+        pacer.waitUntil(Time.getNanoTime() - MILLI);
+
+        assertEquals("Late frames are not measured", 0, pacer.getJitter().getCount());
+    }
+
+    @Test
+    public void testHybridCalibration() {
+        HybridPacer pacer = new HybridPacer();
+        for (int i = 0; i < 100; i++) {
+            pacer.sample(10 * MILLI);
+        }
+        assertEquals("Clamped to the maximum", HybridPacer.MAX_SPIN, pacer.getSpinThreshold());
+
+        for (int i = 0; i < 200; i++) {
+            pacer.sample(0);
+        }
+        assertEquals("Clamped to the minimum", HybridPacer.MIN_SPIN, pacer.getSpinThreshold());
+    }
+}
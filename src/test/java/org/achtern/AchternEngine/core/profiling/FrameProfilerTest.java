@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.profiling;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameProfilerTest {
+
+    private FrameProfiler profiler;
+
+    @Before
+    public void setUp() {
+        profiler = new FrameProfiler(4, 64);
+        profiler.setEnabled(true);
+    }
+
+    private void frame() {
+        profiler.beginFrame();
+        profiler.begin("update");
+        profiler.end();
+        try (FrameProfiler.Scope s = profiler.scope("render")) {
+            profiler.begin(FrameProfilerTest.class);
+            profiler.end();
+        }
+        profiler.endFrame();
+    }
+
+    @Test
+    public void testDisabled() {
+        profiler.setEnabled(false);
+        frame();
+
+        assertEquals(0, profiler.getFrameCount());
+        assertEquals("Frames are still counted", 1, profiler.getFrameCounter());
+        assertEquals("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[]}", profiler.toChromeTrace());
+    }
+
+    @Test
+    public void testFrames() {
+        frame();
+        frame();
+
+        assertEquals(2, profiler.getFrameCount());
+        assertEquals(1, profiler.getFrameNumber(0));
+        assertEquals(2, profiler.getFrameNumber(1));
+        assertTrue(profiler.getFrameTime(1) >= 0);
+        assertTrue(profiler.getScopeTime(1, "render") >= 0);
+        assertEquals("Unknown scope", 0, profiler.getScopeTime(1, "swap"));
+    }
+
+    @Test
+    public void testClassScopes() throws Exception {
+        profiler.beginFrame();
+        profiler.begin(FrameProfilerTest.class);
+        Thread.sleep(2);
+        profiler.end();
+        profiler.endFrame();
+
+        long time = profiler.getScopeTime(0, FrameProfilerTest.class);
+        assertTrue("Class scopes should be recorded", time > 0);
+        assertEquals("Class scopes are named by the simple name", time, profiler.getScopeTime(0, "FrameProfilerTest"));
+    }
+
+    @Test
+    public void testRingBuffer() {
+        for (int i = 0; i < 10; i++) {
+            frame();
+        }
+
+        assertEquals("Capacity", 4, profiler.getFrameCount());
+        assertEquals("Oldest frame", 7, profiler.getFrameNumber(0));
+        assertEquals("Newest frame", 10, profiler.getFrameNumber(3));
+    }
+
+    @Test
+    public void testScopeOverflow() {
+        profiler = new FrameProfiler(4, 2);
+        profiler.setEnabled(true);
+        frame();
+
+        assertEquals("Scopes have been overwritten", -1, profiler.getScopeTime(0, "update"));
+        assertFalse("Incomplete frames are not exported", profiler.toChromeTrace().contains("\"frame\""));
+    }
+
+    @Test
+    public void testUnbalancedScopes() {
+        profiler.beginFrame();
+        profiler.begin("open");
+        profiler.end();
+        profiler.end();
+        profiler.begin("never closed");
+        profiler.endFrame();
+
+        assertEquals(1, profiler.getFrameCount());
+        assertTrue(profiler.toChromeTrace().contains("\"never closed\""));
+    }
+
+    @Test
+    public void testChromeTrace() {
+        frame();
+        String trace = profiler.toChromeTrace();
+
+        assertTrue(trace.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[{\"name\":\"frame\",\"ph\":\"X\""));
+        assertTrue(trace.contains("\"name\":\"update\""));
+        assertTrue(trace.contains("\"name\":\"render\""));
+        assertTrue("Class scopes use the simple name", trace.contains("\"name\":\"FrameProfilerTest\""));
+        assertTrue(trace.contains("\"allocatedBytes\":"));
+        assertTrue(trace.endsWith("]}"));
+    }
+
+    @Test
+    public void testAllocatedBytes() {
+        profiler.beginFrame();
+        byte[][] garbage = new byte[16][];
+        for (int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[1024];
+        }
+        profiler.endFrame();
+
+        long allocated = profiler.getAllocatedBytes(0);
+        assertTrue("Either unsupported or at least the arrays", allocated == -1 || allocated >= 16 * 1024);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.binding;
+
+import org.achtern.AchternEngine.headless.recording.CommandLog;
+import org.achtern.AchternEngine.headless.rendering.binding.HeadlessUniformManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UniformCacheTest {
+
+    private UniformCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new UniformCache();
+    }
+
+    @Test
+    public void testFirstUpdateChanges() {
+        assertTrue("First upload should always be issued", cache.update(0, 1f));
+        assertTrue("First upload should always be issued", cache.update(1, 0));
+    }
+
+    @Test
+    public void testIdenticalValueIsSkipped() {
+        cache.update(2, 1f, 2f, 3f);
+
+        assertFalse("Identical value should be skipped", cache.update(2, 1f, 2f, 3f));
+        assertTrue("Changed value should be issued", cache.update(2, 1f, 2f, 4f));
+        assertFalse("Identical value should be skipped", cache.update(2, 1f, 2f, 4f));
+    }
+
+    @Test
+    public void testBitwiseComparison() {
+        cache.update(0, 0f);
+
+        assertTrue("-0 and 0 differ bitwise", cache.update(0, -0f));
+
+        cache.update(1, Float.NaN);
+        assertFalse("NaN is bitwise identical to itself", cache.update(1, Float.NaN));
+    }
+
+    @Test
+    public void testArray() {
+        float[] m = new float[16];
+        m[5] = 1;
+
+        assertTrue(cache.update(3, m));
+        assertFalse("Identical matrix should be skipped", cache.update(3, m));
+
+        m[15] = 2;
+        assertTrue("Changed matrix should be issued", cache.update(3, m));
+    }
+
+    @Test
+    public void testGrowAndClear() {
+        assertTrue(cache.update(100, 1f, 1f, 1f, 1f));
+        assertFalse(cache.update(100, 1f, 1f, 1f, 1f));
+
+        cache.clear();
+
+        assertTrue("Cleared cache should issue again", cache.update(100, 1f, 1f, 1f, 1f));
+    }
+
+    @Test
+    public void testInvalidLocation() {
+        assertFalse("Location -1 is ignored by the graphics card", cache.update(-1, 1f, 2f));
+    }
+
+    @Test
+    public void testInvalidLocationNotCounted() {
+        BasicUniformManager manager = new HeadlessUniformManager(new CommandLog());
+
+        assertFalse(manager.count(-1, cache.update(-1, 1f)));
+        assertTrue(manager.count(0, cache.update(0, 1f)));
+        assertFalse(manager.count(0, cache.update(0, 1f)));
+
+        assertEquals(1, manager.getIssuedUploads());
+        assertEquals("Invalid locations are not skipped uploads", 1, manager.getSkippedUploads());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.binding;
+
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.rendering.texture.Texture;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class UploadQueueTest {
+
+    @Test
+    public void testProcessUploadsPending() {
+        DataBinder binder = mock(DataBinder.class);
+        Texture texture = mock(Texture.class);
+        when(texture.getID()).thenReturn(-1);
+        Mesh mesh = new Mesh(new MeshData());
+
+        UploadQueue queue = new UploadQueue();
+        queue.add(texture);
+        queue.add(mesh);
+
+        assertEquals(2, queue.process(binder, Double.MAX_VALUE));
+        assertTrue(queue.isEmpty());
+
+        verify(binder).bind(texture);
+        verify(binder).upload(mesh);
+    }
+
+    @Test
+    public void testSkipsUploaded() {
+        DataBinder binder = mock(DataBinder.class);
+        MeshData data = new MeshData();
+        data.setID(3);
+
+        UploadQueue queue = new UploadQueue();
+        queue.add(new Mesh(data));
+        queue.process(binder, Double.MAX_VALUE);
+
+        verify(binder, never()).upload(any(Mesh.class));
+    }
+
+    @Test
+    public void testBudget() {
+        DataBinder binder = mock(DataBinder.class);
+
+        UploadQueue queue = new UploadQueue();
+        queue.add(new Mesh(new MeshData()));
+        queue.add(new Mesh(new MeshData()));
+
+        assertEquals("At least one resource should be processed", 1, queue.process(binder, 0));
+        assertEquals(1, queue.size());
+    }
+}
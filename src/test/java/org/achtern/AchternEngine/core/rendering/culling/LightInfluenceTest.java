@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.culling;
+
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LightInfluenceTest {
+
+    private LightInfluence influence;
+
+    @Before
+    public void setUp() {
+        influence = new LightInfluence();
+    }
+
+    @Test
+    public void testUnbounded() {
+        assertFalse(influence.set(null));
+        assertTrue("Unbounded light should reach everything",
+                influence.intersects(box(1000, 0, 0)));
+    }
+
+    @Test
+    public void testSphere() {
+        influence.setSphere(0, 0, 0, 10);
+
+        assertTrue(influence.isBounded());
+        assertTrue("Box inside the range", influence.intersects(box(5, 0, 0)));
+        assertTrue("Box touching the range", influence.intersects(box(10.5f, 0, 0)));
+        assertFalse("Box outside of the range", influence.intersects(box(12, 0, 0)));
+        assertFalse("Corner is further away than the faces", influence.intersects(box(8.5f, 8.5f, 0)));
+    }
+
+    @Test
+    public void testCone() {
+        influence.setSphere(0, 0, 0, 100);
+        // 45 degrees, looking down +z
+        influence.setCone(0, 0, 1, (float) Math.cos(Math.toRadians(45)));
+
+        assertTrue("Box on the axis", influence.intersects(box(0, 0, 20)));
+        assertTrue("Box inside the cone", influence.intersects(box(10, 0, 20)));
+        assertFalse("Box behind the light", influence.intersects(box(0, 0, -20)));
+        assertFalse("Box beside the cone", influence.intersects(box(30, 0, 5)));
+    }
+
+    @Test
+    public void testWideCone() {
+        influence.setSphere(0, 0, 0, 100);
+        influence.setCone(0, 0, 1, -0.5f);
+
+        assertTrue("Cones wider than 180 degrees only use the sphere", influence.intersects(box(0, 0, -20)));
+    }
+
+    private BoundingBox box(float x, float y, float z) {
+        return new BoundingBox(new Vector3f(x, y, z), new Vector3f(1, 1, 1));
+    }
+}
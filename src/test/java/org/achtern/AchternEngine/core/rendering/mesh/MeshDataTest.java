@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.mesh;
+
+import org.achtern.AchternEngine.core.math.Vector2f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class MeshDataTest {
+
+    private static Vertex[] vertices() {
+        return new Vertex[] {
+                new Vertex(new Vector3f(1, 2, 3), new Vector2f(0.5f, 1), new Vector3f(0, 1, 0), new Vector3f(1, 0, 0)),
+                new Vertex(new Vector3f(-1, 0, 1), new Vector2f(0, 0), new Vector3f(0, 0, 1), null)
+        };
+    }
+
+    @Test
+    public void testPack() {
+        float[] packed = MeshData.pack(vertices());
+
+        assertEquals(2 * Vertex.SIZE, packed.length);
+        assertArrayEquals(new float[] {1, 2, 3, 0.5f, 1, 0, 1, 0, 1, 0, 0}, Arrays.copyOf(packed, Vertex.SIZE), 0);
+        assertEquals("Missing tangent should be zero", 0, packed[Vertex.SIZE + Vertex.TANGENT_OFFSET], 0);
+    }
+
+    @Test
+    public void testAccessors() {
+        MeshData data = new MeshData();
+        data.set(vertices(), new int[] {0, 1, 0});
+
+        assertEquals(2, data.getVertexCount());
+        assertEquals(new Vector3f(-1, 0, 1), data.getPosition(1, new Vector3f(0, 0, 0)));
+        assertEquals(new Vector3f(0, 1, 0), data.getNormal(0, new Vector3f(0, 0, 0)));
+        assertEquals(new Vector3f(1, 0, 0), data.getTangent(0, new Vector3f(0, 0, 0)));
+
+        Vector2f tex = data.getTexCoord(0, new Vector2f(0, 0));
+        assertEquals(0.5f, tex.getX(), 0);
+        assertEquals(1, tex.getY(), 0);
+
+        Vertex[] unpacked = data.getVertices();
+        assertEquals(2, unpacked.length);
+        assertEquals(new Vector3f(1, 2, 3), unpacked[0].getPos());
+        assertEquals(new Vector3f(0, 0, 1), unpacked[1].getNormal());
+    }
+
+    @Test
+    public void testInvalidPackedLength() {
+        try {
+            new MeshData().set(new float[Vertex.SIZE + 1], new int[0], 0);
+            fail("Packed data which is not a multiple of Vertex.SIZE should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMeshBounds() {
+        Mesh mesh = new Mesh(vertices(), new int[] {0, 1, 0});
+
+        assertEquals(new BoundingBox(new Vector3f(0, 1, 2), new Vector3f(1, 1, 1)), mesh.getBoundingBox());
+    }
+}
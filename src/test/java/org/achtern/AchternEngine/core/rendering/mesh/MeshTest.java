@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.mesh;
+
+import org.achtern.AchternEngine.core.math.Vector2f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MeshTest {
+
+    private static Mesh triangle() {
+        return new Mesh(new Vertex[] {
+                new Vertex(new Vector3f(0, 0, 0), new Vector2f(0, 0)),
+                new Vertex(new Vector3f(1, 0, 0), new Vector2f(1, 0)),
+                new Vertex(new Vector3f(0, 1, 0), new Vector2f(0, 1))
+        }, new int[] {0, 1, 2}, true);
+    }
+
+    @Test
+    public void testShareUsesSameData() {
+        Mesh original = triangle();
+        original.getData().setID(7);
+
+        Mesh a = original.share();
+        Mesh b = original.share();
+
+        assertSame(original.getData(), a.getData());
+        assertSame(original.getData(), b.getData());
+        assertTrue(a.getData().isShared());
+        assertEquals("Shared data keeps its buffers", 7, b.getData().getID());
+        assertNotSame("Bounds should not be shared", a.getBoundingBox(), b.getBoundingBox());
+        assertEquals(original.getBoundingBox().getExtents(), a.getBoundingBox().getExtents());
+    }
+
+    @Test
+    public void testSharedDataIsImmutable() {
+        Mesh mesh = triangle().share();
+
+        try {
+            mesh.getData().setMode(MeshData.Mode.LINES);
+            fail("Shared data should not be modifiable");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCopyOnWrite() {
+        Mesh original = triangle();
+        original.getData().setID(7);
+        Mesh a = original.share();
+        Mesh b = original.share();
+
+        a.setMode(MeshData.Mode.LINES);
+
+        assertNotSame(b.getData(), a.getData());
+        assertFalse(a.getData().isShared());
+        assertEquals(MeshData.Mode.LINES, a.getData().getMode());
+        assertEquals(MeshData.Mode.TRIANGLES, b.getData().getMode());
+        assertEquals("Copy has to be uploaded again", MeshData.INVALID_ID, a.getData().getID());
+        assertNotSame(b.getData().getPacked(), a.getData().getPacked());
+        assertArrayEquals(b.getData().getPacked(), a.getData().getPacked(), 0);
+
+        MeshData writable = a.getWritableData();
+        assertSame("Unshared data is not copied again", a.getData(), writable);
+    }
+
+    @Test
+    public void testSetSameModeDoesNotCopy() {
+        Mesh original = triangle();
+        Mesh a = original.share();
+
+        a.setMode(MeshData.Mode.TRIANGLES);
+
+        assertSame(original.getData(), a.getData());
+    }
+}
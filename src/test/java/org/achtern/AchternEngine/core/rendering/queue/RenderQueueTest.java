@@ -0,0 +1,204 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.queue;
+
+import org.achtern.AchternEngine.core.Transform;
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.rendering.Material;
+import org.achtern.AchternEngine.core.rendering.RenderEngine;
+import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
+import org.achtern.AchternEngine.core.rendering.drawing.DrawStrategy;
+import org.achtern.AchternEngine.core.rendering.drawing.InstancedDrawStrategy;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.rendering.shader.Shader;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.FloatBuffer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class RenderQueueTest {
+
+    @Mock Figure figure;
+    @Mock Shader shader;
+    @Mock DrawStrategy drawStrategy;
+    @Mock RenderEngine renderEngine;
+
+    private RenderQueue queue;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        queue = new RenderQueue();
+    }
+
+    @Test
+    public void testKeyOrder() {
+        assertTrue("Shader has the highest priority",
+                RenderQueue.key(1, 9, 9, 100) < RenderQueue.key(2, 0, 0, 0));
+        assertTrue("Texture before mesh",
+                RenderQueue.key(1, 1, 9, 100) < RenderQueue.key(1, 2, 0, 0));
+        assertTrue("Mesh before depth",
+                RenderQueue.key(1, 1, 1, 100) < RenderQueue.key(1, 1, 2, 0));
+        assertTrue("Front to back",
+                RenderQueue.key(1, 1, 1, 1) < RenderQueue.key(1, 1, 1, 2));
+    }
+
+    @Test
+    public void testKeyIgnoresInvalidValues() {
+        assertTrue("Negative ids should not overflow into other fields",
+                RenderQueue.key(-1, 0, 0, 0) > RenderQueue.key(0, -1, -1, 0));
+        assertEquals("Negative depth is clamped",
+                RenderQueue.key(1, 1, 1, 0), RenderQueue.key(1, 1, 1, -5));
+    }
+
+    @Test
+    public void testSortAndFlush() {
+        queue.add(figure, shader, drawStrategy, 3);
+        queue.add(figure, shader, drawStrategy, 1);
+        queue.add(figure, shader, drawStrategy, 2);
+
+        queue.sort(0);
+
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.get(0).getKey());
+        assertEquals(2, queue.get(1).getKey());
+        assertEquals(3, queue.get(2).getKey());
+
+        queue.flush(0, renderEngine);
+
+        verify(figure, times(3)).draw(renderEngine, shader, drawStrategy);
+        assertEquals("Flush should empty the queue", 0, queue.size());
+        assertEquals(3, queue.getSubmitted());
+    }
+
+    @Test
+    public void testGrow() {
+        for (int i = 0; i < 100; i++) {
+            queue.add(figure, shader, drawStrategy, 100 - i);
+        }
+        queue.sort(0);
+
+        assertEquals(100, queue.size());
+        assertEquals(1, queue.get(0).getKey());
+        assertEquals(100, queue.get(99).getKey());
+    }
+
+    @Test
+    public void testInstancedGroup() {
+        InstancedDrawStrategy instanced = mock(InstancedDrawStrategy.class);
+        DataBinder binder = mock(DataBinder.class);
+        Mesh mesh = mock(Mesh.class);
+        MeshData data = mock(MeshData.class);
+        Material material = mock(Material.class);
+
+        when(renderEngine.getDataBinder()).thenReturn(binder);
+        when(shader.supportsInstancing()).thenReturn(true);
+        when(mesh.getData()).thenReturn(data);
+
+        Figure a = instanceFigure(mesh, material, 1);
+        Figure b = instanceFigure(mesh, material, 2);
+        Figure c = instanceFigure(mesh, material, 3);
+        Figure other = instanceFigure(mesh, mock(Material.class), 4);
+
+        queue.add(a, shader, instanced, 1);
+        queue.add(b, shader, instanced, 2);
+        queue.add(c, shader, instanced, 3);
+        // drawn first, the instance buffer is reused by the following group
+        queue.add(other, shader, instanced, 0);
+
+        queue.sort(0);
+        queue.flush(0, renderEngine);
+
+        ArgumentCaptor<FloatBuffer> models = ArgumentCaptor.forClass(FloatBuffer.class);
+        verify(instanced).drawInstanced(eq(binder), eq(mesh), models.capture(), eq(3));
+        verify(shader).updateUniforms(eq(renderEngine), eq(a), any(Matrix4f.class));
+        verify(a, never()).draw(renderEngine, shader, instanced);
+        // single figures have to be transformed like their instanced siblings in other passes
+        verify(instanced).drawInstanced(eq(binder), eq(mesh), any(FloatBuffer.class), eq(1));
+        verify(other, never()).draw(renderEngine, shader, instanced);
+
+        FloatBuffer buffer = models.getValue();
+        assertEquals("16 floats per instance", 3 * 16, buffer.remaining());
+        assertEquals("Column-major, translation in elements 12-14", 1, buffer.get(12), 0);
+        assertEquals(2, buffer.get(16 + 12), 0);
+        assertEquals(3, buffer.get(32 + 12), 0);
+
+        assertEquals(4, queue.getSubmitted());
+        assertEquals("One draw per group", 2, queue.getDrawCalls());
+    }
+
+    @Test
+    public void testInstancingDisabled() {
+        InstancedDrawStrategy instanced = mock(InstancedDrawStrategy.class);
+        Mesh mesh = mock(Mesh.class);
+        Material material = mock(Material.class);
+        when(shader.supportsInstancing()).thenReturn(true);
+        when(mesh.getData()).thenReturn(mock(MeshData.class));
+
+        Figure a = instanceFigure(mesh, material, 1);
+        Figure b = instanceFigure(mesh, material, 2);
+        queue.add(a, shader, instanced, 1);
+        queue.add(b, shader, instanced, 2);
+
+        queue.setInstancing(false);
+        queue.flush(0, renderEngine);
+
+        verify(a).draw(renderEngine, shader, instanced);
+        verify(b).draw(renderEngine, shader, instanced);
+        verify(instanced, never()).drawInstanced(any(DataBinder.class), any(Mesh.class), any(FloatBuffer.class), anyInt());
+        assertEquals(2, queue.getDrawCalls());
+
+        queue.add(a, shader, instanced, 1);
+        queue.flush(0, renderEngine);
+        assertEquals(1, queue.getDrawCalls());
+        assertEquals("Total counts all render calls", 3, queue.getTotalDrawCalls());
+    }
+
+    private Figure instanceFigure(Mesh mesh, Material material, float x) {
+        Figure f = mock(Figure.class);
+        Transform transform = mock(Transform.class);
+        Matrix4f world = new Matrix4f().initTranslation(x, 0, 0);
+
+        when(f.getMesh()).thenReturn(mesh);
+        when(f.getMaterial()).thenReturn(material);
+        when(f.getTransform()).thenReturn(transform);
+        when(transform.getTransformation()).thenReturn(world);
+
+        return f;
+    }
+
+    @Test
+    public void testCollecting() {
+        assertFalse("Queue should only collect while rendering", queue.isCollecting());
+    }
+}
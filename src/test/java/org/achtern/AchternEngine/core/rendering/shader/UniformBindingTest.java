@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.rendering.shader;
+
+import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.Uniform;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.achtern.AchternEngine.core.rendering.shader.UniformBinding.Semantic.*;
+import static org.junit.Assert.*;
+
+public class UniformBindingTest {
+
+    @Test
+    public void testResolveByType() {
+        assertEquals(SAMPLER, UniformBinding.resolve("sampler2D", "diffuse"));
+        assertEquals(LIGHT, UniformBinding.resolve("PointLight", "pointLight"));
+        assertEquals(LIGHT, UniformBinding.resolve("spotlight", "spotLight"));
+        assertEquals(FOG, UniformBinding.resolve("Fog", "fog"));
+    }
+
+    @Test
+    public void testResolveByName() {
+        assertEquals(COLOR, UniformBinding.resolve("vec4", "color"));
+        assertEquals(MVP, UniformBinding.resolve("mat4", "MVP"));
+        assertEquals(MODEL, UniformBinding.resolve("mat4", "model"));
+        assertEquals(MODEL_VIEW, UniformBinding.resolve("mat4", "modelView"));
+        assertEquals(EYE_POS, UniformBinding.resolve("vec3", "eyePos"));
+        assertEquals(SHADOW_MATRIX, UniformBinding.resolve("mat4", "shadowMatrix"));
+    }
+
+    @Test
+    public void testResolveMaterial() {
+        assertEquals(MATERIAL_FLOAT, UniformBinding.resolve("float", "specularPower"));
+        assertEquals(MATERIAL_VEC3, UniformBinding.resolve("vec3", "offset"));
+        assertEquals(MATERIAL_MAT4, UniformBinding.resolve("mat4", "bias"));
+        assertEquals(MATERIAL_VEC4, UniformBinding.resolve("vec4", "tint"));
+        assertEquals(MATERIAL_INT, UniformBinding.resolve("int", "count"));
+        assertEquals(CUSTOM, UniformBinding.resolve("vec2", "WIN_SCALE"));
+    }
+
+    @Test
+    public void testOfKeepsOrder() {
+        Uniform a = new Uniform("mat4", "MVP");
+        Uniform b = new Uniform("sampler2D", "diffuse");
+
+        UniformBinding[] bindings = UniformBinding.of(Arrays.asList(a, b));
+
+        assertEquals(2, bindings.length);
+        assertSame(a, bindings[0].getUniform());
+        assertEquals(MVP, bindings[0].getSemantic());
+        assertSame(b, bindings[1].getUniform());
+        assertEquals(SAMPLER, bindings[1].getSemantic());
+    }
+}
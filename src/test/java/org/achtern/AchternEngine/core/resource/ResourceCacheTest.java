@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.resource;
+
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ResourceCacheTest {
+
+    private static ResourceCache<String> cache(long maxWeight, ResourceCache.EvictionPolicy policy) {
+        // every char weighs 2 bytes
+        return new ResourceCache<String>(maxWeight, policy, new ResourceWeigher());
+    }
+
+    @Test
+    public void testLRUEviction() {
+        ResourceCache<String> cache = cache(12, ResourceCache.EvictionPolicy.LRU);
+        cache.add("a", "aa");
+        cache.add("b", "bb");
+        cache.add("c", "cc");
+
+        // touch a, so b is the least recently used
+        cache.get("a");
+        cache.add("d", "dd");
+
+        assertFalse(cache.has("b"));
+        assertTrue(cache.has("a"));
+        assertTrue(cache.has("d"));
+        assertEquals(12, cache.getWeight());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testLFUEviction() {
+        ResourceCache<String> cache = cache(12, ResourceCache.EvictionPolicy.LFU);
+        cache.add("a", "aa");
+        cache.add("b", "bb");
+        cache.add("c", "cc");
+
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        cache.get("b");
+        cache.get("c");
+        cache.add("d", "dd");
+
+        assertFalse("Least frequently used entry should be evicted", cache.has("c"));
+        assertTrue(cache.has("a"));
+        assertTrue(cache.has("b"));
+    }
+
+    @Test
+    public void testPinning() {
+        ResourceCache<String> cache = cache(8, ResourceCache.EvictionPolicy.LRU);
+        cache.pin("a");
+        cache.add("a", "aa");
+        cache.add("b", "bb");
+        cache.add("c", "cc");
+
+        assertTrue("Pinned entries must not be evicted", cache.has("a"));
+        assertFalse(cache.has("b"));
+
+        cache.clear();
+        assertTrue("Pins survive clearing", cache.isPinned("a"));
+    }
+
+    @Test
+    public void testOversizedEntryIsKept() {
+        ResourceCache<String> cache = cache(4, ResourceCache.EvictionPolicy.LRU);
+        cache.add("a", "a");
+        cache.add("big", "bigger");
+
+        assertTrue(cache.has("big"));
+        assertFalse(cache.has("a"));
+    }
+
+    @Test
+    public void testReplaceUpdatesWeight() {
+        ResourceCache<String> cache = cache(ResourceCache.UNBOUNDED, ResourceCache.EvictionPolicy.LRU);
+        cache.add("a", "aaaa");
+        cache.add("a", "a");
+
+        assertEquals(2, cache.getWeight());
+        cache.remove("a");
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void testStatistics() {
+        ResourceCache<String> cache = new ResourceCache<String>();
+        cache.add("a", "a");
+
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2 / 3d, cache.getHitRate(), 1e-9);
+
+        cache.resetStatistics();
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testShrinkEvicts() {
+        ResourceCache<String> cache = new ResourceCache<String>();
+        cache.add("a", "aa");
+        cache.add("b", "bb");
+
+        cache.setMaxWeight(4);
+
+        assertEquals(1, cache.size());
+        assertTrue(cache.has("b"));
+    }
+
+    @Test
+    public void testMeshesInUseAreNotEvicted() {
+        Mesh shared = mesh();
+        Mesh uploaded = mesh();
+        uploaded.getData().setID(1);
+        ResourceCache<Mesh> cache = new ResourceCache<Mesh>(
+                new ResourceWeigher().weigh("a", shared), ResourceCache.EvictionPolicy.LRU, new ResourceWeigher()
+        );
+
+        cache.add("shared", shared);
+        shared.share();
+        cache.add("uploaded", uploaded);
+        cache.add("unused", mesh());
+        cache.add("new", mesh());
+
+        assertTrue("Shared meshes would not free any memory", cache.has("shared"));
+        assertTrue("Uploaded meshes would not free any memory", cache.has("uploaded"));
+        assertFalse(cache.has("unused"));
+        assertTrue(cache.has("new"));
+    }
+
+    private static Mesh mesh() {
+        MeshData data = new MeshData();
+        data.set(new float[3 * Vertex.SIZE], new int[] {0, 1, 2}, 3);
+        return new Mesh(data);
+    }
+}
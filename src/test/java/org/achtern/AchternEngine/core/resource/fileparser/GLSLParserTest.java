@@ -0,0 +1,55 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.resource.fileparser;
+
+import org.achtern.AchternEngine.core.resource.fileparser.caseclasses.Variable;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class GLSLParserTest {
+
+    @Test
+    public void testInputs() {
+        String source = "#version 330\n" +
+                "\n" +
+                "layout (location = 0) in vec3 position;\n" +
+                "in vec2 texCoord;\n" +
+                "// layout (location = 4) in mat4 commented;\n" +
+                "  layout(location=4) in mat4 instanceModel;\n" +
+                "out vec2 texCoord0;\n" +
+                "uniform mat4 MVP;\n" +
+                "void main() { int index = 0; }\n";
+
+        List<Variable> inputs = new GLSLParser().getInputs(source);
+
+        assertEquals(3, inputs.size());
+        assertEquals(new Variable("vec3", "position"), inputs.get(0));
+        assertEquals(new Variable("vec2", "texCoord"), inputs.get(1));
+        assertEquals(new Variable("mat4", "instanceModel"), inputs.get(2));
+    }
+}
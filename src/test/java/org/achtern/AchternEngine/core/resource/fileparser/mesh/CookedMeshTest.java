@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.resource.fileparser.mesh;
+
+import org.achtern.AchternEngine.core.math.Vector2f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.resource.BasicResourceLoader;
+import org.achtern.AchternEngine.core.resource.loader.LoadingException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class CookedMeshTest {
+
+    private static Mesh mesh() {
+        Mesh mesh = new Mesh(new Vertex[] {
+                new Vertex(new Vector3f(0, 0, 0), new Vector2f(0, 0), new Vector3f(0, 0, 1), new Vector3f(1, 0, 0)),
+                new Vertex(new Vector3f(1, 0, 0), new Vector2f(1, 0), new Vector3f(0, 0, 1), new Vector3f(1, 0, 0)),
+                new Vertex(new Vector3f(0, 2, 0), new Vector2f(0, 1), new Vector3f(0, 0, 1), new Vector3f(1, 0, 0))
+        }, new int[] {0, 1, 2});
+        mesh.setMode(MeshData.Mode.LINE_LOOP);
+        return mesh;
+    }
+
+    private static void assertSameMesh(Mesh expected, Mesh actual) {
+        assertArrayEquals(expected.getData().getPacked(), actual.getData().getPacked(), 0);
+        assertArrayEquals(expected.getData().getIndices(), actual.getData().getIndices());
+        assertEquals(expected.getData().getSize(), actual.getData().getSize());
+        assertEquals(expected.getData().getMode(), actual.getData().getMode());
+        assertEquals(expected.getBoundingBox(), actual.getBoundingBox());
+    }
+
+    @Test
+    public void testMapped() throws Exception {
+        Mesh mesh = mesh();
+
+        File file = File.createTempFile("cooked", CookedMesh.EXTENSION);
+        file.deleteOnExit();
+        CookedMesh.write(mesh, 42, file);
+
+        CookedMesh cooked = CookedMesh.map(file);
+        assertEquals(42, cooked.getStamp());
+
+        Mesh loaded = cooked.toMesh();
+
+        assertNotNull("Mapped data should be kept as buffer", loaded.getData().getVertexBuffer());
+        assertEquals(3, loaded.getData().getVertexCount());
+        assertEquals(new Vector3f(0, 2, 0), loaded.getData().getPosition(2, new Vector3f(0, 0, 0)));
+
+        assertSameMesh(mesh, loaded);
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        Mesh mesh = mesh();
+
+        File file = File.createTempFile("cooked", CookedMesh.EXTENSION);
+        file.deleteOnExit();
+        CookedMesh.write(mesh, 42, file);
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        assertEquals(CookedMesh.HEADER_SIZE + (3 * Vertex.SIZE + 3) * 4, bytes.length);
+
+        assertSameMesh(mesh, CookedMesh.read(new ByteArrayInputStream(bytes)).toMesh());
+        assertSameMesh(mesh, CookedMesh.read(ByteBuffer.wrap(bytes)).toMesh());
+    }
+
+    @Test(expected = LoadingException.class)
+    public void testInvalid() throws Exception {
+        CookedMesh.read(ByteBuffer.wrap(new byte[CookedMesh.HEADER_SIZE]));
+    }
+
+    @Test
+    public void testResourceLoaderCooksMeshes() throws Exception {
+        File directory = Files.createTempDirectory("cooked").toFile();
+        directory.deleteOnExit();
+
+        BasicResourceLoader loader = new BasicResourceLoader();
+        loader.setCookedMeshDirectory(directory);
+        Mesh parsed = loader.getMesh("cube.obj");
+
+        File cooked = new File(directory, "cube.obj" + CookedMesh.EXTENSION);
+        cooked.deleteOnExit();
+        assertTrue("Cooked file should be written", cooked.isFile());
+        long stamp = CookedMesh.map(cooked).getStamp();
+
+        assertSame("Cooked and parsed meshes should share the data",
+                parsed.getData(), loader.getMesh("cube.obj").getData());
+
+        // a new loader has an empty cache
+        loader = new BasicResourceLoader();
+        loader.setCookedMeshDirectory(directory);
+        assertSameMesh(parsed, loader.getMesh("cube.obj"));
+        assertTrue("Mesh should be cached by its name", loader.getBinaryCache().has("cube.obj"));
+
+        // outdated cooked file
+        CookedMesh.write(mesh(), stamp + 1, cooked);
+        loader = new BasicResourceLoader();
+        loader.setCookedMeshDirectory(directory);
+        assertSameMesh(parsed, loader.getMesh("cube.obj"));
+        assertEquals("Outdated file should be cooked again", stamp, CookedMesh.map(cooked).getStamp());
+    }
+
+    @Test
+    public void testStampIsOnlyReadOnMiss() throws Exception {
+        File directory = Files.createTempDirectory("cooked").toFile();
+        directory.deleteOnExit();
+
+        StampedLoader loader = new StampedLoader(0);
+        loader.setCookedMeshDirectory(directory);
+        File cooked = new File(directory, "cube.obj" + CookedMesh.EXTENSION);
+        cooked.deleteOnExit();
+
+        loader.getMesh("cube.obj");
+        assertFalse("Sources with unknown stamp should not be cooked", cooked.isFile());
+
+        loader.getMesh("cube.obj");
+        assertEquals("Cache hits should not read the stamp", 1, loader.stamps);
+
+        // a cooked file cannot be validated against an unknown stamp
+        CookedMesh.write(mesh(), 0, cooked);
+        loader = new StampedLoader(0);
+        loader.setCookedMeshDirectory(directory);
+        assertNotEquals(3, loader.getMesh("cube.obj").getData().getVertexCount());
+    }
+
+    private static class StampedLoader extends BasicResourceLoader {
+
+        final long stamp;
+        int stamps;
+
+        StampedLoader(long stamp) {
+            this.stamp = stamp;
+        }
+
+        @Override
+        protected long getStamp(String name) {
+            stamps++;
+            return stamp;
+        }
+    }
+}
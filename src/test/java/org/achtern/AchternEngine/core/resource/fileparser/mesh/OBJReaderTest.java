@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.resource.fileparser.mesh;
+
+import org.achtern.AchternEngine.core.math.Vector2f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.resource.loader.LoadingException;
+import org.achtern.AchternEngine.core.resource.loader.MeshLoader;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+public class OBJReaderTest {
+
+    private static OBJReader read(String obj) throws Exception {
+        return new OBJReader().read(new ByteArrayInputStream(obj.getBytes(Charset.forName("UTF-8"))));
+    }
+
+    private static byte[] resource(String name) throws Exception {
+        InputStream in = OBJReaderTest.class.getResourceAsStream(name);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            out.write(chunk, 0, read);
+        }
+        in.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testQuad() throws Exception {
+        OBJReader reader = read(
+                "# a quad\n" +
+                "o Quad\n" +
+                "v 0 0 0\n" +
+                "v\t1.5 0 0\r\n" +
+                "v 1.5 -2e-1 0   # trailing comment\n" +
+                "v 0 +0.5E1 0\n" +
+                "vt 0 0\nvt 1 0\nvt 1 1\nvt 0 1\n" +
+                "vn 0 0 1\n" +
+                "\n" +
+                "f 1/1/1 2/2/1 3/3/1 -1/-1/-1\n"
+        );
+
+        assertEquals(4, reader.getPositionCount());
+        assertEquals("Quad should be split into 2 triangles", 2, reader.getTriangleCount());
+
+        MeshData data = reader.toMeshData();
+        assertEquals(4, data.getVertexCount());
+        assertArrayEquals(new int[] {0, 1, 2, 0, 2, 3}, data.getIndices());
+
+        assertEquals(new Vector3f(1.5f, -0.2f, 0), data.getPosition(2, new Vector3f(0, 0, 0)));
+        assertEquals(new Vector3f(0, 5, 0), data.getPosition(3, new Vector3f(0, 0, 0)));
+        assertEquals(new Vector3f(0, 0, 1), data.getNormal(3, new Vector3f(0, 0, 0)));
+
+        Vector2f tex = data.getTexCoord(2, new Vector2f(0, 0));
+        assertEquals(1, tex.getX(), 0);
+        assertEquals("V should be flipped", 0, tex.getY(), 0);
+    }
+
+    @Test
+    public void testSmoothNormals() throws Exception {
+        MeshData data = read("v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n").toMeshData();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(new Vector3f(0, 0, 1), data.getNormal(i, new Vector3f(0, 0, 0)));
+        }
+    }
+
+    @Test
+    public void testNonAsciiBytes() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("v 0 0 0\nv 1 0 0\nv 0 1 0\n".getBytes(Charset.forName("UTF-8")));
+        out.write(0xFF);
+        out.write(" comment\nf 1 2 3\n".getBytes(Charset.forName("UTF-8")));
+
+        OBJReader reader = new OBJReader().read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("0xFF must not end the stream", 1, reader.getTriangleCount());
+    }
+
+    @Test(expected = LoadingException.class)
+    public void testInvalidIndex() throws Exception {
+        read("v 0 0 0\nf 1 2 3\n");
+    }
+
+    @Test
+    public void testSameAsOBJParser() throws Exception {
+        for (String name : new String[] {"/models/cube.obj", "/models/monkey.obj", "/models/torus.obj"}) {
+            byte[] bytes = resource(name);
+
+            MeshLoader loader = new MeshLoader();
+            loader.load(name, new String(bytes, Charset.forName("UTF-8")));
+            Mesh expected = loader.get();
+
+            Mesh actual = new OBJReader().read(new ByteArrayInputStream(bytes)).toMesh();
+
+            MeshData e = expected.getData();
+            MeshData a = actual.getData();
+
+            assertEquals(name, e.getVertexCount(), a.getVertexCount());
+            assertArrayEquals(name, e.getIndices(), a.getIndices());
+
+            float[] ep = e.getPacked();
+            float[] ap = a.getPacked();
+            for (int i = 0; i < ep.length; i++) {
+                // tangents are calculated differently
+                if (i % Vertex.SIZE >= Vertex.TANGENT_OFFSET) continue;
+                assertEquals(name + " float " + i, ep[i], ap[i], 1e-5);
+            }
+
+            assertEquals(name, expected.getBoundingBox(), actual.getBoundingBox());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.resource.fileparser.texture;
+
+import org.achtern.AchternEngine.core.rendering.Dimension;
+import org.achtern.AchternEngine.core.rendering.texture.*;
+import org.achtern.AchternEngine.core.resource.BasicResourceLoader;
+import org.achtern.AchternEngine.core.resource.loader.LoadingException;
+import org.achtern.AchternEngine.core.util.UBuffer;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class CookedTextureTest {
+
+    private static Texture texture() {
+        ByteBuffer data = UBuffer.createByteBuffer(2 * 3 * 3);
+        for (int i = 0; i < data.capacity(); i++) {
+            data.put((byte) i);
+        }
+        data.flip();
+
+        return new Texture(new Dimension(2, 3), Type.TWO_DIMENSIONAL, Filter.LINEAR, Filter.NEAREST,
+                InternalFormat.RGBA8, Format.RGB, false, data);
+    }
+
+    @Test
+    public void testMapped() throws Exception {
+        Texture texture = texture();
+
+        File file = File.createTempFile("cooked", CookedTexture.EXTENSION);
+        file.deleteOnExit();
+        CookedTexture.write(texture, 42, file);
+
+        CookedTexture cooked = CookedTexture.map(file);
+        assertEquals(42, cooked.getStamp());
+        assertTrue("Mapped data should be direct", cooked.getData().isDirect());
+
+        Texture loaded = cooked.toTexture();
+        assertEquals(2, loaded.getWidth());
+        assertEquals(3, loaded.getHeight());
+        assertFalse(loaded.hasAlpha());
+        assertEquals(Format.RGB, loaded.getFormat());
+        assertEquals(Filter.LINEAR, loaded.getMinFilter());
+        assertEquals(Filter.NEAREST, loaded.getMagFilter());
+        assertEquals(texture.getData(), loaded.getData());
+    }
+
+    @Test(expected = LoadingException.class)
+    public void testInvalid() throws Exception {
+        CookedTexture.read(ByteBuffer.allocate(CookedTexture.HEADER_SIZE));
+    }
+
+    @Test
+    public void testResourceLoaderCooksTextures() throws Exception {
+        File directory = Files.createTempDirectory("cooked").toFile();
+        directory.deleteOnExit();
+
+        BasicResourceLoader loader = new BasicResourceLoader();
+        loader.setCookedTextureDirectory(directory);
+        Texture decoded = loader.getTexture("missing.jpg");
+
+        File cooked = new File(directory, "missing.jpg" + CookedTexture.EXTENSION);
+        cooked.deleteOnExit();
+        assertTrue("Cooked file should be written", cooked.isFile());
+
+        // a new loader has an empty cache
+        loader = new BasicResourceLoader();
+        loader.setCookedTextureDirectory(directory);
+        Texture mapped = loader.getTexture("missing.jpg");
+        assertTrue("Texture should be cached by its name", loader.getBinaryCache().has("missing.jpg"));
+
+        assertEquals(decoded.getWidth(), mapped.getWidth());
+        assertEquals(decoded.getHeight(), mapped.getHeight());
+        assertEquals(decoded.hasAlpha(), mapped.hasAlpha());
+        assertEquals(decoded.getData(), mapped.getData());
+    }
+
+    @Test
+    public void testResizedTexturesAreCachedSeparately() throws Exception {
+        BasicResourceLoader loader = new BasicResourceLoader();
+        loader.getTexture("missing.jpg", new Dimension(2, 2));
+
+        assertTrue(loader.getBinaryCache().has("missing.jpg.2x2"));
+        assertFalse("Resized textures must not replace the original", loader.getBinaryCache().has("missing.jpg"));
+    }
+}
@@ -26,8 +26,15 @@ package org.achtern.AchternEngine.core.scenegraph;
 
 import org.achtern.AchternEngine.core.CoreEngine;
 import org.achtern.AchternEngine.core.Transform;
+import org.achtern.AchternEngine.core.math.Vector3f;
 import org.achtern.AchternEngine.core.rendering.RenderEngine;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.scenegraph.entity.Camera;
 import org.achtern.AchternEngine.core.scenegraph.entity.Entity;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.achtern.AchternEngine.core.scenegraph.entity.QuickEntity;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -297,5 +304,39 @@ public class NodeTest {
 
     }
 
+    @Test
+    public void testWorldBoundsUnbounded() {
+        Node root = new Node();
+        Node bounded = new Node().add(new Figure(triangle())).add(new Camera());
+        root.add(bounded);
+
+        assertNotNull("Figures and non-rendering entities should have bounds", bounded.getWorldBounds(1));
+        assertNotNull("Parent of bounded content should have bounds", root.getWorldBounds(1));
+
+        Node unboundedFigure = new Node().add(new Figure(new Mesh(new MeshData())));
+        root.add(unboundedFigure);
+
+        assertNull("Figure without bounds should not have world bounds", unboundedFigure.getWorldBounds(2));
+        assertNull("Unbounded child should make the parent unbounded", root.getWorldBounds(2));
+
+        root.remove(unboundedFigure);
+        Node selfRendering = new Node().add(new Figure(triangle())).add(new QuickEntity() {
+            @Override
+            public void render(RenderEngine renderEngine) {
+            }
+        });
+        root.add(selfRendering);
+
+        assertNull("Entity rendering itself should not have world bounds", selfRendering.getWorldBounds(3));
+        assertNull("Entity rendering itself should make the parent unbounded", root.getWorldBounds(3));
+    }
+
+    protected Mesh triangle() {
+        return new Mesh(new Vertex[] {
+                new Vertex(new Vector3f(0, 0, 0)),
+                new Vertex(new Vector3f(1, 0, 0)),
+                new Vertex(new Vector3f(0, 1, 0))
+        }, new int[] {0, 1, 2});
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.scenegraph.batching;
+
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.math.Vector2f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.Material;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.BatchedMesh;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.mesh.MeshData;
+import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class StaticBatcherTest {
+
+    private StaticBatcher batcher;
+    private Material stone;
+    private Material wood;
+    private Node level;
+
+    @Before
+    public void setUp() {
+        batcher = new StaticBatcher();
+        stone = mock(Material.class);
+        wood = mock(Material.class);
+        level = new Node("level");
+    }
+
+    private Node place(String name, Material material, float x, float y, float z) {
+        Node node = new Node(name).add(new Figure(name, triangle(), material));
+        node.getTransform().setPosition(new Vector3f(x, y, z));
+        level.add(node);
+        return node;
+    }
+
+    private static Mesh triangle() {
+        Vector3f normal = new Vector3f(0, 0, 1);
+        return new Mesh(new Vertex[] {
+                new Vertex(new Vector3f(0, 0, 0), new Vector2f(0, 0), normal),
+                new Vertex(new Vector3f(1, 0, 0), new Vector2f(1, 0), normal),
+                new Vertex(new Vector3f(0, 1, 0), new Vector2f(0, 1), normal)
+        }, new int[] {0, 1, 2});
+    }
+
+    @Test
+    public void testGroupsByMaterial() {
+        place("a", stone, 0, 0, 0);
+        place("b", stone, 10, 0, 0);
+        place("c", wood, 0, 5, 0);
+
+        Node batched = batcher.batch(level);
+
+        assertEquals("One batch per material", 2, batched.getEntities().size());
+
+        Figure first = (Figure) batched.getEntities().get(0);
+        assertSame(stone, first.getMaterial());
+        assertEquals(6, first.getMesh().getData().getVertexCount());
+        assertArrayEquals("Indices should be offset per source",
+                new int[] {0, 1, 2, 3, 4, 5}, first.getMesh().getData().getIndices());
+
+        Vector3f pos = first.getMesh().getData().getPosition(4, new Vector3f(0, 0, 0));
+        assertEquals("Transform should be baked into the vertices", 11, pos.getX(), 1e-5);
+
+        BatchedMesh mesh = (BatchedMesh) first.getMesh();
+        assertEquals(2, mesh.getRanges().size());
+        assertEquals("b", mesh.getRanges().get(1).getName());
+        assertEquals(3, mesh.getRanges().get(1).getOffset());
+        assertEquals(3, mesh.getRanges().get(1).getCount());
+        assertEquals("Range bounds should be in world space",
+                10.5f, mesh.getRanges().get(1).getBounds().getCenter().getX(), 1e-5);
+
+        assertEquals("Source graph untouched", 3, level.numberOfEntities());
+    }
+
+    @Test
+    public void testRemove() {
+        place("a", stone, 0, 0, 0);
+        place("b", stone, 1, 0, 0);
+
+        batcher.batch(level, true);
+
+        assertEquals("Merged figures should be removed", 0, level.numberOfEntities());
+    }
+
+    @Test
+    public void testMaxVertices() {
+        place("a", stone, 0, 0, 0);
+        place("b", stone, 1, 0, 0);
+        place("c", stone, 2, 0, 0);
+        batcher.setMaxVertices(6);
+
+        assertEquals(2, batcher.batch(level).getEntities().size());
+    }
+
+    @Test
+    public void testNormalsWithNonUniformScale() {
+        float[] src = MeshData.pack(new Vertex[] {
+                new Vertex(new Vector3f(0, 0, 0), new Vector2f(0, 0), new Vector3f(1, 1, 0).normalized())
+        });
+        float[] dest = new float[Vertex.SIZE];
+
+        StaticBatcher.transform(src, 1, new Matrix4f().initScale(2, 1, 1), dest, 0);
+
+        // the surface x + y = c becomes x / 2 + y = c, its normal is (1, 2, 0)
+        Vector3f expected = new Vector3f(1, 2, 0).normalized();
+        assertEquals(expected.getX(), dest[Vertex.NORMAL_OFFSET], 1e-5);
+        assertEquals(expected.getY(), dest[Vertex.NORMAL_OFFSET + 1], 1e-5);
+        assertEquals(0, dest[Vertex.NORMAL_OFFSET + 2], 1e-5);
+    }
+
+    @Test
+    public void testMirroredWinding() {
+        Node node = place("a", stone, 0, 0, 0);
+        node.getTransform().setScale(new Vector3f(-1, 1, 1));
+
+        Figure batch = (Figure) batcher.batch(level).getEntities().get(0);
+
+        assertArrayEquals("Mirroring should flip the winding back",
+                new int[] {0, 2, 1}, batch.getMesh().getData().getIndices());
+
+        Vector3f normal = batch.getMesh().getData().getNormal(0, new Vector3f(0, 0, 0));
+        assertEquals("Mirroring along x should keep the normal", 0, normal.getX(), 1e-5);
+        assertEquals("Mirroring along x should keep the normal", 1, normal.getZ(), 1e-5);
+    }
+
+    @Test
+    public void testLineLoopsAreNotMerged() {
+        for (int i = 0; i < 3; i++) {
+            Figure figure = (Figure) place("loop" + i, stone, i, 0, 0).getEntities().get(0);
+            figure.getMesh().setMode(MeshData.Mode.LINE_LOOP);
+        }
+
+        assertEquals("Merged loops would be connected", 0, batcher.batch(level, true).getEntities().size());
+        assertEquals("Line loops should stay in the scenegraph", 3, level.numberOfEntities());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.scenegraph.bounding;
+
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.math.Quaternion;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AABBTest {
+
+    @Test
+    public void testInclude() {
+        AABB aabb = new AABB();
+        assertTrue("New box should be empty", aabb.isEmpty());
+
+        aabb.include(1, 2, 3).include(-1, 5, 0);
+        assertFalse(aabb.isEmpty());
+        assertArrayEquals(new float[] {-1, 2, 0}, aabb.getMin(), 0);
+        assertArrayEquals(new float[] {1, 5, 3}, aabb.getMax(), 0);
+
+        aabb.include(new AABB().include(10, 0, 0));
+        assertEquals(10, aabb.getMax()[0], 0);
+        assertEquals(0, aabb.getMin()[1], 0);
+    }
+
+    @Test
+    public void testIncludeInterleaved() {
+        // position + 2 floats of other data per vertex
+        float[] data = {
+                0, 0, 0, 9, 9,
+                2, -1, 4, 9, 9,
+                -3, 1, 1, 9, 9
+        };
+
+        AABB aabb = new AABB().include(data, 0, 5, 3);
+        assertArrayEquals(new float[] {-3, -1, 0}, aabb.getMin(), 0);
+        assertArrayEquals(new float[] {2, 1, 4}, aabb.getMax(), 0);
+
+        BoundingBox bb = aabb.toBoundingBox(new BoundingBox(), 0);
+        assertEquals(new BoundingBox(new Vector3f(-0.5f, 0, 2), new Vector3f(2.5f, 1, 2)), bb);
+    }
+
+    @Test
+    public void testTransform() {
+        AABB local = new AABB(new BoundingBox(new Vector3f(1, 0, 0), new Vector3f(1, 2, 3)));
+
+        AABB world = new AABB().transform(local, new Matrix4f().initTranslation(10, 0, 0));
+        assertArrayEquals(new float[] {10, -2, -3}, world.getMin(), 1e-5f);
+        assertArrayEquals(new float[] {12, 2, 3}, world.getMax(), 1e-5f);
+
+        // rotated by 90 degrees around y, x and z extents are swapped
+        Matrix4f rotation = new Matrix4f().initRotation(new Quaternion(new Vector3f(0, 1, 0), (float) Math.toRadians(90)));
+        world.transform(local, rotation);
+        assertEquals(6, world.getMax()[0] - world.getMin()[0], 1e-5);
+        assertEquals(4, world.getMax()[1] - world.getMin()[1], 1e-5);
+        assertEquals(2, world.getMax()[2] - world.getMin()[2], 1e-5);
+    }
+
+    @Test
+    public void testIntersects() {
+        AABB a = new AABB().set(0, 0, 0, 1, 1, 1);
+
+        assertTrue("Touching boxes should intersect", a.intersects(new AABB().set(2, 0, 0, 1, 1, 1)));
+        assertFalse(a.intersects(new AABB().set(3, 0, 0, 1, 1, 1)));
+
+        assertTrue(a.intersectsSphere(2, 0, 0, 1.5f));
+        assertFalse("Sphere near the corner should miss", a.intersectsSphere(2, 2, 2, 1.5f));
+    }
+
+    @Test
+    public void testRay() {
+        AABB a = new AABB().set(0, 0, 10, 1, 1, 1);
+
+        assertEquals(9, a.intersectRay(0, 0, 0, 0, 0, 1, 100), 1e-5);
+        assertEquals("Ray too short", -1, a.intersectRay(0, 0, 0, 0, 0, 1, 5), 0);
+        assertEquals("Ray pointing away", -1, a.intersectRay(0, 0, 0, 0, 0, -1, 100), 0);
+        assertEquals("Parallel ray outside of the slab", -1, a.intersectRay(2, 0, 0, 0, 0, 1, 100), 0);
+        assertEquals("Origin inside", 0, a.intersectRay(0, 0, 10, 1, 0, 0, 100), 0);
+    }
+
+    @Test
+    public void testClassify() {
+        AABB a = new AABB().set(0, 0, 5, 1, 1, 1);
+
+        // plane z = 0, normal +z
+        assertEquals(1, a.classify(0, 0, 1, 0));
+        assertEquals(-1, a.classify(0, 0, -1, 0));
+        // plane z = 5
+        assertEquals(0, a.classify(0, 0, 1, -5));
+    }
+}
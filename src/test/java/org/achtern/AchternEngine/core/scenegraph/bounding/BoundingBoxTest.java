@@ -1,5 +1,7 @@
 package org.achtern.AchternEngine.core.scenegraph.bounding;
 
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.math.Quaternion;
 import org.achtern.AchternEngine.core.math.Vector3f;
 import org.junit.Test;
 
@@ -90,4 +92,50 @@ public class BoundingBoxTest {
         assertEquals(points, bb.toPoints());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testInclude() throws Exception {
+        BoundingBox bb1 = new BoundingBox(new Vector3f(3, 3, 1), new Vector3f(2, 2, 1));
+        BoundingBox bb2 = new BoundingBox(new Vector3f(-4, 2, 1), new Vector3f(1, 1, 1));
+
+        BoundingBox expected = new BoundingBox(new Vector3f(0, 3, 1), new Vector3f(5, 2, 1));
+
+        assertEquals(expected, bb1.include(bb2));
+    }
+
+    @Test
+    public void testTransform() throws Exception {
+        BoundingBox local = new BoundingBox(new Vector3f(1, 0, 0), new Vector3f(1, 2, 3));
+
+        Matrix4f m = new Matrix4f().initTranslation(10, 0, 0);
+        BoundingBox expected = new BoundingBox(new Vector3f(11, 0, 0), new Vector3f(1, 2, 3));
+        assertEquals(expected, new BoundingBox().transform(local, m));
+
+        // rotated by 90 degrees around y, x and z extents are swapped
+        m = new Matrix4f().initRotation(new Quaternion(new Vector3f(0, 1, 0), (float) Math.toRadians(90)));
+        BoundingBox rotated = new BoundingBox().transform(local, m);
+        assertEquals(3, rotated.getExtents().getX(), 1e-5);
+        assertEquals(2, rotated.getExtents().getY(), 1e-5);
+        assertEquals(1, rotated.getExtents().getZ(), 1e-5);
+        assertEquals(1, Math.abs(rotated.getCenter().getZ()), 1e-5);
+    }
+
+    @Test
+    public void testFromPositions() throws Exception {
+        float[] positions = {1, 2, 3, -1, 0, 1};
+
+        BoundingBox expected = new BoundingBox(new Vector3f(0, 1, 2), new Vector3f(1, 1, 1));
+        assertEquals(expected, new BoundingBox().fromPositions(positions, 0, 3, 2));
+    }
+
+    @Test
+    public void testCopyDoesNotShareVectors() throws Exception {
+        BoundingBox original = new BoundingBox(new Vector3f(0, 0, 0), new Vector3f(1, 1, 1));
+        BoundingBox copy = new BoundingBox(original);
+
+        copy.merge(new BoundingBox(new Vector3f(5, 0, 0), new Vector3f(1, 1, 1)));
+
+        assertEquals("Merging the copy should not touch the original",
+                new BoundingBox(new Vector3f(0, 0, 0), new Vector3f(1, 1, 1)), original);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.scenegraph.bounding;
+
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrustumTest {
+
+    private Frustum frustum;
+
+    @Before
+    public void setUp() {
+        // Looking down +z, near 1, far 100
+        frustum = new Frustum().set(new Matrix4f().initPerspective((float) Math.toRadians(90), 1, 1, 100));
+    }
+
+    @Test
+    public void testInside() {
+        assertTrue("Box in front of the camera should be visible",
+                frustum.intersects(new BoundingBox(new Vector3f(0, 0, 10), new Vector3f(1, 1, 1))));
+        assertTrue("Box intersecting the side plane should be visible",
+                frustum.intersects(new BoundingBox(new Vector3f(10.5f, 0, 10), new Vector3f(1, 1, 1))));
+    }
+
+    @Test
+    public void testOutside() {
+        assertFalse("Box behind the camera should be culled",
+                frustum.intersects(new BoundingBox(new Vector3f(0, 0, -10), new Vector3f(1, 1, 1))));
+        assertFalse("Box left of the frustum should be culled",
+                frustum.intersects(new BoundingBox(new Vector3f(-20, 0, 10), new Vector3f(1, 1, 1))));
+        assertFalse("Box above the frustum should be culled",
+                frustum.intersects(new BoundingBox(new Vector3f(0, 20, 10), new Vector3f(1, 1, 1))));
+    }
+
+    @Test
+    public void testNearFar() {
+        BoundingBox far = new BoundingBox(new Vector3f(0, 0, 200), new Vector3f(1, 1, 1));
+
+        assertFalse("Box behind the far plane should be culled", frustum.intersects(far));
+
+        frustum.setNearFar(false);
+        assertTrue("Without near/far test the box should be visible", frustum.intersects(far));
+    }
+
+    @Test
+    public void testSphere() {
+        assertTrue(frustum.intersects(new Vector3f(0, 0, 10), 1));
+        assertTrue("Sphere reaching into the frustum should be visible", frustum.intersects(new Vector3f(0, 0, -1), 3));
+        assertFalse(frustum.intersects(new Vector3f(0, 0, -10), 1));
+    }
+
+    @Test
+    public void testWithView() {
+        Matrix4f view = new Matrix4f().initTranslation(0, 0, -50);
+        Matrix4f vp = new Matrix4f().initPerspective((float) Math.toRadians(90), 1, 1, 100).mul(view);
+        frustum.set(vp);
+
+        assertFalse("Box is now behind the moved camera",
+                frustum.intersects(new BoundingBox(new Vector3f(0, 0, 10), new Vector3f(1, 1, 1))));
+        assertTrue(frustum.intersects(new BoundingBox(new Vector3f(0, 0, 60), new Vector3f(1, 1, 1))));
+    }
+}
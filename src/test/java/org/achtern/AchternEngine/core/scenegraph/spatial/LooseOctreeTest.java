@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.scenegraph.spatial;
+
+import org.achtern.AchternEngine.core.math.Matrix4f;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.scenegraph.bounding.BoundingBox;
+import org.achtern.AchternEngine.core.scenegraph.bounding.Frustum;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LooseOctreeTest {
+
+    private LooseOctree<String> octree;
+
+    @Before
+    public void setUp() {
+        octree = new LooseOctree<String>(new Vector3f(0, 0, 0), 100, 5);
+    }
+
+    private static BoundingBox box(float x, float y, float z, float extent) {
+        return new BoundingBox(new Vector3f(x, y, z), new Vector3f(extent, extent, extent));
+    }
+
+    @Test
+    public void testSphereQuery() {
+        octree.insert("near", box(1, 0, 0, 1));
+        octree.insert("far", box(50, 50, 50, 1));
+        octree.insert("big", box(-40, 0, 0, 39));
+
+        List<String> result = octree.query(new Vector3f(0, 0, 0), 2, new ArrayList<String>());
+
+        assertEquals(2, result.size());
+        assertTrue(result.contains("near"));
+        assertTrue("Big box reaching the origin should be found", result.contains("big"));
+    }
+
+    @Test
+    public void testBoxQuery() {
+        octree.insert("a", box(10, 10, 10, 1));
+        octree.insert("b", box(-10, -10, -10, 1));
+
+        List<String> result = octree.query(box(12, 10, 10, 1.5f), new ArrayList<String>());
+
+        assertEquals(1, result.size());
+        assertEquals("a", result.get(0));
+    }
+
+    @Test
+    public void testFrustumQuery() {
+        octree.insert("front", box(0, 0, 10, 1));
+        octree.insert("behind", box(0, 0, -10, 1));
+
+        Frustum frustum = new Frustum().set(new Matrix4f().initPerspective((float) Math.toRadians(90), 1, 1, 100));
+        List<String> result = octree.query(frustum, new ArrayList<String>());
+
+        assertEquals(1, result.size());
+        assertEquals("front", result.get(0));
+    }
+
+    @Test
+    public void testRaycast() {
+        octree.insert("hit", box(0, 0, 20, 1));
+        octree.insert("miss", box(5, 0, 20, 1));
+        octree.insert("tooFar", box(0, 0, 80, 1));
+
+        List<String> result = octree.raycast(new Vector3f(0, 0, 0), new Vector3f(0, 0, 1), 50, new ArrayList<String>());
+
+        assertEquals(1, result.size());
+        assertEquals("hit", result.get(0));
+    }
+
+    @Test
+    public void testUpdate() {
+        LooseOctree.Entry<String> entry = octree.insert("moving", box(10, 10, 10, 1));
+
+        octree.update(entry, box(-60, -60, -60, 1));
+
+        assertTrue("Old position should be empty",
+                octree.query(new Vector3f(10, 10, 10), 2, new ArrayList<String>()).isEmpty());
+        assertEquals(1, octree.query(new Vector3f(-60, -60, -60), 2, new ArrayList<String>()).size());
+        assertEquals(1, octree.getSize());
+    }
+
+    @Test
+    public void testOutsideRoot() {
+        LooseOctree.Entry<String> entry = octree.insert("outside", box(500, 0, 0, 1));
+
+        assertEquals("Items outside the root should still be found",
+                1, octree.query(new Vector3f(500, 0, 0), 2, new ArrayList<String>()).size());
+
+        octree.update(entry, box(0, 0, 0, 1));
+        assertEquals(1, octree.query(new Vector3f(0, 0, 0), 2, new ArrayList<String>()).size());
+        assertTrue(octree.query(new Vector3f(500, 0, 0), 2, new ArrayList<String>()).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        LooseOctree.Entry<String> a = octree.insert("a", box(1, 1, 1, 1));
+        octree.insert("b", box(1, 1, 1, 1));
+
+        assertTrue(octree.remove(a));
+        assertFalse("Removing twice should fail", octree.remove(a));
+
+        List<String> result = octree.query(new Vector3f(1, 1, 1), 1, new ArrayList<String>());
+        assertEquals(1, result.size());
+        assertEquals("b", result.get(0));
+        assertEquals(1, octree.getSize());
+
+        octree.clear();
+        assertEquals(0, octree.getSize());
+        assertTrue(octree.query(new Vector3f(1, 1, 1), 1, new ArrayList<String>()).isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.scenegraph.spatial;
+
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SceneIndexTest {
+
+    private Node root;
+    private SceneIndex index;
+
+    @Before
+    public void setUp() {
+        root = new Node("root");
+        index = new SceneIndex(root);
+    }
+
+    private Node place(String name, float x, float y, float z) {
+        Node node = new Node(name).add(new Figure(name, new Mesh(new Vertex[] {
+                new Vertex(new Vector3f(0, 0, 0)),
+                new Vertex(new Vector3f(1, 0, 0)),
+                new Vertex(new Vector3f(0, 1, 1))
+        }, new int[] {0, 1, 2})));
+        node.getTransform().setPosition(new Vector3f(x, y, z));
+        root.add(node);
+        return node;
+    }
+
+    @Test
+    public void testOnlyChangedFiguresMove() {
+        place("a", 0, 0, 0);
+        Node b = place("b", 50, 0, 0);
+
+        index.update();
+        assertEquals(2, index.size());
+        assertEquals("New figures get inserted", 2, index.getLastChanged());
+
+        index.update();
+        assertEquals("Unchanged figures are not touched", 0, index.getLastChanged());
+
+        b.getTransform().setPosition(new Vector3f(1, 0, 0));
+        index.update();
+        assertEquals("Only the moved figure is touched", 1, index.getLastChanged());
+
+        List<Figure> near = index.query(new Vector3f(0, 0, 0), 2, new ArrayList<Figure>());
+        assertEquals("Moved figure should be found at its new position", 2, near.size());
+
+        root.remove(b);
+        index.update();
+        assertEquals("Removed figures are dropped", 1, index.size());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.core.util;
+
+import org.junit.Test;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.junit.Assert.*;
+
+public class UBufferTest {
+
+    @Test
+    public void testScratchFloatBufferIsReused() {
+        FloatBuffer a = UBuffer.scratchFloatBuffer(16);
+        a.put(1);
+        FloatBuffer b = UBuffer.scratchFloatBuffer(4);
+
+        assertSame("Scratch buffer should be reused", a, b);
+        assertEquals("Scratch buffer should be cleared", 0, b.position());
+        assertEquals("Limit should match requested size", 4, b.limit());
+        assertTrue("Scratch buffer should be direct", b.isDirect());
+    }
+
+    @Test
+    public void testScratchGrows() {
+        long before = UBuffer.getAllocatedBytes();
+        FloatBuffer small = UBuffer.scratchFloatBuffer(16);
+        FloatBuffer big = UBuffer.scratchFloatBuffer(1000);
+
+        assertNotSame("Scratch buffer should grow", small, big);
+        assertEquals("Limit should match requested size", 1000, big.limit());
+        assertTrue("Growing should be counted", UBuffer.getAllocatedBytes() - before >= 4000);
+
+        long grown = UBuffer.getAllocatedBytes();
+        IntBuffer ints = UBuffer.scratchIntBuffer(1000);
+        assertEquals("Int view should share the grown memory", 1000, ints.limit());
+        assertEquals("Int view should not allocate", grown, UBuffer.getAllocatedBytes());
+    }
+
+    @Test
+    public void testScratchIsCapped() {
+        int huge = (1 << 18) + 1;
+        FloatBuffer a = UBuffer.scratchFloatBuffer(huge);
+        FloatBuffer b = UBuffer.scratchFloatBuffer(huge);
+
+        assertNotSame("Oversized requests should not be kept", a, b);
+        assertEquals("Limit should match requested size", huge, b.limit());
+        assertTrue("Scratch buffer should be direct", b.isDirect());
+        assertTrue("Arena should not have grown", UBuffer.scratchFloatBuffer(16).capacity() < huge);
+    }
+
+    @Test
+    public void testFrameCounter() {
+        UBuffer.endFrame();
+        UBuffer.createFloatBuffer(8);
+        UBuffer.createIntBuffer(2);
+
+        assertEquals("Frame should count allocated bytes", 40, UBuffer.endFrame());
+        assertEquals(40, UBuffer.getAllocatedBytesLastFrame());
+        assertEquals("Empty frame should count zero", 0, UBuffer.endFrame());
+    }
+}
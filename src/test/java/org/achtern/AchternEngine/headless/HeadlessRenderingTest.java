@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Christian Gärtner
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.achtern.AchternEngine.headless;
+
+import org.achtern.AchternEngine.core.bootstrap.CommonDrawStrategyFactoryPopulator;
+import org.achtern.AchternEngine.core.math.Vector3f;
+import org.achtern.AchternEngine.core.rendering.BasicRenderEngine;
+import org.achtern.AchternEngine.core.rendering.Color;
+import org.achtern.AchternEngine.core.rendering.Dimension;
+import org.achtern.AchternEngine.core.rendering.Material;
+import org.achtern.AchternEngine.core.rendering.Vertex;
+import org.achtern.AchternEngine.core.rendering.binding.DataBinder;
+import org.achtern.AchternEngine.core.rendering.mesh.Mesh;
+import org.achtern.AchternEngine.core.rendering.state.DepthFunction;
+import org.achtern.AchternEngine.core.rendering.state.Feature;
+import org.achtern.AchternEngine.core.scenegraph.Node;
+import org.achtern.AchternEngine.core.scenegraph.entity.Camera;
+import org.achtern.AchternEngine.core.scenegraph.entity.Figure;
+import org.achtern.AchternEngine.core.scenegraph.entity.renderpasses.light.AmbientLight;
+import org.achtern.AchternEngine.headless.bootstrap.HeadlessGraphicsBindingProvider;
+import org.achtern.AchternEngine.headless.recording.Command;
+import org.achtern.AchternEngine.headless.recording.CommandLog;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HeadlessRenderingTest {
+
+    private HeadlessGraphicsBindingProvider provider;
+    private CommandLog log;
+
+    @Before
+    public void setUp() {
+        provider = new HeadlessGraphicsBindingProvider();
+        provider.getWindow(new Dimension(800, 600));
+        log = provider.getLog();
+    }
+
+    private static Mesh triangle() {
+        return new Mesh(new Vertex[] {
+                new Vertex(new Vector3f(0, 0, 0)),
+                new Vertex(new Vector3f(1, 0, 0)),
+                new Vertex(new Vector3f(0, 1, 0))
+        }, new int[] {0, 1, 2});
+    }
+
+    @Test
+    public void testLazyMeshUpload() {
+        DataBinder binder = provider.getDataBinder();
+        Mesh mesh = triangle();
+
+        binder.draw(mesh);
+        binder.draw(mesh);
+
+        assertEquals("Mesh should be uploaded once", 1, log.count(Command.UPLOAD_MESH));
+        assertEquals(2, log.getDrawCalls());
+        assertEquals("Vertices and indices", (3 * Vertex.SIZE + 3) * 4, log.getUploadedBytes());
+        assertEquals(Command.DRAW, log.getCommand(log.size() - 1));
+        assertEquals("Index count", 3, log.getArgument(log.size() - 1));
+    }
+
+    @Test
+    public void testRedundantState() {
+        provider.getRenderEngineState().enable(Feature.BLEND);
+        provider.getRenderEngineState().enable(Feature.BLEND);
+        provider.getRenderEngineState().setDepthFunction(DepthFunction.LESS);
+
+        assertEquals(1, log.getStateChanges());
+        assertEquals(2, log.getRedundantStateChanges());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testThrowUnchanged() {
+        new HeadlessGraphicsBindingProvider(true).getRenderEngineState().setDepthFunction(DepthFunction.LESS);
+    }
+
+    @Test
+    public void testCapacity() {
+        log.setCapacity(2);
+        for (int i = 0; i < 5; i++) {
+            log.record(Command.DRAW, i);
+        }
+
+        assertEquals(2, log.size());
+        assertEquals(3, log.getDropped());
+        assertEquals("Counters ignore the capacity", 5, log.getDrawCalls());
+
+        log.reset();
+        assertEquals(0, log.size());
+        assertEquals(0, log.getDrawCalls());
+    }
+
+    @Test
+    public void testRenderScene() {
+        CommonDrawStrategyFactoryPopulator.populate();
+        BasicRenderEngine engine = new BasicRenderEngine(provider);
+
+        Camera camera = new Camera();
+        new Node("camera").add(camera);
+        engine.setCamera(camera);
+        engine.addRenderPass(new AmbientLight(Color.WHITE));
+
+        Material material = new Material();
+        Node scene = new Node("scene");
+        for (int i = 0; i < 3; i++) {
+            Node node = new Node("figure" + i).add(new Figure("figure" + i, triangle(), material));
+            node.getTransform().setPosition(new Vector3f(i, 0, 5));
+            scene.add(node);
+        }
+
+        engine.render(scene);
+        assertTrue("Uniforms should be set", log.getUniformUploads() > 0);
+        log.reset();
+        engine.render(scene);
+
+        assertEquals("Nothing left to upload in the second frame", 0, log.getUploads() - log.count(Command.UPLOAD_INSTANCES));
+        assertEquals("One draw per figure", 3, log.getDrawCalls());
+        assertEquals("Figures of instancing shaders are always drawn instanced", 3, log.count(Command.DRAW_INSTANCED));
+    }
+}